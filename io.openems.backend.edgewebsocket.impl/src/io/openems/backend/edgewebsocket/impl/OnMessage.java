@@ -12,6 +12,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
 import io.openems.backend.metadata.api.Edge;
+import io.openems.backend.uiwebsocket.api.UiWebsocketService;
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.utils.JsonUtils;
 import io.openems.common.utils.StringUtils;
@@ -68,7 +69,8 @@ public class OnMessage extends AbstractOnMessage {
 		int[] edgeIds = attachment.getEdgeIds();
 		if (edgeIds.length == 0) {
 			log.warn("Websocket was not fully handled by OnOpen yet. Apikey [" + attachment.getApikey() + "]");
-			this.parent.executorTryAgain(this);
+			this.parent.executorTryAgain(this.websocket, this);
+			return;
 		}
 
 		// set last update timestamps in MetadataService
@@ -155,6 +157,14 @@ public class OnMessage extends AbstractOnMessage {
 				log.error("Unable to write Timedata: " + e.getClass().getSimpleName() + ": " + e.getMessage());
 			}
 
+			/*
+			 * notify current data subscriptions
+			 */
+			UiWebsocketService uiWebsocketService = this.parent.parent.uiWebsocketService;
+			if (uiWebsocketService != null) {
+				uiWebsocketService.handleEdgeData(edgeId);
+			}
+
 			for (Entry<String, JsonElement> jTimedataEntry : jTimedata.entrySet()) {
 				try {
 					JsonObject jChannels = JsonUtils.getAsJsonObject(jTimedataEntry.getValue());
@@ -21,17 +21,21 @@ public class Edge {
 
 	private final int id;
 	private final String apikey;
-	private String name;
-	private String comment;
-	private State state;
-	private String version;
-	private String producttype;
-	private JsonObject jConfig;
-	private ZonedDateTime lastMessage = null;
-	private ZonedDateTime lastUpdate = null;
-	private Integer soc = null;
-	private String ipv4 = null;
-	private boolean isOnline;
+	/*
+	 * Fields are updated by the Metadata sync and by the Edge connections and read
+	 * by other threads
+	 */
+	private volatile String name;
+	private volatile String comment;
+	private volatile State state;
+	private volatile String version;
+	private volatile String producttype;
+	private volatile JsonObject jConfig;
+	private volatile ZonedDateTime lastMessage = null;
+	private volatile ZonedDateTime lastUpdate = null;
+	private volatile Integer soc = null;
+	private volatile String ipv4 = null;
+	private volatile boolean isOnline;
 
 	public Edge(int id, String apikey, String name, String comment, State state, String version, String producttype,
 			JsonObject jConfig, Integer soc, String ipv4) {
@@ -59,6 +63,18 @@ public class Edge {
 		return name;
 	}
 
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getComment() {
+		return comment;
+	}
+
+	public void setComment(String comment) {
+		this.comment = comment;
+	}
+
 	public JsonObject getConfig() {
 		return this.jConfig;
 	}
@@ -71,6 +87,10 @@ public class Edge {
 		return producttype;
 	}
 
+	public void setProducttype(String producttype) {
+		this.producttype = producttype;
+	}
+
 	public JsonObject toJsonObject() {
 		JsonObject j = new JsonObject();
 		j.addProperty("id", this.id);
@@ -15,7 +15,9 @@ public interface Field {
 		LAST_MESSAGE("lastmessage"), //
 		LAST_UPDATE("lastupdate"), //
 		SOC("soc"), //
-		IPV4("ipv4");
+		IPV4("ipv4"), //
+		WRITE_DATE("write_date"), //
+		WRITE_UID("write_uid");
 
 		private final String n;
 
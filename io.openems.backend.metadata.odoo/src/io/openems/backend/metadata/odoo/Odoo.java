@@ -8,13 +8,20 @@ import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -48,9 +55,37 @@ public class Odoo implements MetadataService {
 
 	private final Logger log = LoggerFactory.getLogger(Odoo.class);
 	private final int READ_BATCH_SIZE = 100;
+	private final static int SYNC_INTERVAL_IN_SECONDS = 5 * 60;
+	private final static int SYNC_OVERLAP_IN_SECONDS = 10;
+	/**
+	 * Every n-th sync reads all Edges, not only the ones changed by other users.
+	 */
+	private final static int COMPLETE_SYNC_EVERY = 12;
+	private final static Field[] FULL_FIELDS = new Field[] { Field.FemsDevice.ID, Field.FemsDevice.APIKEY,
+			Field.FemsDevice.NAME, Field.FemsDevice.COMMENT, Field.FemsDevice.OPENEMS_VERSION,
+			Field.FemsDevice.PRODUCT_TYPE, Field.FemsDevice.OPENEMS_CONFIG, Field.FemsDevice.SOC,
+			Field.FemsDevice.IPV4, Field.FemsDevice.STATE };
+	/**
+	 * Fields that are read on incremental sync. Values that are reported by the
+	 * Edge itself are skipped.
+	 */
+	private final static Field[] SYNC_FIELDS = new Field[] { Field.FemsDevice.ID, Field.FemsDevice.APIKEY,
+			Field.FemsDevice.NAME, Field.FemsDevice.COMMENT, Field.FemsDevice.PRODUCT_TYPE, Field.FemsDevice.STATE };
 	private final AtomicBoolean isInitialized = new AtomicBoolean(false);
-	private final ExecutorService readEdgeExecutor = Executors.newSingleThreadExecutor();
+	private final ScheduledExecutorService readEdgeExecutor = Executors.newSingleThreadScheduledExecutor();
 	private Future<?> readEdgeFuture = null;
+	private Future<?> syncEdgeFuture = null;
+
+	/**
+	 * Odoo 'write_date' of the last successful sync.
+	 */
+	private volatile String lastSync = null;
+
+	/**
+	 * Number of incremental syncs since the last complete sync; only accessed by
+	 * the sync thread.
+	 */
+	private int incrementalSyncs = 0;
 
 	protected String url;
 	protected String database;
@@ -58,7 +93,12 @@ public class Odoo implements MetadataService {
 	protected String password;
 
 	private Map<Integer, User> users = new HashMap<>();
-	private Map<Integer, Edge> edges = new HashMap<>();
+	private final Map<Integer, Edge> edges = new ConcurrentHashMap<>();
+	/**
+	 * Index of Edge-IDs by apikey. Maintained together with 'edges' via
+	 * putEdge() and removeDeletedEdges().
+	 */
+	private final Map<String, Set<Integer>> edgeIdsByApikey = new ConcurrentHashMap<>();
 	private OdooWriteWorker writeWorker;
 
 	@Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
@@ -77,130 +117,275 @@ public class Odoo implements MetadataService {
 			/*
 			 * Initialize Edge map
 			 */
-			int[] edgeIds;
+			this.syncEdges();
+		});
+		this.syncEdgeFuture = this.readEdgeExecutor.scheduleWithFixedDelay(() -> {
+			/*
+			 * Regularly read Edges that were changed in Odoo since the last sync
+			 */
+			this.syncEdges();
+		}, SYNC_INTERVAL_IN_SECONDS, SYNC_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Synchronizes the cache with Odoo: reads all Edges on the first sync and
+	 * afterwards only the Edges that were changed since the last successful sync.
+	 * Edges that were deleted in Odoo are removed from the cache.
+	 * 
+	 * <p>
+	 * Changes that were written by this backend itself - like LastMessage or SoC
+	 * via the {@link OdooWriteWorker} - are not considered, as they would match
+	 * nearly all online Edges. A change by another user that is followed by such
+	 * a write before the next sync is caught by the regular complete sync.
+	 */
+	private void syncEdges() {
+		String syncStart = this.getSyncTimestamp();
+		String lastSync = this.lastSync;
+		int[] allEdgeIds;
+		int[] changedEdgeIds;
+		try {
+			allEdgeIds = OdooUtils.search(this.url, this.database, this.uid, this.password, "fems.device");
+			if (lastSync == null || this.incrementalSyncs >= COMPLETE_SYNC_EVERY) {
+				changedEdgeIds = allEdgeIds;
+				this.incrementalSyncs = 0;
+			} else {
+				changedEdgeIds = OdooUtils.search(this.url, this.database, this.uid, this.password, "fems.device",
+						new Domain(Field.FemsDevice.WRITE_DATE.n(), ">=", lastSync),
+						new Domain(Field.FemsDevice.WRITE_UID.n(), "!=", this.uid));
+				this.incrementalSyncs++;
+			}
+		} catch (OpenemsException e) {
+			log.error("Unable to search Edges from Odoo: " + e.getMessage());
+			return;
+		}
+		this.removeDeletedEdges(allEdgeIds);
+		boolean isSuccessful = this.readEdges(changedEdgeIds, lastSync == null ? FULL_FIELDS : SYNC_FIELDS);
+		if (isSuccessful) {
+			this.lastSync = syncStart;
+		} else {
+			log.warn("Odoo: sync was incomplete. Edges are read again with the next sync.");
+		}
+		this.isInitialized.set(true);
+	}
+
+	/**
+	 * Removes Edges from the cache and the apikey index that do not exist in Odoo
+	 * anymore.
+	 *
+	 * @param edgeIds the Odoo IDs of all existing Edges
+	 */
+	private void removeDeletedEdges(int[] edgeIds) {
+		Set<Integer> existingEdgeIds = Arrays.stream(edgeIds).boxed().collect(Collectors.toSet());
+		for (Edge edge : this.edges.values()) {
+			if (!existingEdgeIds.contains(edge.getId()) && this.edges.remove(edge.getId(), edge)) {
+				this.removeFromApikeyIndex(edge);
+				log.info("Odoo: remove deleted Edge [" + edge.getId() + "] from cache");
+			}
+		}
+	}
+
+	/**
+	 * Reads the given Edges from Odoo in batches and updates the cache.
+	 *
+	 * @param edgeIds the Odoo IDs of the Edges
+	 * @param fields  the fields that should be read
+	 * @return false if any Edge could not be read
+	 */
+	private boolean readEdges(int[] edgeIds, Field[] fields) {
+		boolean isSuccessful = true;
+		for (int firstIndex = 0; firstIndex < edgeIds.length; firstIndex += READ_BATCH_SIZE) {
+			/*
+			 * read batches of 100 Edges
+			 */
+			int lastIndex = Math.min(firstIndex + READ_BATCH_SIZE, edgeIds.length);
+			Integer[] batchEdgeIds = new Integer[lastIndex - firstIndex];
+			for (int i = 0; i < batchEdgeIds.length; i++) {
+				batchEdgeIds[i] = edgeIds[firstIndex + i];
+			}
+			Map<String, Object>[] edgeMaps;
 			try {
-				edgeIds = OdooUtils.search(this.url, this.database, this.uid, this.password, "fems.device");
+				edgeMaps = OdooUtils.readMany(this.url, this.database, this.uid, this.password, "fems.device", //
+						batchEdgeIds, fields);
 			} catch (OpenemsException e) {
-				log.error("Unable to search Edges from Odoo: " + e.getMessage());
-				e.printStackTrace();
-				return;
+				log.error("Unable to read Edges from Odoo: " + e.getMessage());
+				isSuccessful = false;
+				continue;
 			}
-			for (int firstIndex = 0; firstIndex < edgeIds.length; firstIndex += READ_BATCH_SIZE) {
-				/*
-				 * read batches of 100 Edges
-				 */
-				int lastIndex = firstIndex + READ_BATCH_SIZE - 1 > edgeIds.length ? edgeIds.length
-						: firstIndex + READ_BATCH_SIZE - 1;
-				Integer[] batchEdgeIds = new Integer[lastIndex - firstIndex + 1];
-				for (int i = 0; i <= lastIndex - firstIndex; i++) {
-					batchEdgeIds[i] = edgeIds[firstIndex + i];
-				}
-				Map<String, Object>[] edgeMaps;
-				try {
-					edgeMaps = OdooUtils.readMany(this.url, this.database, this.uid, this.password, "fems.device", //
-							batchEdgeIds, //
-							new Field[] { Field.FemsDevice.ID, Field.FemsDevice.APIKEY, Field.FemsDevice.NAME,
-									Field.FemsDevice.COMMENT, Field.FemsDevice.OPENEMS_VERSION,
-									Field.FemsDevice.PRODUCT_TYPE, Field.FemsDevice.OPENEMS_CONFIG,
-									Field.FemsDevice.SOC, Field.FemsDevice.IPV4, Field.FemsDevice.STATE });
-				} catch (OpenemsException e) {
-					log.error("Unable to read Edges from Odoo: " + e.getMessage());
-					e.printStackTrace();
-					continue;
-				}
-				/*
-				 * parse fields from Odoo
-				 */
-				for (Map<String, Object> edgeMap : edgeMaps) {
-					Integer edgeId = OdooUtils.getAsInteger(edgeMap.get(Field.FemsDevice.ID.n()));
-					try {
-						String openemsConfig = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.OPENEMS_CONFIG.n()));
-						JsonObject jOpenemsConfig;
-						if (openemsConfig.isEmpty()) {
-							jOpenemsConfig = new JsonObject();
-						} else {
-							jOpenemsConfig = JsonUtils.getAsJsonObject(JsonUtils.parse(openemsConfig));
-						}
-						String apikey = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.APIKEY.n()));
-						String name = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.NAME.n()));
-						String comment = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.COMMENT.n()));
-						String openemsVersion = OdooUtils
-								.getAsString(edgeMap.get(Field.FemsDevice.OPENEMS_VERSION.n()));
-						String productType = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.PRODUCT_TYPE.n()));
-						String initialIpv4 = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.IPV4.n()));
-						Integer initialSoc = OdooUtils.getAsInteger(edgeMap.get(Field.FemsDevice.SOC.n()));
-						// parse State
-						String stateString = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.STATE.n()));
-						State state;
-						try {
-							state = State.valueOf(stateString.toUpperCase());
-						} catch (IllegalArgumentException e) {
-							log.warn("Edge [" + name + "]. Unable to get State from [" + stateString + "]: "
-									+ e.getMessage());
-							state = State.INACTIVE; // Default
-						}
-						/*
-						 * Create instance of Edge and register listeners
-						 */
-						Edge edge = new Edge( //
-								edgeId, //
-								apikey, //
-								name, //
-								comment, //
-								state, //
-								openemsVersion, //
-								productType, //
-								jOpenemsConfig, //
-								initialSoc, //
-								initialIpv4);
-						edge.onSetOnline(isOnline -> {
-							if (isOnline && edge.getState().equals(State.INACTIVE)) {
-								// Update Edge state to active
-								log.info("Mark Edge [" + edge.getId() + "] as ACTIVE. It was [" + edge.getState().name()
-										+ "]");
-								edge.setState(State.ACTIVE);
-								this.write(edge, new FieldValue(Field.FemsDevice.STATE, "active"));
-							}
-						});
-						edge.onSetConfig(jConfig -> {
-							// Update Edge config in Odoo
-							String conf = new GsonBuilder().setPrettyPrinting().create().toJson(jConfig);
-							this.write(edge, new FieldValue(Field.FemsDevice.OPENEMS_CONFIG, conf));
-						});
-						edge.onSetLastMessage(() -> {
-							// Set LastMessage timestamp in Odoo
-							this.writeWorker.onLastMessage(edgeId);
-						});
-						edge.onSetLastUpdate(() -> {
-							// Set LastUpdate timestamp in Odoo
-							this.writeWorker.onLastUpdate(edgeId);
-						});
-						edge.onSetVersion(version -> {
-							// Set Version in Odoo
-							this.write(edge, new FieldValue(Field.FemsDevice.OPENEMS_VERSION, version));
-						});
-						edge.onSetSoc(soc -> {
-							// Set SoC in Odoo
-							this.write(edge, new FieldValue(Field.FemsDevice.SOC, String.valueOf(soc)));
-						});
-						edge.onSetIpv4(ipv4 -> {
-							// Set IPv4 in Odoo
-							this.write(edge, new FieldValue(Field.FemsDevice.IPV4, String.valueOf(ipv4)));
-						});
-						edge.setOnline(this.edgeWebsocketService.isOnline(edge.getId()));
+			for (Map<String, Object> edgeMap : edgeMaps) {
+				isSuccessful &= this.updateEdge(edgeMap);
+			}
+			log.info("Odoo: add batch from [" + firstIndex + "] to [" + (lastIndex - 1) + "] to cache");
+		}
+		return isSuccessful;
+	}
 
-						// store in cache
-						synchronized (this.edges) {
-							this.edges.put(edgeId, edge);
-						}
-					} catch (OpenemsException e) {
-						log.error("Unable to read Edge [ID:" + edgeId + "]: " + e.getMessage());
-					}
-				}
-				log.info("Odoo: add batch from [" + firstIndex + "] to [" + lastIndex + "] to cache");
+	/**
+	 * Updates an existing Edge in the cache from the fields read from Odoo; or
+	 * creates a new Edge if it is not existing yet or if its apikey changed.
+	 *
+	 * @param edgeMap the fields read from Odoo
+	 * @return false if the complete Edge could not be read from Odoo
+	 */
+	private boolean updateEdge(Map<String, Object> edgeMap) {
+		Integer edgeId = OdooUtils.getAsInteger(edgeMap.get(Field.FemsDevice.ID.n()));
+		if (edgeId == null) {
+			return true;
+		}
+		Edge existingEdge = this.edges.get(edgeId);
+		String apikey = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.APIKEY.n()));
+		if (existingEdge != null && apikey.equals(existingEdge.getApikey())) {
+			/*
+			 * Update existing Edge. Fields that are reported by the Edge itself (Version,
+			 * Config, SoC, IPv4) are not overwritten.
+			 */
+			existingEdge.setName(OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.NAME.n())));
+			existingEdge.setComment(OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.COMMENT.n())));
+			existingEdge.setProducttype(OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.PRODUCT_TYPE.n())));
+			existingEdge.setState(this.parseState(existingEdge.getName(), edgeMap));
+			return true;
+		}
+		if (!edgeMap.containsKey(Field.FemsDevice.OPENEMS_CONFIG.n())) {
+			// not all fields were read (incremental sync) -> read the complete Edge
+			return this.readEdges(new int[] { edgeId }, FULL_FIELDS);
+		}
+		try {
+			this.putEdge(this.createEdge(edgeId, apikey, edgeMap));
+		} catch (OpenemsException e) {
+			// invalid data in Odoo; reading it again would not help
+			log.error("Unable to read Edge [ID:" + edgeId + "]: " + e.getMessage());
+		}
+		return true;
+	}
+
+	/**
+	 * Creates an instance of Edge and registers listeners.
+	 *
+	 * @param edgeId  the Odoo ID of the Edge
+	 * @param apikey  the apikey of the Edge
+	 * @param edgeMap the fields read from Odoo
+	 * @return the Edge
+	 * @throws OpenemsException on error
+	 */
+	private Edge createEdge(int edgeId, String apikey, Map<String, Object> edgeMap) throws OpenemsException {
+		/*
+		 * parse fields from Odoo
+		 */
+		String openemsConfig = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.OPENEMS_CONFIG.n()));
+		JsonObject jOpenemsConfig;
+		if (openemsConfig.isEmpty()) {
+			jOpenemsConfig = new JsonObject();
+		} else {
+			jOpenemsConfig = JsonUtils.getAsJsonObject(JsonUtils.parse(openemsConfig));
+		}
+		String name = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.NAME.n()));
+		String comment = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.COMMENT.n()));
+		String openemsVersion = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.OPENEMS_VERSION.n()));
+		String productType = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.PRODUCT_TYPE.n()));
+		String initialIpv4 = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.IPV4.n()));
+		Integer initialSoc = OdooUtils.getAsInteger(edgeMap.get(Field.FemsDevice.SOC.n()));
+		State state = this.parseState(name, edgeMap);
+		/*
+		 * Create instance of Edge and register listeners
+		 */
+		Edge edge = new Edge( //
+				edgeId, //
+				apikey, //
+				name, //
+				comment, //
+				state, //
+				openemsVersion, //
+				productType, //
+				jOpenemsConfig, //
+				initialSoc, //
+				initialIpv4);
+		edge.onSetOnline(isOnline -> {
+			if (isOnline && edge.getState().equals(State.INACTIVE)) {
+				// Update Edge state to active
+				log.info("Mark Edge [" + edge.getId() + "] as ACTIVE. It was [" + edge.getState().name() + "]");
+				edge.setState(State.ACTIVE);
+				this.write(edge, new FieldValue(Field.FemsDevice.STATE, "active"));
 			}
-			this.isInitialized.set(true);
 		});
+		edge.onSetConfig(jConfig -> {
+			// Update Edge config in Odoo
+			String conf = new GsonBuilder().setPrettyPrinting().create().toJson(jConfig);
+			this.write(edge, new FieldValue(Field.FemsDevice.OPENEMS_CONFIG, conf));
+		});
+		edge.onSetLastMessage(() -> {
+			// Set LastMessage timestamp in Odoo
+			this.writeWorker.onLastMessage(edgeId);
+		});
+		edge.onSetLastUpdate(() -> {
+			// Set LastUpdate timestamp in Odoo
+			this.writeWorker.onLastUpdate(edgeId);
+		});
+		edge.onSetVersion(version -> {
+			// Set Version in Odoo
+			this.write(edge, new FieldValue(Field.FemsDevice.OPENEMS_VERSION, version));
+		});
+		edge.onSetSoc(soc -> {
+			// Set SoC in Odoo
+			this.write(edge, new FieldValue(Field.FemsDevice.SOC, String.valueOf(soc)));
+		});
+		edge.onSetIpv4(ipv4 -> {
+			// Set IPv4 in Odoo
+			this.write(edge, new FieldValue(Field.FemsDevice.IPV4, String.valueOf(ipv4)));
+		});
+		EdgeWebsocketService edgeWebsocketService = this.edgeWebsocketService;
+		if (edgeWebsocketService != null) {
+			edge.setOnline(edgeWebsocketService.isOnline(edge.getId()));
+		}
+		return edge;
+	}
+
+	private State parseState(String name, Map<String, Object> edgeMap) {
+		String stateString = OdooUtils.getAsString(edgeMap.get(Field.FemsDevice.STATE.n()));
+		try {
+			return State.valueOf(stateString.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			log.warn("Edge [" + name + "]. Unable to get State from [" + stateString + "]: " + e.getMessage());
+			return State.INACTIVE; // Default
+		}
+	}
+
+	/**
+	 * Stores the Edge in the cache and updates the apikey index.
+	 *
+	 * @param edge the Edge
+	 */
+	private void putEdge(Edge edge) {
+		Edge[] oldEdge = new Edge[1];
+		Edge currentEdge = this.edges.compute(edge.getId(), (edgeId, existingEdge) -> {
+			if (existingEdge != null && existingEdge.getApikey().equals(edge.getApikey())) {
+				// keep the instance that was added concurrently
+				return existingEdge;
+			}
+			oldEdge[0] = existingEdge;
+			return edge;
+		});
+		if (oldEdge[0] != null) {
+			this.removeFromApikeyIndex(oldEdge[0]);
+		}
+		this.edgeIdsByApikey.computeIfAbsent(currentEdge.getApikey(), apikey -> ConcurrentHashMap.newKeySet())
+				.add(currentEdge.getId());
+	}
+
+	private void removeFromApikeyIndex(Edge edge) {
+		this.edgeIdsByApikey.computeIfPresent(edge.getApikey(), (apikey, edgeIds) -> {
+			edgeIds.remove(edge.getId());
+			return edgeIds.isEmpty() ? null : edgeIds;
+		});
+	}
+
+	/**
+	 * Gets the current time in Odoo format. The time is taken a few seconds early
+	 * to cover changes that are written while the sync is running.
+	 *
+	 * @return the timestamp
+	 */
+	private String getSyncTimestamp() {
+		return OdooUtils.DATETIME_FORMATTER
+				.format(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(SYNC_OVERLAP_IN_SECONDS));
 	}
 
 	@Deactivate
@@ -208,6 +393,7 @@ public class Odoo implements MetadataService {
 		log.info("Deactivate Metadata.Odoo");
 		this.writeWorker.dispose();
 		this.readEdgeFuture.cancel(true);
+		this.syncEdgeFuture.cancel(true);
 		this.readEdgeExecutor.shutdown();
 		this.isInitialized.set(false);
 	}
@@ -271,12 +457,9 @@ public class Odoo implements MetadataService {
 					JsonArray jDevices = JsonUtils.getAsJsonArray(jResult, "devices");
 					for (JsonElement jDevice : jDevices) {
 						int edgeId = JsonUtils.getAsInt(jDevice, "id");
-						Optional<Edge> edgeOpt = this.getEdgeOpt(edgeId);
-						if (edgeOpt.isPresent()) {
-							Edge edge = edgeOpt.get();
-							synchronized (this.edges) {
-								this.edges.putIfAbsent(edge.getId(), edge);
-							}
+						if (!this.edges.containsKey(edgeId)) {
+							// Edge is not yet in the cache -> read it; this updates the apikey index, too
+							this.readEdges(new int[] { edgeId }, FULL_FIELDS);
 						}
 						user.addEdgeRole(edgeId, Role.getRole(JsonUtils.getAsString(jDevice, "role")));
 					}
@@ -298,19 +481,33 @@ public class Odoo implements MetadataService {
 
 	@Override
 	public int[] getEdgeIdsForApikey(String apikey) {
-		synchronized (this.edges) {
-			return this.edges.values().stream().filter(edge -> apikey.equals(edge.getApikey()))
-					.mapToInt(edge -> edge.getId()).toArray();
+		Set<Integer> edgeIds = this.edgeIdsByApikey.get(apikey);
+		if (edgeIds == null && !this.isInitialized.get()) {
+			/*
+			 * Cache is still being filled (e.g. after a restart) -> read this Edge from
+			 * Odoo directly, so that it does not need to wait for the complete cache.
+			 */
+			try {
+				int[] odooEdgeIds = OdooUtils.search(this.url, this.database, this.uid, this.password, "fems.device",
+						new Domain(Field.FemsDevice.APIKEY.n(), "=", apikey));
+				this.readEdges(odooEdgeIds, FULL_FIELDS);
+			} catch (OpenemsException e) {
+				log.warn("Unable to search Edge for Apikey from Odoo: " + e.getMessage());
+			}
+			edgeIds = this.edgeIdsByApikey.get(apikey);
+		}
+		if (edgeIds == null) {
+			return new int[0];
 		}
+		return edgeIds.stream().mapToInt(Integer::intValue).toArray();
 	}
 
 	@Override
 	public Optional<Edge> getEdgeOpt(int edgeId) {
 		// try to read from cache
-		synchronized (this.edges) {
-			if (this.edges.containsKey(edgeId)) {
-				return Optional.of(this.edges.get(edgeId));
-			}
+		Edge edge = this.edges.get(edgeId);
+		if (edge != null) {
+			return Optional.of(edge);
 		}
 		// if it was not in cache:
 		if (this.isInitialized.get()) {
@@ -327,13 +524,14 @@ public class Odoo implements MetadataService {
 		}
 	}
 
+	/**
+	 * Writes the value to the Edge in Odoo. The write is buffered by the
+	 * {@link OdooWriteWorker}.
+	 *
+	 * @param edge       the Edge
+	 * @param fieldValue the Field and value
+	 */
 	private void write(Edge edge, FieldValue fieldValue) {
-		try {
-			OdooUtils.write(this.url, this.database, this.uid, this.password, "fems.device",
-					new Integer[] { edge.getId() }, fieldValue);
-		} catch (OpenemsException e) {
-			log.error("Unable to update Edge [ID:" + edge.getName() + "] field [" + fieldValue.getField().n() + "] : "
-					+ e.getMessage());
-		}
+		this.writeWorker.write(edge.getId(), fieldValue);
 	}
 }
@@ -2,12 +2,22 @@ package io.openems.backend.metadata.odoo;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,9 +25,16 @@ import org.slf4j.LoggerFactory;
 import io.openems.common.exceptions.OpenemsException;
 
 /**
- * This worker combines writes to lastMessage and lastUpdate fields, to avoid
- * DDOSing Odoo by writing too often.
- * 
+ * This worker buffers writes to Odoo, to avoid DDOSing Odoo by writing too
+ * often.
+ *
+ * <p>
+ * Only the latest value per Edge and Field is kept. On flush all Edges that
+ * have the same value for a Field are written with one request. A flush
+ * happens regularly and as soon as more than {@link #MAX_PENDING_WRITES}
+ * values are waiting. Changes of Fields that are visible to users (see
+ * {@link #IMMEDIATE_FIELDS}) trigger a flush immediately.
+ *
  * @author stefan.feilmeier
  *
  */
@@ -26,73 +43,166 @@ public class OdooWriteWorker {
 	private final Logger log = LoggerFactory.getLogger(OdooWriteWorker.class);
 
 	protected final static int UPDATE_INTERVAL_IN_SECONDS = 60;
+	protected final static int MAX_PENDING_WRITES = 1000;
 
-	public OdooWriteWorker(Odoo parent) {
-		this.future = this.executor.scheduleWithFixedDelay(() -> {
-			/*
-			 * This task is executed regularly. Sends data to websocket.
-			 */
-			String time = OdooUtils.DATETIME_FORMATTER.format(ZonedDateTime.now(ZoneOffset.UTC));
-			{
-				Integer[] ids;
-				synchronized (this.lastMessageIds) {
-					ids = this.lastMessageIds.toArray(new Integer[this.lastMessageIds.size()]);
-					this.lastMessageIds.clear();
-				}
-				if (ids.length > 0) {
-					try {
-						OdooUtils.write(parent.url, parent.database, parent.uid, parent.password, "fems.device", ids,
-								new FieldValue(Field.FemsDevice.LAST_MESSAGE, time));
-					} catch (OpenemsException e) {
-						log.error("Unable to write lastMessage to ids [" + ids + "]: " + e.getMessage());
-					}
-				}
-			}
-			{
-				Integer[] ids;
-				synchronized (this.lastUpdateIds) {
-					ids = this.lastUpdateIds.toArray(new Integer[this.lastUpdateIds.size()]);
-					this.lastUpdateIds.clear();
-				}
-				if (ids.length > 0) {
-					try {
-						OdooUtils.write(parent.url, parent.database, parent.uid, parent.password, "fems.device", ids,
-								new FieldValue(Field.FemsDevice.LAST_UPDATE, time));
-					} catch (OpenemsException e) {
-						log.error("Unable to write lastUpdate to ids [" + ids + "]: " + e.getMessage());
-					}
-				}
-			}
-		}, 0, UPDATE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+	/**
+	 * Fields that are visible to users; writing them triggers a flush
+	 * immediately.
+	 */
+	private final static Set<Field> IMMEDIATE_FIELDS = new HashSet<>(Arrays.asList(Field.FemsDevice.STATE,
+			Field.FemsDevice.OPENEMS_CONFIG, Field.FemsDevice.OPENEMS_VERSION));
+
+	/**
+	 * A value that is waiting to be written. Every added value is a new instance,
+	 * so a value that was replaced in the meantime is detected by identity.
+	 */
+	private static class PendingValue {
+
+		/**
+		 * Marks fields that are set to the time of the flush.
+		 */
+		private final static PendingValue NOW = new PendingValue(null);
+
+		private final String value;
+
+		private PendingValue(String value) {
+			this.value = value;
+		}
+
+		private String resolve(String now) {
+			return this == NOW ? now : this.value;
+		}
 	}
 
+	private final Odoo parent;
+
 	/**
-	 * Executor for subscriptions task
+	 * Executor for the flush task
 	 */
 	private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
 
-	private final Set<Integer> lastMessageIds = new HashSet<>();
-	private final Set<Integer> lastUpdateIds = new HashSet<>();
+	/**
+	 * Holds the latest value per Field and Edge-ID.
+	 */
+	private final Map<Field, Map<Integer, PendingValue>> pending = new ConcurrentHashMap<>();
+	private final AtomicInteger pendingCount = new AtomicInteger(0);
+	private final AtomicBoolean isFlushTriggered = new AtomicBoolean(false);
 
 	/**
 	 * Holds the scheduled task
 	 */
 	private ScheduledFuture<?> future;
 
+	public OdooWriteWorker(Odoo parent) {
+		this.parent = parent;
+		this.future = this.executor.scheduleWithFixedDelay(() -> {
+			/*
+			 * This task is executed regularly. Sends data to Odoo.
+			 */
+			this.flush();
+		}, 0, UPDATE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+	}
+
 	public void onLastMessage(int edgeId) {
-		synchronized (this.lastMessageIds) {
-			this.lastMessageIds.add(edgeId);
-		}
+		this.add(edgeId, Field.FemsDevice.LAST_MESSAGE, PendingValue.NOW);
 	}
 
 	public void onLastUpdate(int edgeId) {
-		synchronized (this.lastUpdateIds) {
-			this.lastUpdateIds.add(edgeId);
+		this.add(edgeId, Field.FemsDevice.LAST_UPDATE, PendingValue.NOW);
+	}
+
+	/**
+	 * Adds a value that should be written to the Edge. A value that was added
+	 * before for the same Field and is not yet written gets replaced. Values of
+	 * {@link #IMMEDIATE_FIELDS} are written immediately.
+	 *
+	 * @param edgeId     the Edge-ID
+	 * @param fieldValue the Field and value
+	 */
+	public void write(int edgeId, FieldValue fieldValue) {
+		Field field = fieldValue.getField();
+		this.add(edgeId, field, new PendingValue(fieldValue.getValue()));
+		if (IMMEDIATE_FIELDS.contains(field)) {
+			this.triggerFlush();
+		}
+	}
+
+	private void add(int edgeId, Field field, PendingValue value) {
+		Map<Integer, PendingValue> values = this.pending.computeIfAbsent(field, f -> new ConcurrentHashMap<>());
+		if (values.put(edgeId, value) == null && this.pendingCount.incrementAndGet() > MAX_PENDING_WRITES) {
+			// too many pending writes -> flush now
+			this.triggerFlush();
+		}
+	}
+
+	/**
+	 * Executes a flush as soon as possible. Triggers are merged until the flush
+	 * starts.
+	 */
+	private void triggerFlush() {
+		if (this.isFlushTriggered.compareAndSet(false, true)) {
+			try {
+				this.executor.execute(() -> this.flush());
+			} catch (RejectedExecutionException e) {
+				this.isFlushTriggered.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Writes all pending values to Odoo.
+	 */
+	private void flush() {
+		this.isFlushTriggered.set(false);
+		String now = OdooUtils.DATETIME_FORMATTER.format(ZonedDateTime.now(ZoneOffset.UTC));
+		for (Entry<Field, Map<Integer, PendingValue>> fieldEntry : this.pending.entrySet()) {
+			Field field = fieldEntry.getKey();
+			Map<Integer, PendingValue> values = fieldEntry.getValue();
+			/*
+			 * Take the pending values and group Edge-IDs by value
+			 */
+			Map<String, List<Integer>> idsByValue = new HashMap<>();
+			for (Entry<Integer, PendingValue> entry : values.entrySet()) {
+				Integer edgeId = entry.getKey();
+				PendingValue value = entry.getValue();
+				if (!values.remove(edgeId, value)) {
+					// value was replaced in the meantime -> write it with the next flush
+					continue;
+				}
+				this.pendingCount.decrementAndGet();
+				idsByValue.computeIfAbsent(value.resolve(now), v -> new ArrayList<>()).add(edgeId);
+			}
+			/*
+			 * Write one request per distinct value
+			 */
+			for (Entry<String, List<Integer>> entry : idsByValue.entrySet()) {
+				List<Integer> edgeIds = entry.getValue();
+				Integer[] ids = edgeIds.toArray(new Integer[edgeIds.size()]);
+				try {
+					OdooUtils.write(this.parent.url, this.parent.database, this.parent.uid, this.parent.password,
+							"fems.device", ids, new FieldValue(field, entry.getKey()));
+				} catch (OpenemsException e) {
+					log.error("Unable to write [" + field.n() + "] to ids " + edgeIds + ": " + e.getMessage());
+					// try again with the next flush, unless there is a newer value
+					for (Integer edgeId : edgeIds) {
+						if (values.putIfAbsent(edgeId, new PendingValue(entry.getKey())) == null) {
+							this.pendingCount.incrementAndGet();
+						}
+					}
+				}
+			}
 		}
 	}
 
 	public void dispose() {
 		// unsubscribe regular task
-		this.future.cancel(true);
+		this.future.cancel(false);
+		// write remaining values
+		try {
+			this.executor.execute(() -> this.flush());
+		} catch (RejectedExecutionException e) {
+			// ignore
+		}
+		this.executor.shutdown();
 	}
 }
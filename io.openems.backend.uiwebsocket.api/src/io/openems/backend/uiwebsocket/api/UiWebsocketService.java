@@ -11,4 +11,12 @@ public interface UiWebsocketService {
 
 	public abstract void handleEdgeReply(int edgeId, JsonObject jMessage) throws OpenemsException;
 
+	/**
+	 * Notifies that new data of the Edge was received, so that current data
+	 * subscriptions for this Edge can be updated.
+	 *
+	 * @param edgeId the Edge-ID
+	 */
+	public abstract void handleEdgeData(int edgeId);
+
 }
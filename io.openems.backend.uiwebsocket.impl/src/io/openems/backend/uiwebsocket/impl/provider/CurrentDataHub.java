@@ -0,0 +1,283 @@
+package io.openems.backend.uiwebsocket.impl.provider;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import io.openems.common.exceptions.NotImplementedException;
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.ChannelAddress;
+import io.openems.common.utils.JsonUtils;
+
+/**
+ * Serves the current data subscriptions of all UI websockets.
+ *
+ * <p>
+ * Subscriptions of the same Edge with the same set of channels are combined in
+ * one {@link Group}. The payload of a group is built once and the serialized
+ * string is shared by all its subscribers. A single timer thread handles all
+ * subscriptions; it only rebuilds the payloads of Edges that received new data
+ * and only sends them if they changed.
+ */
+public class CurrentDataHub {
+
+	protected final static int UPDATE_INTERVAL_IN_SECONDS = 2;
+
+	private final Logger log = LoggerFactory.getLogger(CurrentDataHub.class);
+
+	private final UiWebsocketServer parent;
+
+	/**
+	 * Single timer thread. All subscription state is only accessed by this thread.
+	 */
+	private final ScheduledExecutorService executor = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("UiCurrentData").build());
+
+	/**
+	 * Edge-ID -> channel set key -> group
+	 */
+	private final Map<Integer, Map<String, Group>> groups = new HashMap<>();
+
+	/**
+	 * Edges that received data since the last tick
+	 */
+	private final Set<Integer> changedEdgeIds = ConcurrentHashMap.newKeySet();
+
+	public CurrentDataHub(UiWebsocketServer parent) {
+		this.parent = parent;
+		this.executor.scheduleWithFixedDelay(() -> {
+			try {
+				this.tick();
+			} catch (Throwable e) {
+				log.error("Error while sending current data: " + e.getMessage());
+				e.printStackTrace();
+			}
+		}, UPDATE_INTERVAL_IN_SECONDS, UPDATE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Subscribes the websocket to the given channels of an Edge. The current
+	 * values are sent immediately; afterwards on every change.
+	 *
+	 * @param websocket          the UI websocket
+	 * @param jMessageId         the messageId of the subscribe request
+	 * @param edgeId             the Edge-ID
+	 * @param jSubscribeChannels the channels as {thing: [channel]}
+	 * @return the Subscription
+	 */
+	public Subscription subscribe(WebSocket websocket, JsonObject jMessageId, int edgeId,
+			JsonObject jSubscribeChannels) {
+		// parse channels to a sorted structure; identical sets result in identical keys
+		SortedMap<String, SortedSet<String>> channels = new TreeMap<>();
+		for (Entry<String, JsonElement> entry : jSubscribeChannels.entrySet()) {
+			String thing = entry.getKey();
+			try {
+				JsonArray jChannels = JsonUtils.getAsJsonArray(entry.getValue());
+				for (JsonElement jChannel : jChannels) {
+					String channel = JsonUtils.getAsString(jChannel);
+					channels.computeIfAbsent(thing, t -> new TreeSet<>()).add(channel);
+				}
+			} catch (OpenemsException e) {
+				this.log.warn("Unable to add channel subscription: " + e.getMessage());
+			}
+		}
+		Subscription subscription = new Subscription(websocket, jMessageId, edgeId, channels);
+		if (!channels.isEmpty()) {
+			this.execute(() -> {
+				Group group = this.groups.computeIfAbsent(edgeId, id -> new HashMap<>()) //
+						.computeIfAbsent(channels.toString(), key -> new Group(edgeId, channels));
+				if (group.subscriptions.isEmpty()) {
+					group.update();
+				}
+				group.subscriptions.add(subscription);
+				subscription.group = group;
+				subscription.send(group.payload);
+			});
+		}
+		return subscription;
+	}
+
+	/**
+	 * Removes the subscription.
+	 *
+	 * @param subscription the Subscription
+	 */
+	public void unsubscribe(Subscription subscription) {
+		this.execute(() -> {
+			Group group = subscription.group;
+			if (group == null) {
+				return;
+			}
+			subscription.group = null;
+			group.subscriptions.remove(subscription);
+			if (group.subscriptions.isEmpty()) {
+				Map<String, Group> edgeGroups = this.groups.get(group.edgeId);
+				if (edgeGroups != null) {
+					edgeGroups.remove(group.channels.toString());
+					if (edgeGroups.isEmpty()) {
+						this.groups.remove(group.edgeId);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Marks that new data for the Edge is available. It is sent with the next
+	 * tick.
+	 *
+	 * @param edgeId the Edge-ID
+	 */
+	public void onEdgeData(int edgeId) {
+		this.changedEdgeIds.add(edgeId);
+	}
+
+	public void dispose() {
+		this.executor.shutdownNow();
+	}
+
+	private void execute(Runnable task) {
+		try {
+			this.executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			this.log.warn("Unable to handle current data subscription. Hub is shut down.");
+		}
+	}
+
+	private void tick() {
+		for (Integer edgeId : this.changedEdgeIds) {
+			this.changedEdgeIds.remove(edgeId);
+			Map<String, Group> edgeGroups = this.groups.get(edgeId);
+			if (edgeGroups == null) {
+				continue;
+			}
+			for (Group group : edgeGroups.values()) {
+				if (group.update()) {
+					for (Subscription subscription : new HashSet<>(group.subscriptions)) {
+						if (!subscription.send(group.payload)) {
+							// disconnected
+							this.unsubscribe(subscription);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Subscribers of one Edge with the same set of channels.
+	 */
+	private class Group {
+		private final int edgeId;
+		private final SortedMap<String, SortedSet<String>> channels;
+		private final Set<Subscription> subscriptions = new HashSet<>();
+		private String payload = "{}";
+
+		private Group(int edgeId, SortedMap<String, SortedSet<String>> channels) {
+			this.edgeId = edgeId;
+			this.channels = channels;
+		}
+
+		/**
+		 * Rebuilds the payload.
+		 *
+		 * @return true if the payload changed
+		 */
+		private boolean update() {
+			JsonObject jData = new JsonObject();
+			for (Entry<String, SortedSet<String>> entry : this.channels.entrySet()) {
+				String thingId = entry.getKey();
+				JsonObject jThingData = new JsonObject();
+				for (String channelId : entry.getValue()) {
+					jThingData.add(channelId, this.getChannelValue(new ChannelAddress(thingId, channelId)));
+				}
+				jData.add(thingId, jThingData);
+			}
+			String payload = jData.toString();
+			if (payload.equals(this.payload)) {
+				return false;
+			}
+			this.payload = payload;
+			return true;
+		}
+
+		private JsonElement getChannelValue(ChannelAddress channelAddress) {
+			Optional<Object> channelCacheOpt = CurrentDataHub.this.parent.parent.timeDataService
+					.getChannelValue(this.edgeId, channelAddress);
+			if (channelCacheOpt.isPresent()) {
+				try {
+					return JsonUtils.getAsJsonElement(channelCacheOpt.get());
+				} catch (NotImplementedException e) {
+					return JsonNull.INSTANCE;
+				}
+			} else {
+				return JsonNull.INSTANCE;
+			}
+		}
+	}
+
+	/**
+	 * The current data subscription of one websocket.
+	 */
+	public class Subscription {
+		private final WebSocket websocket;
+		private final int edgeId;
+		private final SortedMap<String, SortedSet<String>> channels;
+		/**
+		 * The beginning of every message, containing the messageId
+		 */
+		private final String messagePrefix;
+		private Group group = null;
+
+		private Subscription(WebSocket websocket, JsonObject jMessageId, int edgeId,
+				SortedMap<String, SortedSet<String>> channels) {
+			this.websocket = websocket;
+			this.edgeId = edgeId;
+			this.channels = channels;
+			this.messagePrefix = "{\"messageId\":" + jMessageId.toString() + ",\"currentData\":";
+		}
+
+		public int getEdgeId() {
+			return edgeId;
+		}
+
+		public SortedMap<String, SortedSet<String>> getChannels() {
+			return channels;
+		}
+
+		private boolean send(String payload) {
+			if (!this.websocket.isOpen()) {
+				return false;
+			}
+			try {
+				this.websocket.send(this.messagePrefix + payload + "}");
+				return true;
+			} catch (WebsocketNotConnectedException e) {
+				return false;
+			}
+		}
+	}
+}
@@ -26,10 +26,10 @@ public class OnClose extends AbstractOnClose {
 		WebsocketData data = websocket.getAttachment();
 		log.info("User [" + this.parent.getUserName(data) + "] disconnected.");
 
-		// stop CurrentDataWorker
-		Optional<BackendCurrentDataWorker> currentDataWorkerOpt = data.getCurrentDataWorker();
-		if (currentDataWorkerOpt.isPresent()) {
-			currentDataWorkerOpt.get().dispose();
+		// stop current data subscription
+		Optional<CurrentDataHub.Subscription> subscriptionOpt = data.getCurrentDataSubscription();
+		if (subscriptionOpt.isPresent()) {
+			this.parent.currentDataHub.unsubscribe(subscriptionOpt.get());
 		}
 		// remove websocket from local cache
 		UUID uuid = data.getUuid();
@@ -185,18 +185,18 @@ public class OnMessage extends AbstractOnMessage {
 				 * Subscribe to channels
 				 */
 
-				// remove old worker if it existed
-				Optional<BackendCurrentDataWorker> workerOpt = data.getCurrentDataWorker();
-				if (workerOpt.isPresent()) {
-					data.setCurrentDataWorker(null);
-					workerOpt.get().dispose();
+				// remove old subscription if it existed
+				Optional<CurrentDataHub.Subscription> subscriptionOpt = data.getCurrentDataSubscription();
+				if (subscriptionOpt.isPresent()) {
+					data.setCurrentDataSubscription(null);
+					this.parent.currentDataHub.unsubscribe(subscriptionOpt.get());
 				}
 
-				// set new worker
+				// set new subscription
 				JsonObject jSubscribeChannels = JsonUtils.getAsJsonObject(jCurrentData, "channels");
-				BackendCurrentDataWorker worker = new BackendCurrentDataWorker(this.parent, websocket, edgeId);
-				worker.setChannels(jSubscribeChannels, jMessageId);
-				data.setCurrentDataWorker(worker);
+				CurrentDataHub.Subscription subscription = this.parent.currentDataHub.subscribe(websocket,
+						jMessageId, edgeId, jSubscribeChannels);
+				data.setCurrentDataSubscription(subscription);
 			}
 		} catch (OpenemsException e) {
 			WebSocketUtils.sendNotificationOrLogError(websocket, jMessageId, LogBehaviour.WRITE_TO_LOG,
@@ -88,4 +88,12 @@ public class UiWebsocket implements UiWebsocketService {
 	public void handleEdgeReply(int edgeId, JsonObject jMessage) throws OpenemsException {
 		this.server.handleEdgeReply(edgeId, jMessage);
 	}
+
+	@Override
+	public void handleEdgeData(int edgeId) {
+		UiWebsocketServer server = this.server;
+		if (server != null) {
+			server.currentDataHub.onEdgeData(edgeId);
+		}
+	}
 }
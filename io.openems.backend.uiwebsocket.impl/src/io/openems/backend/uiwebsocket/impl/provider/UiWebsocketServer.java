@@ -25,10 +25,18 @@ public class UiWebsocketServer extends AbstractWebsocketServer {
 
 	protected final UiWebsocket parent;
 	protected final Map<UUID, WebSocket> websocketsMap = new HashMap<>();
+	protected final CurrentDataHub currentDataHub;
 
 	public UiWebsocketServer(UiWebsocket parent, int port) {
 		super(port);
 		this.parent = parent;
+		this.currentDataHub = new CurrentDataHub(this);
+	}
+
+	@Override
+	public void stop(int arg0) throws InterruptedException {
+		this.currentDataHub.dispose();
+		super.stop(arg0);
 	}
 
 	protected void handleEdgeReply(int edgeId, JsonObject jMessage) throws OpenemsException {
@@ -8,7 +8,7 @@ public class WebsocketData {
 	private Integer userId;
 	// @Nullable
 	private UUID uuid;
-	private Optional<BackendCurrentDataWorker> currentDataWorker = Optional.empty();
+	private Optional<CurrentDataHub.Subscription> currentDataSubscription = Optional.empty();
 
 	public Integer getUserId() {
 		return userId;
@@ -18,12 +18,12 @@ public class WebsocketData {
 		return uuid;
 	}
 
-	public void setCurrentDataWorker(BackendCurrentDataWorker currentDataWorker) {
-		this.currentDataWorker = Optional.ofNullable(currentDataWorker);
+	public void setCurrentDataSubscription(CurrentDataHub.Subscription currentDataSubscription) {
+		this.currentDataSubscription = Optional.ofNullable(currentDataSubscription);
 	}
 
-	public Optional<BackendCurrentDataWorker> getCurrentDataWorker() {
-		return currentDataWorker;
+	public Optional<CurrentDataHub.Subscription> getCurrentDataSubscription() {
+		return currentDataSubscription;
 	}
 
 	public void initialize(int userId, UUID uuid) {
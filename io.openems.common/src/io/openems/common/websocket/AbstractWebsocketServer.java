@@ -1,8 +1,7 @@
 package io.openems.common.websocket;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.java_websocket.WebSocket;
 import org.java_websocket.drafts.Draft_6455;
@@ -20,9 +19,13 @@ import io.openems.common.utils.StringUtils;
 public abstract class AbstractWebsocketServer extends WebSocketServer {
 	private final Logger log = LoggerFactory.getLogger(AbstractWebsocketServer.class);
 
-	private final static int MAX_CONCURRENT_THREADS = 20;
+	private final static int TRY_AGAIN_DELAY_SECONDS = 1;
 
-	private final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENT_THREADS);
+	/**
+	 * Executes the events of one websocket in order; different websockets in
+	 * parallel.
+	 */
+	private final WebsocketScheduler scheduler;
 
 	protected abstract AbstractOnMessage _onMessage(WebSocket websocket, String message);
 
@@ -33,12 +36,24 @@ public abstract class AbstractWebsocketServer extends WebSocketServer {
 	protected abstract AbstractOnClose _onClose(WebSocket websocket, int code, String reason, boolean remote);
 
 	public AbstractWebsocketServer(int port) {
+		this(port, WebsocketScheduler.DEFAULT_POOL_SIZE);
+	}
+
+	/**
+	 * Creates the server.
+	 *
+	 * @param port     the port to listen on
+	 * @param poolSize the number of worker threads that are shared by all
+	 *                 connections
+	 */
+	public AbstractWebsocketServer(int port, int poolSize) {
 		super(new InetSocketAddress(port), Lists.newArrayList(new Draft_6455()));
+		this.scheduler = new WebsocketScheduler("Ws-" + port, poolSize);
 	}
 
 	@Override
 	public void stop(int arg0) throws InterruptedException {
-		this.executor.shutdown();
+		this.scheduler.shutdown();
 		super.stop(arg0);
 	}
 
@@ -52,7 +67,7 @@ public abstract class AbstractWebsocketServer extends WebSocketServer {
 	 */
 	@Override
 	public final void onOpen(WebSocket websocket, ClientHandshake handshake) {
-		this.executor.submit(this._onOpen(websocket, handshake));
+		this.scheduler.execute(websocket, this._onOpen(websocket, handshake));
 	}
 
 	/**
@@ -60,16 +75,16 @@ public abstract class AbstractWebsocketServer extends WebSocketServer {
 	 */
 	@Override
 	public final void onMessage(WebSocket websocket, String message) {
-		this.executor.submit(this._onMessage(websocket, message));
+		this.scheduler.execute(websocket, this._onMessage(websocket, message));
 	}
 
 	/**
 	 * Close event of websocket. Removes the websocket. Keeps the session. Calls
-	 * _onClose()
+	 * _onClose() after all pending events of this websocket were handled.
 	 */
 	@Override
 	public final void onClose(WebSocket websocket, int code, String reason, boolean remote) {
-		this.executor.submit(this._onClose(websocket, code, reason, remote));
+		this.scheduler.executeAndRelease(websocket, this._onClose(websocket, code, reason, remote));
 	}
 
 	/**
@@ -77,7 +92,12 @@ public abstract class AbstractWebsocketServer extends WebSocketServer {
 	 */
 	@Override
 	public final void onError(WebSocket websocket, Exception ex) {
-		this.executor.submit(this._onError(websocket, ex));
+		if (websocket == null) {
+			// error of the server itself
+			this._onError(websocket, ex).run();
+			return;
+		}
+		this.scheduler.execute(websocket, this._onError(websocket, ex));
 	}
 
 	/**
@@ -97,12 +117,15 @@ public abstract class AbstractWebsocketServer extends WebSocketServer {
 		}
 	}
 
-	public void executorTryAgain(Runnable runnable) {
-		try {
-			Thread.sleep(1000);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-		this.executor.submit(runnable);
+	/**
+	 * Executes the task again after a short delay. Later events of the websocket
+	 * wait until the task was executed again, so they cannot overtake it; no
+	 * worker thread is blocked while waiting.
+	 *
+	 * @param websocket the websocket
+	 * @param runnable  the task
+	 */
+	public void executorTryAgain(WebSocket websocket, Runnable runnable) {
+		this.scheduler.retry(websocket, runnable, TRY_AGAIN_DELAY_SECONDS, TimeUnit.SECONDS);
 	}
 }
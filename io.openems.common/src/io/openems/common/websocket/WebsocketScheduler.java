@@ -0,0 +1,195 @@
+package io.openems.common.websocket;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Executes websocket events on a shared thread pool while keeping the order of
+ * events per connection.
+ *
+ * <p>
+ * Every {@link WebSocket} gets its own {@link Mailbox}. Tasks of one mailbox
+ * are executed strictly one after the other, while tasks of different mailboxes
+ * run in parallel on the shared worker pool. Retries wait on a single timer
+ * thread instead of blocking a worker.
+ */
+public class WebsocketScheduler {
+
+	/**
+	 * Default number of worker threads. Event handlers may block on external
+	 * services (e.g. Metadata, Timedata), so this is a multiple of the available
+	 * cores.
+	 */
+	public final static int DEFAULT_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+	private final Logger log = LoggerFactory.getLogger(WebsocketScheduler.class);
+
+	private final ExecutorService workers;
+	private final ScheduledExecutorService timer;
+	private final ConcurrentHashMap<WebSocket, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+	public WebsocketScheduler(String name) {
+		this(name, DEFAULT_POOL_SIZE);
+	}
+
+	public WebsocketScheduler(String name, int poolSize) {
+		this.workers = Executors.newFixedThreadPool(poolSize,
+				new ThreadFactoryBuilder().setNameFormat(name + "-%d").build());
+		this.timer = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat(name + "-Timer").setDaemon(true).build());
+	}
+
+	/**
+	 * Adds a task to the mailbox of the websocket. It is executed after all
+	 * previously added tasks of this websocket finished.
+	 *
+	 * @param websocket the websocket
+	 * @param task      the task
+	 */
+	public void execute(WebSocket websocket, Runnable task) {
+		this.mailboxes.computeIfAbsent(websocket, ws -> new Mailbox()).add(task);
+	}
+
+	/**
+	 * Adds the last task for this websocket. The mailbox is released afterwards;
+	 * delayed tasks that are due later are dropped.
+	 *
+	 * @param websocket the websocket
+	 * @param task      the task
+	 */
+	public void executeAndRelease(WebSocket websocket, Runnable task) {
+		Mailbox mailbox = this.mailboxes.remove(websocket);
+		if (mailbox == null) {
+			mailbox = new Mailbox();
+		}
+		mailbox.add(task);
+		mailbox.release();
+	}
+
+	/**
+	 * Executes a task of the websocket again after the given delay. The mailbox
+	 * is suspended until then: the task is put in front of all tasks that were
+	 * added in the meantime, so later events cannot overtake it. The waiting time
+	 * does not block any worker thread.
+	 *
+	 * @param websocket the websocket
+	 * @param task      the task
+	 * @param delay     the delay
+	 * @param unit      the unit of the delay
+	 */
+	public void retry(WebSocket websocket, Runnable task, long delay, TimeUnit unit) {
+		Mailbox mailbox = this.mailboxes.get(websocket);
+		if (mailbox == null) {
+			// websocket was already closed
+			return;
+		}
+		mailbox.suspend();
+		try {
+			this.timer.schedule(() -> {
+				mailbox.resume(task);
+			}, delay, unit);
+		} catch (RejectedExecutionException e) {
+			this.log.warn("Unable to schedule task. Scheduler is shut down.");
+		}
+	}
+
+	/**
+	 * Gets the number of currently registered websockets.
+	 *
+	 * @return the number of mailboxes
+	 */
+	public int getMailboxCount() {
+		return this.mailboxes.size();
+	}
+
+	/**
+	 * Stops the scheduler. Queued tasks are not executed anymore.
+	 */
+	public void shutdown() {
+		this.timer.shutdownNow();
+		this.workers.shutdown();
+		this.mailboxes.clear();
+	}
+
+	/**
+	 * Holds the pending tasks of one websocket. At most one task of a mailbox is
+	 * executed at any time; no task is executed while a retry is pending.
+	 */
+	private class Mailbox implements Runnable {
+
+		private final Deque<Runnable> tasks = new ConcurrentLinkedDeque<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+		private final AtomicInteger pendingRetries = new AtomicInteger(0);
+		private volatile boolean released = false;
+
+		private void add(Runnable task) {
+			if (this.released) {
+				// websocket was already closed
+				return;
+			}
+			this.tasks.add(task);
+			this.trySchedule();
+		}
+
+		private void release() {
+			this.released = true;
+		}
+
+		private void suspend() {
+			this.pendingRetries.incrementAndGet();
+		}
+
+		private void resume(Runnable task) {
+			if (!this.released) {
+				this.tasks.addFirst(task);
+			}
+			this.pendingRetries.decrementAndGet();
+			this.trySchedule();
+		}
+
+		private void trySchedule() {
+			if (!this.tasks.isEmpty() && this.pendingRetries.get() == 0
+					&& this.scheduled.compareAndSet(false, true)) {
+				try {
+					WebsocketScheduler.this.workers.execute(this);
+				} catch (RejectedExecutionException e) {
+					this.scheduled.set(false);
+					WebsocketScheduler.this.log.warn("Unable to execute task. Scheduler is shut down.");
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				Runnable task = this.pendingRetries.get() == 0 ? this.tasks.poll() : null;
+				if (task != null) {
+					try {
+						task.run();
+					} catch (Throwable e) {
+						WebsocketScheduler.this.log.error("Error while executing websocket task: " + e.getMessage());
+						e.printStackTrace();
+					}
+				}
+			} finally {
+				// give other mailboxes a chance before continuing with this one
+				this.scheduled.set(false);
+				this.trySchedule();
+			}
+		}
+	}
+}
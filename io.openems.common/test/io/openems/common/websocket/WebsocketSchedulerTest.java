@@ -0,0 +1,65 @@
+package io.openems.common.websocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.java_websocket.WebSocket;
+import org.junit.Test;
+
+public class WebsocketSchedulerTest {
+
+	private static WebSocket dummyWebsocket() {
+		return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] { WebSocket.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					}
+					return null;
+				});
+	}
+
+	@Test
+	public void testRetryKeepsOrder() throws InterruptedException {
+		WebsocketScheduler scheduler = new WebsocketScheduler("test", 4);
+		WebSocket websocket = dummyWebsocket();
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch finished = new CountDownLatch(1);
+		AtomicBoolean isFirstTry = new AtomicBoolean(true);
+
+		Runnable message1 = new Runnable() {
+			@Override
+			public void run() {
+				if (isFirstTry.getAndSet(false)) {
+					executed.add("1 failed");
+					scheduler.retry(websocket, this, 50, TimeUnit.MILLISECONDS);
+				} else {
+					executed.add("1");
+				}
+			}
+		};
+		scheduler.execute(websocket, message1);
+		scheduler.execute(websocket, () -> executed.add("2"));
+		scheduler.execute(websocket, () -> {
+			executed.add("3");
+			finished.countDown();
+		});
+
+		assertTrue(finished.await(1, TimeUnit.SECONDS));
+		scheduler.shutdown();
+
+		// the retry is not overtaken by later messages
+		assertEquals(Arrays.asList("1 failed", "1", "2", "3"), executed);
+	}
+}
@@ -1,10 +1,12 @@
 package io.openems.edge.bridge.modbus;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
@@ -15,26 +17,33 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ghgande.j2mod.modbus.io.ModbusTransaction;
+import com.ghgande.j2mod.modbus.procimg.InputRegister;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 
 import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.api.BridgeModbus;
 import io.openems.edge.bridge.modbus.api.ModbusProtocol;
 import io.openems.edge.bridge.modbus.api.element.ModbusElement;
+import io.openems.edge.bridge.modbus.api.task.FC6WriteRegisterTask;
 import io.openems.edge.bridge.modbus.api.task.ReadTask;
 import io.openems.edge.bridge.modbus.api.task.WriteTask;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.StateChannel;
 import io.openems.edge.common.channel.StateCollectorChannel;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.worker.AbstractCycleWorker;
+import io.openems.edge.common.worker.CoordinatedReader;
 
 /**
  * Abstract service for connecting to, querying and writing to a Modbus device
  * 
  */
-public abstract class AbstractModbusBridge extends AbstractOpenemsComponent implements EventHandler {
+public abstract class AbstractModbusBridge extends AbstractOpenemsComponent
+		implements CoordinatedReader, EventHandler {
 
 	/**
 	 * Default Modbus timeout in [ms]
@@ -49,15 +58,62 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 	 */
 	protected final static int DEFAULT_RETRIES = 1;
 
+	/**
+	 * Maximum number of registers in one Modbus read response
+	 */
+	protected final static int MAX_READ_REGISTERS = 125;
+
+	/**
+	 * Default keep-alive time for unchanged write values in [s]; 0 to write all
+	 * values in every Cycle
+	 */
+	protected final static int DEFAULT_WRITE_KEEP_ALIVE = 0;
+
+	/**
+	 * Default for merging single register writes to function code 16 requests;
+	 * disabled, as devices may reject function code 16
+	 */
+	protected final static boolean DEFAULT_MERGE_WRITES = false;
+
 	private final Logger log = LoggerFactory.getLogger(AbstractModbusBridge.class);
 	private final ModbusWorker worker = new ModbusWorker();
 
+	/**
+	 * Reusable buffer for decoding read responses. Only accessed by the
+	 * ModbusWorker.
+	 */
+	private ByteBuffer registerBuffer = ByteBuffer.allocate(MAX_READ_REGISTERS * 2);
+
 	/**
 	 * Set ForceWrite to interrupt the ReadTasks and execute the WriteTasks
 	 * immediately.
 	 */
 	private final AtomicBoolean forceWrite = new AtomicBoolean(false);
 
+	/**
+	 * Whether the Cycle waits for the reads of this bridge before switching the
+	 * process image
+	 */
+	private boolean isCoordinated = false;
+
+	/**
+	 * Unchanged write values are written again after this time in [ns]
+	 */
+	private long writeKeepAlive = TimeUnit.SECONDS.toNanos(DEFAULT_WRITE_KEEP_ALIVE);
+
+	/**
+	 * Whether single register writes are merged to function code 16 requests
+	 */
+	private boolean isMergeWrites = DEFAULT_MERGE_WRITES;
+
+	/*
+	 * Rounds of reads that were triggered by the Cycle and that were finished by
+	 * the ModbusWorker; guarded by 'readLock'
+	 */
+	private final Object readLock = new Object();
+	private long triggeredReads = 0;
+	private long finishedReads = 0;
+
 	public AbstractModbusBridge() {
 		Stream.of( //
 				Arrays.stream(OpenemsComponent.ChannelId.values()).map(channelId -> {
@@ -66,6 +122,14 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 						return new StateCollectorChannel(this, channelId);
 					}
 					return null;
+				}), Arrays.stream(BridgeModbus.ChannelId.values()).map(channelId -> {
+					switch (channelId) {
+					case READ_DURATION:
+						return new IntegerReadChannel(this, channelId);
+					case READ_DEADLINE_MISSED:
+						return new StateChannel(this, channelId);
+					}
+					return null;
 				})).flatMap(channel -> channel).forEach(channel -> this.addChannel(channel));
 	}
 
@@ -84,7 +148,27 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 			.synchronizedListMultimap(ArrayListMultimap.create());
 
 	protected void activate(ComponentContext context, String service_pid, String id, boolean enabled) {
+		this.activate(context, service_pid, id, enabled, false);
+	}
+
+	protected void activate(ComponentContext context, String service_pid, String id, boolean enabled,
+			boolean isCoordinated) {
+		this.activate(context, service_pid, id, enabled, isCoordinated, DEFAULT_WRITE_KEEP_ALIVE,
+				DEFAULT_MERGE_WRITES);
+	}
+
+	/**
+	 * @param writeKeepAlive keep-alive time for unchanged write values in [s]; 0
+	 *                       to write all values in every Cycle
+	 * @param isMergeWrites  merge single register writes without holes
+	 *                       inbetween to function code 16 requests
+	 */
+	protected void activate(ComponentContext context, String service_pid, String id, boolean enabled,
+			boolean isCoordinated, int writeKeepAlive, boolean isMergeWrites) {
 		super.activate(context, service_pid, id, enabled);
+		this.isCoordinated = isCoordinated;
+		this.writeKeepAlive = TimeUnit.SECONDS.toNanos(Math.max(0, writeKeepAlive));
+		this.isMergeWrites = isMergeWrites;
 		if (this.isEnabled()) {
 			this.worker.activate(id);
 		}
@@ -125,8 +209,27 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 			super.deactivate();
 		}
 
+		/**
+		 * Modbus requests block on serial or TCP I/O.
+		 */
+		@Override
+		protected boolean isBlocking() {
+			return true;
+		}
+
 		@Override
 		protected void forever() {
+			final long round;
+			synchronized (readLock) {
+				round = triggeredReads;
+			}
+			final long start = System.nanoTime();
+
+			/*
+			 * was FORCE WRITE set? -> execute WriteTasks before any ReadTask
+			 */
+			this.executeWritesIfForced();
+
 			// get the read tasks for this run
 			List<ReadTask> nextReadTasks = this.getNextReadTasks();
 
@@ -135,18 +238,9 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 			 */
 			nextReadTasks.forEach(readTask -> {
 				/*
-				 * was FORCE WRITE set? -> exeute WriteTasks now
+				 * was FORCE WRITE set in the meantime? -> execute WriteTasks now
 				 */
-				if (forceWrite.getAndSet(false)) {
-					List<WriteTask> writeTasks = this.getNextWriteTasks();
-					writeTasks.forEach(writeTask -> {
-						try {
-							writeTask.executeWrite(AbstractModbusBridge.this);
-						} catch (OpenemsException e) {
-							logError(log, writeTask.toString() + " write failed: " + e.getMessage());
-						}
-					});
-				}
+				this.executeWritesIfForced();
 				/*
 				 * Execute next read abstractTask
 				 */
@@ -162,6 +256,45 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 					}
 				}
 			});
+
+			channel(BridgeModbus.ChannelId.READ_DURATION)
+					.setNextValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			synchronized (readLock) {
+				finishedReads = Math.max(finishedReads, round);
+				readLock.notifyAll();
+			}
+		}
+
+		/**
+		 * Executes the WriteTasks if 'forceWrite' was set.
+		 * 
+		 * FC6WriteRegisterTasks are executed together, so that registers without
+		 * holes inbetween can be written in one request; see
+		 * {@link AbstractModbusBridge#isMergeWrites()}.
+		 */
+		private void executeWritesIfForced() {
+			if (!forceWrite.getAndSet(false)) {
+				return;
+			}
+			List<FC6WriteRegisterTask> registerTasks = new ArrayList<>();
+			for (WriteTask writeTask : this.getNextWriteTasks()) {
+				if (writeTask instanceof FC6WriteRegisterTask) {
+					registerTasks.add((FC6WriteRegisterTask) writeTask);
+					continue;
+				}
+				try {
+					writeTask.executeWrite(AbstractModbusBridge.this);
+				} catch (OpenemsException e) {
+					logError(log, writeTask.toString() + " write failed: " + e.getMessage());
+				}
+			}
+			if (!registerTasks.isEmpty()) {
+				try {
+					FC6WriteRegisterTask.executeWrites(AbstractModbusBridge.this, registerTasks);
+				} catch (OpenemsException e) {
+					logError(log, "FC6 Write Register write failed: " + e.getMessage());
+				}
+			}
 		}
 
 		/**
@@ -206,12 +339,82 @@ public abstract class AbstractModbusBridge extends AbstractOpenemsComponent impl
 	public void handleEvent(Event event) {
 		switch (event.getTopic()) {
 		case EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE:
+			synchronized (this.readLock) {
+				this.triggeredReads++;
+			}
 			this.forceWrite.set(true);
 			this.worker.triggerNextCycle();
 			break;
 		}
 	}
 
+	@Override
+	public boolean isCoordinated() {
+		return this.isCoordinated && this.isEnabled();
+	}
+
+	@Override
+	public boolean awaitReads(long timeout) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		boolean isFinished;
+		synchronized (this.readLock) {
+			while (!(isFinished = this.finishedReads >= this.triggeredReads)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					break;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.readLock, remaining);
+			}
+		}
+		this.channel(BridgeModbus.ChannelId.READ_DEADLINE_MISSED).setNextValue(!isFinished);
+		return isFinished;
+	}
+
+	/**
+	 * Gets the keep-alive time for unchanged write values: WriteTasks skip values
+	 * that were already written, until this time has passed.
+	 * 
+	 * @return the keep-alive time in [ns], to be compared with
+	 *         {@link System#nanoTime()}; 0 if all values are written in every
+	 *         Cycle
+	 */
+	public long getWriteKeepAlive() {
+		return this.writeKeepAlive;
+	}
+
+	/**
+	 * Whether FC6WriteRegisterTasks are sorted by Unit-ID and address and
+	 * registers without holes inbetween are written in one function code 16
+	 * request.
+	 * 
+	 * @return false if every register is written on its own, in the order of the
+	 *         protocols
+	 */
+	public boolean isMergeWrites() {
+		return this.isMergeWrites;
+	}
+
+	/**
+	 * Copies the registers of a read response to the reusable register buffer of
+	 * this bridge. The buffer is only valid until the next response is handled.
+	 * 
+	 * @param registers
+	 * @return the big-endian buffer with the limit set to the number of bytes
+	 */
+	public ByteBuffer toRegisterBuffer(InputRegister[] registers) {
+		int length = registers.length * 2;
+		if (this.registerBuffer.capacity() < length) {
+			this.registerBuffer = ByteBuffer.allocate(length);
+		}
+		ByteBuffer buffer = this.registerBuffer;
+		buffer.clear();
+		for (int i = 0; i < registers.length; i++) {
+			buffer.putShort(i * 2, (short) registers[i].getValue());
+		}
+		buffer.limit(length);
+		return buffer;
+	}
+
 	/**
 	 * Creates a new Modbus Transaction on an open Modbus connection
 	 * 
@@ -22,6 +22,7 @@ import io.openems.edge.bridge.modbus.api.Parity;
 import io.openems.edge.bridge.modbus.api.Stopbit;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.worker.CoordinatedReader;
 
 /**
  * Provides a service for connecting to, querying and writing to a Modbus/RTU
@@ -33,7 +34,7 @@ import io.openems.edge.common.event.EdgeEventConstants;
 		configurationPolicy = ConfigurationPolicy.REQUIRE, //
 		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE)
 public class BridgeModbusSerialImpl extends AbstractModbusBridge
-		implements BridgeModbus, BridgeModbusSerial, OpenemsComponent, EventHandler {
+		implements BridgeModbus, BridgeModbusSerial, OpenemsComponent, CoordinatedReader, EventHandler {
 
 //	private final Logger log = LoggerFactory.getLogger(BridgeModbusSerialImpl.class);
 
@@ -64,7 +65,8 @@ public class BridgeModbusSerialImpl extends AbstractModbusBridge
 
 	@Activate
 	void activate(ComponentContext context, ConfigSerial config) {
-		super.activate(context, config.service_pid(), config.id(), config.enabled());
+		super.activate(context, config.service_pid(), config.id(), config.enabled(), config.coordinated(),
+				config.writeKeepAlive(), config.mergeWrites());
 		this.portName = config.portName();
 		this.baudrate = config.baudRate();
 		this.databits = config.databits();
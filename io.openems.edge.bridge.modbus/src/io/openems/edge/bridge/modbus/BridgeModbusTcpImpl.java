@@ -22,6 +22,7 @@ import io.openems.edge.bridge.modbus.api.BridgeModbus;
 import io.openems.edge.bridge.modbus.api.BridgeModbusTcp;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.worker.CoordinatedReader;
 
 /**
  * Provides a service for connecting to, querying and writing to a Modbus/TCP
@@ -33,7 +34,7 @@ import io.openems.edge.common.event.EdgeEventConstants;
 		configurationPolicy = ConfigurationPolicy.REQUIRE, //
 		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_EXECUTE_WRITE)
 public class BridgeModbusTcpImpl extends AbstractModbusBridge
-		implements BridgeModbus, BridgeModbusTcp, OpenemsComponent, EventHandler {
+		implements BridgeModbus, BridgeModbusTcp, OpenemsComponent, CoordinatedReader, EventHandler {
 
 //	private final Logger log = LoggerFactory.getLogger(BridgeModbusTcpImpl.class);
 
@@ -44,7 +45,8 @@ public class BridgeModbusTcpImpl extends AbstractModbusBridge
 
 	@Activate
 	protected void activate(ComponentContext context, ConfigTcp config) throws UnknownHostException {
-		super.activate(context, config.service_pid(), config.id(), config.enabled());
+		super.activate(context, config.service_pid(), config.id(), config.enabled(), config.coordinated(),
+				config.writeKeepAlive(), config.mergeWrites());
 		this.setIpAddress(InetAddress.getByName(config.ip()));
 	}
 
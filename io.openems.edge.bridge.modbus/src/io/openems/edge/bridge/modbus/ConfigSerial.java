@@ -31,5 +31,14 @@ import io.openems.edge.bridge.modbus.api.Stopbit;
 
 	boolean enabled() default true;
 
+	@AttributeDefinition(name = "Coordinated", description = "If true, the Cycle waits for the reads of this bridge before switching the process image, so that all coordinated bridges provide a consistent snapshot.")
+	boolean coordinated() default false;
+
+	@AttributeDefinition(name = "Write keep-alive", description = "If greater than 0, unchanged write values are skipped and only written again after this time in seconds. 0 writes all values in every Cycle.")
+	int writeKeepAlive() default 0;
+
+	@AttributeDefinition(name = "Merge writes", description = "If true, single registers without holes inbetween are written in one request using function code 16, sorted by Unit-ID and address. If false, every register is written on its own using function code 6, in the order of the protocols. Only enable this if all devices support function code 16.")
+	boolean mergeWrites() default false;
+
 	String webconsole_configurationFactory_nameHint() default "Bridge Modbus/RTU Serial [{id}]";
 }
\ No newline at end of file
@@ -2,11 +2,48 @@ package io.openems.edge.bridge.modbus.api;
 
 import org.osgi.annotation.versioning.ProviderType;
 
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.doc.Level;
+import io.openems.edge.common.channel.doc.Unit;
 import io.openems.edge.common.component.OpenemsComponent;
 
 @ProviderType
 public interface BridgeModbus extends OpenemsComponent {
 
+	public enum ChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		/**
+		 * Duration of the last round of reads
+		 * 
+		 * <ul>
+		 * <li>Interface: BridgeModbus
+		 * <li>Type: Integer
+		 * <li>Unit: ms
+		 * </ul>
+		 */
+		READ_DURATION(new Doc().type(OpenemsType.INTEGER).unit(Unit.MILLISECONDS)),
+		/**
+		 * The reads were not finished before the read deadline of the Cycle (only in
+		 * coordinated mode)
+		 * 
+		 * <ul>
+		 * <li>Interface: BridgeModbus
+		 * <li>Type: State
+		 * </ul>
+		 */
+		READ_DEADLINE_MISSED(new Doc().level(Level.WARNING).text("Reads did not finish before the Cycle deadline"));
+
+		private final Doc doc;
+
+		private ChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
 	public void addProtocol(String sourceId, ModbusProtocol protocol);
 
 	public void removeProtocol(String sourceId);
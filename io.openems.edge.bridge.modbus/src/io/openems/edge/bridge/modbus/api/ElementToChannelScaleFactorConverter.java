@@ -1,5 +1,7 @@
 package io.openems.edge.bridge.modbus.api;
 
+import java.util.function.Function;
+
 import io.openems.common.types.OpenemsType;
 
 /**
@@ -15,17 +17,37 @@ public class ElementToChannelScaleFactorConverter extends ElementToChannelConver
 	public ElementToChannelScaleFactorConverter(int scaleFactor) {
 		super(//
 				// element -> channel
-				value -> {
-					return apply(value, scaleFactor * -1);
-				}, //
-					// channel -> element
-				value -> {
-					return apply(value, scaleFactor);
-				});
+				scale(scaleFactor), //
+				// channel -> element
+				scale(scaleFactor * -1));
 	}
 
-	private static Object apply(Object value, int scaleFactor) {
-		double factor = Math.pow(10, scaleFactor * -1);
+	/**
+	 * Creates the conversion function for the given scale factor. The factor is
+	 * calculated only once here and not on every conversion.
+	 * 
+	 * @param scaleFactor
+	 * @return
+	 */
+	private static Function<Object, Object> scale(int scaleFactor) {
+		double factor = Math.pow(10, scaleFactor);
+		if (scaleFactor >= 0 && scaleFactor <= 9) {
+			// exact integer multiplication for positive scale factors
+			long multiplier = (long) factor;
+			return value -> apply(value, factor, multiplier);
+		}
+		return value -> apply(value, factor, 0);
+	}
+
+	/**
+	 * Applies the factor.
+	 * 
+	 * @param value
+	 * @param factor
+	 * @param multiplier the factor as integer; 0 if it is not an integer
+	 * @return
+	 */
+	private static Object apply(Object value, double factor, long multiplier) {
 		if (value == null) {
 			return null;
 		}
@@ -44,6 +66,16 @@ public class ElementToChannelScaleFactorConverter extends ElementToChannelConver
 				if (value instanceof Boolean) {
 					return (boolean) value;
 				}
+				if (multiplier != 0 && (value instanceof Short || value instanceof Integer)) {
+					long result = ((Number) value).longValue() * multiplier;
+					if (value instanceof Short && result >= Short.MIN_VALUE && result <= Short.MAX_VALUE) {
+						return Short.valueOf((short) result);
+					} else if (result >= Integer.MIN_VALUE && result <= Integer.MAX_VALUE) {
+						return Integer.valueOf((int) result);
+					} else {
+						return Double.valueOf(result);
+					}
+				}
 				if (value instanceof Short) {
 					double result = ((Short) value) * factor;
 					if (result >= Short.MIN_VALUE && result <= Short.MAX_VALUE) {
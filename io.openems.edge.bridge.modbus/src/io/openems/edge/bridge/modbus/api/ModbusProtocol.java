@@ -1,5 +1,6 @@
 package io.openems.edge.bridge.modbus.api;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import io.openems.edge.bridge.modbus.api.task.AbstractTask;
 import io.openems.edge.bridge.modbus.api.task.ReadTask;
 import io.openems.edge.bridge.modbus.api.task.Task;
 import io.openems.edge.bridge.modbus.api.task.WriteTask;
+import io.openems.edge.common.taskmanager.Priority;
 import io.openems.edge.common.taskmanager.TaskManager;
 
 public class ModbusProtocol {
@@ -31,6 +33,13 @@ public class ModbusProtocol {
 	 */
 	private final TaskManager<WriteTask> writeTaskManager = new TaskManager<>();
 
+	/**
+	 * ReadTasks with LOW or ONCE priority that were never executed. They are all
+	 * executed with the next ReadTasks, so that every Channel has a value after
+	 * the first cycle instead of after a full round of LOW tasks.
+	 */
+	private final List<ReadTask> initialReadTasks = new ArrayList<>();
+
 	public ModbusProtocol(AbstractOpenemsModbusComponent parent, Task... tasks) {
 		this.parent = parent;
 		for (Task task : tasks) {
@@ -54,6 +63,9 @@ public class ModbusProtocol {
 		 */
 		if (task instanceof ReadTask) {
 			this.readTaskManager.addTask((ReadTask) task);
+			if (((ReadTask) task).getPriority() != Priority.HIGH) {
+				this.initialReadTasks.add((ReadTask) task);
+			}
 		}
 	}
 
@@ -74,8 +86,17 @@ public class ModbusProtocol {
 	 * 
 	 * @return
 	 */
-	public List<ReadTask> getNextReadTasks() {
-		return this.readTaskManager.getNextReadTasks();
+	public synchronized List<ReadTask> getNextReadTasks() {
+		List<ReadTask> result = this.readTaskManager.getNextReadTasks();
+		if (!this.initialReadTasks.isEmpty()) {
+			for (ReadTask task : this.initialReadTasks) {
+				if (!result.contains(task)) {
+					result.add(task);
+				}
+			}
+			this.initialReadTasks.clear();
+		}
+		return result;
 	}
 
 	/**
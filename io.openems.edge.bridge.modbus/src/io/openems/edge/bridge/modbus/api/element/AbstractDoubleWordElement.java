@@ -1,6 +1,7 @@
 package io.openems.edge.bridge.modbus.api.element;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -30,29 +31,42 @@ public abstract class AbstractDoubleWordElement<T> extends AbstractModbusRegiste
 
 	@Override
 	protected final void _setInputRegisters(InputRegister... registers) {
-		// fill buffer
-		ByteBuffer buff = ByteBuffer.allocate(4).order(this.getByteOrder());
+		super.setValue(this.decode(registers[0].getValue(), registers[1].getValue()));
+	}
+
+	@Override
+	protected final void _setInputRegisters(ByteBuffer buffer, int index) {
+		super.setValue(this.decode(buffer.getShort(index) & 0xffff, buffer.getShort(index + 2) & 0xffff));
+	}
+
+	/**
+	 * Combines the two words in the order they were received, applying WordOrder
+	 * and ByteOrder, and converts the result
+	 * 
+	 * @param word0
+	 * @param word1
+	 * @return
+	 */
+	private T decode(int word0, int word1) {
+		int value;
 		if (wordOrder == WordOrder.MSWLSW) {
-			buff.put(registers[0].toBytes());
-			buff.put(registers[1].toBytes());
+			value = word0 << 16 | word1;
 		} else {
-			buff.put(registers[1].toBytes());
-			buff.put(registers[0].toBytes());
+			value = word1 << 16 | word0;
 		}
-		buff.rewind();
-		// convert registers to Long
-		T value = fromByteBuffer(buff);
-		// set value
-		super.setValue(value);
+		if (this.getByteOrder() == ByteOrder.LITTLE_ENDIAN) {
+			value = Integer.reverseBytes(value);
+		}
+		return this.fromInt(value);
 	}
 
 	/**
-	 * Converts a 4-byte ByteBuffer to the the current OpenemsType
+	 * Converts a 32-bit value to the the current OpenemsType
 	 * 
-	 * @param buff
+	 * @param value
 	 * @return
 	 */
-	protected abstract T fromByteBuffer(ByteBuffer buff);
+	protected abstract T fromInt(int value);
 
 	@Override
 	public final void _setNextWriteValue(Optional<T> valueOpt) throws OpenemsException {
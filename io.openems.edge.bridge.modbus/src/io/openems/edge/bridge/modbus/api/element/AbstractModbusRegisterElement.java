@@ -7,6 +7,7 @@ import io.openems.common.types.OpenemsType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Optional;
 
@@ -38,6 +39,37 @@ public abstract class AbstractModbusRegisterElement<T> extends AbstractModbusEle
 		return this.nextWriteValue;
 	}
 
+	/*
+	 * The last value that was written to the Modbus device; only accessed by the
+	 * ModbusWorker
+	 */
+	private int[] lastWrittenValue = null;
+	private long lastWrittenTimestamp = 0;
+
+	@Override
+	public boolean isWriteRequired(Register[] registers, long now, long keepAlive) {
+		if (this.lastWrittenValue == null || now - this.lastWrittenTimestamp >= keepAlive
+				|| this.lastWrittenValue.length != registers.length) {
+			return true;
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (this.lastWrittenValue[i] != registers[i].getValue()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void setWritten(Register[] registers, long now) {
+		int[] value = new int[registers.length];
+		for (int i = 0; i < registers.length; i++) {
+			value[i] = registers[i].getValue();
+		}
+		this.lastWrittenValue = value;
+		this.lastWrittenTimestamp = now;
+	}
+
 	/*
 	 * ByteOrder of the input registers
 	 */
@@ -67,6 +99,35 @@ public abstract class AbstractModbusRegisterElement<T> extends AbstractModbusEle
 		this._setInputRegisters(registers);
 	}
 
+	@Override
+	public void setInputRegisters(ByteBuffer buffer, int index) throws OpenemsException {
+		if (this.isDebug()) {
+			StringBuilder b = new StringBuilder("Element [" + this + "] set input registers to [");
+			for (int i = 0; i < this.getLength(); i++) {
+				b.append(Short.toUnsignedInt(buffer.getShort(index + i * 2)));
+				if (i < this.getLength() - 1) {
+					b.append(",");
+				}
+			}
+			b.append("].");
+			log.info(b.toString());
+		}
+		if (buffer.limit() < index + this.getLength() * 2) {
+			throw new OpenemsException("Modbus Element [" + this + "]: buffer length [" + buffer.limit()
+					+ "] is too short for index [" + index + "] and required size of [" + this.getLength() + "]");
+		}
+		this._setInputRegisters(buffer, index);
+	}
+
 	protected abstract void _setInputRegisters(InputRegister... registers);
 
+	/**
+	 * Sets the value from the big-endian register bytes in the buffer, starting at
+	 * the given byte index. Must not modify the buffer or keep a reference to it.
+	 * 
+	 * @param buffer
+	 * @param index
+	 */
+	protected abstract void _setInputRegisters(ByteBuffer buffer, int index);
+
 }
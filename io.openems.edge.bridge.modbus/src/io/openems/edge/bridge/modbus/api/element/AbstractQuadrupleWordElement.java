@@ -1,6 +1,7 @@
 package io.openems.edge.bridge.modbus.api.element;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Optional;
 
 import org.slf4j.Logger;
@@ -31,33 +32,42 @@ public abstract class AbstractQuadrupleWordElement<T> extends AbstractModbusRegi
 	
 	@Override
 	protected final void _setInputRegisters(InputRegister... registers) {
-		// fill buffer
-		ByteBuffer buff = ByteBuffer.allocate(8).order(this.getByteOrder());
+		super.setValue(this.decode(registers[0].getValue(), registers[1].getValue(), registers[2].getValue(),
+				registers[3].getValue()));
+	}
+
+	@Override
+	protected final void _setInputRegisters(ByteBuffer buffer, int index) {
+		super.setValue(this.decode(buffer.getShort(index) & 0xffff, buffer.getShort(index + 2) & 0xffff,
+				buffer.getShort(index + 4) & 0xffff, buffer.getShort(index + 6) & 0xffff));
+	}
+
+	/**
+	 * Combines the four words in the order they were received, applying WordOrder
+	 * and ByteOrder, and converts the result
+	 * 
+	 * @return
+	 */
+	private T decode(long word0, long word1, long word2, long word3) {
+		long value;
 		if (wordOrder == WordOrder.MSWLSW) {
-			buff.put(registers[0].toBytes());
-			buff.put(registers[1].toBytes());
-			buff.put(registers[2].toBytes());
-			buff.put(registers[3].toBytes());
+			value = word0 << 48 | word1 << 32 | word2 << 16 | word3;
 		} else {
-			buff.put(registers[3].toBytes());
-			buff.put(registers[2].toBytes());
-			buff.put(registers[1].toBytes());
-			buff.put(registers[0].toBytes());
+			value = word3 << 48 | word2 << 32 | word1 << 16 | word0;
 		}
-		buff.rewind();
-		// convert registers to Long
-		T value = fromByteBuffer(buff);
-		// set value
-		super.setValue(value);
+		if (this.getByteOrder() == ByteOrder.LITTLE_ENDIAN) {
+			value = Long.reverseBytes(value);
+		}
+		return this.fromLong(value);
 	}
 	
 	/**
-	 * Converts a 8-byte ByteBuffer to the the current OpenemsType
+	 * Converts a 64-bit value to the the current OpenemsType
 	 * 
-	 * @param buff
+	 * @param value
 	 * @return
 	 */
-	protected abstract T fromByteBuffer(ByteBuffer buff);
+	protected abstract T fromLong(long value);
 
 	@Override
 	public final void _setNextWriteValue(Optional<T> valueOpt) throws OpenemsException {
@@ -33,21 +33,34 @@ public abstract class AbstractWordElement<T> extends AbstractModbusRegisterEleme
 
 	@Override
 	protected final void _setInputRegisters(InputRegister... registers) {
-		// convert registers
-		ByteBuffer buff = ByteBuffer.allocate(2).order(getByteOrder());
-		buff.put(registers[0].toBytes());
-		T value = fromByteBuffer(buff);
-		// set value
-		super.setValue(value);
+		super.setValue(this.decode((short) registers[0].getValue()));
+	}
+
+	@Override
+	protected final void _setInputRegisters(ByteBuffer buffer, int index) {
+		super.setValue(this.decode(buffer.getShort(index)));
 	}
 
 	/**
-	 * Converts a 2-byte ByteBuffer to the the current OpenemsType
+	 * Applies the ByteOrder to the big-endian register value and converts it
 	 * 
-	 * @param buff
+	 * @param value
+	 * @return
+	 */
+	private T decode(short value) {
+		if (this.getByteOrder() == ByteOrder.LITTLE_ENDIAN) {
+			value = Short.reverseBytes(value);
+		}
+		return this.fromShort(value);
+	}
+
+	/**
+	 * Converts a 16-bit value to the the current OpenemsType
+	 * 
+	 * @param value
 	 * @return
 	 */
-	protected abstract T fromByteBuffer(ByteBuffer buff);
+	protected abstract T fromShort(short value);
 
 	@Override
 	public final void _setNextWriteValue(Optional<T> valueOpt) throws OpenemsException {
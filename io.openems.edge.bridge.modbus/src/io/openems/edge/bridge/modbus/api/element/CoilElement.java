@@ -22,6 +22,25 @@ public class CoilElement extends AbstractModbusElement<Boolean> implements Modbu
 		return this.nextWriteValue;
 	}
 
+	/*
+	 * The last value that was written to the Modbus device; only accessed by the
+	 * ModbusWorker
+	 */
+	private Boolean lastWrittenValue = null;
+	private long lastWrittenTimestamp = 0;
+
+	@Override
+	public boolean isWriteRequired(boolean value, long now, long keepAlive) {
+		return this.lastWrittenValue == null || this.lastWrittenValue != value
+				|| now - this.lastWrittenTimestamp >= keepAlive;
+	}
+
+	@Override
+	public void setWritten(boolean value, long now) {
+		this.lastWrittenValue = value;
+		this.lastWrittenTimestamp = now;
+	}
+
 	@Override
 	public int getLength() {
 		return 1;
@@ -33,4 +33,14 @@ public class DummyCoilElement extends AbstractModbusElement<Boolean> implements
 	public Optional<Boolean> getNextWriteValue() {
 		return Optional.empty();
 	}
+
+	@Override
+	public boolean isWriteRequired(boolean value, long now, long keepAlive) {
+		return false;
+	}
+
+	@Override
+	public void setWritten(boolean value, long now) {
+		return;
+	}
 }
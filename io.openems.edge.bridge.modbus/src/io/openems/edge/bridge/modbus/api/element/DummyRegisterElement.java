@@ -1,5 +1,6 @@
 package io.openems.edge.bridge.modbus.api.element;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import com.ghgande.j2mod.modbus.procimg.InputRegister;
@@ -33,6 +34,14 @@ public class DummyRegisterElement extends AbstractModbusElement<Void> implements
 		return;
 	}
 
+	/**
+	 * We are not setting a value for a DummyElement.
+	 */
+	@Override
+	public void setInputRegisters(ByteBuffer buffer, int index) {
+		return;
+	}
+
 	@Override
 	@Deprecated
 	public void _setNextWriteValue(Optional<Void> valueOpt) {
@@ -44,4 +53,14 @@ public class DummyRegisterElement extends AbstractModbusElement<Void> implements
 	public Optional<Register[]> getNextWriteValue() {
 		return Optional.empty();
 	}
+
+	@Override
+	public boolean isWriteRequired(Register[] registers, long now, long keepAlive) {
+		return false;
+	}
+
+	@Override
+	public void setWritten(Register[] registers, long now) {
+		return;
+	}
 }
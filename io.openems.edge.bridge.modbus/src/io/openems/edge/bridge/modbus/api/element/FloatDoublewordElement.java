@@ -24,8 +24,8 @@ public class FloatDoublewordElement extends AbstractDoubleWordElement<Float> {
 		return this;
 	}
 
-	protected Float fromByteBuffer(ByteBuffer buff) {
-		return buff.order(this.byteOrder).getFloat(0);
+	protected Float fromInt(int value) {
+		return Float.intBitsToFloat(value);
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Float value) {
@@ -48,4 +48,23 @@ public interface ModbusCoilElement extends ModbusElement<Boolean> {
 	}
 
 	public Optional<Boolean> getNextWriteValue();
+
+	/**
+	 * Checks whether a write value needs to be sent to the Modbus device, i.e. it
+	 * differs from the last written value or the keep-alive time has passed.
+	 *
+	 * @param value     the write value
+	 * @param now       the current time in [ns], from {@link System#nanoTime()}
+	 * @param keepAlive the keep-alive time in [ns]; 0 to write every time
+	 * @return true if the value needs to be written
+	 */
+	public boolean isWriteRequired(boolean value, long now, long keepAlive);
+
+	/**
+	 * Remembers a value that was successfully written to the Modbus device.
+	 *
+	 * @param value the written value
+	 * @param now   the current time in [ns], from {@link System#nanoTime()}
+	 */
+	public void setWritten(boolean value, long now);
 }
@@ -1,5 +1,6 @@
 package io.openems.edge.bridge.modbus.api.element;
 
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import com.ghgande.j2mod.modbus.procimg.InputRegister;
@@ -18,6 +19,17 @@ public interface ModbusRegisterElement<T> extends ModbusElement<T> {
 	 */
 	public void setInputRegisters(InputRegister... registers) throws OpenemsException;
 
+	/**
+	 * Sets the value of this Element from the big-endian register bytes in the
+	 * buffer, starting at the given byte index. The buffer is reused for the next
+	 * response, so the Element must not keep a reference to it.
+	 * 
+	 * @param buffer
+	 * @param index
+	 * @throws OpenemsException
+	 */
+	public void setInputRegisters(ByteBuffer buffer, int index) throws OpenemsException;
+
 	/**
 	 * Sets a value that should be written to the Modbus device
 	 * 
@@ -50,4 +62,23 @@ public interface ModbusRegisterElement<T> extends ModbusElement<T> {
 	}
 
 	public Optional<Register[]> getNextWriteValue();
+
+	/**
+	 * Checks whether a write value needs to be sent to the Modbus device, i.e. it
+	 * differs from the last written value or the keep-alive time has passed.
+	 *
+	 * @param registers the write value
+	 * @param now       the current time in [ns], from {@link System#nanoTime()}
+	 * @param keepAlive the keep-alive time in [ns]; 0 to write every time
+	 * @return true if the value needs to be written
+	 */
+	public boolean isWriteRequired(Register[] registers, long now, long keepAlive);
+
+	/**
+	 * Remembers a value that was successfully written to the Modbus device.
+	 *
+	 * @param registers the written value
+	 * @param now       the current time in [ns], from {@link System#nanoTime()}
+	 */
+	public void setWritten(Register[] registers, long now);
 }
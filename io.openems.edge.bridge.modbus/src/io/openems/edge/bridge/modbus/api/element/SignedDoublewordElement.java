@@ -15,8 +15,8 @@ public class SignedDoublewordElement extends AbstractDoubleWordElement<Long> {
 		return this;
 	}
 
-	protected Long fromByteBuffer(ByteBuffer buff) {
-		return Long.valueOf(buff.getInt());
+	protected Long fromInt(int value) {
+		return Long.valueOf(value);
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Long value) {
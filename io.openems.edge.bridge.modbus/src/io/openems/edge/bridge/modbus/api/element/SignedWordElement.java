@@ -10,8 +10,8 @@ public class SignedWordElement extends AbstractWordElement<Short> {
 		super(OpenemsType.SHORT, address);
 	}
 
-	protected Short fromByteBuffer(ByteBuffer buff) {
-		return buff.order(getByteOrder()).getShort(0);
+	protected Short fromShort(short value) {
+		return value;
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Short value) {
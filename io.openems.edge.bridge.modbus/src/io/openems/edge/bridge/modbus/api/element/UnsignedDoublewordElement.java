@@ -15,8 +15,8 @@ public class UnsignedDoublewordElement extends AbstractDoubleWordElement<Long> {
 		return this;
 	}
 
-	protected Long fromByteBuffer(ByteBuffer buff) {
-		return Integer.toUnsignedLong(buff.getInt(0));
+	protected Long fromInt(int value) {
+		return Integer.toUnsignedLong(value);
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Long value) {
@@ -15,9 +15,8 @@ public class UnsignedQuadruplewordElement extends AbstractQuadrupleWordElement<L
 		return this;
 	}
 	
-	protected Long fromByteBuffer(ByteBuffer buff) {
-		
-		return buff.getLong(0);
+	protected Long fromLong(long value) {
+		return value;
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Long value) {
@@ -16,8 +16,8 @@ public class UnsignedWordElement extends AbstractWordElement<Integer> {
 		return this;
 	}
 
-	protected Integer fromByteBuffer(ByteBuffer buff) {
-		return Short.toUnsignedInt(buff.getShort(0));
+	protected Integer fromShort(short value) {
+		return Short.toUnsignedInt(value);
 	}
 
 	protected ByteBuffer toByteBuffer(ByteBuffer buff, Integer value) {
@@ -1,10 +1,12 @@
 package io.openems.edge.bridge.modbus.api.task;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.ghgande.j2mod.modbus.procimg.InputRegister;
 
 import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.AbstractModbusBridge;
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.bridge.modbus.api.element.ModbusElement;
 import io.openems.edge.bridge.modbus.api.element.ModbusRegisterElement;
@@ -12,6 +14,11 @@ import io.openems.edge.common.taskmanager.Priority;
 
 public abstract class AbstractReadInputRegistersTask extends AbstractReadTask<InputRegister> {
 
+	/**
+	 * The register buffer of the bridge while elements are filled; null otherwise
+	 */
+	private ByteBuffer buffer = null;
+
 	public AbstractReadInputRegistersTask(int startAddress, Priority priority, AbstractModbusElement<?>... elements) {
 		super(startAddress, priority, elements);
 	}
@@ -21,10 +28,28 @@ public abstract class AbstractReadInputRegistersTask extends AbstractReadTask<In
 		return modbusElement instanceof ModbusRegisterElement;
 	}
 
+	/**
+	 * Copies the response once to the register buffer of the bridge; all elements
+	 * are then decoded from there without further allocations.
+	 */
+	@Override
+	protected void fillElements(AbstractModbusBridge bridge, InputRegister[] response) {
+		this.buffer = bridge.toRegisterBuffer(response);
+		try {
+			super.fillElements(bridge, response);
+		} finally {
+			this.buffer = null;
+		}
+	}
+
 	@Override
 	protected void doElementSetInput(ModbusElement<?> modbusElement, int position, InputRegister[] response) throws OpenemsException {
-		((ModbusRegisterElement<?>) modbusElement).setInputRegisters( (InputRegister[]) 
-				Arrays.copyOfRange(response, position, position + modbusElement.getLength()));
+		if (this.buffer != null) {
+			((ModbusRegisterElement<?>) modbusElement).setInputRegisters(this.buffer, position * 2);
+		} else {
+			((ModbusRegisterElement<?>) modbusElement).setInputRegisters( (InputRegister[]) 
+					Arrays.copyOfRange(response, position, position + modbusElement.getLength()));
+		}
 	}
 
 	@Override
@@ -61,7 +61,7 @@ public abstract class AbstractReadTask<T> extends AbstractTask implements ReadTa
 					"Received message is too short. Expected [" + getLength() + "], got [" + response.length + "]");
 		}
 
-		fillElements(response);
+		fillElements(bridge, response);
 	}
 
 	protected T[] readElements(AbstractModbusBridge bridge) throws OpenemsException, ModbusException {
@@ -70,6 +70,17 @@ public abstract class AbstractReadTask<T> extends AbstractTask implements ReadTa
 		return handleResponse(response);
 	}
 
+	/**
+	 * Fills the Elements from the response. Subclasses may use resources of the
+	 * bridge for decoding.
+	 * 
+	 * @param bridge
+	 * @param response
+	 */
+	protected void fillElements(AbstractModbusBridge bridge, T[] response) {
+		this.fillElements(response);
+	}
+
 	protected void fillElements(T[] response) {
 		int position = 0;
 		for (ModbusElement<?> modbusElement : this.getElements()) {
@@ -0,0 +1,122 @@
+package io.openems.edge.bridge.modbus.api.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.msg.ModbusRequest;
+import com.ghgande.j2mod.modbus.msg.ModbusResponse;
+import com.ghgande.j2mod.modbus.msg.WriteMultipleRegistersRequest;
+import com.ghgande.j2mod.modbus.msg.WriteMultipleRegistersResponse;
+import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterRequest;
+import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterResponse;
+import com.ghgande.j2mod.modbus.procimg.Register;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.AbstractModbusBridge;
+import io.openems.edge.bridge.modbus.api.element.ModbusRegisterElement;
+
+/**
+ * Write values of ModbusRegisterElements without holes inbetween, that are
+ * written in one request.
+ */
+class CombinedWriteRegisters {
+
+	public final int startAddress;
+	private final boolean isSingleWriteAllowed;
+	private final List<Register> registers = new ArrayList<>();
+	private final List<ModbusRegisterElement<?>> elements = new ArrayList<>();
+	private final List<Register[]> values = new ArrayList<>();
+
+	/**
+	 * @param startAddress
+	 * @param isSingleWriteAllowed use function code 6 if there is only one
+	 *                             register; otherwise function code 16 is
+	 *                             always used
+	 */
+	public CombinedWriteRegisters(int startAddress, boolean isSingleWriteAllowed) {
+		this.startAddress = startAddress;
+		this.isSingleWriteAllowed = isSingleWriteAllowed;
+	}
+
+	public void add(ModbusRegisterElement<?> element, Register... registers) {
+		for (Register register : registers) {
+			this.registers.add(register);
+		}
+		this.elements.add(element);
+		this.values.add(registers);
+	}
+
+	public Register[] getRegisters() {
+		return this.registers.toArray(new Register[this.registers.size()]);
+	}
+
+	public int getLastAddress() {
+		return this.startAddress + registers.size() - 1;
+	}
+
+	/**
+	 * Writes the registers to the Modbus device and remembers the written values
+	 * at the Elements.
+	 *
+	 * @param bridge
+	 * @param unitId
+	 * @param now    the current time in [ns]
+	 * @throws OpenemsException
+	 */
+	public void execute(AbstractModbusBridge bridge, int unitId, long now) throws OpenemsException {
+		try {
+			/*
+			 * First try
+			 */
+			this.write(bridge, unitId);
+		} catch (OpenemsException | ModbusException e) {
+			/*
+			 * Second try: with new connection
+			 */
+			bridge.closeModbusConnection();
+			try {
+				this.write(bridge, unitId);
+			} catch (ModbusException e2) {
+				throw new OpenemsException("Transaction failed: " + e.getMessage(), e2);
+			}
+		}
+		for (int i = 0; i < this.elements.size(); i++) {
+			this.elements.get(i).setWritten(this.values.get(i), now);
+		}
+	}
+
+	private void write(AbstractModbusBridge bridge, int unitId) throws ModbusException, OpenemsException {
+		boolean isSingleWrite = this.isSingleWriteAllowed && this.registers.size() == 1;
+		ModbusRequest request;
+		if (isSingleWrite) {
+			request = new WriteSingleRegisterRequest(this.startAddress, this.registers.get(0));
+		} else {
+			request = new WriteMultipleRegistersRequest(this.startAddress, this.getRegisters());
+		}
+		ModbusResponse response = Utils.getResponse(request, unitId, bridge);
+
+		if (isSingleWrite && !(response instanceof WriteSingleRegisterResponse)) {
+			throw new OpenemsException("Unexpected Modbus response. Expected [WriteSingleRegisterResponse], got ["
+					+ response.getClass().getSimpleName() + "]");
+		}
+		if (!isSingleWrite && !(response instanceof WriteMultipleRegistersResponse)) {
+			throw new OpenemsException("Unexpected Modbus response. Expected [WriteMultipleRegistersResponse], got ["
+					+ response.getClass().getSimpleName() + "]");
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder(
+				"address [" + this.startAddress + "/0x" + Integer.toHexString(this.startAddress) + "] values [");
+		for (int i = 0; i < this.registers.size(); i++) {
+			b.append(this.registers.get(i).getValue());
+			if (i < this.registers.size() - 1) {
+				b.append(",");
+			}
+		}
+		b.append("]");
+		return b.toString();
+	}
+}
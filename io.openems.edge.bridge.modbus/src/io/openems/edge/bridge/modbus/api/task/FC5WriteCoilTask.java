@@ -32,8 +32,10 @@ public class FC5WriteCoilTask extends AbstractTask implements WriteTask {
 	public void executeWrite(AbstractModbusBridge bridge) throws OpenemsException {
 		ModbusElement<?> element = this.getElements()[0];
 		if (element instanceof ModbusCoilElement) {
-			Optional<Boolean> valueOpt = ((ModbusCoilElement) element).getNextWriteValueAndReset();
-			if (valueOpt.isPresent()) {
+			ModbusCoilElement coilElement = (ModbusCoilElement) element;
+			Optional<Boolean> valueOpt = coilElement.getNextWriteValueAndReset();
+			long now = System.nanoTime();
+			if (valueOpt.isPresent() && coilElement.isWriteRequired(valueOpt.get(), now, bridge.getWriteKeepAlive())) {
 				// found value -> write
 				try {
 					/*
@@ -51,6 +53,7 @@ public class FC5WriteCoilTask extends AbstractTask implements WriteTask {
 						throw new OpenemsException("Transaction failed: " + e.getMessage(), e2);
 					}
 				}
+				coilElement.setWritten(valueOpt.get(), now);
 			}
 		} else {
 			log.warn("Unable to execute Write for ModbusElement [" + element + "]: No ModbusCoilElement!");
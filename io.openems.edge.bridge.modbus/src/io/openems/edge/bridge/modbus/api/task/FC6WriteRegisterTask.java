@@ -1,14 +1,14 @@
 package io.openems.edge.bridge.modbus.api.task;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ghgande.j2mod.modbus.ModbusException;
-import com.ghgande.j2mod.modbus.msg.ModbusResponse;
-import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterRequest;
-import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterResponse;
 import com.ghgande.j2mod.modbus.procimg.Register;
 
 import io.openems.common.exceptions.OpenemsException;
@@ -19,7 +19,7 @@ import io.openems.edge.bridge.modbus.api.element.ModbusElement;
 
 public class FC6WriteRegisterTask extends AbstractTask implements WriteTask {
 
-	private final Logger log = LoggerFactory.getLogger(FC6WriteRegisterTask.class);
+	private final static Logger log = LoggerFactory.getLogger(FC6WriteRegisterTask.class);
 
 	public FC6WriteRegisterTask(int startAddress, AbstractModbusElement<?> element) {
 		super(startAddress, element);
@@ -27,41 +27,82 @@ public class FC6WriteRegisterTask extends AbstractTask implements WriteTask {
 
 	@Override
 	public void executeWrite(AbstractModbusBridge bridge) throws OpenemsException {
-		ModbusElement<?> element = this.getElements()[0];
+		FC6WriteRegisterTask.executeWrites(bridge, Collections.singletonList(this));
+	}
 
-		if (element instanceof AbstractWordElement<?>) {
+	/**
+	 * Executes the given FC6WriteRegisterTasks.
+	 * 
+	 * If a keep-alive time is configured, only registers that changed since the
+	 * last write or whose keep-alive time has passed are written. If merging is
+	 * enabled, registers of the same Unit-ID without holes inbetween are combined
+	 * to one request using Modbus function code 16; otherwise every register is
+	 * written on its own in the given order.
+	 * 
+	 * @param bridge
+	 * @param tasks
+	 * @throws OpenemsException if at least one request failed
+	 */
+	public static void executeWrites(AbstractModbusBridge bridge, List<FC6WriteRegisterTask> tasks)
+			throws OpenemsException {
+		long now = System.nanoTime();
+		long keepAlive = bridge.getWriteKeepAlive();
+		boolean isMergeWrites = bridge.isMergeWrites();
+		List<FC6WriteRegisterTask> sortedTasks = new ArrayList<>(tasks);
+		if (isMergeWrites) {
+			// sort the tasks by Unit-ID and address
+			sortedTasks.sort(Comparator.comparingInt((FC6WriteRegisterTask task) -> task.getParent().getUnitId())
+					.thenComparingInt(FC6WriteRegisterTask::getStartAddress));
+		}
 
-			Optional<Register[]> valueOpt = ((AbstractWordElement<?>) element).getNextWriteValue();
-			if (valueOpt.isPresent()) {
-				Register[] registers = valueOpt.get();
+		List<String> errors = new ArrayList<>();
+		CombinedWriteRegisters write = null;
+		int unitId = 0;
+		for (FC6WriteRegisterTask task : sortedTasks) {
+			ModbusElement<?> element = task.getElements()[0];
+			if (!(element instanceof AbstractWordElement<?>)) {
+				log.warn("Unable to execute Write for ModbusElement [" + element + "]: No AbstractWordElement!");
+				continue;
+			}
+			AbstractWordElement<?> wordElement = (AbstractWordElement<?>) element;
+			Optional<Register[]> valueOpt = wordElement.getNextWriteValue();
+			if (!valueOpt.isPresent()) {
+				continue;
+			}
+			Register[] registers = valueOpt.get();
+			if (registers.length != 1 || registers[0] == null) {
+				log.warn("Expecting exactly one register. Got [" + registers.length + "]");
+				continue;
+			}
+			if (!wordElement.isWriteRequired(registers, now, keepAlive)) {
+				continue;
+			}
+			if (write == null /* no writes created yet */
+					|| !isMergeWrites /* every register on its own */
+					|| unitId != task.getParent().getUnitId() /* another device */
+					|| write.getLastAddress() + 1 != task.getStartAddress() /* there is a hole */) {
+				execute(bridge, write, unitId, now, errors);
+				write = new CombinedWriteRegisters(task.getStartAddress(), true);
+				unitId = task.getParent().getUnitId();
+			}
+			write.add(wordElement, registers);
+		}
+		execute(bridge, write, unitId, now, errors);
 
-				if (registers.length == 1 && registers[0] != null) {
-					// found value -> write
-					try {
-						/*
-						 * First try
-						 */
+		if (!errors.isEmpty()) {
+			throw new OpenemsException(String.join("; ", errors));
+		}
+	}
 
-						this.writeSingleRegister(bridge, this.getParent().getUnitId(), this.getStartAddress(),
-								registers[0]);
-					} catch (OpenemsException | ModbusException e) {
-						/*
-						 * Second try: with new connection
-						 */
-						bridge.closeModbusConnection();
-						try {
-							this.writeSingleRegister(bridge, this.getParent().getUnitId(), this.getStartAddress(),
-									registers[0]);
-						} catch (ModbusException e2) {
-							throw new OpenemsException("Transaction failed: " + e.getMessage(), e2);
-						}
-					}
-				} else {
-					log.warn("Expecting exactly one register. Got [" + registers.length + "]");
-				}
-			}
-		} else {
-			log.warn("Unable to execute Write for ModbusElement [" + element + "]: No AbstractWordElement!");
+	private static void execute(AbstractModbusBridge bridge, CombinedWriteRegisters write, int unitId, long now,
+			List<String> errors) {
+		if (write == null) {
+			return;
+		}
+		try {
+			write.execute(bridge, unitId, now);
+		} catch (OpenemsException e) {
+			errors.add("unitid [" + unitId + "] " + write + ": " + e.getMessage());
 		}
 	}
 
@@ -69,16 +110,4 @@ public class FC6WriteRegisterTask extends AbstractTask implements WriteTask {
 	protected String getActiondescription() {
 		return "FC6 Write Register";
 	}
-
-	private void writeSingleRegister(AbstractModbusBridge bridge, int unitId, int startAddress, Register register)
-			throws ModbusException, OpenemsException {
-
-		WriteSingleRegisterRequest request = new WriteSingleRegisterRequest(startAddress, register);
-		ModbusResponse response = Utils.getResponse(request, unitId, bridge);
-
-		if (!(response instanceof WriteSingleRegisterResponse)) {
-			throw new OpenemsException("Unexpected Modbus response. Expected [WriteSingleRegisterResponse], got ["
-					+ response.getClass().getSimpleName() + "]");
-		}
-	}
 }
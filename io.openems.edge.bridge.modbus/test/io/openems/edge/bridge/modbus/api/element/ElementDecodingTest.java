@@ -0,0 +1,73 @@
+package io.openems.edge.bridge.modbus.api.element;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.ghgande.j2mod.modbus.procimg.InputRegister;
+import com.ghgande.j2mod.modbus.procimg.SimpleInputRegister;
+
+import io.openems.edge.bridge.modbus.api.ElementToChannelConverter;
+
+public class ElementDecodingTest {
+
+	private static <T> T fromBuffer(AbstractModbusRegisterElement<T> element, int index, int... words)
+			throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(index + words.length * 2);
+		for (int i = 0; i < words.length; i++) {
+			buffer.putShort(index + i * 2, (short) words[i]);
+		}
+		AtomicReference<T> result = new AtomicReference<>();
+		element.onUpdateCallback(value -> result.set(value));
+		element.setInputRegisters(buffer, index);
+		return result.get();
+	}
+
+	private static <T> T fromRegisters(AbstractModbusRegisterElement<T> element, int... words) throws Exception {
+		InputRegister[] registers = new InputRegister[words.length];
+		for (int i = 0; i < words.length; i++) {
+			registers[i] = new SimpleInputRegister(words[i]);
+		}
+		AtomicReference<T> result = new AtomicReference<>();
+		element.onUpdateCallback(value -> result.set(value));
+		element.setInputRegisters(registers);
+		return result.get();
+	}
+
+	@Test
+	public void testWord() throws Exception {
+		assertEquals(Integer.valueOf(0xFFFE), fromBuffer(new UnsignedWordElement(0), 4, 0xFFFE));
+		assertEquals(Short.valueOf((short) -2), fromBuffer(new SignedWordElement(0), 2, 0xFFFE));
+		assertEquals(Short.valueOf((short) -2), fromRegisters(new SignedWordElement(0), 0xFFFE));
+	}
+
+	@Test
+	public void testDoubleWord() throws Exception {
+		assertEquals(Long.valueOf(0x12345678L), fromBuffer(new UnsignedDoublewordElement(0), 0, 0x1234, 0x5678));
+		assertEquals(Long.valueOf(0x12345678L),
+				fromBuffer(new UnsignedDoublewordElement(0).wordOrder(WordOrder.LSWMSW), 2, 0x5678, 0x1234));
+		assertEquals(Long.valueOf(-1L), fromRegisters(new SignedDoublewordElement(0), 0xFFFF, 0xFFFF));
+		int bits = Float.floatToIntBits(12.5f);
+		assertEquals(Float.valueOf(12.5f), fromBuffer(new FloatDoublewordElement(0), 0, bits >>> 16, bits & 0xFFFF));
+	}
+
+	@Test
+	public void testQuadrupleWord() throws Exception {
+		assertEquals(Long.valueOf(0x0001000200030004L),
+				fromBuffer(new UnsignedQuadruplewordElement(0), 0, 0x0001, 0x0002, 0x0003, 0x0004));
+		assertEquals(Long.valueOf(0x0001000200030004L), fromRegisters(
+				new UnsignedQuadruplewordElement(0).wordOrder(WordOrder.LSWMSW), 0x0004, 0x0003, 0x0002, 0x0001));
+	}
+
+	@Test
+	public void testScaleFactor() {
+		assertEquals(Integer.valueOf(1230), ElementToChannelConverter.SCALE_FACTOR_1.elementToChannel(123));
+		assertEquals(Short.valueOf((short) 1230),
+				ElementToChannelConverter.SCALE_FACTOR_1.elementToChannel((short) 123));
+		assertEquals(Integer.valueOf(123), ElementToChannelConverter.SCALE_FACTOR_1.channelToElement(1230));
+		assertEquals(Integer.valueOf(12), ElementToChannelConverter.SCALE_FACTOR_MINUS_1.elementToChannel(123));
+	}
+}
@@ -0,0 +1,54 @@
+package io.openems.edge.bridge.modbus.api.element;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ghgande.j2mod.modbus.procimg.Register;
+import com.ghgande.j2mod.modbus.procimg.SimpleRegister;
+
+public class WriteRequiredTest {
+
+	private final static long KEEP_ALIVE = TimeUnit.SECONDS.toNanos(10);
+
+	private static Register[] registers(int... values) {
+		Register[] result = new Register[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = new SimpleRegister(values[i]);
+		}
+		return result;
+	}
+
+	@Test
+	public void testRegisterElement() {
+		UnsignedDoublewordElement element = new UnsignedDoublewordElement(0);
+		// a negative time, as System.nanoTime() may return
+		long now = Long.MIN_VALUE + 1;
+
+		assertTrue("never written", element.isWriteRequired(registers(1, 2), now, KEEP_ALIVE));
+		element.setWritten(registers(1, 2), now);
+
+		assertFalse(element.isWriteRequired(registers(1, 2), now + KEEP_ALIVE - 1, KEEP_ALIVE));
+		assertTrue(element.isWriteRequired(registers(1, 3), now + 1, KEEP_ALIVE));
+		assertTrue("keep-alive passed", element.isWriteRequired(registers(1, 2), now + KEEP_ALIVE, KEEP_ALIVE));
+		assertTrue("always write", element.isWriteRequired(registers(1, 2), now, 0));
+	}
+
+	@Test
+	public void testCoilElement() {
+		CoilElement element = new CoilElement(0);
+		long now = Long.MAX_VALUE - 1;
+
+		assertTrue("never written", element.isWriteRequired(true, now, KEEP_ALIVE));
+		element.setWritten(true, now);
+
+		assertFalse(element.isWriteRequired(true, now + 1, KEEP_ALIVE));
+		assertTrue(element.isWriteRequired(false, now + 1, KEEP_ALIVE));
+		// overflow of System.nanoTime()
+		assertTrue("keep-alive passed", element.isWriteRequired(true, now + KEEP_ALIVE, KEEP_ALIVE));
+		assertTrue("always write", element.isWriteRequired(true, now, 0));
+	}
+}
@@ -0,0 +1,190 @@
+package io.openems.edge.bridge.modbus.api.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.ghgande.j2mod.modbus.ModbusException;
+import com.ghgande.j2mod.modbus.io.ModbusTransaction;
+import com.ghgande.j2mod.modbus.msg.WriteMultipleRegistersRequest;
+import com.ghgande.j2mod.modbus.msg.WriteMultipleRegistersResponse;
+import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterRequest;
+import com.ghgande.j2mod.modbus.msg.WriteSingleRegisterResponse;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.edge.bridge.modbus.AbstractModbusBridge;
+import io.openems.edge.bridge.modbus.api.AbstractOpenemsModbusComponent;
+import io.openems.edge.bridge.modbus.api.ModbusProtocol;
+import io.openems.edge.bridge.modbus.api.element.UnsignedWordElement;
+
+public class FC6WriteRegisterTaskTest {
+
+	/**
+	 * Records the write requests instead of sending them to a device.
+	 */
+	private static class DummyBridge extends AbstractModbusBridge {
+
+		private final List<String> requests = new ArrayList<>();
+
+		public DummyBridge() {
+			this.activate(null, "", "modbus0", false);
+		}
+
+		public DummyBridge(int writeKeepAlive, boolean isMergeWrites) {
+			this.activate(null, "", "modbus0", false, false, writeKeepAlive, isMergeWrites);
+		}
+
+		@Override
+		public ModbusTransaction getNewModbusTransaction() throws OpenemsException {
+			return new ModbusTransaction() {
+				@Override
+				public void execute() throws ModbusException {
+					if (this.request instanceof WriteSingleRegisterRequest) {
+						WriteSingleRegisterRequest request = (WriteSingleRegisterRequest) this.request;
+						requests.add("FC6 " + request.getUnitID() + "/" + request.getReference() + " "
+								+ request.getRegister().getValue());
+						this.response = new WriteSingleRegisterResponse();
+					} else {
+						WriteMultipleRegistersRequest request = (WriteMultipleRegistersRequest) this.request;
+						StringBuilder b = new StringBuilder("FC16 " + request.getUnitID() + "/" + request.getReference());
+						for (int i = 0; i < request.getWordCount(); i++) {
+							b.append(" " + request.getRegisterValue(i));
+						}
+						requests.add(b.toString());
+						this.response = new WriteMultipleRegistersResponse();
+					}
+				}
+			};
+		}
+
+		@Override
+		public void closeModbusConnection() {
+		}
+
+		private List<String> getAndClearRequests() {
+			List<String> result = new ArrayList<>(this.requests);
+			this.requests.clear();
+			return result;
+		}
+	}
+
+	private static class DummyDevice extends AbstractOpenemsModbusComponent {
+
+		private final int unitId;
+
+		public DummyDevice(int unitId) {
+			this.unitId = unitId;
+		}
+
+		@Override
+		public Integer getUnitId() {
+			return this.unitId;
+		}
+
+		@Override
+		protected ModbusProtocol defineModbusProtocol() {
+			return null;
+		}
+	}
+
+	private static FC6WriteRegisterTask task(DummyDevice device, int address, int value) throws OpenemsException {
+		UnsignedWordElement element = new UnsignedWordElement(address);
+		element._setNextWriteValue(Optional.of(value));
+		FC6WriteRegisterTask task = new FC6WriteRegisterTask(address, element);
+		task.setParent(device);
+		return task;
+	}
+
+	private static void setNextWriteValue(FC6WriteRegisterTask task, int value) throws OpenemsException {
+		((UnsignedWordElement) task.getElements()[0])._setNextWriteValue(Optional.of(value));
+	}
+
+	@Test
+	public void testDefaults() throws OpenemsException {
+		DummyBridge bridge = new DummyBridge();
+		assertEquals(0, bridge.getWriteKeepAlive());
+		assertFalse(bridge.isMergeWrites());
+
+		DummyDevice device = new DummyDevice(1);
+		FC6WriteRegisterTask.executeWrites(bridge, Arrays.asList(task(device, 11, 2), task(device, 10, 1)));
+		assertEquals(Arrays.asList("FC6 1/11 2", "FC6 1/10 1"), bridge.getAndClearRequests());
+	}
+
+	@Test
+	public void testMerge() throws OpenemsException {
+		DummyBridge bridge = new DummyBridge(0, true);
+		DummyDevice device1 = new DummyDevice(1);
+		DummyDevice device2 = new DummyDevice(2);
+		List<FC6WriteRegisterTask> tasks = Arrays.asList( //
+				task(device2, 100, 7), //
+				task(device1, 11, 2), //
+				task(device1, 10, 1), //
+				task(device1, 13, 4));
+
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+
+		// sorted by Unit-ID and address; registers without holes are combined
+		assertEquals(Arrays.asList( //
+				"FC16 1/10 1 2", //
+				"FC6 1/13 4", //
+				"FC6 2/100 7"), bridge.getAndClearRequests());
+	}
+
+	@Test
+	public void testMergeDisabled() throws OpenemsException {
+		DummyBridge bridge = new DummyBridge(0, false);
+		DummyDevice device1 = new DummyDevice(1);
+		DummyDevice device2 = new DummyDevice(2);
+		List<FC6WriteRegisterTask> tasks = Arrays.asList( //
+				task(device2, 100, 7), //
+				task(device1, 11, 2), //
+				task(device1, 10, 1));
+
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+
+		// every register on its own, in the given order
+		assertEquals(Arrays.asList( //
+				"FC6 2/100 7", //
+				"FC6 1/11 2", //
+				"FC6 1/10 1"), bridge.getAndClearRequests());
+	}
+
+	@Test
+	public void testWriteAlways() throws OpenemsException {
+		DummyBridge bridge = new DummyBridge(0, true);
+		List<FC6WriteRegisterTask> tasks = Arrays.asList(task(new DummyDevice(1), 10, 1));
+
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+
+		// without keep-alive unchanged values are written again
+		assertEquals(Arrays.asList("FC6 1/10 1", "FC6 1/10 1"), bridge.getAndClearRequests());
+	}
+
+	@Test
+	public void testSkipUnchanged() throws OpenemsException {
+		DummyBridge bridge = new DummyBridge(3600, true);
+		DummyDevice device = new DummyDevice(1);
+		FC6WriteRegisterTask task10 = task(device, 10, 1);
+		FC6WriteRegisterTask task11 = task(device, 11, 2);
+		List<FC6WriteRegisterTask> tasks = Arrays.asList(task10, task11);
+
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+		assertEquals(Arrays.asList("FC16 1/10 1 2"), bridge.getAndClearRequests());
+
+		// unchanged values are skipped within the keep-alive time
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+		assertEquals(Arrays.asList(), bridge.getAndClearRequests());
+
+		// only the changed register is written
+		setNextWriteValue(task11, 3);
+		FC6WriteRegisterTask.executeWrites(bridge, tasks);
+		assertEquals(Arrays.asList("FC6 1/11 3"), bridge.getAndClearRequests());
+	}
+}
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import io.openems.common.types.ChannelAddress;
 import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.doc.ChannelId;
+import io.openems.edge.common.channel.journal.ChannelJournal;
 import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.OpenemsComponent;
 
@@ -29,6 +30,9 @@ public abstract class AbstractReadChannel<T> implements Channel<T> {
 	private volatile Value<T> nextValue = null;
 	private volatile Value<T> activeValue = null;
 
+	private final ChannelJournal journal;
+	private volatile int journalIndex;
+
 	public AbstractReadChannel(OpenemsType type, OpenemsComponent component, ChannelId channelId) {
 		this(type, component, channelId, null);
 	}
@@ -39,6 +43,8 @@ public abstract class AbstractReadChannel<T> implements Channel<T> {
 		this.type = type;
 		this.parent = parent;
 		this.channelId = channelId;
+		this.journal = ChannelJournal.getDefault();
+		this.journalIndex = this.journal.register(this);
 		// validate Type
 		if (channelId.doc().getType().isPresent()) {
 			if (!type.equals(channelId.doc().getType().get())) {
@@ -78,14 +84,41 @@ public abstract class AbstractReadChannel<T> implements Channel<T> {
 
 	@Override
 	public void nextProcessImage() {
-		boolean valueHasChanged = !Objects.equals(this.activeValue, this.nextValue);
+		Value<T> previousValue = this.activeValue;
+		boolean valueHasChanged = !Objects.equals(previousValue, this.nextValue);
 		this.activeValue = this.nextValue;
+		int journalIndex = this.journalIndex;
+		if (journalIndex >= 0 && valueHasChanged && !Objects.equals(previousValue.get(), this.activeValue.get())) {
+			this.journal.append(journalIndex, this.type, this.activeValue.get());
+		}
 		this.onUpdateCallbacks.forEach(callback -> callback.accept(this.activeValue));
 		if (valueHasChanged) {
 			this.onChangeCallbacks.forEach(callback -> callback.accept(this.activeValue));
 		}
 	}
 
+	/**
+	 * Gets the index of this Channel in the {@link ChannelJournal}.
+	 * 
+	 * @return the index; -1 if it was released
+	 */
+	public int getJournalIndex() {
+		return this.journalIndex;
+	}
+
+	/**
+	 * Unregisters this Channel from the {@link ChannelJournal}, e.g. when it is
+	 * removed from its Component. Changes are not journaled anymore afterwards
+	 * and the index can be reused by another Channel.
+	 */
+	public void releaseJournalIndex() {
+		int journalIndex = this.journalIndex;
+		this.journalIndex = -1;
+		if (journalIndex >= 0) {
+			this.journal.unregister(journalIndex);
+		}
+	}
+
 	@Override
 	public ChannelAddress address() {
 		return new ChannelAddress(this.parent.id(), this.channelId().id());
@@ -103,7 +136,22 @@ public abstract class AbstractReadChannel<T> implements Channel<T> {
 	 */
 	@Deprecated
 	public final void _setNextValue(T value) {
-		this.nextValue = new Value<T>(this, value);
+		this.applyNextValue(new Value<T>(this, value));
+	}
+
+	/**
+	 * Sets the next value to a restored value. Internal method. Do not call
+	 * directly.
+	 * 
+	 * @param value
+	 */
+	@Deprecated
+	public final void _setRestoredNextValue(T value) {
+		this.applyNextValue(new Value<T>(this, value, true));
+	}
+
+	private void applyNextValue(Value<T> value) {
+		this.nextValue = value;
 		if (this.channelDoc().isDebug()) {
 			log.info("Next value for [" + this.address() + "]: " + this.nextValue.asString());
 		}
@@ -135,11 +183,21 @@ public abstract class AbstractReadChannel<T> implements Channel<T> {
 		this.onSetNextValueCallbacks.add(callback);
 	}
 
+	@Override
+	public void removeOnSetNextValueCallback(Consumer<Value<T>> callback) {
+		this.onSetNextValueCallbacks.remove(callback);
+	}
+
 	@Override
 	public void onChange(Consumer<Value<T>> callback) {
 		this.onChangeCallbacks.add(callback);
 	}
 
+	@Override
+	public void removeOnChangeCallback(Consumer<Value<T>> callback) {
+		this.onChangeCallbacks.remove(callback);
+	}
+
 	/*
 	 * This is to help WriteChannels implement the WriteChannel interface.
 	 * 'onSetNextWriteCallbacks' is not final by purpose, because it might be called
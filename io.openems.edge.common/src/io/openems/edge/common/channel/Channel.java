@@ -98,6 +98,21 @@ public interface Channel<T> {
 		}
 	}
 
+	/**
+	 * Updates the 'next' value of Channel with a value that was restored from a
+	 * snapshot of an earlier run, see {@link Value#isRestored()}.
+	 * 
+	 * @param value
+	 */
+	public default void setRestoredNextValue(Object value) {
+		try {
+			this._setRestoredNextValue(TypeUtils.<T>getAsType(this.getType(), value));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(
+					"Unable to set value [" + value + "] for Channel [" + this.address() + "]: " + e.getMessage(), e);
+		}
+	}
+
 	/**
 	 * Gets the NextValue.
 	 * 
@@ -115,6 +130,12 @@ public interface Channel<T> {
 	 */
 	public void onSetNextValue(Consumer<Value<T>> callback);
 
+	/**
+	 * Removes an onSetNextValue callback that was added via
+	 * {@link #onSetNextValue(Consumer)}.
+	 */
+	public void removeOnSetNextValueCallback(Consumer<Value<T>> callback);
+
 	/**
 	 * Internal method. Do not call directly.
 	 * 
@@ -123,6 +144,14 @@ public interface Channel<T> {
 	@Deprecated
 	public void _setNextValue(T value);
 
+	/**
+	 * Internal method. Do not call directly.
+	 * 
+	 * @param value
+	 */
+	@Deprecated
+	public void _setRestoredNextValue(T value);
+
 	/**
 	 * Gets the currently active value, wrapped in a @{link Value}.
 	 */
@@ -139,4 +168,10 @@ public interface Channel<T> {
 	 * nextProcessImage().
 	 */
 	public void onChange(Consumer<Value<T>> callback);
+
+	/**
+	 * Removes an onChange callback that was added via
+	 * {@link #onChange(Consumer)}.
+	 */
+	public void removeOnChangeCallback(Consumer<Value<T>> callback);
 }
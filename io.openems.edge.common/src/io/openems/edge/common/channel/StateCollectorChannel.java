@@ -1,12 +1,12 @@
 package io.openems.edge.common.channel;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.doc.ChannelId;
@@ -16,9 +16,25 @@ import io.openems.edge.common.component.OpenemsComponent;
 /**
  * Collects the values of all {@link StateChannel}s. This class is used for the
  * "State" Channel of every OpenEMS Component.
+ *
+ * <p>
+ * Every StateChannel gets an index on registration. Active (true) states are
+ * kept in a bitset by that index and counted per {@link Level}, so a change of
+ * a StateChannel updates the aggregated Level in constant time, without
+ * iterating over all states. The texts of the active states are only collected
+ * on demand by {@link #listStates()}.
  */
 public class StateCollectorChannel extends AbstractReadChannel<Integer> {
 
+	private final static Level[] LEVELS = Level.values();
+
+	/*
+	 * The bitset consists of segments of fixed size that are never copied, so
+	 * growing it does not lose concurrent updates.
+	 */
+	private final static int SEGMENT_SHIFT = 12;
+	private final static int SEGMENT_SIZE = 1 << SEGMENT_SHIFT; // [bits]
+
 	/**
 	 * Holds all Channels that are connected to and collected by this
 	 * StateCollectorChannel
@@ -27,65 +43,166 @@ public class StateCollectorChannel extends AbstractReadChannel<Integer> {
 			.synchronizedMap(new HashMap<>());
 
 	/**
-	 * Holds Channels that have an active (true) value.
+	 * Holds the registered Channels by their index.
+	 */
+	private final List<StateChannel> indexedChannels = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Holds a bit per registered Channel that has an active (true) value.
+	 */
+	private volatile AtomicLongArray[] activeStates = new AtomicLongArray[0];
+
+	/**
+	 * Holds the number of active Channels per Level ordinal.
+	 */
+	private final AtomicIntegerArray activeCounts = new AtomicIntegerArray(LEVELS.length);
+
+	/**
+	 * The last value that was set by this StateCollectorChannel; -1 if none.
 	 */
-	private final Multimap<Level, io.openems.edge.common.channel.doc.ChannelId> activeStates = HashMultimap.create();
+	private final Object lastValueLock = new Object();
+	private int lastValue = -1;
 
 	public StateCollectorChannel(OpenemsComponent parent, ChannelId channelId) {
 		super(OpenemsType.INTEGER, parent, channelId);
 	}
 
 	public void addChannel(StateChannel channel) {
-		this.channels.put(channel.channelId(), channel);
+		final int index;
+		synchronized (this.indexedChannels) {
+			if (this.channels.putIfAbsent(channel.channelId(), channel) != null) {
+				// already registered
+				return;
+			}
+			index = this.indexedChannels.size();
+			this.indexedChannels.add(channel);
+			int segments = (index >> SEGMENT_SHIFT) + 1;
+			if (this.activeStates.length < segments) {
+				AtomicLongArray[] activeStates = new AtomicLongArray[segments];
+				System.arraycopy(this.activeStates, 0, activeStates, 0, this.activeStates.length);
+				activeStates[segments - 1] = new AtomicLongArray(SEGMENT_SIZE / Long.SIZE);
+				this.activeStates = activeStates;
+			}
+		}
+		final int level = channel.channelDoc().getLevel().ordinal();
 
 		channel.onChange(value -> {
 			/*
-			 * update activeStates
+			 * update activeStates and the counter of the Level
 			 */
-			Level channelLevel = channel.channelDoc().getLevel();
-			if (value.orElse(false)) {
-				// Value is true -> add to activeStates
-				this.activeStates.put(channelLevel, channel.channelId());
-			} else {
-				// Value is false or unknown -> remove from activeStates
-				this.activeStates.remove(channelLevel, channel.channelId());
+			if (this.setActive(index, value.orElse(false))) {
+				if (value.orElse(false)) {
+					this.activeCounts.incrementAndGet(level);
+				} else {
+					this.activeCounts.decrementAndGet(level);
+				}
 			}
 
 			/*
 			 * Set my own next value according to activeStates.
-			 * 
-			 * Higher value of Level beats lower value.
 			 */
-			int nextValue = 0;
-			for (Level level : Level.values()) {
-				if (this.activeStates.get(level).size() > 0) {
-					nextValue = Math.max(nextValue, level.getValue());
-				}
-			}
-			this.setNextValue(nextValue);
+			this.updateNextValue();
 		});
 	}
 
+	/**
+	 * Sets or clears the bit of a Channel.
+	 *
+	 * @param index  the index of the Channel
+	 * @param active true to set the bit
+	 * @return true if the bit was changed
+	 */
+	private boolean setActive(int index, boolean active) {
+		AtomicLongArray segment = this.activeStates[index >> SEGMENT_SHIFT];
+		int word = (index & (SEGMENT_SIZE - 1)) >> 6;
+		long mask = 1L << index;
+		long bits;
+		long newBits;
+		do {
+			bits = segment.get(word);
+			newBits = active ? bits | mask : bits & ~mask;
+			if (bits == newBits) {
+				return false;
+			}
+		} while (!segment.compareAndSet(word, bits, newBits));
+		return true;
+	}
+
+	private boolean isActive(int index) {
+		return (this.activeStates[index >> SEGMENT_SHIFT].get((index & (SEGMENT_SIZE - 1)) >> 6) & (1L << index)) != 0;
+	}
+
+	private void updateNextValue() {
+		synchronized (this.lastValueLock) {
+			int nextValue = this.getLevelValue();
+			if (nextValue != this.lastValue) {
+				this.lastValue = nextValue;
+				this.setNextValue(nextValue);
+			}
+		}
+	}
+
+	/**
+	 * Gets the highest Level of all currently active states.
+	 *
+	 * @return the Level or null if no state is active
+	 */
+	public Level getLevel() {
+		for (int i = LEVELS.length - 1; i >= 0; i--) {
+			if (this.activeCounts.get(i) > 0) {
+				return LEVELS[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the value of the highest Level of all currently active states. Higher
+	 * value of Level beats lower value.
+	 *
+	 * @return the value of the Level or 0 if no state is active
+	 */
+	private int getLevelValue() {
+		Level level = this.getLevel();
+		return level == null ? 0 : level.getValue();
+	}
+
+	/**
+	 * Gets the number of currently active states of a Level.
+	 *
+	 * @param level the Level
+	 * @return the number of active states
+	 */
+	public int getActiveCount(Level level) {
+		return this.activeCounts.get(level.ordinal());
+	}
+
 	public String listStates() {
 		return this.listStates(Level.INFO);
 	}
 
 	public String listStates(Level fromLevel) {
 		StringBuilder result = new StringBuilder();
-		for (Level level : Level.values()) {
-			if (level.ordinal() < fromLevel.ordinal()) {
-				// filter levels below 'fromLevel'
+		for (int i = 0; i < LEVELS.length; i++) {
+			Level level = LEVELS[i];
+			if (level.ordinal() < fromLevel.ordinal() || this.activeCounts.get(i) == 0) {
+				// filter levels below 'fromLevel' and without active states
 				continue;
 			}
-			Collection<ChannelId> channelIds = this.activeStates.get(level);
-			if (channelIds.size() > 0) {
-				if (result.length() > 0) {
-					result.append("| ");
+			boolean isFirst = true;
+			for (int index = 0; index < this.indexedChannels.size(); index++) {
+				StateChannel channel = this.indexedChannels.get(index);
+				if (channel.channelDoc().getLevel() != level || !this.isActive(index)) {
+					continue;
 				}
-				result.append(level.name() + ": ");
-				for (ChannelId channelId : channelIds) {
-					result.append(this.parent.channel(channelId).channelDoc().getText() + ",");
+				if (isFirst) {
+					if (result.length() > 0) {
+						result.append("| ");
+					}
+					result.append(level.name() + ": ");
+					isFirst = false;
 				}
+				result.append(channel.channelDoc().getText() + ",");
 			}
 		}
 		return result.toString();
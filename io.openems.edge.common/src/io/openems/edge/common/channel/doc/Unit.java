@@ -124,9 +124,13 @@ public enum Unit {
 	 */
 	SECONDS("sec"),
 	/**
-	 * Unit of Frequency [mHz]
+	 * Unit of Time in Milliseconds [ms]
 	 */
 	MILLISECONDS("ms", SECONDS, -3),
+	/**
+	 * Unit of Time in Microseconds [µs]
+	 */
+	MICROSECONDS("\u00B5s", SECONDS, -6),
 
 	/*
 	 * Resistance
@@ -190,6 +194,8 @@ public enum Unit {
 		case OHM:
 		case KILOOHM:
 		case SECONDS:
+		case MILLISECONDS:
+		case MICROSECONDS:
 			return value + " " + this.symbol;
 		case ON_OFF:
 			boolean booleanValue = (Boolean) value;
@@ -0,0 +1,437 @@
+package io.openems.edge.common.channel.journal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+
+/**
+ * Journal of the Channels whose value changed with a process image.
+ *
+ * <p>
+ * Every Channel gets an index on construction. When its value changes in
+ * nextProcessImage() an entry of (index, primitive value) is appended to a
+ * bounded ring buffer; the Cycle commits the entries once all Channels switched
+ * to the next process image. Consumers iterate the committed entries with their
+ * own {@link Cursor}, so they only need to handle the changed Channels instead
+ * of going through all Channels of all Components.
+ *
+ * <p>
+ * Entries are appended on the Cycle thread only. A Cursor that falls behind
+ * by more than the capacity is 'overrun': it has lost entries and the consumer
+ * has to go through all Channels once.
+ */
+public class ChannelJournal {
+
+	public final static String CAPACITY_PROPERTY = "openems.journal.capacity";
+	public final static int DEFAULT_CAPACITY = 65536;
+
+	/**
+	 * Marks an entry with an undefined value.
+	 */
+	private final static Object NULL = new Object();
+
+	private static ChannelJournal defaultJournal = null;
+
+	/**
+	 * Gets the ChannelJournal that is shared by all Channels.
+	 *
+	 * @return the default ChannelJournal
+	 */
+	public static synchronized ChannelJournal getDefault() {
+		if (defaultJournal == null) {
+			defaultJournal = new ChannelJournal(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+		}
+		return defaultJournal;
+	}
+
+	/*
+	 * Registered Channels and their types by index; guarded by 'this' for writing
+	 */
+	private volatile Channel<?>[] channels = new Channel<?>[1024];
+	private volatile OpenemsType[] types = new OpenemsType[1024];
+	private int nextIndex = 0;
+
+	private static class FreeIndex {
+		private final int index;
+		private final long position;
+
+		private FreeIndex(int index, long position) {
+			this.index = index;
+			this.position = position;
+		}
+	}
+
+	/*
+	 * Unregistered indexes; guarded by 'this'. They are handed over to
+	 * 'freeIndexes' by the Cycle thread together with the position from which on
+	 * no entry of the index is appended anymore. A free index is reused once all
+	 * its entries were overwritten, so Cursors never report an old entry for the
+	 * new Channel.
+	 */
+	private final List<Integer> unregistered = new ArrayList<>();
+	private final ArrayDeque<FreeIndex> freeIndexes = new ArrayDeque<>();
+	private volatile boolean hasUnregistered = false;
+
+	/*
+	 * The ring buffer. 'sequences' holds the position of the entry in a slot; it
+	 * is -1 while the slot is being written.
+	 */
+	private final int capacity;
+	private final int mask;
+	private final AtomicLongArray sequences;
+	private final AtomicIntegerArray indexes;
+	private final AtomicLongArray values;
+	private final AtomicReferenceArray<Object> objects;
+
+	/**
+	 * The position of the next entry; only accessed by the Cycle thread.
+	 */
+	private long writePosition = 0;
+	private volatile long committedPosition = 0;
+	private volatile long cycle = 0;
+
+	/**
+	 * @param capacity the maximum number of entries; rounded up to the next
+	 *                 power of two
+	 */
+	public ChannelJournal(int capacity) {
+		this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+		this.mask = this.capacity - 1;
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.lazySet(i, -1);
+		}
+		this.indexes = new AtomicIntegerArray(this.capacity);
+		this.values = new AtomicLongArray(this.capacity);
+		this.objects = new AtomicReferenceArray<>(this.capacity);
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Registers a Channel. Indexes of unregistered Channels are reused once all
+	 * their entries were overwritten.
+	 *
+	 * @param channel the Channel
+	 * @return the index of the Channel
+	 */
+	public synchronized int register(Channel<?> channel) {
+		int index;
+		FreeIndex freeIndex = this.freeIndexes.peek();
+		if (freeIndex != null && this.committedPosition - freeIndex.position >= this.capacity) {
+			this.freeIndexes.poll();
+			index = freeIndex.index;
+		} else {
+			index = this.nextIndex++;
+			if (index >= this.channels.length) {
+				this.types = Arrays.copyOf(this.types, this.channels.length * 2);
+				this.channels = Arrays.copyOf(this.channels, this.channels.length * 2);
+			}
+		}
+		this.types[index] = channel.getType();
+		this.channels[index] = channel;
+		// publish the new values
+		this.channels = this.channels;
+		return index;
+	}
+
+	/**
+	 * Unregisters a Channel, e.g. when its Component is deactivated. Entries of
+	 * the Channel that are still in the journal report no Channel afterwards. The
+	 * Channel must not append entries with this index anymore.
+	 *
+	 * @param index the index of the Channel
+	 */
+	public synchronized void unregister(int index) {
+		if (index >= 0 && index < this.nextIndex && this.channels[index] != null) {
+			this.channels[index] = null;
+			this.channels = this.channels;
+			this.unregistered.add(index);
+			this.hasUnregistered = true;
+		}
+	}
+
+	/**
+	 * Gets a registered Channel.
+	 *
+	 * @param index the index of the Channel
+	 * @return the Channel or null if it was unregistered
+	 */
+	public Channel<?> getChannel(int index) {
+		Channel<?>[] channels = this.channels;
+		if (index < 0 || index >= channels.length) {
+			return null;
+		}
+		return channels[index];
+	}
+
+	private OpenemsType getType(int index) {
+		OpenemsType[] types = this.types;
+		if (index < 0 || index >= types.length) {
+			return null;
+		}
+		return types[index];
+	}
+
+	/**
+	 * Appends the changed value of a Channel. Called by nextProcessImage() on the
+	 * Cycle thread.
+	 *
+	 * @param index the index of the Channel
+	 * @param type  the type of the Channel
+	 * @param value the new value; null if undefined
+	 */
+	public void append(int index, OpenemsType type, Object value) {
+		long bits = 0;
+		Object object = null;
+		if (value == null) {
+			object = NULL;
+		} else {
+			switch (type) {
+			case BOOLEAN:
+				bits = ((Boolean) value) ? 1 : 0;
+				break;
+			case SHORT:
+			case INTEGER:
+			case LONG:
+				bits = ((Number) value).longValue();
+				break;
+			case FLOAT:
+			case DOUBLE:
+				bits = Double.doubleToRawLongBits(((Number) value).doubleValue());
+				break;
+			case STRING:
+				object = value;
+				break;
+			}
+		}
+		long position = this.writePosition++;
+		int slot = (int) (position & this.mask);
+		this.sequences.lazySet(slot, -1);
+		this.indexes.lazySet(slot, index);
+		this.values.lazySet(slot, bits);
+		this.objects.lazySet(slot, object);
+		this.sequences.lazySet(slot, position);
+	}
+
+	/**
+	 * Makes the entries of this Cycle visible to the Cursors. Called by the Cycle
+	 * after all Channels switched to the next process image.
+	 */
+	public void commitCycle() {
+		this.committedPosition = this.writePosition;
+		this.cycle++;
+		if (this.hasUnregistered) {
+			this.freeUnregistered();
+		}
+	}
+
+	/**
+	 * Hands the unregistered indexes over for reuse. Called on the Cycle thread,
+	 * so all entries of these indexes were appended before 'writePosition'.
+	 */
+	private synchronized void freeUnregistered() {
+		for (Integer index : this.unregistered) {
+			this.freeIndexes.add(new FreeIndex(index, this.writePosition));
+		}
+		this.unregistered.clear();
+		this.hasUnregistered = false;
+	}
+
+	/**
+	 * Gets the number of committed Cycles.
+	 *
+	 * @return the number of Cycles
+	 */
+	public long getCycle() {
+		return this.cycle;
+	}
+
+	/**
+	 * Creates a Cursor that starts after the last committed entry.
+	 *
+	 * @return the Cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Iterates the committed entries of the journal. The current entry is held
+	 * by the Cursor itself, so iterating does not allocate. A Cursor must be used
+	 * by one thread only.
+	 */
+	public class Cursor {
+
+		private long position;
+		private boolean isOverrun = false;
+
+		private int index;
+		private long bits;
+		private Object object;
+
+		private Cursor() {
+			this.position = ChannelJournal.this.committedPosition;
+		}
+
+		/**
+		 * Moves to the next committed entry.
+		 *
+		 * @return true if there is an entry; false if there are no more committed
+		 *         entries or the Cursor is overrun
+		 */
+		public boolean next() {
+			if (this.isOverrun) {
+				return false;
+			}
+			long committed = ChannelJournal.this.committedPosition;
+			if (this.position >= committed) {
+				return false;
+			}
+			if (committed - this.position > ChannelJournal.this.capacity) {
+				return this.overrun();
+			}
+			int slot = (int) (this.position & ChannelJournal.this.mask);
+			if (ChannelJournal.this.sequences.get(slot) != this.position) {
+				return this.overrun();
+			}
+			int index = ChannelJournal.this.indexes.get(slot);
+			long bits = ChannelJournal.this.values.get(slot);
+			Object object = ChannelJournal.this.objects.get(slot);
+			if (ChannelJournal.this.sequences.get(slot) != this.position) {
+				// overwritten while reading
+				return this.overrun();
+			}
+			this.index = index;
+			this.bits = bits;
+			this.object = object;
+			this.position++;
+			return true;
+		}
+
+		private boolean overrun() {
+			this.isOverrun = true;
+			return false;
+		}
+
+		/**
+		 * Gets whether entries were lost because this Cursor fell behind. The
+		 * consumer has to go through all Channels once and {@link #reset()} the
+		 * Cursor.
+		 *
+		 * @return true if overrun
+		 */
+		public boolean isOverrun() {
+			return this.isOverrun;
+		}
+
+		/**
+		 * Skips all entries up to the last committed entry and clears the overrun
+		 * state.
+		 */
+		public void reset() {
+			this.position = ChannelJournal.this.committedPosition;
+			this.isOverrun = false;
+		}
+
+		/**
+		 * Gets the number of committed entries that were not yet iterated.
+		 *
+		 * @return the number of entries
+		 */
+		public long getPending() {
+			return ChannelJournal.this.committedPosition - this.position;
+		}
+
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Gets the Channel of the current entry.
+		 *
+		 * @return the Channel or null if it was unregistered
+		 */
+		public Channel<?> getChannel() {
+			return ChannelJournal.this.getChannel(this.index);
+		}
+
+		public OpenemsType getType() {
+			return ChannelJournal.this.getType(this.index);
+		}
+
+		/**
+		 * Gets whether the value of the current entry is undefined.
+		 *
+		 * @return true if undefined
+		 */
+		public boolean isNull() {
+			return this.object == NULL;
+		}
+
+		public boolean getBoolean() {
+			return this.bits != 0;
+		}
+
+		/**
+		 * Gets the value of a SHORT, INTEGER or LONG entry.
+		 *
+		 * @return the value
+		 */
+		public long getLong() {
+			return this.bits;
+		}
+
+		/**
+		 * Gets the value of a FLOAT or DOUBLE entry.
+		 *
+		 * @return the value
+		 */
+		public double getDouble() {
+			return Double.longBitsToDouble(this.bits);
+		}
+
+		public String getString() {
+			return this.object == NULL ? null : (String) this.object;
+		}
+
+		/**
+		 * Gets the value of the current entry as an Object of the type of the
+		 * Channel.
+		 *
+		 * @return the value or null if undefined
+		 */
+		public Object getValue() {
+			OpenemsType type = this.getType();
+			if (this.isNull() || type == null) {
+				return null;
+			}
+			switch (type) {
+			case BOOLEAN:
+				return this.getBoolean();
+			case SHORT:
+				return (short) this.bits;
+			case INTEGER:
+				return (int) this.bits;
+			case LONG:
+				return this.bits;
+			case FLOAT:
+				return (float) this.getDouble();
+			case DOUBLE:
+				return this.getDouble();
+			case STRING:
+				return this.getString();
+			}
+			return null;
+		}
+	}
+}
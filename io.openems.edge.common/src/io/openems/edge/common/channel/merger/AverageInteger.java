@@ -1,7 +1,5 @@
 package io.openems.edge.common.channel.merger;
 
-import java.util.NoSuchElementException;
-
 import io.openems.edge.common.component.OpenemsComponent;
 
 public class AverageInteger<C extends OpenemsComponent> extends ChannelsFunction<C, Integer> {
@@ -16,12 +14,11 @@ public class AverageInteger<C extends OpenemsComponent> extends ChannelsFunction
 		super(parent, target, source);
 	}
 
-	protected double calculate() throws NoSuchElementException {
-		return this.valueMap.values() //
-				.stream() //
-				.filter(v -> v.asOptional().isPresent()) //
-				.mapToDouble(v -> v.get()) //
-				.average() //
-				.getAsDouble();
+	@Override
+	protected Double calculate(long sum, int validCount) {
+		if (validCount == 0) {
+			return null;
+		}
+		return (double) sum / validCount;
 	}
 }
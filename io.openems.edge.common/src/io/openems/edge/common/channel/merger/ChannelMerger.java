@@ -1,56 +1,192 @@
 package io.openems.edge.common.channel.merger;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.value.Value;
 
 /**
  * Provides Functions to merge from multiple Channels to one Channel. This
  * package also has some static convenience functions to facilitate conversion.
+ *
+ * <p>
+ * The values of the sources are kept in primitive arrays by the index of the
+ * source and merged by a {@link Reducer}. Sources are updated by
+ * nextProcessImage() on the Cycle thread, so no locking is required.
  */
 public class ChannelMerger<T> {
 
+	public enum Mode {
+		/**
+		 * Merges on every update of a source.
+		 */
+		EVERY_UPDATE,
+		/**
+		 * Merges once per process image, after all sources were updated.
+		 */
+		ONCE_PER_PROCESS_IMAGE;
+	}
+
 	private final Logger log = LoggerFactory.getLogger(ChannelMerger.class);
 
-	private final Function<Collection<T>, T> function;
-	private final Map<Channel<T>, T> lastValues = new HashMap<>();
+	private final Reducer reducer;
+	private final Mode mode;
+	private final Channel<T> target;
+	private final List<Channel<T>> sources;
+
+	/*
+	 * State of the sources by index; only accessed by the Cycle thread
+	 */
+	private final double[] values;
+	private final boolean[] isValid;
+	private final double[] weights;
+	private final boolean[] isUpdated;
+	private int updatedSources = 0;
+	private boolean isPublished = false;
+	private double result = Double.NaN;
 
-	public ChannelMerger(Function<Collection<T>, T> function, Channel<T> target, T defaultValue,
-			@SuppressWarnings("unchecked") Channel<T>... sources) {
-		this.function = function;
+	public ChannelMerger(Reducer reducer, Channel<T> target, List<Channel<T>> sources) {
+		this(reducer, Mode.EVERY_UPDATE, target, sources);
+	}
+
+	public ChannelMerger(Reducer reducer, Mode mode, Channel<T> target, List<Channel<T>> sources) {
+		this.reducer = reducer;
+		this.mode = mode;
+		this.target = target;
+		this.sources = new ArrayList<>(sources);
+		int size = this.sources.size();
+		this.values = new double[size];
+		this.isValid = new boolean[size];
+		this.weights = new double[size];
+		Arrays.fill(this.weights, 1);
+		this.isUpdated = new boolean[size];
 		/*
 		 * Listen to Channel updates
 		 */
-		for (Channel<T> source : sources) {
-			source.onUpdate(value -> {
-				synchronized (this.lastValues) {
-					if (value != null) {
-						this.lastValues.put(source, value.get());
-					} else {
-						this.lastValues.put(source, defaultValue);
-					}
-					T functionResult = this.function.apply(this.lastValues.values());
-					try {
-						target.setNextValue(functionResult);
-					} catch (IllegalArgumentException e) {
-						StringBuilder b = new StringBuilder("Unable to merge Channel [" + target.address() + "] from ");
-						for (int i = 0; i < sources.length; i++) {
-							b.append(sources[i].address());
-							if (i < sources.length - 1) {
-								b.append(",");
-							}
-						}
-						b.append("]: " + e.getMessage());
-						log.error(b.toString());
-					}
+		for (int i = 0; i < size; i++) {
+			final int index = i;
+			this.sources.get(i).onUpdate(value -> this.onUpdate(index, value));
+		}
+	}
+
+	/**
+	 * Takes the weights of the sources from Channels, e.g. the capacities for a
+	 * {@link Reducer#WEIGHTED_AVERAGE}. The weight Channels are addressed by the
+	 * same index as the sources; a weight without valid value ignores the source.
+	 * Weights default to 1. A changed weight triggers a merge.
+	 *
+	 * @param weights the weight Channels
+	 * @return myself
+	 */
+	public ChannelMerger<T> weightedBy(Channel<?>... weights) {
+		if (weights.length != this.sources.size()) {
+			throw new IllegalArgumentException("Got [" + weights.length + "] weights for [" + this.sources.size()
+					+ "] sources of Channel [" + this.target.address() + "]");
+		}
+		for (int i = 0; i < weights.length; i++) {
+			final int index = i;
+			this.weights[index] = 0;
+			weights[i].onUpdate(value -> this.onWeightUpdate(index, value));
+		}
+		return this;
+	}
+
+	private void onUpdate(int index, Value<T> value) {
+		if (this.mode == Mode.ONCE_PER_PROCESS_IMAGE && this.isUpdated[index]) {
+			// a new process image started before all sources were updated
+			this.merge();
+		}
+
+		Object object = value == null ? null : value.get();
+		if (object instanceof Number) {
+			this.values[index] = ((Number) object).doubleValue();
+			this.isValid[index] = true;
+		} else {
+			this.isValid[index] = false;
+		}
+
+		if (this.mode == Mode.EVERY_UPDATE) {
+			this.merge();
+		} else {
+			this.isUpdated[index] = true;
+			if (++this.updatedSources == this.sources.size()) {
+				this.merge();
+			}
+		}
+	}
+
+	private void onWeightUpdate(int index, Value<?> value) {
+		Object object = value == null ? null : value.get();
+		double weight = object instanceof Number ? ((Number) object).doubleValue() : 0;
+		if (Double.compare(weight, this.weights[index]) == 0) {
+			return;
+		}
+		this.weights[index] = weight;
+		this.merge();
+	}
+
+	private void merge() {
+		if (this.updatedSources > 0) {
+			Arrays.fill(this.isUpdated, false);
+			this.updatedSources = 0;
+		}
+		double result = this.reducer.reduce(this.values, this.isValid, this.weights);
+		if (this.isPublished && Double.compare(result, this.result) == 0) {
+			// unchanged
+			return;
+		}
+		this.isPublished = true;
+		this.result = result;
+		try {
+			this.target.setNextValue(Double.isNaN(result) ? null : result);
+		} catch (IllegalArgumentException e) {
+			StringBuilder b = new StringBuilder("Unable to merge Channel [" + this.target.address() + "] from ");
+			for (int i = 0; i < this.sources.size(); i++) {
+				b.append(this.sources.get(i).address());
+				if (i < this.sources.size() - 1) {
+					b.append(",");
 				}
-			});
+			}
+			b.append("]: " + e.getMessage());
+			log.error(b.toString());
 		}
 	}
+
+	/*
+	 * Convenience factories
+	 */
+
+	public static <T> ChannelMerger<T> sum(Channel<T> target, List<Channel<T>> sources) {
+		return new ChannelMerger<T>(Reducer.SUM, target, sources);
+	}
+
+	public static <T> ChannelMerger<T> average(Channel<T> target, List<Channel<T>> sources) {
+		return new ChannelMerger<T>(Reducer.AVERAGE, target, sources);
+	}
+
+	public static <T> ChannelMerger<T> min(Channel<T> target, List<Channel<T>> sources) {
+		return new ChannelMerger<T>(Reducer.MIN, target, sources);
+	}
+
+	public static <T> ChannelMerger<T> max(Channel<T> target, List<Channel<T>> sources) {
+		return new ChannelMerger<T>(Reducer.MAX, target, sources);
+	}
+
+	/**
+	 * Merges the weighted average of the sources.
+	 *
+	 * @param target  the target Channel
+	 * @param sources the source Channels
+	 * @param weights the weight Channels by the index of the sources
+	 * @return the ChannelMerger
+	 */
+	public static <T> ChannelMerger<T> weightedAverage(Channel<T> target, List<Channel<T>> sources,
+			Channel<?>... weights) {
+		return new ChannelMerger<T>(Reducer.WEIGHTED_AVERAGE, target, sources).weightedBy(weights);
+	}
 }
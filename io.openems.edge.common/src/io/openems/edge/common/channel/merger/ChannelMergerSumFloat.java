@@ -1,7 +1,6 @@
 package io.openems.edge.common.channel.merger;
 
-import java.util.Collection;
-import java.util.function.Function;
+import java.util.Arrays;
 
 import io.openems.edge.common.channel.Channel;
 
@@ -11,18 +10,8 @@ import io.openems.edge.common.channel.Channel;
  */
 public class ChannelMergerSumFloat extends ChannelMerger<Float> {
 
-	private final static Function<Collection<Float>, Float> sumFunction = (sourceValues) -> {
-		float sum = 0;
-		for (Float sourceValue : sourceValues) {
-			if (sourceValue != null) {
-				sum += sourceValue;
-			}
-		}
-		return sum;
-	};
-
 	public ChannelMergerSumFloat(Channel<Float> target, Channel<Float>[] sources) {
-		super(ChannelMergerSumFloat.sumFunction, target, 0f, sources);
+		super(Reducer.SUM, target, Arrays.asList(sources));
 	}
 
 }
@@ -1,7 +1,6 @@
 package io.openems.edge.common.channel.merger;
 
-import java.util.Collection;
-import java.util.function.Function;
+import java.util.Arrays;
 
 import io.openems.edge.common.channel.Channel;
 
@@ -11,18 +10,8 @@ import io.openems.edge.common.channel.Channel;
  */
 public class ChannelMergerSumInteger extends ChannelMerger<Integer> {
 
-	private final static Function<Collection<Integer>, Integer> sumFunction = (sourceValues) -> {
-		int sum = 0;
-		for (Integer sourceValue : sourceValues) {
-			if (sourceValue != null) {
-				sum += sourceValue;
-			}
-		}
-		return sum;
-	};
-
 	public ChannelMergerSumInteger(Channel<Integer> target, Channel<Integer>[] sources) {
-		super(ChannelMergerSumInteger.sumFunction, target, 0, sources);
+		super(Reducer.SUM, target, Arrays.asList(sources));
 	}
 
 }
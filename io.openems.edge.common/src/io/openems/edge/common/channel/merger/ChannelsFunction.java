@@ -1,7 +1,7 @@
 package io.openems.edge.common.channel.merger;
 
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
@@ -13,6 +13,16 @@ import io.openems.edge.common.channel.doc.ChannelId;
 import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.OpenemsComponent;
 
+/**
+ * Aggregates a Channel of multiple Components into a target Channel.
+ *
+ * <p>
+ * The aggregation is incremental: the function keeps a running total and the
+ * number of valid (not null) source values. A new value of a source only
+ * applies the difference to its previous value, so an update costs the same
+ * independent of the number of Components. The target Channel is only set if
+ * the result changed.
+ */
 public abstract class ChannelsFunction<C extends OpenemsComponent, T> {
 
 	private final Logger log = LoggerFactory.getLogger(ChannelsFunction.class);
@@ -21,7 +31,15 @@ public abstract class ChannelsFunction<C extends OpenemsComponent, T> {
 
 	protected boolean debug = false;
 
-	protected final Map<OpenemsComponent, Value<T>> valueMap = new ConcurrentHashMap<>();
+	private final Map<OpenemsComponent, Source> sources = new ConcurrentHashMap<>();
+
+	/*
+	 * Running totals of all valid source values; guarded by 'this'
+	 */
+	private long sum = 0;
+	private int validCount = 0;
+	private boolean isPublished = false;
+	private Double result = null;
 
 	public ChannelsFunction(OpenemsComponent parent, ChannelId targetChannelId, ChannelId sourceChannelId) {
 		this.targetChannel = parent.channel(targetChannelId);
@@ -32,13 +50,14 @@ public abstract class ChannelsFunction<C extends OpenemsComponent, T> {
 		if (this.debug) {
 			log.info("Add Component [" + component.id() + "] of type [" + component.getClass().getSimpleName() + "]");
 		}
-		final Consumer<Value<T>> handler = value -> {
-			this.valueMap.put(component, value);
-			this.recalculateValue();
-		};
 		Channel<T> channel = component.channel(this.sourceChannelId);
-		handler.accept(channel.getNextValue()); // handle current value
-		channel.onSetNextValue(handler); // and every upcoming value
+		Source source = new Source(channel);
+		if (this.sources.putIfAbsent(component, source) != null) {
+			// already added
+			return;
+		}
+		this.update(source, channel.getNextValue()); // handle current value
+		channel.onSetNextValue(source.handler); // and every upcoming value
 	}
 
 	public void removeComponent(OpenemsComponent component) {
@@ -46,11 +65,15 @@ public abstract class ChannelsFunction<C extends OpenemsComponent, T> {
 			log.info(
 					"Remove Component [" + component.id() + "] of type [" + component.getClass().getSimpleName() + "]");
 		}
-		String componentId = component.id();
-		if (componentId != null) {
-			this.valueMap.remove(component);
+		Source source = this.sources.remove(component);
+		if (source == null) {
+			return;
+		}
+		source.channel.removeOnSetNextValueCallback(source.handler);
+		synchronized (this) {
+			this.update(source, null);
+			source.isRemoved = true;
 		}
-		this.recalculateValue();
 	}
 
 	public ChannelsFunction<C, T> debug() {
@@ -58,13 +81,74 @@ public abstract class ChannelsFunction<C extends OpenemsComponent, T> {
 		return this;
 	}
 
-	private void recalculateValue() {
-		try {
-			this.targetChannel.setNextValue(this.calculate());
-		} catch (NoSuchElementException e) {
-			this.targetChannel.setNextValue(null);
+	/**
+	 * Gets the number of Components with a valid (not null) value.
+	 *
+	 * @return the number of valid values
+	 */
+	public synchronized int getValidCount() {
+		return this.validCount;
+	}
+
+	/**
+	 * Applies a new value of a source to the running totals.
+	 *
+	 * @param source the source
+	 * @param value  the new value; null if the source is removed
+	 */
+	private synchronized void update(Source source, Value<T> value) {
+		if (source.isRemoved) {
+			return;
+		}
+		Object object = value == null ? null : value.get();
+		if (source.isValid) {
+			this.sum -= source.value;
+			this.validCount--;
 		}
+		if (object instanceof Number) {
+			source.value = ((Number) object).longValue();
+			source.isValid = true;
+			this.sum += source.value;
+			this.validCount++;
+		} else {
+			source.isValid = false;
+		}
+		this.publish();
 	}
 
-	protected abstract double calculate() throws NoSuchElementException;
+	private void publish() {
+		Double result = this.calculate(this.sum, this.validCount);
+		if (this.isPublished && Objects.equals(result, this.result)) {
+			return;
+		}
+		this.isPublished = true;
+		this.result = result;
+		this.targetChannel.setNextValue(result);
+	}
+
+	/**
+	 * Calculates the result from the running totals.
+	 *
+	 * @param sum        the sum of all valid values
+	 * @param validCount the number of valid values
+	 * @return the result or null if it is undefined
+	 */
+	protected abstract Double calculate(long sum, int validCount);
+
+	private class Source {
+		private final Channel<T> channel;
+		private final Consumer<Value<T>> handler;
+
+		/*
+		 * guarded by ChannelsFunction.this
+		 */
+		private boolean isValid = false;
+		private boolean isRemoved = false;
+		private long value = 0;
+
+		private Source(Channel<T> channel) {
+			this.channel = channel;
+			this.handler = value -> ChannelsFunction.this.update(this, value);
+		}
+	}
 }
@@ -0,0 +1,92 @@
+package io.openems.edge.common.channel.merger;
+
+/**
+ * Reduces the values of the sources of a {@link ChannelMerger} to one value.
+ *
+ * <p>
+ * The values are provided as primitive arrays, addressed by the index of the
+ * source. Values of sources that are not valid (i.e. null) must be ignored.
+ */
+@FunctionalInterface
+public interface Reducer {
+
+	/**
+	 * Reduces the values.
+	 *
+	 * @param values  the values of the sources
+	 * @param isValid whether the value of a source is valid
+	 * @param weights the weights of the sources
+	 * @return the result or {@link Double#NaN} if it is undefined
+	 */
+	double reduce(double[] values, boolean[] isValid, double[] weights);
+
+	/**
+	 * The sum of all valid values; 0 if there is none.
+	 */
+	public final static Reducer SUM = (values, isValid, weights) -> {
+		double sum = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (isValid[i]) {
+				sum += values[i];
+			}
+		}
+		return sum;
+	};
+
+	/**
+	 * The average of all valid values.
+	 */
+	public final static Reducer AVERAGE = (values, isValid, weights) -> {
+		double sum = 0;
+		int count = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (isValid[i]) {
+				sum += values[i];
+				count++;
+			}
+		}
+		return count == 0 ? Double.NaN : sum / count;
+	};
+
+	/**
+	 * The minimum of all valid values.
+	 */
+	public final static Reducer MIN = (values, isValid, weights) -> {
+		double min = Double.NaN;
+		for (int i = 0; i < values.length; i++) {
+			if (isValid[i] && !(values[i] >= min)) {
+				min = values[i];
+			}
+		}
+		return min;
+	};
+
+	/**
+	 * The maximum of all valid values.
+	 */
+	public final static Reducer MAX = (values, isValid, weights) -> {
+		double max = Double.NaN;
+		for (int i = 0; i < values.length; i++) {
+			if (isValid[i] && !(values[i] <= max)) {
+				max = values[i];
+			}
+		}
+		return max;
+	};
+
+	/**
+	 * The average of all valid values, weighted by the weights of the sources.
+	 * Sources with a weight of 0 are ignored.
+	 */
+	public final static Reducer WEIGHTED_AVERAGE = (values, isValid, weights) -> {
+		double sum = 0;
+		double weightSum = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (isValid[i] && weights[i] != 0) {
+				sum += values[i] * weights[i];
+				weightSum += weights[i];
+			}
+		}
+		return weightSum == 0 ? Double.NaN : sum / weightSum;
+	};
+}
@@ -21,10 +21,27 @@ public class Value<T> {
 
 	private final Channel<T> parent;
 	private final T value;
+	private final boolean isRestored;
 
 	public Value(Channel<T> parent, T value) {
+		this(parent, value, false);
+	}
+
+	public Value(Channel<T> parent, T value, boolean isRestored) {
 		this.parent = parent;
 		this.value = value;
+		this.isRestored = isRestored;
+	}
+
+	/**
+	 * Whether this value was not read from its source, but restored from a
+	 * snapshot of an earlier run. Such a value is replaced by the first real
+	 * value.
+	 * 
+	 * @return true for restored values
+	 */
+	public boolean isRestored() {
+		return this.isRestored;
 	}
 
 	/**
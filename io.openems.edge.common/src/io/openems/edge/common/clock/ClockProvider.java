@@ -0,0 +1,44 @@
+package io.openems.edge.common.clock;
+
+import java.time.Clock;
+
+/**
+ * Provides the Clock of OpenEMS Edge.
+ *
+ * <p>
+ * Components that depend on time should take it from an optional ClockProvider
+ * service via {@link #getClock(ClockProvider)} instead of the system clock.
+ * This allows a simulation to replace the time by a Clock that advances with
+ * every Cycle.
+ */
+public interface ClockProvider {
+
+	/**
+	 * Gets the Clock.
+	 *
+	 * @return the Clock
+	 */
+	Clock getClock();
+
+	/**
+	 * Gets whether the time of this Clock is advanced independently of the real
+	 * time. In this case the Cycle runs as fast as possible instead of waiting for
+	 * its cycle time.
+	 *
+	 * @return true if faster than real time
+	 */
+	boolean isFasterThanRealtime();
+
+	/**
+	 * Gets the Clock of a ClockProvider or the system clock if there is none.
+	 *
+	 * @param clockProvider the ClockProvider; possibly null
+	 * @return the Clock
+	 */
+	public static Clock getClock(ClockProvider clockProvider) {
+		if (clockProvider == null) {
+			return Clock.systemDefaultZone();
+		}
+		return clockProvider.getClock();
+	}
+}
@@ -5,13 +5,17 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.openems.edge.common.channel.AbstractReadChannel;
 import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.channel.StateChannel;
+import io.openems.edge.common.channel.journal.ChannelJournal;
+import io.openems.edge.common.log.AsyncLog;
 
 /**
  * This is the default implementation of the {@link OpenemsComponent} interface.
@@ -59,10 +63,16 @@ public abstract class AbstractOpenemsComponent implements OpenemsComponent {
 	}
 
 	/**
-	 * Handles @Deactivate of implementations. Prints log output.
+	 * Handles @Deactivate of implementations. Prints log output and unregisters
+	 * the Channels from the {@link ChannelJournal}.
 	 */
 	protected void deactivate() {
 		this.logMessage("Deactivate");
+		for (Channel<?> channel : this.channels()) {
+			if (channel instanceof AbstractReadChannel<?>) {
+				((AbstractReadChannel<?>) channel).releaseJournalIndex();
+			}
+		}
 	}
 
 	@Override
@@ -114,38 +124,75 @@ public abstract class AbstractOpenemsComponent implements OpenemsComponent {
 		}
 	}
 
+	/**
+	 * Removes a Channel that was added dynamically and is not used anymore. The
+	 * Channel is only removed if it was not replaced by another Channel with the
+	 * same ID meanwhile. StateChannels cannot be removed. The Channel is
+	 * unregistered from the {@link ChannelJournal}.
+	 * 
+	 * @param channel the Channel
+	 * @return true if the Channel was removed
+	 */
+	protected boolean removeChannel(Channel<?> channel) {
+		if (channel instanceof StateChannel) {
+			throw new IllegalArgumentException("StateChannel [" + channel.address() + "] cannot be removed");
+		}
+		if (!this.channels.remove(channel.channelId().id(), channel)) {
+			return false;
+		}
+		if (channel instanceof AbstractReadChannel<?>) {
+			((AbstractReadChannel<?>) channel).releaseJournalIndex();
+		}
+		return true;
+	}
+
 	@Override
 	public Collection<Channel<?>> channels() {
 		return this.channels.values();
 	}
 
 	/**
-	 * Log an info message including the Component ID.
+	 * Log an info message including the Component ID. The message is written
+	 * asynchronously via {@link AsyncLog}.
 	 * 
 	 * @param log
 	 * @param message
 	 */
 	protected void logInfo(Logger log, String message) {
-		log.info("[" + this.id() + "] " + message);
+		AsyncLog.getDefault().info(log, "[{}] {}", this.id(), message);
+	}
+
+	/**
+	 * Log an info message including the Component ID. The message is created
+	 * lazily on the log thread via {@link AsyncLog}.
+	 * 
+	 * @param log
+	 * @param message
+	 */
+	protected void logInfo(Logger log, Supplier<String> message) {
+		final String id = this.id();
+		AsyncLog.getDefault().info(log, () -> "[" + id + "] " + message.get());
 	}
 
 	/**
-	 * Log a warn message including the Component ID.
+	 * Log a warn message including the Component ID. The message is written
+	 * asynchronously via {@link AsyncLog}.
 	 * 
 	 * @param log
 	 * @param message
 	 */
 	protected void logWarn(Logger log, String message) {
-		log.warn("[" + this.id() + "] " + message);
+		AsyncLog.getDefault().warn(log, "[{}] {}", this.id(), message);
 	}
 
 	/**
-	 * Log an error message including the Component ID.
+	 * Log an error message including the Component ID. The message is written
+	 * asynchronously via {@link AsyncLog}.
 	 * 
 	 * @param log
 	 * @param message
 	 */
 	protected void logError(Logger log, String message) {
-		log.error("[" + this.id() + "] " + message);
+		AsyncLog.getDefault().error(log, "[{}] {}", this.id(), message);
 	}
 }
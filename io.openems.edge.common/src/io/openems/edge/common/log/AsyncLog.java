@@ -0,0 +1,402 @@
+package io.openems.edge.common.log;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous, non-blocking sink for log messages.
+ *
+ * <p>
+ * Messages are put into a bounded, lock-free ring buffer and written to the
+ * Logger by a background appender thread. Logging never blocks the caller: if
+ * the buffer is full the message is dropped and counted. Messages are
+ * formatted lazily on the appender thread - either from a format with '{}'
+ * placeholders and its arguments, or from a Supplier. Arguments should be
+ * immutable, as they are read later.
+ *
+ * <p>
+ * Repeated messages of the same Logger and Level are written once per
+ * {@link #REPEAT_WINDOW}; the number of suppressed repetitions is written
+ * afterwards.
+ */
+public class AsyncLog {
+
+	public enum Level {
+		DEBUG, INFO, WARN, ERROR;
+	}
+
+	/**
+	 * Writes a formatted message, e.g. to a Logger. Called on the appender
+	 * thread only.
+	 */
+	@FunctionalInterface
+	public interface Appender {
+		void append(Logger logger, Level level, String message);
+	}
+
+	public final static String CAPACITY_PROPERTY = "openems.log.capacity";
+	public final static int DEFAULT_CAPACITY = 4096;
+	public final static long REPEAT_WINDOW = 10_000; // [ms]
+	private final static long POLL_INTERVAL = 20; // [ms]
+	private final static int MAX_REPEAT_KEYS = 256;
+
+	private static AsyncLog defaultLog = null;
+
+	/**
+	 * Gets the AsyncLog that is shared by all Components.
+	 *
+	 * @return the default AsyncLog
+	 */
+	public static synchronized AsyncLog getDefault() {
+		if (defaultLog == null) {
+			defaultLog = new AsyncLog("OpenEMS-Log", Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+					AsyncLog::appendToLogger);
+		}
+		return defaultLog;
+	}
+
+	private static class Record {
+		private final Logger logger;
+		private final Level level;
+		private final String format;
+		private final Object[] args;
+		private final Supplier<String> supplier;
+
+		private Record(Logger logger, Level level, String format, Object[] args, Supplier<String> supplier) {
+			this.logger = logger;
+			this.level = level;
+			this.format = format;
+			this.args = args;
+			this.supplier = supplier;
+		}
+
+		private String getMessage() {
+			if (this.supplier != null) {
+				return this.supplier.get();
+			}
+			return AsyncLog.format(this.format, this.args);
+		}
+	}
+
+	private static class Repetition {
+		private final Record record;
+		private final String message;
+		private long since;
+		private int suppressed = 0;
+
+		private Repetition(Record record, String message, long since) {
+			this.record = record;
+			this.message = message;
+			this.since = since;
+		}
+	}
+
+	private final Logger log = LoggerFactory.getLogger(AsyncLog.class);
+
+	private final Appender appender;
+	private final Thread thread;
+
+	/*
+	 * The ring buffer for multiple producers and one consumer. 'sequences' holds
+	 * the position + 1 when a slot was filled and the position + capacity when it
+	 * was consumed.
+	 */
+	private final int capacity;
+	private final int mask;
+	private final AtomicLongArray sequences;
+	private final AtomicReferenceArray<Record> records;
+	private final AtomicLong tail = new AtomicLong(0);
+	private final AtomicLong dropped = new AtomicLong(0);
+
+	/*
+	 * State of the appender thread
+	 */
+	private long head = 0;
+	private volatile long appended = 0;
+	private long reportedDropped = 0;
+	private long lastSweep = 0;
+	private final Map<String, Repetition> repetitions = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * @param name     the name of the appender thread
+	 * @param capacity the maximum number of buffered messages; rounded up to the
+	 *                 next power of two
+	 * @param appender writes the formatted messages
+	 */
+	public AsyncLog(String name, int capacity, Appender appender) {
+		this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+		this.mask = this.capacity - 1;
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.lazySet(i, i);
+		}
+		this.records = new AtomicReferenceArray<>(this.capacity);
+		this.appender = appender;
+		this.thread = new Thread(this::run, name);
+		this.thread.setDaemon(true);
+		this.thread.setPriority(Thread.MIN_PRIORITY);
+		this.thread.start();
+	}
+
+	/**
+	 * Logs a message with '{}' placeholders that are replaced by the arguments
+	 * on the appender thread.
+	 *
+	 * @param logger the Logger
+	 * @param level  the Level
+	 * @param format the message format
+	 * @param args   the arguments
+	 * @return false if the message was dropped
+	 */
+	public boolean log(Logger logger, Level level, String format, Object... args) {
+		if (!isEnabled(logger, level)) {
+			return true;
+		}
+		return this.offer(new Record(logger, level, format, args, null));
+	}
+
+	/**
+	 * Logs a message that is created on the appender thread.
+	 *
+	 * @param logger  the Logger
+	 * @param level   the Level
+	 * @param message the Supplier for the message
+	 * @return false if the message was dropped
+	 */
+	public boolean log(Logger logger, Level level, Supplier<String> message) {
+		if (!isEnabled(logger, level)) {
+			return true;
+		}
+		return this.offer(new Record(logger, level, null, null, message));
+	}
+
+	public boolean info(Logger logger, String format, Object... args) {
+		return this.log(logger, Level.INFO, format, args);
+	}
+
+	public boolean info(Logger logger, Supplier<String> message) {
+		return this.log(logger, Level.INFO, message);
+	}
+
+	public boolean warn(Logger logger, String format, Object... args) {
+		return this.log(logger, Level.WARN, format, args);
+	}
+
+	public boolean warn(Logger logger, Supplier<String> message) {
+		return this.log(logger, Level.WARN, message);
+	}
+
+	public boolean error(Logger logger, String format, Object... args) {
+		return this.log(logger, Level.ERROR, format, args);
+	}
+
+	public boolean error(Logger logger, Supplier<String> message) {
+		return this.log(logger, Level.ERROR, message);
+	}
+
+	/**
+	 * Gets the number of messages that were dropped because the buffer was full.
+	 *
+	 * @return the number of dropped messages
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Waits until all messages that were logged before were written.
+	 *
+	 * @param timeout the maximum time to wait in [ms]
+	 * @return true if all messages were written
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean flush(long timeout) throws InterruptedException {
+		long position = this.tail.get();
+		long deadline = System.currentTimeMillis() + timeout;
+		while (this.appended < position) {
+			if (System.currentTimeMillis() >= deadline) {
+				return false;
+			}
+			LockSupport.unpark(this.thread);
+			Thread.sleep(1);
+		}
+		return true;
+	}
+
+	private boolean offer(Record record) {
+		long position = this.tail.get();
+		while (true) {
+			int slot = (int) (position & this.mask);
+			long sequence = this.sequences.get(slot);
+			long difference = sequence - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.records.lazySet(slot, record);
+					this.sequences.lazySet(slot, position + 1);
+					return true;
+				}
+				position = this.tail.get();
+			} else if (difference < 0) {
+				// buffer is full
+				this.dropped.incrementAndGet();
+				return false;
+			} else {
+				position = this.tail.get();
+			}
+		}
+	}
+
+	private Record poll() {
+		int slot = (int) (this.head & this.mask);
+		if (this.sequences.get(slot) != this.head + 1) {
+			return null;
+		}
+		Record record = this.records.get(slot);
+		this.records.lazySet(slot, null);
+		this.sequences.lazySet(slot, this.head + this.capacity);
+		this.head++;
+		return record;
+	}
+
+	private void run() {
+		while (true) {
+			Record record;
+			while ((record = this.poll()) != null) {
+				try {
+					this.append(record);
+				} catch (RuntimeException e) {
+					this.log.warn("Unable to write log message: " + e.getClass().getSimpleName() + ": "
+							+ e.getMessage());
+				}
+				this.appended = this.head;
+			}
+			this.sweep();
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL));
+		}
+	}
+
+	private void append(Record record) {
+		String message = record.getMessage();
+		long now = System.currentTimeMillis();
+		String key = record.logger.getName() + "|" + record.level + "|" + message;
+		Repetition repetition = this.repetitions.get(key);
+		if (repetition != null) {
+			if (now - repetition.since < REPEAT_WINDOW) {
+				repetition.suppressed++;
+				return;
+			}
+			this.appendRepetition(repetition);
+			repetition.since = now;
+			repetition.suppressed = 0;
+		} else {
+			this.repetitions.put(key, new Repetition(record, message, now));
+			if (this.repetitions.size() > MAX_REPEAT_KEYS) {
+				// forget the least recently used message
+				Iterator<Repetition> iterator = this.repetitions.values().iterator();
+				this.appendRepetition(iterator.next());
+				iterator.remove();
+			}
+		}
+		this.appender.append(record.logger, record.level, message);
+	}
+
+	/**
+	 * Writes the number of suppressed repetitions of messages whose window
+	 * passed and reports dropped messages.
+	 */
+	private void sweep() {
+		long now = System.currentTimeMillis();
+		if (now - this.lastSweep < REPEAT_WINDOW) {
+			return;
+		}
+		this.lastSweep = now;
+		Iterator<Repetition> iterator = this.repetitions.values().iterator();
+		while (iterator.hasNext()) {
+			Repetition repetition = iterator.next();
+			if (now - repetition.since >= REPEAT_WINDOW) {
+				this.appendRepetition(repetition);
+				iterator.remove();
+			}
+		}
+		long dropped = this.dropped.get();
+		if (dropped != this.reportedDropped) {
+			this.log.warn("Dropped [" + (dropped - this.reportedDropped) + "] log messages");
+			this.reportedDropped = dropped;
+		}
+	}
+
+	private void appendRepetition(Repetition repetition) {
+		if (repetition.suppressed > 0) {
+			this.appender.append(repetition.record.logger, repetition.record.level,
+					repetition.message + " [repeated " + repetition.suppressed + " times]");
+		}
+	}
+
+	private static boolean isEnabled(Logger logger, Level level) {
+		switch (level) {
+		case DEBUG:
+			return logger.isDebugEnabled();
+		case INFO:
+			return logger.isInfoEnabled();
+		case WARN:
+			return logger.isWarnEnabled();
+		case ERROR:
+			return logger.isErrorEnabled();
+		}
+		return true;
+	}
+
+	private static void appendToLogger(Logger logger, Level level, String message) {
+		switch (level) {
+		case DEBUG:
+			logger.debug(message);
+			break;
+		case INFO:
+			logger.info(message);
+			break;
+		case WARN:
+			logger.warn(message);
+			break;
+		case ERROR:
+			logger.error(message);
+			break;
+		}
+	}
+
+	/**
+	 * Replaces the '{}' placeholders of the format by the arguments.
+	 *
+	 * @param format the format
+	 * @param args   the arguments
+	 * @return the message
+	 */
+	public static String format(String format, Object... args) {
+		if (format == null) {
+			return "null";
+		}
+		if (args == null || args.length == 0) {
+			return format;
+		}
+		StringBuilder b = new StringBuilder(format.length() + 16 * args.length);
+		int start = 0;
+		int arg = 0;
+		int index;
+		while (arg < args.length && (index = format.indexOf("{}", start)) >= 0) {
+			b.append(format, start, index);
+			b.append(args[arg++]);
+			start = index + 2;
+		}
+		b.append(format, start, format.length());
+		return b.toString();
+	}
+}
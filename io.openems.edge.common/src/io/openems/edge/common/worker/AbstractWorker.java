@@ -1,44 +1,114 @@
 package io.openems.edge.common.worker;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.openems.common.utils.Mutex;
-
+/**
+ * A worker that executes {@link #forever()} again and again.
+ *
+ * <p>
+ * Workers do not own a Thread; they are executed cooperatively on the shared
+ * pool of the {@link WorkerRuntime}. After every execution the next one is
+ * scheduled according to {@link #getCycleTime()} and {@link #getScheduleMode()}.
+ * Workers that block in forever() get a dedicated thread instead; see
+ * {@link #isBlocking()}.
+ */
 public abstract class AbstractWorker {
 
 	public final static int ALWAYS_WAIT_FOR_TRIGGER_NEXT_RUN = -1;
 	public final static int DO_NOT_WAIT = 0;
-	
+	public final static int DEFAULT_RUN_TIME_BUDGET = 1000; // [ms]
+
 	private final Logger log = LoggerFactory.getLogger(AbstractWorker.class);
 
-	private final AtomicBoolean isForceRun = new AtomicBoolean(false);
-	private final AtomicBoolean isStopped = new AtomicBoolean(false);
-	private final Mutex cycleMutex = new Mutex(true);
-	
+	private final WorkerRuntime runtime;
+	private final WorkerStatistics statistics = new WorkerStatistics();
+
+	/*
+	 * Scheduling state; guarded by 'lock'
+	 */
+	private final Object lock = new Object();
+	private String name = null;
+	private boolean isActive = false;
+	private boolean isRunning = false;
+	private boolean isForceRun = false;
+	private boolean isNextCycleTriggered = true;
+	private boolean isOnWorkerExceptionSleep = false;
+	private ScheduledFuture<?> future = null;
+	/**
+	 * The dedicated thread of a blocking worker; null if the worker is executed
+	 * on the shared pool
+	 */
+	private ScheduledExecutorService dedicatedExecutor = null;
+	/**
+	 * WorkerRuntime#nanoTime() of the scheduled execution
+	 */
+	private long scheduledAt = 0;
+	/**
+	 * WorkerRuntime#nanoTime() of the next fixed-rate deadline
+	 */
+	private long deadline = 0;
+	/**
+	 * Identifies the currently scheduled execution; executions of cancelled
+	 * futures are ignored
+	 */
+	private int generation = 0;
+	private long onWorkerExceptionSleep = 1; // seconds
+
+	public AbstractWorker() {
+		this(WorkerRuntime.getDefault());
+	}
+
+	protected AbstractWorker(WorkerRuntime runtime) {
+		this.runtime = runtime;
+	}
+
 	/**
-	 * Initializes the worker and starts the worker thread
-	 * 
+	 * Initializes the worker and starts the first execution
+	 *
 	 * @param name
 	 */
 	public void activate(String name) {
-		if (name != null) {
-			this.worker.setName(name);
-			this.worker.start();
+		if (name == null) {
+			return;
 		}
+		synchronized (this.lock) {
+			if (this.isActive) {
+				return;
+			}
+			this.name = name;
+			this.isActive = true;
+			if (this.isBlocking()) {
+				this.dedicatedExecutor = this.runtime.newDedicatedExecutor(name);
+			}
+			this.deadline = this.runtime.nanoTime();
+			this.scheduleNext(0);
+		}
+		this.runtime.register(this);
 	}
 
 	/**
-	 * Stops the worker thread
+	 * Stops the worker
 	 */
 	public void deactivate() {
-		this.isStopped.set(true);
+		synchronized (this.lock) {
+			this.isActive = false;
+			this.cancel();
+			if (this.dedicatedExecutor != null) {
+				// a running forever() is finished; no new execution is scheduled
+				this.dedicatedExecutor.shutdown();
+				this.dedicatedExecutor = null;
+			}
+		}
+		this.runtime.unregister(this);
 	}
 
 	/**
-	 * This method is called in a loop forever until the Thread gets interrupted.
+	 * This method is called in a loop forever until the worker is deactivated.
 	 */
 	protected abstract void forever();
 
@@ -49,102 +119,260 @@ public abstract class AbstractWorker {
 	 * <li>= 0 never wait between two consecutive executions of forever()
 	 * <li>&lt; 0 causes the Cycle to sleep forever until 'triggerNextRun()' is called
 	 * </ul>
-	 * 
+	 *
 	 * @return
 	 */
 	protected abstract int getCycleTime();
 
 	/**
-	 * Causes the Worker to interrupt sleeping and start again the forever() method
+	 * Gets the ScheduleMode that is applied if the cycleTime is positive. Defaults
+	 * to {@link ScheduleMode#FIXED_DELAY}.
+	 *
+	 * @return the ScheduleMode
+	 */
+	protected ScheduleMode getScheduleMode() {
+		return ScheduleMode.FIXED_DELAY;
+	}
+
+	/**
+	 * Gets the maximum expected run time of one execution of forever() in [ms].
+	 * Longer executions are flagged by the watchdog of the {@link WorkerRuntime}.
+	 * Defaults to the cycleTime or {@link #DEFAULT_RUN_TIME_BUDGET}.
+	 *
+	 * @return the run-time budget
+	 */
+	protected int getRunTimeBudget() {
+		int cycleTime = this.getCycleTime();
+		return cycleTime > 0 ? cycleTime : DEFAULT_RUN_TIME_BUDGET;
+	}
+
+	/**
+	 * Gets whether forever() blocks for a longer time, e.g. on serial or TCP I/O
+	 * or while waiting for other workers. Blocking workers are executed on a
+	 * dedicated thread instead of the shared pool of the {@link WorkerRuntime}.
+	 * Defaults to false.
+	 *
+	 * @return true for a dedicated thread
+	 */
+	protected boolean isBlocking() {
+		return false;
+	}
+
+	/**
+	 * Causes the Worker to stop waiting and start again the forever() method
 	 * immediately
 	 */
 	public void triggerForceRun() {
-		if (!isForceRun.getAndSet(true)) {
-			this.worker.interrupt();
+		synchronized (this.lock) {
+			if (!this.isActive || this.isOnWorkerExceptionSleep) {
+				return;
+			}
+			if (this.isRunning) {
+				this.isForceRun = true;
+			} else {
+				this.cancel();
+				this.scheduleNext(0);
+			}
 		}
 	}
-	
+
 	/**
 	 * Allows the next execution of the forever() method.
 	 */
 	public void triggerNextCycle() {
-		this.cycleMutex.release();
+		synchronized (this.lock) {
+			if (this.isActive && !this.isRunning && this.future == null) {
+				// waiting for this trigger
+				this.scheduleNext(0);
+			} else {
+				this.isNextCycleTriggered = true;
+			}
+		}
 	}
 
-	private final Thread worker = new Thread() {
-		public void run() {
-			long onWorkerExceptionSleep = 1; // seconds
-			while (!isStopped.get()) {
-				long cycleStart = System.currentTimeMillis();
-				try {
-					/*
-					 * Call forever() forever.
-					 */
-					forever();
-					/*
-					 * Wait for next cycle
-					 */
-					try {
-						int cycleTime = getCycleTime();
-						if (cycleTime == 0) {
-							// no wait
-						} else if (cycleTime > 0) {
-							long sleep = cycleTime - (System.currentTimeMillis() - cycleStart);
-							if (sleep > 0) {
-								Thread.sleep(sleep);
-							}
-						} else {
-							cycleMutex.await();
-						}
-					} catch (InterruptedException e) {
-						if (isForceRun.get()) {
-							// check if a "forceRun" was triggereed. In that case Thread.sleep is
-							// interrupted and run() is
-							// starting again immediately
-							isForceRun.set(false);
-						} else {
-							// otherwise forward the exception
-							isStopped.set(true);
-							throw e;
-						}
-					}
-					// Everything went ok -> reset onWorkerExceptionSleep
-					onWorkerExceptionSleep = 1;
-				} catch (Throwable e) {
-					/*
-					 * Handle Bridge-Exceptions
-					 */
-					log.error("Worker error. " + e.getClass().getSimpleName() + ": " + e.getMessage() //
-							+ (e.getCause() != null ? " - Caused by: " + e.getCause().getMessage() : ""));
-					e.printStackTrace();
-					onWorkerExceptionSleep = onWorkerExceptionSleep(onWorkerExceptionSleep);
+	/**
+	 * Gets the name of this worker.
+	 *
+	 * @return the name given on activate
+	 */
+	public String getName() {
+		synchronized (this.lock) {
+			return this.name;
+		}
+	}
+
+	/**
+	 * Gets the run-time statistics of this worker.
+	 *
+	 * @return the WorkerStatistics
+	 */
+	public WorkerStatistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Schedules the next execution. Must be called while holding the lock.
+	 *
+	 * @param delay the delay in [ns]
+	 */
+	private void scheduleNext(long delay) {
+		final int generation = ++this.generation;
+		this.scheduledAt = this.runtime.nanoTime() + Math.max(0, delay);
+		Runnable command = () -> this.run(generation);
+		if (this.dedicatedExecutor != null) {
+			this.future = this.dedicatedExecutor.schedule(command, delay, TimeUnit.NANOSECONDS);
+		} else {
+			this.future = this.runtime.schedule(command, delay, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Cancels the next execution. Must be called while holding the lock.
+	 */
+	private void cancel() {
+		this.generation++;
+		if (this.future != null) {
+			this.future.cancel(false);
+			this.future = null;
+		}
+	}
+
+	/**
+	 * Executes forever() once and schedules the next execution. Executed by the
+	 * pool of the WorkerRuntime.
+	 *
+	 * @param generation the generation of the schedule
+	 */
+	private void run(int generation) {
+		String name;
+		long scheduledAt;
+		synchronized (this.lock) {
+			if (!this.isActive || this.isRunning || generation != this.generation) {
+				return;
+			}
+			this.isRunning = true;
+			this.isForceRun = false;
+			this.isOnWorkerExceptionSleep = false;
+			this.future = null;
+			name = this.name;
+			scheduledAt = this.scheduledAt;
+		}
+
+		Thread thread = Thread.currentThread();
+		String threadName = thread.getName();
+		thread.setName(name);
+		long cycleStart = this.runtime.nanoTime();
+		boolean isError = false;
+		try {
+			this.statistics.onRunStart(cycleStart, scheduledAt, this.getRunTimeBudget());
+			/*
+			 * Call forever()
+			 */
+			this.forever();
+		} catch (Throwable e) {
+			/*
+			 * Handle Bridge-Exceptions
+			 */
+			log.error("Worker error. " + e.getClass().getSimpleName() + ": " + e.getMessage() //
+					+ (e.getCause() != null ? " - Caused by: " + e.getCause().getMessage() : ""), e);
+			isError = true;
+		} finally {
+			this.statistics.onRunEnd(this.runtime.nanoTime());
+			thread.setName(threadName);
+		}
+
+		int cycleTime;
+		ScheduleMode scheduleMode;
+		try {
+			cycleTime = this.getCycleTime();
+			scheduleMode = this.getScheduleMode();
+		} catch (Throwable e) {
+			log.error("Worker error. Unable to get CycleTime: " + e.getMessage());
+			cycleTime = ALWAYS_WAIT_FOR_TRIGGER_NEXT_RUN;
+			scheduleMode = ScheduleMode.FIXED_DELAY;
+			isError = true;
+		}
+
+		/*
+		 * Schedule next cycle
+		 */
+		synchronized (this.lock) {
+			this.isRunning = false;
+			if (!this.isActive) {
+				return;
+			}
+			if (isError) {
+				/*
+				 * Sleep and don't let yourself interrupt by a ForceRun-Flag. It is not making
+				 * sense anyway, because something is wrong with the setup if we landed here.
+				 */
+				if (this.onWorkerExceptionSleep < 60) {
+					this.onWorkerExceptionSleep += 1;
 				}
+				this.isOnWorkerExceptionSleep = true;
+				this.scheduleNext(TimeUnit.SECONDS.toNanos(this.onWorkerExceptionSleep));
+				// fixed-rate deadlines start again after the sleep
+				this.deadline = this.scheduledAt;
+				return;
 			}
-		};
-	};
+			// Everything went ok -> reset onWorkerExceptionSleep
+			this.onWorkerExceptionSleep = 1;
+
+			if (cycleTime > 0) {
+				long next = this.getNextCycleStart(cycleStart, TimeUnit.MILLISECONDS.toNanos(cycleTime), scheduleMode);
+				this.scheduleNext(this.isForceRun ? 0 : next - this.runtime.nanoTime());
+				return;
+			}
+
+			// not periodic: fixed-rate deadlines start again with the next run
+			this.deadline = this.runtime.nanoTime();
+			if (this.isForceRun || cycleTime == 0) {
+				// no wait
+				this.scheduleNext(0);
+			} else if (this.isNextCycleTriggered) {
+				// was triggered while running
+				this.isNextCycleTriggered = false;
+				this.scheduleNext(0);
+			} else {
+				// wait for triggerNextCycle()
+				this.future = null;
+			}
+		}
+	}
 
 	/**
-	 * Little helper method: Sleep and don't let yourself interrupt by a
-	 * ForceRun-Flag. It is not making sense anyway, because something is wrong with
-	 * the setup if we landed here.
+	 * Calculates the start of the next periodic run and records overruns. Must be
+	 * called while holding the lock.
 	 *
-	 * @param duration in seconds
+	 * @param cycleStart   the start of the finished run
+	 * @param period       the cycleTime in [ns]
+	 * @param scheduleMode the ScheduleMode
+	 * @return the WorkerRuntime#nanoTime() of the next run
 	 */
-	private long onWorkerExceptionSleep(long duration) {
-		if (duration < 60) {
-			duration += 1;
+	private long getNextCycleStart(long cycleStart, long period, ScheduleMode scheduleMode) {
+		long now = this.runtime.nanoTime();
+		if (scheduleMode == ScheduleMode.FIXED_DELAY) {
+			long next = cycleStart + period;
+			if (now - next > 0) {
+				this.statistics.onOverrun(now - next, 0);
+			}
+			this.deadline = next;
+			return next;
 		}
-		long targetTime = System.currentTimeMillis() + (duration * 1000);
-		do {
-			try {
-				long thisDuration = (targetTime - System.currentTimeMillis()) / 1000;
-				if (thisDuration > 0) {
-					Thread.sleep(thisDuration);
-				}
-			} catch (InterruptedException e1) {
-				log.warn("WorkerExceptionSleep caused " + e1.getMessage());
+
+		if (cycleStart - this.deadline >= 0) {
+			// this run was the one for the current deadline
+			this.deadline += period;
+		}
+		long overrun = now - this.deadline;
+		if (overrun > 0) {
+			long skippedCycles = 0;
+			if (scheduleMode == ScheduleMode.FIXED_RATE_SKIP) {
+				skippedCycles = overrun / period + 1;
+				this.deadline += skippedCycles * period;
 			}
-		} while (targetTime > System.currentTimeMillis());
-		return duration;
+			this.statistics.onOverrun(overrun, skippedCycles);
+		}
+		return this.deadline;
 	}
 }
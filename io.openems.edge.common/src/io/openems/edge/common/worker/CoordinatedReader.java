@@ -0,0 +1,37 @@
+package io.openems.edge.common.worker;
+
+/**
+ * A service that reads data from devices in its own worker, triggered once per
+ * Cycle - e.g. a Modbus bridge.
+ *
+ * <p>
+ * The Cycle waits for all coordinated readers before it switches the process
+ * image, until their reads are finished or the read deadline passed. This way
+ * Controllers see a consistent snapshot of all devices, even if they are
+ * connected via different buses.
+ *
+ * <p>
+ * Readers and the Cycle run on dedicated threads (see
+ * {@link AbstractWorker#isBlocking()}): waiting for the reads never blocks a
+ * thread of the shared pool that a reader might need.
+ */
+public interface CoordinatedReader {
+
+	/**
+	 * Gets whether this reader takes part in the coordinated reading.
+	 *
+	 * @return true if the Cycle should wait for this reader
+	 */
+	boolean isCoordinated();
+
+	/**
+	 * Waits until the reads that were triggered in the previous Cycle are
+	 * finished.
+	 *
+	 * @param timeout the maximum time to wait in [ms]
+	 * @return true if the reads are finished; false on timeout
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean awaitReads(long timeout) throws InterruptedException;
+
+}
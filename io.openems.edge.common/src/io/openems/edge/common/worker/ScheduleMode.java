@@ -0,0 +1,26 @@
+package io.openems.edge.common.worker;
+
+/**
+ * Defines how an {@link AbstractWorker} with a positive cycleTime schedules its
+ * runs. All times are based on {@link System#nanoTime()}, so they are not
+ * affected by adjustments of the system clock.
+ */
+public enum ScheduleMode {
+	/**
+	 * The next run starts cycleTime after the start of the previous run. After an
+	 * overrun the next run starts immediately and all later runs are shifted.
+	 */
+	FIXED_DELAY,
+	/**
+	 * Runs start at fixed deadlines, every cycleTime after the first run.
+	 * Deadlines that were missed by an overrun are executed immediately one after
+	 * the other until the worker caught up.
+	 */
+	FIXED_RATE_CATCH_UP,
+	/**
+	 * Runs start at fixed deadlines, every cycleTime after the first run.
+	 * Deadlines that were missed by an overrun are skipped; the next run starts at
+	 * the next deadline in the future.
+	 */
+	FIXED_RATE_SKIP;
+}
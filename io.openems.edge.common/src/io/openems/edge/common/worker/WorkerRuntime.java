@@ -0,0 +1,176 @@
+package io.openems.edge.common.worker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes all {@link AbstractWorker}s on one small, shared thread pool.
+ *
+ * <p>
+ * Workers do not own a Thread. Every execution of
+ * {@link AbstractWorker#forever()} is one task on the pool; afterwards the
+ * worker schedules its next execution according to its cycle time or waits
+ * for a trigger. Other periodic or delayed jobs of OpenEMS Edge can be
+ * scheduled on the same pool via {@link #schedule(Runnable, long, TimeUnit)}.
+ *
+ * <p>
+ * Workers that block, e.g. on serial or TCP I/O, are executed on a dedicated
+ * thread instead (see {@link AbstractWorker#isBlocking()}), so that slow
+ * devices cannot starve the other workers of the pool.
+ *
+ * <p>
+ * A watchdog checks every {@link #WATCHDOG_PERIOD} ms if a worker is running
+ * for longer than its run-time budget and logs a warning.
+ *
+ * <p>
+ * The size of the pool defaults to the number of processors (at least 2) and
+ * can be set via the system property {@link #POOL_SIZE_PROPERTY}.
+ */
+public class WorkerRuntime {
+
+	public final static String POOL_SIZE_PROPERTY = "openems.worker.poolSize";
+	protected final static int WATCHDOG_PERIOD = 1000; // [ms]
+
+	private static WorkerRuntime defaultRuntime = null;
+
+	/**
+	 * Gets the WorkerRuntime that is shared by all workers.
+	 *
+	 * @return the default WorkerRuntime
+	 */
+	public static synchronized WorkerRuntime getDefault() {
+		if (defaultRuntime == null) {
+			defaultRuntime = new WorkerRuntime("OpenEMS-Worker",
+					Integer.getInteger(POOL_SIZE_PROPERTY, Math.max(2, Runtime.getRuntime().availableProcessors())));
+		}
+		return defaultRuntime;
+	}
+
+	private final Logger log = LoggerFactory.getLogger(WorkerRuntime.class);
+
+	private final String name;
+	private final ScheduledThreadPoolExecutor executor;
+	private final ScheduledExecutorService watchdog;
+	private final Set<AbstractWorker> workers = ConcurrentHashMap.newKeySet();
+
+	public WorkerRuntime(String name, int poolSize) {
+		this.name = name;
+		this.executor = new ScheduledThreadPoolExecutor(Math.max(1, poolSize), threadFactory(name));
+		this.executor.setRemoveOnCancelPolicy(true);
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory(name + "-Watchdog"));
+		this.watchdog.scheduleAtFixedRate(this::checkRunTimeBudgets, WATCHDOG_PERIOD, WATCHDOG_PERIOD,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Executes the command on the pool after the given delay.
+	 *
+	 * @param command the command
+	 * @param delay   the delay; zero or negative for immediate execution
+	 * @param unit    the TimeUnit of the delay
+	 * @return the ScheduledFuture
+	 */
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return this.executor.schedule(command, delay, unit);
+	}
+
+	/**
+	 * Gets the current time of the worker clock in [ns]. All run times,
+	 * deadlines and delays of the workers are measured with this clock. Defaults
+	 * to {@link System#nanoTime()}; tests may override it together with
+	 * {@link #schedule(Runnable, long, TimeUnit)} to execute workers in virtual
+	 * time.
+	 *
+	 * @return the time in [ns]
+	 */
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Creates a dedicated thread for a blocking worker. The thread is not part
+	 * of the shared pool; it ends when the returned executor is shutdown.
+	 *
+	 * @param workerName the name of the worker
+	 * @return the single-threaded executor
+	 */
+	protected ScheduledExecutorService newDedicatedExecutor(String workerName) {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+				threadFactory(this.name + "-" + workerName));
+		executor.setRemoveOnCancelPolicy(true);
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		return executor;
+	}
+
+	/**
+	 * Gets the size of the pool.
+	 *
+	 * @return the number of threads
+	 */
+	public int getPoolSize() {
+		return this.executor.getCorePoolSize();
+	}
+
+	/**
+	 * Gets all active workers.
+	 *
+	 * @return the workers
+	 */
+	public Collection<AbstractWorker> getWorkers() {
+		return Collections.unmodifiableSet(this.workers);
+	}
+
+	/**
+	 * Stops the pool. Used for tests; the default WorkerRuntime is never
+	 * shutdown.
+	 */
+	public void shutdown() {
+		this.watchdog.shutdownNow();
+		this.executor.shutdownNow();
+	}
+
+	protected void register(AbstractWorker worker) {
+		this.workers.add(worker);
+	}
+
+	protected void unregister(AbstractWorker worker) {
+		this.workers.remove(worker);
+	}
+
+	/**
+	 * Flags workers that exceed their run-time budget. Executed by the watchdog
+	 * thread.
+	 */
+	private void checkRunTimeBudgets() {
+		long now = this.nanoTime();
+		for (AbstractWorker worker : this.workers) {
+			WorkerStatistics statistics = worker.getStatistics();
+			long runTime = statistics.checkRunTimeBudget(now);
+			if (runTime > 0) {
+				log.warn("Worker [" + worker.getName() + "] is running for [" + TimeUnit.NANOSECONDS.toMillis(runTime)
+						+ " ms]. Run-time budget is [" + statistics.getRunTimeBudget() + " ms]");
+			}
+		}
+	}
+
+	private static ThreadFactory threadFactory(String name) {
+		AtomicInteger number = new AtomicInteger(0);
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,212 @@
+package io.openems.edge.common.worker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the run-time statistics of one {@link AbstractWorker}.
+ *
+ * <p>
+ * Run times are measured with {@link WorkerRuntime#nanoTime()} and provided in
+ * microseconds.
+ *
+ * <p>
+ * Jitter is the delay between the scheduled and the actual start of a run;
+ * overrun is the delay between the scheduled start of the next run and the end
+ * of a run that took too long. Both are collected in histograms with the
+ * upper bounds {@link #HISTOGRAM_BOUNDS}; the last bucket collects everything
+ * above.
+ */
+public class WorkerStatistics {
+
+	/**
+	 * Upper bounds of the histogram buckets in [ms]
+	 */
+	public final static int[] HISTOGRAM_BOUNDS = { 1, 5, 10, 50 };
+
+	private long runs = 0;
+	private long totalRunTime = 0; // [ns]
+	private long lastRunTime = 0; // [ns]
+	private long maxRunTime = 0; // [ns]
+	private long overBudgetRuns = 0;
+
+	private final long[] jitterHistogram = new long[HISTOGRAM_BOUNDS.length + 1];
+	private final long[] overrunHistogram = new long[HISTOGRAM_BOUNDS.length + 1];
+	private long maxJitter = 0; // [ns]
+	private long skippedCycles = 0;
+
+	private int runTimeBudget = AbstractWorker.DEFAULT_RUN_TIME_BUDGET; // [ms]
+	private long runStartedAt = 0; // [ns]
+	private boolean isRunning = false;
+	private boolean isFlagged = false;
+
+	protected synchronized void onRunStart(long now, long scheduledAt, int runTimeBudget) {
+		long jitter = Math.max(0, now - scheduledAt);
+		this.jitterHistogram[getBucket(jitter)]++;
+		if (jitter > this.maxJitter) {
+			this.maxJitter = jitter;
+		}
+		this.runTimeBudget = runTimeBudget;
+		this.runStartedAt = now;
+		this.isRunning = true;
+		this.isFlagged = false;
+	}
+
+	protected synchronized void onRunEnd(long now) {
+		long runTime = now - this.runStartedAt;
+		this.isRunning = false;
+		this.runs++;
+		this.totalRunTime += runTime;
+		this.lastRunTime = runTime;
+		if (runTime > this.maxRunTime) {
+			this.maxRunTime = runTime;
+		}
+		if (!this.isFlagged && runTime > TimeUnit.MILLISECONDS.toNanos(this.runTimeBudget)) {
+			this.overBudgetRuns++;
+		}
+	}
+
+	protected synchronized void onOverrun(long overrun, long skippedCycles) {
+		this.overrunHistogram[getBucket(overrun)]++;
+		this.skippedCycles += skippedCycles;
+	}
+
+	private static int getBucket(long duration) {
+		for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+			if (duration < TimeUnit.MILLISECONDS.toNanos(HISTOGRAM_BOUNDS[i])) {
+				return i;
+			}
+		}
+		return HISTOGRAM_BOUNDS.length;
+	}
+
+	/**
+	 * Flags the current run if it exceeds the run-time budget. Every run is
+	 * flagged only once.
+	 *
+	 * @param now the current WorkerRuntime#nanoTime()
+	 * @return the run time in [ns] if the run was flagged now; otherwise 0
+	 */
+	protected synchronized long checkRunTimeBudget(long now) {
+		if (!this.isRunning || this.isFlagged) {
+			return 0;
+		}
+		long runTime = now - this.runStartedAt;
+		if (runTime <= TimeUnit.MILLISECONDS.toNanos(this.runTimeBudget)) {
+			return 0;
+		}
+		this.isFlagged = true;
+		this.overBudgetRuns++;
+		return runTime;
+	}
+
+	/**
+	 * Gets the number of finished runs.
+	 *
+	 * @return the number of runs
+	 */
+	public synchronized long getRuns() {
+		return this.runs;
+	}
+
+	/**
+	 * Gets the run time of the last finished run in [µs].
+	 *
+	 * @return the run time
+	 */
+	public synchronized long getLastRunTime() {
+		return TimeUnit.NANOSECONDS.toMicros(this.lastRunTime);
+	}
+
+	/**
+	 * Gets the average run time in [µs].
+	 *
+	 * @return the run time; 0 if there was no run yet
+	 */
+	public synchronized long getAverageRunTime() {
+		return this.runs == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.totalRunTime / this.runs);
+	}
+
+	/**
+	 * Gets the maximum run time in [µs].
+	 *
+	 * @return the run time
+	 */
+	public synchronized long getMaxRunTime() {
+		return TimeUnit.NANOSECONDS.toMicros(this.maxRunTime);
+	}
+
+	/**
+	 * Gets the number of runs that exceeded the run-time budget, including a
+	 * flagged run that is still active.
+	 *
+	 * @return the number of runs
+	 */
+	public synchronized long getOverBudgetRuns() {
+		return this.overBudgetRuns;
+	}
+
+	/**
+	 * Gets the jitter histogram.
+	 *
+	 * @return the number of runs per bucket of {@link #HISTOGRAM_BOUNDS}
+	 */
+	public synchronized long[] getJitterHistogram() {
+		return this.jitterHistogram.clone();
+	}
+
+	/**
+	 * Gets the overrun histogram.
+	 *
+	 * @return the number of overruns per bucket of {@link #HISTOGRAM_BOUNDS}
+	 */
+	public synchronized long[] getOverrunHistogram() {
+		return this.overrunHistogram.clone();
+	}
+
+	/**
+	 * Gets the maximum jitter in [µs].
+	 *
+	 * @return the jitter
+	 */
+	public synchronized long getMaxJitter() {
+		return TimeUnit.NANOSECONDS.toMicros(this.maxJitter);
+	}
+
+	/**
+	 * Gets the number of cycles that were skipped after an overrun.
+	 *
+	 * @return the number of cycles
+	 */
+	public synchronized long getSkippedCycles() {
+		return this.skippedCycles;
+	}
+
+	/**
+	 * Gets the run-time budget of the last run in [ms].
+	 *
+	 * @return the budget
+	 */
+	public synchronized int getRunTimeBudget() {
+		return this.runTimeBudget;
+	}
+
+	/**
+	 * Gets whether forever() is currently executed.
+	 *
+	 * @return true if running
+	 */
+	public synchronized boolean isRunning() {
+		return this.isRunning;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "runs=" + this.runs //
+				+ ", last=" + TimeUnit.NANOSECONDS.toMicros(this.lastRunTime) + "µs" //
+				+ ", avg=" + (this.runs == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.totalRunTime / this.runs)) + "µs" //
+				+ ", max=" + TimeUnit.NANOSECONDS.toMicros(this.maxRunTime) + "µs" //
+				+ ", overBudget=" + this.overBudgetRuns //
+				+ ", maxJitter=" + TimeUnit.NANOSECONDS.toMicros(this.maxJitter) + "µs" //
+				+ ", skipped=" + this.skippedCycles;
+	}
+}
@@ -0,0 +1,111 @@
+package io.openems.edge.common.worker;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.doc.Unit;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Channels that publish the timing of an {@link AbstractWorker}, i.e. its
+ * {@link WorkerStatistics}, on an OpenemsComponent.
+ */
+public interface WorkerTiming {
+
+	public enum ChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		/*
+		 * Jitter histogram: number of runs by delay of their start
+		 */
+		JITTER_BELOW_1_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that started less than 1 ms late")), //
+		JITTER_BELOW_5_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that started 1 to 5 ms late")), //
+		JITTER_BELOW_10_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that started 5 to 10 ms late")), //
+		JITTER_BELOW_50_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that started 10 to 50 ms late")), //
+		JITTER_ABOVE_50_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that started 50 ms late or more")), //
+		MAX_JITTER(new Doc() //
+				.unit(Unit.MILLISECONDS) //
+				.text("Maximum delay of the start of a run")), //
+		/*
+		 * Overrun histogram: number of runs by the time they exceeded their cycle
+		 */
+		OVERRUN_BELOW_1_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that exceeded their cycle by less than 1 ms")), //
+		OVERRUN_BELOW_5_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that exceeded their cycle by 1 to 5 ms")), //
+		OVERRUN_BELOW_10_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that exceeded their cycle by 5 to 10 ms")), //
+		OVERRUN_BELOW_50_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that exceeded their cycle by 10 to 50 ms")), //
+		OVERRUN_ABOVE_50_MS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of runs that exceeded their cycle by 50 ms or more")), //
+		SKIPPED_CYCLES(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of cycles that were skipped after an overrun")); //
+
+		private final Doc doc;
+
+		private ChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	/**
+	 * The histogram Channels in the order of the buckets of
+	 * {@link WorkerStatistics#HISTOGRAM_BOUNDS}.
+	 */
+	public final static ChannelId[] JITTER_HISTOGRAM = { ChannelId.JITTER_BELOW_1_MS, ChannelId.JITTER_BELOW_5_MS,
+			ChannelId.JITTER_BELOW_10_MS, ChannelId.JITTER_BELOW_50_MS, ChannelId.JITTER_ABOVE_50_MS };
+	public final static ChannelId[] OVERRUN_HISTOGRAM = { ChannelId.OVERRUN_BELOW_1_MS, ChannelId.OVERRUN_BELOW_5_MS,
+			ChannelId.OVERRUN_BELOW_10_MS, ChannelId.OVERRUN_BELOW_50_MS, ChannelId.OVERRUN_ABOVE_50_MS };
+
+	/**
+	 * Creates the Channels for a component.
+	 *
+	 * @param component the OpenemsComponent
+	 * @return the Channels
+	 */
+	public static Stream<IntegerReadChannel> initializeChannels(OpenemsComponent component) {
+		return Arrays.stream(ChannelId.values()).map(channelId -> new IntegerReadChannel(component, channelId));
+	}
+
+	/**
+	 * Sets the Channels of a component to the current statistics of a worker.
+	 *
+	 * @param component  the OpenemsComponent with the Channels
+	 * @param statistics the WorkerStatistics
+	 */
+	public static void updateChannels(OpenemsComponent component, WorkerStatistics statistics) {
+		long[] jitter = statistics.getJitterHistogram();
+		for (int i = 0; i < JITTER_HISTOGRAM.length; i++) {
+			component.channel(JITTER_HISTOGRAM[i]).setNextValue(jitter[i]);
+		}
+		long[] overrun = statistics.getOverrunHistogram();
+		for (int i = 0; i < OVERRUN_HISTOGRAM.length; i++) {
+			component.channel(OVERRUN_HISTOGRAM[i]).setNextValue(overrun[i]);
+		}
+		component.channel(ChannelId.MAX_JITTER)
+				.setNextValue(TimeUnit.MICROSECONDS.toMillis(statistics.getMaxJitter()));
+		component.channel(ChannelId.SKIPPED_CYCLES).setNextValue(statistics.getSkippedCycles());
+	}
+}
@@ -0,0 +1,103 @@
+package io.openems.edge.common.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.doc.Level;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+
+public class StateCollectorChannelTest {
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+
+		private final List<StateChannel> states = new ArrayList<>();
+
+		public DummyComponent(int warnings) {
+			this.addChannel(new StateCollectorChannel(this, OpenemsComponent.ChannelId.STATE));
+			this.addState("FAULT_0", Level.FAULT);
+			for (int i = 0; i < warnings; i++) {
+				this.addState("WARNING_" + i, Level.WARNING);
+			}
+		}
+
+		private void addState(String name, Level level) {
+			StateChannel channel = new StateChannel(this, new io.openems.edge.common.channel.doc.ChannelId() {
+				private final Doc doc = new Doc().level(level).text(name);
+
+				@Override
+				public String name() {
+					return name;
+				}
+
+				@Override
+				public Doc doc() {
+					return this.doc;
+				}
+			});
+			this.addChannel(channel);
+			this.states.add(channel);
+		}
+
+		private void set(int index, Boolean value) {
+			StateChannel channel = this.states.get(index);
+			channel.setNextValue(value);
+			channel.nextProcessImage();
+		}
+	}
+
+	@Test
+	public void testLevel() {
+		// more than one word of the bitset
+		DummyComponent component = new DummyComponent(100);
+		StateCollectorChannel state = component.getState();
+
+		component.set(0, false);
+		assertNull(state.getLevel());
+		assertEquals(0, (int) state.getNextValue().get());
+
+		component.set(70, true);
+		component.set(99, true);
+		assertEquals(Level.WARNING, state.getLevel());
+		assertEquals(2, state.getActiveCount(Level.WARNING));
+		assertEquals(Level.WARNING.getValue(), (int) state.getNextValue().get());
+
+		component.set(0, true);
+		assertEquals(Level.FAULT, state.getLevel());
+		assertEquals(Level.FAULT.getValue(), (int) state.getNextValue().get());
+		assertEquals("WARNING: WARNING_69,WARNING_98,| FAULT: FAULT_0,", state.listStates());
+		assertEquals("FAULT: FAULT_0,", state.listStates(Level.FAULT));
+
+		// unknown value counts as inactive
+		component.set(0, null);
+		component.set(70, false);
+		assertEquals(1, state.getActiveCount(Level.WARNING));
+		assertEquals(0, state.getActiveCount(Level.FAULT));
+		assertEquals(Level.WARNING.getValue(), (int) state.getNextValue().get());
+
+		component.set(99, false);
+		assertNull(state.getLevel());
+		assertEquals("", state.listStates());
+	}
+
+	@Test
+	public void testManyStates() {
+		// more than one segment of the bitset
+		DummyComponent component = new DummyComponent(5000);
+		StateCollectorChannel state = component.getState();
+
+		component.set(4500, true);
+		component.set(4500, true);
+		assertEquals(1, state.getActiveCount(Level.WARNING));
+		assertEquals("WARNING: WARNING_4499,", state.listStates());
+
+		component.set(4500, false);
+		assertEquals(0, state.getActiveCount(Level.WARNING));
+	}
+}
@@ -0,0 +1,163 @@
+package io.openems.edge.common.channel.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.FloatReadChannel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.StringReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+
+public class ChannelJournalTest {
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		INTEGER(new Doc().type(OpenemsType.INTEGER)), //
+		FLOAT(new Doc().type(OpenemsType.FLOAT)), //
+		STRING(new Doc().type(OpenemsType.STRING));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+
+		private final IntegerReadChannel integer = new IntegerReadChannel(this, TestChannelId.INTEGER);
+		private final FloatReadChannel floating = new FloatReadChannel(this, TestChannelId.FLOAT);
+		private final StringReadChannel string = new StringReadChannel(this, TestChannelId.STRING);
+
+		public DummyComponent() {
+			this.addChannel(this.integer);
+			this.addChannel(this.floating);
+			this.addChannel(this.string);
+		}
+
+		private boolean removeInteger() {
+			return this.removeChannel(this.integer);
+		}
+	}
+
+	@Test
+	public void testChangedChannels() {
+		ChannelJournal journal = ChannelJournal.getDefault();
+		DummyComponent component = new DummyComponent();
+		// skip entries of other tests
+		journal.commitCycle();
+		ChannelJournal.Cursor cursor = journal.cursor();
+
+		component.integer.setNextValue(42);
+		component.floating.setNextValue(1.5f);
+		component.integer.nextProcessImage();
+		component.floating.nextProcessImage();
+		component.string.nextProcessImage(); // unchanged
+		assertFalse("not yet committed", cursor.next());
+		journal.commitCycle();
+
+		assertTrue(cursor.next());
+		assertSame(component.integer, cursor.getChannel());
+		assertEquals(OpenemsType.INTEGER, cursor.getType());
+		assertEquals(42, cursor.getLong());
+		assertEquals(42, cursor.getValue());
+		assertTrue(cursor.next());
+		assertSame(component.floating, cursor.getChannel());
+		assertEquals(1.5, cursor.getDouble(), 0);
+		assertEquals(1.5f, cursor.getValue());
+		assertFalse(cursor.next());
+
+		// same value again is not a change
+		component.integer.setNextValue(42);
+		component.integer.nextProcessImage();
+		component.string.setNextValue("foo");
+		component.string.nextProcessImage();
+		component.floating.setNextValue(null);
+		component.floating.nextProcessImage();
+		journal.commitCycle();
+
+		assertTrue(cursor.next());
+		assertSame(component.string, cursor.getChannel());
+		assertEquals("foo", cursor.getValue());
+		assertTrue(cursor.next());
+		assertTrue(cursor.isNull());
+		assertNull(cursor.getValue());
+		assertFalse(cursor.next());
+		assertFalse(cursor.isOverrun());
+	}
+
+	@Test
+	public void testOverrun() {
+		ChannelJournal journal = new ChannelJournal(6);
+		assertEquals(8, journal.getCapacity());
+		ChannelJournal.Cursor cursor = journal.cursor();
+
+		for (int i = 0; i < 5; i++) {
+			journal.append(i, OpenemsType.INTEGER, i);
+		}
+		journal.commitCycle();
+		assertTrue(cursor.next());
+		assertEquals(0, cursor.getLong());
+
+		// overwrites the entries that were not yet iterated
+		for (int i = 5; i < 12; i++) {
+			journal.append(i, OpenemsType.INTEGER, i);
+		}
+		journal.commitCycle();
+		assertFalse(cursor.next());
+		assertTrue(cursor.isOverrun());
+
+		cursor.reset();
+		assertFalse(cursor.isOverrun());
+		assertEquals(0, cursor.getPending());
+		journal.append(1, OpenemsType.LONG, 100L);
+		journal.commitCycle();
+		assertTrue(cursor.next());
+		assertEquals(1, cursor.getIndex());
+		assertEquals(100, cursor.getLong());
+	}
+
+	@Test
+	public void testRemoveChannel() {
+		DummyComponent component = new DummyComponent();
+		int index = component.integer.getJournalIndex();
+		assertSame(component.integer, ChannelJournal.getDefault().getChannel(index));
+
+		assertTrue(component.removeInteger());
+		assertEquals(-1, component.integer.getJournalIndex());
+		assertNull(ChannelJournal.getDefault().getChannel(index));
+	}
+
+	@Test
+	public void testReuseIndex() {
+		ChannelJournal journal = new ChannelJournal(4);
+		DummyComponent component = new DummyComponent();
+		int index0 = journal.register(component.integer);
+		int index1 = journal.register(component.floating);
+		journal.append(index0, OpenemsType.INTEGER, 1);
+		journal.unregister(index0);
+		journal.commitCycle();
+
+		// the entry of the unregistered index is still in the journal
+		assertEquals(2, journal.register(component.string));
+
+		for (int i = 0; i < 4; i++) {
+			journal.append(index1, OpenemsType.FLOAT, 1.5f);
+		}
+		journal.commitCycle();
+
+		// all entries of the unregistered index were overwritten
+		assertEquals(index0, journal.register(component.string));
+		assertSame(component.string, journal.getChannel(index0));
+	}
+}
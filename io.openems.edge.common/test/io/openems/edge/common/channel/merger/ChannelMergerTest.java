@@ -0,0 +1,131 @@
+package io.openems.edge.common.channel.merger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.merger.ChannelMerger.Mode;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+
+public class ChannelMergerTest {
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		VALUE(new Doc().type(OpenemsType.INTEGER)), //
+		WEIGHT(new Doc().type(OpenemsType.INTEGER));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+		public DummyComponent() {
+			this.addChannel(new IntegerReadChannel(this, TestChannelId.VALUE));
+			this.addChannel(new IntegerReadChannel(this, TestChannelId.WEIGHT));
+		}
+
+		private Channel<Integer> getValue() {
+			return this.channel(TestChannelId.VALUE);
+		}
+
+		private Channel<Integer> getWeight() {
+			return this.channel(TestChannelId.WEIGHT);
+		}
+
+		private void update(Integer value, Integer weight) {
+			this.getWeight().setNextValue(weight);
+			this.getWeight().nextProcessImage();
+			this.getValue().setNextValue(value);
+			this.getValue().nextProcessImage();
+		}
+	}
+
+	@Test
+	public void testReducers() {
+		DummyComponent ess0 = new DummyComponent();
+		DummyComponent ess1 = new DummyComponent();
+		DummyComponent ess2 = new DummyComponent();
+		DummyComponent sum = new DummyComponent();
+		DummyComponent min = new DummyComponent();
+		DummyComponent max = new DummyComponent();
+		DummyComponent average = new DummyComponent();
+		DummyComponent weighted = new DummyComponent();
+		List<Channel<Integer>> values = Arrays.asList(ess0.getValue(), ess1.getValue(), ess2.getValue());
+		ChannelMerger.sum(sum.getValue(), values);
+		ChannelMerger.min(min.getValue(), values);
+		ChannelMerger.max(max.getValue(), values);
+		ChannelMerger.average(average.getValue(), values);
+		ChannelMerger.weightedAverage(weighted.getValue(), values, ess0.getWeight(), ess1.getWeight(),
+				ess2.getWeight());
+
+		ess0.update(20, 10_000);
+		ess1.update(80, 30_000);
+		// ess2 has no value
+		ess2.update(null, 50_000);
+
+		assertEquals(100, (int) sum.getValue().getNextValue().get());
+		assertEquals(20, (int) min.getValue().getNextValue().get());
+		assertEquals(80, (int) max.getValue().getNextValue().get());
+		assertEquals(50, (int) average.getValue().getNextValue().get());
+		assertEquals(65, (int) weighted.getValue().getNextValue().get());
+
+		// a changed weight alone triggers a merge
+		ess1.getWeight().setNextValue(10_000);
+		ess1.getWeight().nextProcessImage();
+		assertEquals(50, (int) weighted.getValue().getNextValue().get());
+
+		ess0.update(null, 10_000);
+		ess1.update(null, 30_000);
+		assertEquals(0, (int) sum.getValue().getNextValue().get());
+		assertNull(min.getValue().getNextValue().get());
+		assertNull(max.getValue().getNextValue().get());
+		assertNull(average.getValue().getNextValue().get());
+		assertNull(weighted.getValue().getNextValue().get());
+	}
+
+	@Test
+	public void testOncePerProcessImage() {
+		DummyComponent ess0 = new DummyComponent();
+		DummyComponent ess1 = new DummyComponent();
+		DummyComponent target = new DummyComponent();
+		AtomicInteger merges = new AtomicInteger(0);
+		target.getValue().onSetNextValue(value -> merges.incrementAndGet());
+		new ChannelMerger<Integer>(Reducer.SUM, Mode.ONCE_PER_PROCESS_IMAGE, target.getValue(),
+				Arrays.asList(ess0.getValue(), ess1.getValue()));
+
+		// first process image
+		ess0.update(1, null);
+		assertEquals(0, merges.get());
+		ess1.update(2, null);
+		assertEquals(1, merges.get());
+		assertEquals(3, (int) target.getValue().getNextValue().get());
+
+		// second process image
+		ess0.update(5, null);
+		ess1.update(5, null);
+		assertEquals(2, merges.get());
+		assertEquals(10, (int) target.getValue().getNextValue().get());
+
+		// ess1 is missing in this process image -> merge with the next one
+		ess0.update(6, null);
+		ess0.update(7, null);
+		assertEquals(3, merges.get());
+		assertEquals(11, (int) target.getValue().getNextValue().get());
+	}
+}
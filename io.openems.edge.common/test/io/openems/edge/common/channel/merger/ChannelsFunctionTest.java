@@ -0,0 +1,102 @@
+package io.openems.edge.common.channel.merger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+
+public class ChannelsFunctionTest {
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		POWER(new Doc().type(OpenemsType.INTEGER));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+		public DummyComponent() {
+			this.addChannel(new IntegerReadChannel(this, TestChannelId.POWER));
+		}
+
+		private Channel<Integer> getPower() {
+			return this.channel(TestChannelId.POWER);
+		}
+	}
+
+	@Test
+	public void testSum() {
+		DummyComponent parent = new DummyComponent();
+		SumInteger<DummyComponent> sum = new SumInteger<>(parent, TestChannelId.POWER, TestChannelId.POWER);
+		AtomicInteger updates = new AtomicInteger(0);
+		parent.getPower().onSetNextValue(value -> updates.incrementAndGet());
+
+		DummyComponent meter0 = new DummyComponent();
+		DummyComponent meter1 = new DummyComponent();
+		meter0.getPower().setNextValue(1000);
+		sum.addComponent(meter0);
+		sum.addComponent(meter1);
+		sum.addComponent(meter1);
+		assertEquals(1000, (int) parent.getPower().getNextValue().get());
+		assertEquals(1, sum.getValidCount());
+
+		meter1.getPower().setNextValue(-300);
+		assertEquals(700, (int) parent.getPower().getNextValue().get());
+		meter0.getPower().setNextValue(500);
+		assertEquals(200, (int) parent.getPower().getNextValue().get());
+		assertEquals(2, sum.getValidCount());
+
+		// unchanged result does not set the target again
+		int before = updates.get();
+		meter0.getPower().setNextValue(500);
+		assertEquals(before, updates.get());
+
+		// invalid values are not counted
+		meter0.getPower().setNextValue(null);
+		assertEquals(-300, (int) parent.getPower().getNextValue().get());
+		assertEquals(1, sum.getValidCount());
+
+		// removed Components are ignored
+		sum.removeComponent(meter1);
+		meter1.getPower().setNextValue(10_000);
+		assertEquals(0, (int) parent.getPower().getNextValue().get());
+		assertEquals(0, sum.getValidCount());
+	}
+
+	@Test
+	public void testAverage() {
+		DummyComponent parent = new DummyComponent();
+		AverageInteger<DummyComponent> average = new AverageInteger<>(parent, TestChannelId.POWER,
+				TestChannelId.POWER);
+
+		DummyComponent ess0 = new DummyComponent();
+		DummyComponent ess1 = new DummyComponent();
+		average.addComponent(ess0);
+		average.addComponent(ess1);
+		assertNull(parent.getPower().getNextValue().get());
+
+		ess0.getPower().setNextValue(40);
+		assertEquals(40, (int) parent.getPower().getNextValue().get());
+		ess1.getPower().setNextValue(60);
+		assertEquals(50, (int) parent.getPower().getNextValue().get());
+
+		average.removeComponent(ess0);
+		assertEquals(60, (int) parent.getPower().getNextValue().get());
+	}
+}
@@ -0,0 +1,71 @@
+package io.openems.edge.common.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AsyncLogTest {
+
+	private final Logger log = LoggerFactory.getLogger(AsyncLogTest.class);
+
+	@Test
+	public void testFormat() {
+		assertEquals("a 1 b [x]", AsyncLog.format("a {} b [{}]", 1, "x"));
+		assertEquals("a 1 {}", AsyncLog.format("a {} {}", 1));
+		assertEquals("a", AsyncLog.format("a", 1));
+		assertEquals("null", AsyncLog.format(null));
+	}
+
+	@Test
+	public void testRepetitions() throws InterruptedException {
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		AsyncLog asyncLog = new AsyncLog("Test-Log", 16, (logger, level, message) -> messages.add(message));
+
+		for (int i = 0; i < 5; i++) {
+			asyncLog.warn(this.log, "read failed: {}", "timeout");
+		}
+		asyncLog.warn(this.log, () -> "other");
+		assertTrue(asyncLog.flush(1000));
+		assertEquals(2, messages.size());
+		assertEquals("read failed: timeout", messages.get(0));
+		assertEquals("other", messages.get(1));
+	}
+
+	@Test
+	public void testDropWhenFull() throws InterruptedException {
+		CountDownLatch appending = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		AsyncLog asyncLog = new AsyncLog("Test-Log", 2, (logger, level, message) -> {
+			appending.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				// ignore
+			}
+			messages.add(message);
+		});
+
+		asyncLog.error(this.log, "0");
+		assertTrue(appending.await(1, TimeUnit.SECONDS));
+		// the appender is blocked; the buffer takes two messages
+		assertTrue(asyncLog.error(this.log, "1"));
+		assertTrue(asyncLog.error(this.log, "2"));
+		assertFalse(asyncLog.error(this.log, "3"));
+		assertEquals(1, asyncLog.getDropped());
+
+		release.countDown();
+		assertTrue(asyncLog.flush(1000));
+		assertEquals(3, messages.size());
+	}
+}
@@ -0,0 +1,95 @@
+package io.openems.edge.common.worker;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A WorkerRuntime with a virtual clock for tests. Scheduled commands are not
+ * executed by the pool, but by {@link #runUntil(long)} on the calling thread,
+ * in the order of their virtual execution time.
+ */
+class VirtualTimeWorkerRuntime extends WorkerRuntime {
+
+	private class Task extends FutureTask<Void> implements ScheduledFuture<Void> {
+
+		private final long time;
+		private final long sequence;
+
+		private Task(Runnable command, long time, long sequence) {
+			super(command, null);
+			this.time = time;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.time - nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			Task task = (Task) other;
+			int result = Long.compare(this.time, task.time);
+			return result != 0 ? result : Long.compare(this.sequence, task.sequence);
+		}
+	}
+
+	private final AtomicLong clock = new AtomicLong(0);
+	private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+	private long sequence = 0;
+
+	public VirtualTimeWorkerRuntime() {
+		super("test", 1);
+	}
+
+	@Override
+	public long nanoTime() {
+		return this.clock.get();
+	}
+
+	@Override
+	public synchronized ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		Task task = new Task(command, this.nanoTime() + Math.max(0, unit.toNanos(delay)), this.sequence++);
+		this.tasks.add(task);
+		return task;
+	}
+
+	/**
+	 * Advances the virtual clock, e.g. to simulate a long run of forever().
+	 *
+	 * @param millis the time in [ms]
+	 */
+	public void sleep(long millis) {
+		this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	/**
+	 * Executes all commands that are scheduled up to the given virtual time.
+	 *
+	 * @param millis the virtual time in [ms]
+	 */
+	public void runUntil(long millis) {
+		long end = TimeUnit.MILLISECONDS.toNanos(millis);
+		while (true) {
+			Task task;
+			synchronized (this) {
+				task = this.tasks.peek();
+				if (task == null || task.time > end) {
+					break;
+				}
+				this.tasks.poll();
+			}
+			if (this.clock.get() < task.time) {
+				this.clock.set(task.time);
+			}
+			task.run();
+		}
+		if (this.clock.get() < end) {
+			this.clock.set(end);
+		}
+	}
+}
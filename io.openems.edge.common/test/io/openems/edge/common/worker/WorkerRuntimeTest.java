@@ -0,0 +1,301 @@
+package io.openems.edge.common.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class WorkerRuntimeTest {
+
+	@Test
+	public void testSharedPool() throws InterruptedException {
+		WorkerRuntime runtime = new WorkerRuntime("test", 2);
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		final AtomicInteger counter = new AtomicInteger(0);
+
+		List<AbstractWorker> workers = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			AbstractWorker worker = new AbstractWorker(runtime) {
+
+				@Override
+				protected int getCycleTime() {
+					return 20;
+				}
+
+				@Override
+				protected void forever() {
+					threads.add(Thread.currentThread());
+					counter.incrementAndGet();
+				}
+			};
+			worker.activate("test" + i);
+			workers.add(worker);
+		}
+		assertEquals(20, runtime.getWorkers().size());
+
+		Thread.sleep(110);
+
+		workers.forEach(worker -> worker.deactivate());
+		assertEquals(0, runtime.getWorkers().size());
+		runtime.shutdown();
+
+		// 20 workers on 2 threads
+		assertTrue(threads.size() <= 2);
+		assertTrue(counter.get() >= 20 * 4);
+		for (AbstractWorker worker : workers) {
+			assertTrue(worker.getStatistics().getRuns() >= 4);
+		}
+	}
+
+	@Test
+	public void testBlockingWorker() throws InterruptedException {
+		WorkerRuntime runtime = new WorkerRuntime("test", 1);
+		// saturate the shared pool
+		CountDownLatch release = new CountDownLatch(1);
+		runtime.schedule(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		}, 0, TimeUnit.MILLISECONDS);
+
+		CountDownLatch executed = new CountDownLatch(1);
+		AbstractWorker worker = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return ALWAYS_WAIT_FOR_TRIGGER_NEXT_RUN;
+			}
+
+			@Override
+			protected boolean isBlocking() {
+				return true;
+			}
+
+			@Override
+			protected void forever() {
+				executed.countDown();
+			}
+		};
+		worker.activate("test");
+
+		// executed on its dedicated thread
+		assertTrue(executed.await(1, TimeUnit.SECONDS));
+
+		worker.deactivate();
+		release.countDown();
+		runtime.shutdown();
+	}
+
+	@Test
+	public void testCoordinatedReaderOnSaturatedPool() throws InterruptedException {
+		WorkerRuntime runtime = new WorkerRuntime("test", 2);
+		// saturate the shared pool
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < 2; i++) {
+			runtime.schedule(() -> {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// ignore
+				}
+			}, 0, TimeUnit.MILLISECONDS);
+		}
+
+		// a reader like a Modbus bridge, triggered once per Cycle
+		final Object readLock = new Object();
+		final AtomicInteger reads = new AtomicInteger(0);
+		AbstractWorker reader = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return ALWAYS_WAIT_FOR_TRIGGER_NEXT_RUN;
+			}
+
+			@Override
+			protected boolean isBlocking() {
+				return true;
+			}
+
+			@Override
+			protected void forever() {
+				synchronized (readLock) {
+					reads.incrementAndGet();
+					readLock.notifyAll();
+				}
+			}
+		};
+		// a Cycle that waits for the reads it triggered
+		final AtomicInteger awaitedReads = new AtomicInteger(0);
+		final AtomicInteger missedReads = new AtomicInteger(0);
+		AbstractWorker cycle = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return 20;
+			}
+
+			@Override
+			protected boolean isBlocking() {
+				return true;
+			}
+
+			@Override
+			protected void forever() {
+				int expected = reads.get() + 1;
+				reader.triggerNextCycle();
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+				synchronized (readLock) {
+					while (reads.get() < expected) {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0) {
+							missedReads.incrementAndGet();
+							return;
+						}
+						try {
+							TimeUnit.NANOSECONDS.timedWait(readLock, remaining);
+						} catch (InterruptedException e) {
+							return;
+						}
+					}
+				}
+				awaitedReads.incrementAndGet();
+			}
+		};
+		reader.activate("reader");
+		// consume the initial run of the reader
+		Thread.sleep(20);
+		cycle.activate("cycle");
+
+		Thread.sleep(200);
+
+		cycle.deactivate();
+		reader.deactivate();
+		release.countDown();
+		runtime.shutdown();
+
+		// the reads finished within the deadline although the pool was busy
+		assertTrue(awaitedReads.get() >= 3);
+		assertEquals(0, missedReads.get());
+	}
+
+	@Test
+	public void testRunTimeBudget() {
+		VirtualTimeWorkerRuntime runtime = new VirtualTimeWorkerRuntime();
+		AbstractWorker worker = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return ALWAYS_WAIT_FOR_TRIGGER_NEXT_RUN;
+			}
+
+			@Override
+			protected int getRunTimeBudget() {
+				return 10;
+			}
+
+			@Override
+			protected void forever() {
+				runtime.sleep(50);
+			}
+		};
+		worker.activate("test");
+
+		// runs at 0 and 50 ms, then waits for a trigger
+		runtime.runUntil(200);
+
+		WorkerStatistics statistics = worker.getStatistics();
+		assertEquals(2, statistics.getRuns());
+		assertEquals(2, statistics.getOverBudgetRuns());
+		assertEquals(50_000, statistics.getMaxRunTime());
+
+		worker.deactivate();
+		runtime.shutdown();
+	}
+
+	@Test
+	public void testFixedRateSkip() {
+		VirtualTimeWorkerRuntime runtime = new VirtualTimeWorkerRuntime();
+		final AtomicInteger counter = new AtomicInteger(0);
+		AbstractWorker worker = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return 20;
+			}
+
+			@Override
+			protected ScheduleMode getScheduleMode() {
+				return ScheduleMode.FIXED_RATE_SKIP;
+			}
+
+			@Override
+			protected void forever() {
+				if (counter.incrementAndGet() == 2) {
+					// overrun by more than one cycle
+					runtime.sleep(50);
+				}
+			}
+		};
+		worker.activate("test");
+
+		runtime.runUntil(150);
+
+		worker.deactivate();
+		runtime.shutdown();
+
+		WorkerStatistics statistics = worker.getStatistics();
+		// runs at 0, 20, (40 and 60 skipped), 80, 100, 120, 140 ms
+		assertEquals(6, counter.get());
+		assertEquals(2, statistics.getSkippedCycles());
+		assertEquals(1, Arrays.stream(statistics.getOverrunHistogram()).sum());
+		assertEquals(0, statistics.getMaxJitter());
+	}
+
+	@Test
+	public void testFixedRateCatchUp() {
+		VirtualTimeWorkerRuntime runtime = new VirtualTimeWorkerRuntime();
+		final AtomicInteger counter = new AtomicInteger(0);
+		AbstractWorker worker = new AbstractWorker(runtime) {
+
+			@Override
+			protected int getCycleTime() {
+				return 20;
+			}
+
+			@Override
+			protected ScheduleMode getScheduleMode() {
+				return ScheduleMode.FIXED_RATE_CATCH_UP;
+			}
+
+			@Override
+			protected void forever() {
+				if (counter.incrementAndGet() == 2) {
+					runtime.sleep(50);
+				}
+			}
+		};
+		worker.activate("test");
+
+		runtime.runUntil(150);
+
+		worker.deactivate();
+		runtime.shutdown();
+
+		// runs at 0, 20, 70 (for 40), 70 (for 60), 80, 100, 120, 140 ms
+		WorkerStatistics statistics = worker.getStatistics();
+		assertEquals(8, counter.get());
+		assertEquals(0, statistics.getSkippedCycles());
+		assertEquals(2, Arrays.stream(statistics.getOverrunHistogram()).sum());
+	}
+}
@@ -22,12 +22,16 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.controller.api.Controller;
 import io.openems.edge.controller.api.core.ApiController;
 import io.openems.edge.controller.api.core.ApiWorker;
@@ -37,9 +41,12 @@ import io.openems.edge.timedata.api.Timedata;
 @Component(name = "Controller.Api.Backend", //
 		immediate = true, //
 		configurationPolicy = ConfigurationPolicy.REQUIRE, //
-		property = "org.ops4j.pax.logging.appender.name=Controller.Api.Backend")
+		property = { //
+				"org.ops4j.pax.logging.appender.name=Controller.Api.Backend", //
+				EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE //
+		})
 public class BackendApi extends AbstractOpenemsComponent
-		implements Controller, ApiController, OpenemsComponent, PaxAppender {
+		implements Controller, ApiController, OpenemsComponent, PaxAppender, EventHandler {
 
 	protected final static int DEFAULT_CYCLE_TIME = 10000;
 
@@ -147,6 +154,18 @@ public class BackendApi extends AbstractOpenemsComponent
 		return this.configAdmin;
 	}
 
+	@Override
+	public void handleEvent(Event event) {
+		if (!this.isEnabled() || this.websocket == null) {
+			return;
+		}
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			this.websocket.sendCurrentData();
+			break;
+		}
+	}
+
 	@Override
 	public void doAppend(PaxLoggingEvent event) {
 		if (!this.isEnabled()) {
@@ -16,6 +16,8 @@ import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.types.ChannelAddress;
 import io.openems.common.utils.StringUtils;
 import io.openems.common.websocket.DefaultMessages;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.journal.ChannelJournal;
 import io.openems.edge.common.worker.AbstractWorker;
 
 class BackendWorker extends AbstractWorker {
@@ -31,6 +33,10 @@ class BackendWorker extends AbstractWorker {
 	// Unsent queue (FIFO)
 	private EvictingQueue<JsonObject> unsent = EvictingQueue.create(1000);
 
+	// Changed Channels since the last run
+	private final ChannelJournal.Cursor cursor = ChannelJournal.getDefault().cursor();
+	private boolean isSynchronized = false;
+
 	/**
 	 * @param backendApi
 	 */
@@ -100,39 +106,60 @@ class BackendWorker extends AbstractWorker {
 	}
 
 	/**
-	 * Goes through all Channels and gets the value. If the value changed since last
-	 * check, it is added to the queue.
+	 * Goes through the Channels that changed since the last check and gets the
+	 * value. If the value changed since the last sent value, it is added to the
+	 * queue.
+	 * 
+	 * On the first run - or if changes were lost from the ChannelJournal - all
+	 * Channels are checked.
 	 */
 	private JsonObject getChangedValues() {
 		final JsonObject j = new JsonObject();
+		if (this.isSynchronized) {
+			while (this.cursor.next()) {
+				Channel<?> channel = this.cursor.getChannel();
+				if (channel != null && channel.getComponent().isEnabled()) {
+					this.addIfChanged(j, channel);
+				}
+			}
+			if (!this.cursor.isOverrun()) {
+				return j;
+			}
+		}
+		this.cursor.reset();
+		this.isSynchronized = true;
 		this.parent.getComponents().stream().filter(c -> c.isEnabled()).forEach(component -> {
 			component.channels().forEach(channel -> {
-				// Ignore WRITE_ONLY Channels
-				switch (channel.channelDoc().getAccessMode()) {
-				case READ_ONLY:
-				case READ_WRITE:
-					break;
-				case WRITE_ONLY:
-					return;
-				}
-
-				ChannelAddress address = channel.address();
-				JsonElement jValue = channel.value().asJson();
-				JsonElement jLastValue = this.last.get(address);
-				if (jLastValue == null || !jLastValue.equals(jValue)) {
-					// this value differs from the last sent value -> add to queue
-					// TODO use JsonNull in Backend
-					if (jValue.equals(JsonNull.INSTANCE)) {
-						return;
-					}
-					j.add(address.toString(), jValue);
-					this.last.put(address, jValue);
-				}
+				this.addIfChanged(j, channel);
 			});
 		});
 		return j;
 	}
 
+	private void addIfChanged(JsonObject j, Channel<?> channel) {
+		// Ignore WRITE_ONLY Channels
+		switch (channel.channelDoc().getAccessMode()) {
+		case READ_ONLY:
+		case READ_WRITE:
+			break;
+		case WRITE_ONLY:
+			return;
+		}
+
+		ChannelAddress address = channel.address();
+		JsonElement jValue = channel.value().asJson();
+		JsonElement jLastValue = this.last.get(address);
+		if (jLastValue == null || !jLastValue.equals(jValue)) {
+			// this value differs from the last sent value -> add to queue
+			// TODO use JsonNull in Backend
+			if (jValue.equals(JsonNull.INSTANCE)) {
+				return;
+			}
+			j.add(address.toString(), jValue);
+			this.last.put(address, jValue);
+		}
+	}
+
 	/**
 	 * Send message to websocket
 	 *
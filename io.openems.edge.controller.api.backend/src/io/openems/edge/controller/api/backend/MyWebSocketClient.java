@@ -115,6 +115,10 @@ class MyWebSocketClient extends WebSocketClient {
 		this.handler.sendLog(event);
 	}
 
+	protected void sendCurrentData() {
+		this.handler.sendCurrentData();
+	}
+
 	/**
 	 * Send message to websocket
 	 *
@@ -1,23 +1,35 @@
 package io.openems.edge.controller.api.core;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.common.channel.WriteChannel;
+import io.openems.edge.common.log.AsyncLog;
+import io.openems.edge.common.worker.WorkerRuntime;
 
 /**
  * Takes care of continuously writing channels till a timeout. This class is
  * used in all Api-Controllers.
  *
+ * <p>
+ * Writes from the APIs are collected without locking: the latest value per
+ * WriteChannel wins. Every value times out individually {@link #timeoutSeconds}
+ * after it was written; the timeouts are kept in a timing wheel with one slot
+ * per second that is advanced by {@link #run()}. All callbacks of the
+ * {@link WriteObject}s are executed in order on the {@link WorkerRuntime}, not
+ * on the Cycle thread.
+ *
  * @author stefan.feilmeier
  */
 public class ApiWorker {
@@ -25,61 +37,71 @@ public class ApiWorker {
 	private final static Logger log = LoggerFactory.getLogger(ApiWorker.class);
 	public final static int DEFAULT_TIMEOUT_SECONDS = 10;
 
+	private final static long TICK = TimeUnit.SECONDS.toNanos(1);
+	private final static int WHEEL_SIZE = 64; // [ticks]; a power of two
+
 	/**
-	 * Holds the mapping between WriteChannel and the value that it should be set
-	 * to.
+	 * Holds the mapping between WriteChannel and the latest value that it should
+	 * be set to.
 	 */
-	private final Map<WriteChannel<?>, WriteObject> values = new HashMap<>();
+	private final Map<WriteChannel<?>, Command> commands = new ConcurrentHashMap<>();
 
-	private final ScheduledExecutorService executor;
-	private ScheduledFuture<?> future = null;
+	/**
+	 * The timing wheel: Commands by the tick of their timeout. Commands that were
+	 * replaced by a newer one are dropped when their slot is handled.
+	 */
+	private final List<Queue<Command>> wheel;
 
-	private int timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+	private final WorkerRuntime runtime;
+	private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean isNotifying = new AtomicBoolean(false);
+
+	private volatile int timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+
+	/**
+	 * The last tick whose slot was handled; only accessed by run()
+	 */
+	private long lastTick;
 
 	public ApiWorker() {
-		this.executor = Executors.newSingleThreadScheduledExecutor();
+		this(WorkerRuntime.getDefault());
 	}
 
-	public void addValue(WriteChannel<?> channel, WriteObject writeObject) {
-		log.info("Set [" + channel.address() + "] to [" + writeObject.valueToString() + "] via API. Timeout is ["
-				+ this.timeoutSeconds + "s]");
-		this.resetTimeout();
-		synchronized (this.values) {
-			this.values.put(channel, writeObject);
+	protected ApiWorker(WorkerRuntime runtime) {
+		this.runtime = runtime;
+		List<Queue<Command>> wheel = new ArrayList<>(WHEEL_SIZE);
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel.add(new ConcurrentLinkedQueue<>());
 		}
+		this.wheel = Collections.unmodifiableList(wheel);
+		this.lastTick = Math.floorDiv(System.nanoTime(), TICK) - 1;
 	}
 
-	private synchronized void resetTimeout() {
-		if (this.future != null) {
-			this.future.cancel(false);
+	public void addValue(WriteChannel<?> channel, WriteObject writeObject) {
+		int timeoutSeconds = this.timeoutSeconds;
+		if (log.isDebugEnabled()) {
+			log.debug("Set [" + channel.address() + "] to [" + writeObject.valueToString() + "] via API. Timeout is ["
+					+ timeoutSeconds + "s]");
 		}
-		if (this.timeoutSeconds > 0) {
-			this.future = this.executor.schedule(() -> {
-				/**
-				 * This worker takes care to clear the values list if there is no change within
-				 * the timeout
-				 */
-				synchronized (this.values) {
-					for (Entry<WriteChannel<?>, WriteObject> entry : this.values.entrySet()) {
-						log.info("API timeout for channel [" + entry.getKey().address() + "] after ["
-								+ this.timeoutSeconds + "s]");
-						entry.getValue().notifyTimeout();
-					}
-					this.values.clear();
-				}
-			}, this.timeoutSeconds, TimeUnit.SECONDS);
+		long deadline = timeoutSeconds > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds) : 0;
+		Command command = new Command(channel, writeObject, timeoutSeconds, deadline);
+		Command replaced = this.commands.put(channel, command);
+		if (command.hasTimeout) {
+			this.wheel.get(slot(Math.floorDiv(deadline, TICK))).add(command);
+		}
+		if (replaced == null) {
+			AsyncLog.getDefault().info(log, "Set [{}] via API. Timeout is [{}s]", channel.address(), timeoutSeconds);
 		}
 	}
 
 	/**
-	 * Sets the timeout in seconds. Default is 60. If set to '0', timeout is
-	 * deactivated.
+	 * Sets the timeout in seconds for values that are added afterwards. Default is
+	 * {@link #DEFAULT_TIMEOUT_SECONDS}. If set to '0', timeout is deactivated.
 	 *
 	 * @param timeoutSeconds
 	 */
 	public void setTimeoutSeconds(int timeoutSeconds) {
 		this.timeoutSeconds = timeoutSeconds;
-		this.resetTimeout();
 	}
 
 	/**
@@ -87,20 +109,137 @@ public class ApiWorker {
 	 * Controller
 	 */
 	public void run() {
-		synchronized (this.values) {
-			for (Entry<WriteChannel<?>, WriteObject> entry : this.values.entrySet()) {
-				WriteChannel<?> channel = entry.getKey();
-				WriteObject writeObject = entry.getValue();
+		long now = System.nanoTime();
+		this.handleTimeouts(now);
+		if (this.commands.isEmpty()) {
+			return;
+		}
+
+		/*
+		 * Apply all latest values as one batch
+		 */
+		Command[] batch = this.commands.values().toArray(new Command[0]);
+		OpenemsException[] errors = new OpenemsException[batch.length];
+		for (int i = 0; i < batch.length; i++) {
+			Command command = batch[i];
+			try {
+				command.writeObject.setNextWriteValue(command.channel);
+			} catch (OpenemsException e) {
+				errors[i] = e;
+				if (!command.isErrorLogged) {
+					command.isErrorLogged = true;
+					AsyncLog.getDefault().error(log, "Unable to set Channel [{}] to Value [{}]: {}",
+							command.channel.address(), command.writeObject.valueToString(), e.getMessage());
+				}
+			}
+		}
+
+		this.notify(() -> {
+			for (int i = 0; i < batch.length; i++) {
+				if (errors[i] == null) {
+					batch[i].writeObject.notifySuccess();
+				} else {
+					batch[i].writeObject.notifyError(errors[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Gets the index of the wheel slot for a tick.
+	 *
+	 * @param tick the tick; may be negative
+	 * @return the index
+	 */
+	private static int slot(long tick) {
+		return (int) (tick & (WHEEL_SIZE - 1));
+	}
+
+	/**
+	 * Handles the slots of the timing wheel for all ticks that passed completely
+	 * since the last call.
+	 *
+	 * @param now the current System.nanoTime()
+	 */
+	private void handleTimeouts(long now) {
+		// only ticks that passed completely
+		long tick = Math.floorDiv(now, TICK) - 1;
+		long ticks = Math.min(tick - this.lastTick, WHEEL_SIZE);
+		for (long t = tick - ticks + 1; t <= tick; t++) {
+			Queue<Command> slot = this.wheel.get(slot(t));
+			for (int i = slot.size(); i > 0; i--) {
+				Command command = slot.poll();
+				if (command == null) {
+					break;
+				}
+				if (this.commands.get(command.channel) != command) {
+					// replaced by a newer value
+					continue;
+				}
+				if (command.deadline - now > 0) {
+					// times out in a later round of the wheel
+					slot.add(command);
+					continue;
+				}
+				if (this.commands.remove(command.channel, command)) {
+					AsyncLog.getDefault().info(log, "API timeout for channel [{}] after [{}s]", command.channel.address(),
+							command.timeoutSeconds);
+					this.notify(command.writeObject::notifyTimeout);
+				}
+			}
+		}
+		this.lastTick = tick;
+	}
+
+	/**
+	 * Executes a notification on the WorkerRuntime. Notifications are executed one
+	 * after the other in the order of their creation.
+	 *
+	 * @param notification the notification
+	 */
+	private void notify(Runnable notification) {
+		this.notifications.add(notification);
+		if (this.isNotifying.compareAndSet(false, true)) {
+			this.runtime.schedule(this::executeNotifications, 0, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void executeNotifications() {
+		do {
+			Runnable notification;
+			while ((notification = this.notifications.poll()) != null) {
 				try {
-					log.info("Set Channel [" + channel.address() + "] to Value [" + writeObject.valueToString() + "]");
-					writeObject.setNextWriteValue(channel);
-					writeObject.notifySuccess();
-				} catch (OpenemsException e) {
-					log.error("Unable to set Channel [" + channel.address() + "] to Value ["
-							+ writeObject.valueToString() + "]: " + e.getMessage());
-					writeObject.notifyError(e);
+					notification.run();
+				} catch (Throwable e) {
+					log.warn("Error in API callback. " + e.getClass().getSimpleName() + ": " + e.getMessage());
 				}
 			}
+			this.isNotifying.set(false);
+			// check for notifications that were added meanwhile
+		} while (!this.notifications.isEmpty() && this.isNotifying.compareAndSet(false, true));
+	}
+
+	/**
+	 * A value that was written via API.
+	 */
+	private static class Command {
+		private final WriteChannel<?> channel;
+		private final WriteObject writeObject;
+		private final int timeoutSeconds;
+		private final boolean hasTimeout;
+		private final long deadline; // System.nanoTime()
+
+		/**
+		 * Only accessed by run()
+		 */
+		private boolean isErrorLogged = false;
+
+		private Command(WriteChannel<?> channel, WriteObject writeObject, int timeoutSeconds, long deadline) {
+			this.channel = channel;
+			this.writeObject = writeObject;
+			this.timeoutSeconds = timeoutSeconds;
+			this.hasTimeout = timeoutSeconds > 0;
+			this.deadline = deadline;
 		}
 	}
 }
@@ -1,17 +1,45 @@
 package io.openems.edge.controller.api.core;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
 import org.java_websocket.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
 
+import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.session.Role;
-import io.openems.common.types.ChannelAddress;
-import io.openems.common.websocket.CurrentDataWorker;
+import io.openems.common.utils.JsonUtils;
+import io.openems.common.websocket.DefaultMessages;
+import io.openems.common.websocket.WebSocketUtils;
 import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.OpenemsComponent;
 
-public class EdgeCurrentDataWorker extends CurrentDataWorker {
+/**
+ * Pushes the subscribed channel values of one websocket.
+ *
+ * <p>
+ * Instead of polling all channels regularly, this worker registers onChange
+ * callbacks on the subscribed channels. Changed channels are collected and
+ * applied to the current data snapshot once per cycle via {@link #flush()},
+ * which is called after the process image was switched. The snapshot is only
+ * sent if the value of at least one channel changed.
+ */
+public class EdgeCurrentDataWorker {
+
+	private final Logger log = LoggerFactory.getLogger(EdgeCurrentDataWorker.class);
 
 	/**
 	 * The access level Role of this worker
@@ -20,48 +48,148 @@ public class EdgeCurrentDataWorker extends CurrentDataWorker {
 	// private final Role role;
 
 	private final EdgeWebsocketHandler parent;
+	private final WebSocket websocket;
+
+	/**
+	 * Holds the registered onChange callbacks to be able to remove them again
+	 */
+	private final List<Registration<?>> registrations = new ArrayList<>();
+
+	/**
+	 * Channels that changed since the last flush
+	 */
+	private final Set<Channel<?>> changedChannels = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The currently subscribed data: {thing: {channel: value}}
+	 */
+	private JsonObject jSnapshot = new JsonObject();
+	private JsonObject jMessageId = new JsonObject();
+
+	/**
+	 * Forces sending the snapshot with the next flush, e.g. after subscribe
+	 */
+	private boolean sendRequired = false;
 
 	public EdgeCurrentDataWorker(EdgeWebsocketHandler parent, Role role, WebSocket websocket) {
-		super(websocket);
 		this.parent = parent;
+		this.websocket = websocket;
 		// this.role = role;
 	}
 
-	@Override
-	protected JsonElement getChannelValue(ChannelAddress channelAddress) {
+	/**
+	 * Replaces the subscribed channels.
+	 *
+	 * @param jSubscribeChannels the channels as {thing: [channel]}
+	 * @param jMessageId         the messageId of the subscribe request
+	 */
+	public synchronized void setChannels(JsonObject jSubscribeChannels, JsonObject jMessageId) {
+		this.dispose();
+		this.jMessageId = jMessageId;
+		this.jSnapshot = new JsonObject();
+
+		// index components by ID once per subscription
+		Map<String, OpenemsComponent> components = new HashMap<>();
 		for (OpenemsComponent component : this.parent.parent.getComponents()) {
-			if (component.id().equals(channelAddress.getComponentId())) {
-				Channel<?> channel;
-				try {
-					channel = component.channel(channelAddress.getChannelId());
-				} catch (IllegalArgumentException e) {
-					return JsonNull.INSTANCE;
+			components.put(component.id(), component);
+		}
+
+		// parse and add subscribed channels
+		for (Entry<String, JsonElement> entry : jSubscribeChannels.entrySet()) {
+			String thing = entry.getKey();
+			JsonObject jThingData = new JsonObject();
+			this.jSnapshot.add(thing, jThingData);
+			OpenemsComponent component = components.get(thing);
+			try {
+				JsonArray jChannels = JsonUtils.getAsJsonArray(entry.getValue());
+				for (JsonElement jChannel : jChannels) {
+					String channelId = JsonUtils.getAsString(jChannel);
+					Channel<?> channel = null;
+					if (component != null) {
+						try {
+							channel = component.channel(channelId);
+						} catch (IllegalArgumentException e) {
+							// channel does not exist
+						}
+					}
+					if (channel == null) {
+						jThingData.add(channelId, JsonNull.INSTANCE);
+						continue;
+					}
+					// TODO check permissions
+					jThingData.add(channelId, channel.value().asJson());
+					this.registrations.add(this.register(channel));
 				}
-				// TODO check permissions
-				// try {
-				// channel.assertReadAllowed(this.role);
-				// } catch (AccessDeniedException e) {
-				// WebSocketUtils.sendNotificationOrLogError(this.websocket, new JsonObject(),
-				// LogBehaviour.WRITE_TO_LOG,
-				// Notification.CHANNEL_ACCESS_DENIED, channelAddress, this.role);
-				return channel.value().asJson();
-				// TODO handle version error
-				// Optional.ofNullable(JsonUtils.getAsJsonElement(databus.getValue(channel).orElse(null)));
-				// } catch (NotImplementedException e) {
-				// WebSocketUtils.sendNotificationOrLogError(this.websocket, new JsonObject(),
-				// LogBehaviour.WRITE_TO_LOG,
-				// Notification.VALUE_CONVERSION_FAILED, channelAddress, e.getMessage());
-				// return Optional.empty();
-				// }
-				// } else {
-				// WebSocketUtils.sendNotificationOrLogError(this.websocket, new JsonObject(),
-				// LogBehaviour.WRITE_TO_LOG,
-				// Notification.CHANNEL_NOT_FOUND, channelAddress);
-				// return Optional.empty();
-				// }
+			} catch (OpenemsException e) {
+				this.log.warn("Unable to add channel subscription: " + e.getMessage());
 			}
 		}
-		return JsonNull.INSTANCE;
+		this.sendRequired = !this.jSnapshot.entrySet().isEmpty();
+	}
 
+	/**
+	 * Applies the changed channel values to the snapshot and sends it, if
+	 * anything changed. Called once per cycle after the process image was
+	 * switched.
+	 */
+	public synchronized void flush() {
+		if (!this.websocket.isOpen()) {
+			return;
+		}
+		boolean hasChanged = this.sendRequired;
+		if (!this.changedChannels.isEmpty()) {
+			for (Channel<?> channel : this.changedChannels) {
+				this.changedChannels.remove(channel);
+				JsonObject jThingData = this.jSnapshot.getAsJsonObject(channel.getComponent().id());
+				if (jThingData == null) {
+					continue;
+				}
+				/*
+				 * onChange is called for every new Value object, even if the value itself is
+				 * unchanged -> compare with the snapshot
+				 */
+				String channelId = channel.channelId().id();
+				JsonElement jValue = channel.value().asJson();
+				if (!jValue.equals(jThingData.get(channelId))) {
+					jThingData.add(channelId, jValue);
+					hasChanged = true;
+				}
+			}
+		}
+		if (hasChanged) {
+			this.sendRequired = false;
+			WebSocketUtils.sendOrLogError(this.websocket, DefaultMessages.currentData(this.jMessageId, this.jSnapshot));
+		}
+	}
+
+	/**
+	 * Removes all subscriptions.
+	 */
+	public synchronized void dispose() {
+		for (Registration<?> registration : this.registrations) {
+			registration.remove();
+		}
+		this.registrations.clear();
+		this.changedChannels.clear();
+	}
+
+	private <T> Registration<T> register(Channel<T> channel) {
+		Consumer<Value<T>> callback = value -> this.changedChannels.add(channel);
+		channel.onChange(callback);
+		return new Registration<>(channel, callback);
+	}
+
+	private static class Registration<T> {
+		private final Channel<T> channel;
+		private final Consumer<Value<T>> callback;
+
+		private Registration(Channel<T> channel, Consumer<Value<T>> callback) {
+			this.channel = channel;
+			this.callback = callback;
+		}
+
+		private void remove() {
+			this.channel.removeOnChangeCallback(this.callback);
+		}
 	}
 }
@@ -42,7 +42,7 @@ public class EdgeWebsocketHandler {
 	/**
 	 * Holds subscriber to current data
 	 */
-	private Optional<EdgeCurrentDataWorker> currentDataWorkerOpt = Optional.empty();
+	private volatile Optional<EdgeCurrentDataWorker> currentDataWorkerOpt = Optional.empty();
 
 	/**
 	 * Holds subscribers to system log (identified by messageId.backend, holds
@@ -69,6 +69,17 @@ public class EdgeWebsocketHandler {
 		this.websocket.close();
 	}
 
+	/**
+	 * Sends changed current data to the websocket. Called once per cycle after the
+	 * process image was switched.
+	 */
+	public void sendCurrentData() {
+		Optional<EdgeCurrentDataWorker> currentDataWorkerOpt = this.currentDataWorkerOpt;
+		if (currentDataWorkerOpt.isPresent()) {
+			currentDataWorkerOpt.get().flush();
+		}
+	}
+
 	public synchronized void setRole(Role role) {
 		this.setRole(Optional.ofNullable(role));
 	}
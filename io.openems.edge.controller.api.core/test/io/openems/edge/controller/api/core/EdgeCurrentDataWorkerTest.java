@@ -0,0 +1,110 @@
+package io.openems.edge.controller.api.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.java_websocket.WebSocket;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.openems.common.session.Role;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+
+public class EdgeCurrentDataWorkerTest {
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		INTEGER(new Doc().type(OpenemsType.INTEGER));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+
+		private final IntegerReadChannel integer = new IntegerReadChannel(this, TestChannelId.INTEGER);
+
+		public DummyComponent() {
+			this.addChannel(this.integer);
+			this.activate(null, "", "component0", true);
+		}
+	}
+
+	private static WebSocket dummyWebsocket(List<String> sent) {
+		return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] { WebSocket.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "isOpen":
+						return true;
+					case "send":
+						sent.add((String) args[0]);
+						return null;
+					}
+					return null;
+				});
+	}
+
+	private static ApiController dummyApiController(List<OpenemsComponent> components) {
+		return (ApiController) Proxy.newProxyInstance(ApiController.class.getClassLoader(),
+				new Class<?>[] { ApiController.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getComponents":
+						return components;
+					}
+					return null;
+				});
+	}
+
+	@Test
+	public void testSendOnlyChangedValues() {
+		DummyComponent component = new DummyComponent();
+		List<String> sent = new ArrayList<>();
+		WebSocket websocket = dummyWebsocket(sent);
+		EdgeWebsocketHandler handler = new EdgeWebsocketHandler(
+				dummyApiController(Collections.singletonList(component)), websocket);
+		EdgeCurrentDataWorker worker = new EdgeCurrentDataWorker(handler, Role.ADMIN, websocket);
+
+		JsonArray jChannels = new JsonArray();
+		jChannels.add(component.integer.channelId().id());
+		JsonObject jSubscribe = new JsonObject();
+		jSubscribe.add("component0", jChannels);
+		worker.setChannels(jSubscribe, new JsonObject());
+
+		// the snapshot is sent after subscribe
+		worker.flush();
+		assertEquals(1, sent.size());
+		worker.flush();
+		assertEquals(1, sent.size());
+
+		component.integer.setNextValue(42);
+		component.integer.nextProcessImage();
+		worker.flush();
+		assertEquals(2, sent.size());
+		assertTrue(sent.get(1).contains("42"));
+
+		// the same value again is not sent
+		component.integer.setNextValue(42);
+		component.integer.nextProcessImage();
+		worker.flush();
+		assertEquals(2, sent.size());
+
+		worker.dispose();
+	}
+}
@@ -1,11 +1,13 @@
 package io.openems.edge.controller.api.modbus;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.stream.Stream;
 
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.ComponentContext;
@@ -17,20 +19,25 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.ghgande.j2mod.modbus.ModbusException;
-import com.ghgande.j2mod.modbus.slave.ModbusSlaveFactory;
-
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.websocket.JsonrpcRequest;
 import io.openems.common.websocket.JsonrpcResponse;
 import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.StateCollectorChannel;
 import io.openems.edge.common.channel.WriteChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.doc.Unit;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.jsonapi.JsonApi;
 import io.openems.edge.common.meta.Meta;
 import io.openems.edge.common.modbusslave.ModbusRecord;
@@ -41,7 +48,6 @@ import io.openems.edge.common.modbusslave.ModbusRecordUint16Hash;
 import io.openems.edge.common.modbusslave.ModbusSlave;
 import io.openems.edge.common.modbusslave.ModbusSlaveNatureTable;
 import io.openems.edge.common.modbusslave.ModbusSlaveTable;
-import io.openems.edge.common.worker.AbstractWorker;
 import io.openems.edge.controller.api.Controller;
 import io.openems.edge.controller.api.core.ApiController;
 import io.openems.edge.controller.api.core.ApiWorker;
@@ -52,9 +58,10 @@ import io.openems.edge.timedata.api.Timedata;
 @Component(//
 		name = "Controller.Api.ModbusTcp", //
 		immediate = true, //
-		configurationPolicy = ConfigurationPolicy.REQUIRE)
+		configurationPolicy = ConfigurationPolicy.REQUIRE, //
+		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE)
 public class ModbusTcpApi extends AbstractOpenemsComponent
-		implements Controller, ApiController, OpenemsComponent, JsonApi {
+		implements Controller, ApiController, OpenemsComponent, JsonApi, EventHandler {
 
 	public final static int UNIT_ID = 1;
 	public final static int DEFAULT_PORT = 502;
@@ -63,13 +70,22 @@ public class ModbusTcpApi extends AbstractOpenemsComponent
 	private final Logger log = LoggerFactory.getLogger(ModbusTcpApi.class);
 
 	private final ApiWorker apiWorker = new ApiWorker();
-	private final MyProcessImage processImage;
+
+	/**
+	 * The running Modbus/TCP server; null if not started
+	 */
+	private ModbusTcpServer server = null;
 
 	/**
 	 * Holds the link between Modbus address and ModbusRecord
 	 */
 	protected final TreeMap<Integer, ModbusRecord> records = new TreeMap<>();
 
+	/**
+	 * Holds the encoded register values; updated once per cycle
+	 */
+	private RegisterImage registerImage = null;
+
 	@Reference(policy = ReferencePolicy.STATIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MANDATORY)
 	protected Meta metaComponent = null;
 
@@ -89,12 +105,59 @@ public class ModbusTcpApi extends AbstractOpenemsComponent
 	private int port = ModbusTcpApi.DEFAULT_PORT;
 	private int maxConcurrentConnections = ModbusTcpApi.DEFAULT_MAX_CONCURRENT_CONNECTIONS;
 
+	public enum ChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		CONNECTED_CLIENTS(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Number of connected Modbus/TCP clients")), //
+		REQUEST_RATE(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Requests per second of all clients")), //
+		MAX_CLIENT_REQUEST_RATE(new Doc() //
+				.unit(Unit.NONE) //
+				.text("Requests per second of the busiest client")), //
+		AVERAGE_LATENCY(new Doc() //
+				.unit(Unit.MICROSECONDS) //
+				.text("Average time from receiving a request to sending the response")), //
+		MAX_LATENCY(new Doc() //
+				.unit(Unit.MICROSECONDS) //
+				.text("Maximum time from receiving a request to sending the response")); //
+
+		private final Doc doc;
+
+		private ChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
 	public ModbusTcpApi() {
-		this.processImage = new MyProcessImage(this);
+		Stream.of(//
+				Arrays.stream(OpenemsComponent.ChannelId.values()).map(channelId -> {
+					switch (channelId) {
+					case STATE:
+						return new StateCollectorChannel(this, channelId);
+					}
+					return null;
+				}), Arrays.stream(ModbusTcpApi.ChannelId.values()).map(channelId -> {
+					switch (channelId) {
+					case CONNECTED_CLIENTS:
+					case REQUEST_RATE:
+					case MAX_CLIENT_REQUEST_RATE:
+					case AVERAGE_LATENCY:
+					case MAX_LATENCY:
+						return new IntegerReadChannel(this, channelId);
+					}
+					return null;
+				}) //
+		).flatMap(channel -> channel).forEach(channel -> this.addChannel(channel));
 	}
 
 	@Activate
-	void activate(ComponentContext context, Config config) throws ModbusException, OpenemsException {
+	void activate(ComponentContext context, Config config) throws OpenemsException {
 		// update filter for 'components'
 		if (OpenemsComponent.updateReferenceFilter(this.cm, config.service_pid(), "Component",
 				config.component_ids())) {
@@ -117,61 +180,23 @@ public class ModbusTcpApi extends AbstractOpenemsComponent
 
 		// Initialize Modbus Records
 		this.initializeModbusRecords();
+		this.registerImage = new RegisterImage(this.records, this._components);
 
 		// Start Modbus-Server
-		this.startApiWorker.activate(config.id());
+		this.server = new ModbusTcpServer(this, this.port, UNIT_ID, this.maxConcurrentConnections);
+		this.server.setImage(this.registerImage);
+		this.server.start(config.id());
 	}
 
 	@Deactivate
 	protected void deactivate() {
-		this.startApiWorker.deactivate();
-		ModbusSlaveFactory.close();
+		if (this.server != null) {
+			this.server.stop();
+			this.server = null;
+		}
 		super.deactivate();
 	}
 
-	private final AbstractWorker startApiWorker = new AbstractWorker() {
-
-		private final static int DEFAULT_WAIT_TIME = 5000; // 5 seconds
-
-		private com.ghgande.j2mod.modbus.slave.ModbusSlave slave = null;
-
-		@Override
-		protected void forever() {
-			if (this.slave == null) {
-				try {
-					// start new server
-					this.slave = ModbusSlaveFactory.createTCPSlave(ModbusTcpApi.this.port,
-							ModbusTcpApi.this.maxConcurrentConnections);
-					slave.addProcessImage(UNIT_ID, ModbusTcpApi.this.processImage);
-					slave.open();
-					ModbusTcpApi.this.logInfo(ModbusTcpApi.this.log, "Modbus/TCP Api started on port ["
-							+ ModbusTcpApi.this.port + "] with UnitId [" + ModbusTcpApi.UNIT_ID + "].");
-				} catch (ModbusException e) {
-					ModbusSlaveFactory.close();
-					ModbusTcpApi.this.logError(ModbusTcpApi.this.log, "Unable to start Modbus/TCP Api on port ["
-							+ ModbusTcpApi.this.port + "]: " + e.getMessage());
-				}
-
-			} else {
-				// regular check for errors
-				String error = slave.getError();
-				if (error != null) {
-					ModbusTcpApi.this.logError(ModbusTcpApi.this.log,
-							"Unable to start Modbus/TCP Api on port [" + ModbusTcpApi.this.port + "]: " + error);
-					this.slave = null;
-					// stop server
-					ModbusSlaveFactory.close();
-				}
-			}
-		}
-
-		@Override
-		protected int getCycleTime() {
-			return DEFAULT_WAIT_TIME;
-		}
-
-	};
-
 	private void initializeModbusRecords() {
 		// Add generic header
 		this.records.put(0, new ModbusRecordUint16Hash(0, "OpenEMS"));
@@ -292,6 +317,32 @@ public class ModbusTcpApi extends AbstractOpenemsComponent
 		this.apiWorker.run();
 	}
 
+	@Override
+	public void handleEvent(Event event) {
+		if (!this.isEnabled() || this.registerImage == null) {
+			return;
+		}
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			this.registerImage.update();
+			this.updateStatistics();
+			break;
+		}
+	}
+
+	private void updateStatistics() {
+		ModbusTcpServer server = this.server;
+		if (server == null) {
+			return;
+		}
+		ModbusTcpServer.Statistics statistics = server.getStatistics();
+		this.channel(ChannelId.CONNECTED_CLIENTS).setNextValue(statistics.getConnectedClients());
+		this.channel(ChannelId.REQUEST_RATE).setNextValue(statistics.getRequestRate());
+		this.channel(ChannelId.MAX_CLIENT_REQUEST_RATE).setNextValue(statistics.getMaxClientRequestRate());
+		this.channel(ChannelId.AVERAGE_LATENCY).setNextValue(statistics.getAverageLatency());
+		this.channel(ChannelId.MAX_LATENCY).setNextValue(statistics.getMaxLatency());
+	}
+
 	@Override
 	public List<OpenemsComponent> getComponents() {
 		List<OpenemsComponent> result = new ArrayList<>();
@@ -320,7 +371,11 @@ public class ModbusTcpApi extends AbstractOpenemsComponent
 	protected void logWarn(Logger log, String message) {
 		super.logWarn(log, message);
 	}
-	
+
+	@Override
+	protected void logError(Logger log, String message) {
+		super.logError(log, message);
+	}
 
 	@Override
 	public JsonrpcResponse handleJsonrpcRequest(JsonrpcRequest message) {
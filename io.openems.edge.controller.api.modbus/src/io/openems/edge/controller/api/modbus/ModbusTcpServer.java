@@ -0,0 +1,506 @@
+package io.openems.edge.controller.api.modbus;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking Modbus/TCP slave.
+ *
+ * <p>
+ * All client connections are multiplexed by one {@link Selector} on a single
+ * thread. Every client has a direct read and write {@link ByteBuffer}; MBAP
+ * frames are parsed in place and responses are encoded directly from the
+ * published {@link RegisterImage} values, so serving a request does not
+ * allocate. Pipelined requests are answered in order.
+ *
+ * <p>
+ * Supported function codes are 3 (Read Holding Registers), 4 (Read Input
+ * Registers), 6 (Write Single Register) and 16 (Write Multiple Registers).
+ */
+public class ModbusTcpServer {
+
+	private final static int RETRY_INTERVAL_MILLIS = 5000;
+	private final static int STATISTICS_INTERVAL_MILLIS = 1000;
+
+	private final static int MBAP_HEADER_LENGTH = 7;
+	/**
+	 * Maximum length of a Modbus/TCP ADU
+	 */
+	private final static int MAX_FRAME_LENGTH = 260;
+	private final static int MAX_READ_REGISTERS = 125;
+	private final static int MAX_WRITE_REGISTERS = 123;
+
+	private final static byte FC_READ_HOLDING_REGISTERS = 3;
+	private final static byte FC_READ_INPUT_REGISTERS = 4;
+	private final static byte FC_WRITE_SINGLE_REGISTER = 6;
+	private final static byte FC_WRITE_MULTIPLE_REGISTERS = 16;
+
+	private final static byte ILLEGAL_FUNCTION = 1;
+	private final static byte ILLEGAL_DATA_ADDRESS = 2;
+	private final static byte ILLEGAL_DATA_VALUE = 3;
+
+	private final Logger log = LoggerFactory.getLogger(ModbusTcpServer.class);
+
+	private final ModbusTcpApi parent;
+	private final int port;
+	private final int unitId;
+	private final int maxConcurrentConnections;
+	private final List<Client> clients = new ArrayList<>();
+
+	private volatile RegisterImage image = null;
+	private volatile Statistics statistics = new Statistics(0, 0, 0, 0, 0);
+	private volatile boolean isRunning = false;
+	private Selector selector = null;
+	private Thread thread = null;
+
+	public ModbusTcpServer(ModbusTcpApi parent, int port, int unitId, int maxConcurrentConnections) {
+		this.parent = parent;
+		this.port = port;
+		this.unitId = unitId;
+		this.maxConcurrentConnections = maxConcurrentConnections;
+	}
+
+	/**
+	 * Sets the RegisterImage that is used to answer requests.
+	 *
+	 * @param image the RegisterImage
+	 */
+	public void setImage(RegisterImage image) {
+		this.image = image;
+	}
+
+	/**
+	 * Gets the statistics of the last completed interval.
+	 *
+	 * @return the Statistics
+	 */
+	public Statistics getStatistics() {
+		return this.statistics;
+	}
+
+	public synchronized void start(String name) {
+		if (this.isRunning) {
+			return;
+		}
+		this.isRunning = true;
+		this.thread = new Thread(this::run, name + ":ModbusTcpServer");
+		this.thread.start();
+	}
+
+	public synchronized void stop() {
+		this.isRunning = false;
+		Selector selector = this.selector;
+		if (selector != null) {
+			selector.wakeup();
+		}
+		if (this.thread != null) {
+			this.thread.interrupt();
+			try {
+				this.thread.join(RETRY_INTERVAL_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			this.thread = null;
+		}
+	}
+
+	private void run() {
+		while (this.isRunning) {
+			try (Selector selector = Selector.open(); ServerSocketChannel server = ServerSocketChannel.open()) {
+				server.socket().setReuseAddress(true);
+				server.bind(new InetSocketAddress(this.port));
+				server.configureBlocking(false);
+				server.register(selector, SelectionKey.OP_ACCEPT);
+				this.selector = selector;
+				this.parent.logInfo(this.log, "Modbus/TCP Api started on port [" + this.port + "] with UnitId ["
+						+ this.unitId + "].");
+				this.serve(selector);
+			} catch (IOException | ClosedSelectorException e) {
+				if (this.isRunning) {
+					this.parent.logError(this.log,
+							"Unable to start Modbus/TCP Api on port [" + this.port + "]: " + e.getMessage());
+				}
+			} finally {
+				this.selector = null;
+				for (Client client : this.clients) {
+					client.close();
+				}
+				this.clients.clear();
+				this.statistics = new Statistics(0, 0, 0, 0, 0);
+			}
+			// wait before trying again
+			if (this.isRunning) {
+				try {
+					Thread.sleep(RETRY_INTERVAL_MILLIS);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	private void serve(Selector selector) throws IOException {
+		long lastStatistics = System.nanoTime();
+		while (this.isRunning) {
+			selector.select(STATISTICS_INTERVAL_MILLIS);
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while (keys.hasNext()) {
+				SelectionKey key = keys.next();
+				keys.remove();
+				if (!key.isValid()) {
+					continue;
+				}
+				if (key.isAcceptable()) {
+					try {
+						this.accept(selector, (ServerSocketChannel) key.channel());
+					} catch (IOException e) {
+						this.parent.logWarn(this.log, "Unable to accept Modbus/TCP connection: " + e.getMessage());
+					}
+					continue;
+				}
+				Client client = (Client) key.attachment();
+				try {
+					if (key.isWritable()) {
+						client.flush();
+					}
+					if (key.isValid() && key.isReadable()) {
+						client.read();
+					}
+				} catch (IOException e) {
+					client.close();
+				}
+				if (!client.isOpen()) {
+					this.clients.remove(client);
+				}
+			}
+			long now = System.nanoTime();
+			if (now - lastStatistics >= STATISTICS_INTERVAL_MILLIS * 1_000_000L) {
+				this.updateStatistics(now - lastStatistics);
+				lastStatistics = now;
+			}
+		}
+	}
+
+	private void accept(Selector selector, ServerSocketChannel server) throws IOException {
+		SocketChannel channel = server.accept();
+		if (channel == null) {
+			return;
+		}
+		if (this.clients.size() >= this.maxConcurrentConnections) {
+			this.parent.logWarn(this.log, "Refusing Modbus/TCP connection from [" + channel.getRemoteAddress()
+					+ "]: maximum of [" + this.maxConcurrentConnections + "] concurrent connections reached.");
+			channel.close();
+			return;
+		}
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		Client client = new Client(channel);
+		client.key = channel.register(selector, SelectionKey.OP_READ, client);
+		this.clients.add(client);
+	}
+
+	private void updateStatistics(long intervalNanos) {
+		double seconds = intervalNanos / 1_000_000_000d;
+		int totalRequests = 0;
+		int maxClientRequests = 0;
+		long totalLatency = 0;
+		long maxLatency = 0;
+		for (Client client : this.clients) {
+			totalRequests += client.requests;
+			maxClientRequests = Math.max(maxClientRequests, client.requests);
+			totalLatency += client.totalLatency;
+			maxLatency = Math.max(maxLatency, client.maxLatency);
+			if (this.log.isDebugEnabled() && client.requests > 0) {
+				this.log.debug("Modbus/TCP client [" + client.remoteAddress + "]: "
+						+ Math.round(client.requests / seconds) + " req/s, avg "
+						+ (client.totalLatency / client.requests / 1000) + " us, max " + (client.maxLatency / 1000)
+						+ " us");
+			}
+			client.requests = 0;
+			client.totalLatency = 0;
+			client.maxLatency = 0;
+		}
+		this.statistics = new Statistics(this.clients.size(), (int) Math.round(totalRequests / seconds),
+				(int) Math.round(maxClientRequests / seconds),
+				totalRequests == 0 ? 0 : (int) (totalLatency / totalRequests / 1000), (int) (maxLatency / 1000));
+	}
+
+	/**
+	 * Handles one request frame that starts at the position of the request
+	 * buffer. The response is appended to the response buffer. Requests for
+	 * another Unit-ID are ignored without response.
+	 *
+	 * @param request  the request buffer; the position is not modified
+	 * @param length   the length of the frame including MBAP header
+	 * @param response the response buffer; needs to have at least
+	 *                 {@link #MAX_FRAME_LENGTH} bytes remaining
+	 */
+	private void handle(ByteBuffer request, int length, ByteBuffer response) {
+		int start = request.position();
+		int unitId = request.get(start + 6) & 0xff;
+		if (unitId != this.unitId) {
+			return;
+		}
+		byte functionCode = request.get(start + 7);
+
+		// copy transaction id, protocol id and unit id from the request
+		int responseStart = response.position();
+		response.putShort(request.getShort(start));
+		response.putShort((short) 0);
+		response.putShort((short) 0); // length; set below
+		response.put((byte) unitId);
+
+		byte exception;
+		switch (functionCode) {
+		case FC_READ_HOLDING_REGISTERS:
+		case FC_READ_INPUT_REGISTERS:
+			exception = this.handleRead(request, start, length, functionCode, response);
+			break;
+		case FC_WRITE_SINGLE_REGISTER:
+			exception = this.handleWriteSingle(request, start, length, response);
+			break;
+		case FC_WRITE_MULTIPLE_REGISTERS:
+			exception = this.handleWriteMultiple(request, start, length, response);
+			break;
+		default:
+			exception = ILLEGAL_FUNCTION;
+		}
+		if (exception != 0) {
+			response.position(responseStart + MBAP_HEADER_LENGTH);
+			response.put((byte) (functionCode | 0x80));
+			response.put(exception);
+		}
+		response.putShort(responseStart + 4, (short) (response.position() - responseStart - 6));
+	}
+
+	private byte handleRead(ByteBuffer request, int start, int length, byte functionCode, ByteBuffer response) {
+		if (length < MBAP_HEADER_LENGTH + 5) {
+			return ILLEGAL_DATA_VALUE;
+		}
+		int offset = request.getShort(start + 8) & 0xffff;
+		int count = request.getShort(start + 10) & 0xffff;
+		if (count < 1 || count > MAX_READ_REGISTERS) {
+			return ILLEGAL_DATA_VALUE;
+		}
+		RegisterImage image = this.image;
+		if (image == null || image.validateRange(offset, count) != null) {
+			return ILLEGAL_DATA_ADDRESS;
+		}
+		short[] values = image.getValues();
+		response.put(functionCode);
+		response.put((byte) (count * 2));
+		for (int i = offset; i < offset + count; i++) {
+			response.putShort(values[i]);
+		}
+		return 0;
+	}
+
+	private byte handleWriteSingle(ByteBuffer request, int start, int length, ByteBuffer response) {
+		if (length < MBAP_HEADER_LENGTH + 5) {
+			return ILLEGAL_DATA_VALUE;
+		}
+		int address = request.getShort(start + 8) & 0xffff;
+		RegisterImage image = this.image;
+		if (image == null || image.validateSingleRegister(address) != null) {
+			return ILLEGAL_DATA_ADDRESS;
+		}
+		image.write(address, request.get(start + 10), request.get(start + 11));
+		// echo the request
+		response.put(FC_WRITE_SINGLE_REGISTER);
+		response.putShort((short) address);
+		response.put(request.get(start + 10));
+		response.put(request.get(start + 11));
+		return 0;
+	}
+
+	private byte handleWriteMultiple(ByteBuffer request, int start, int length, ByteBuffer response) {
+		if (length < MBAP_HEADER_LENGTH + 6) {
+			return ILLEGAL_DATA_VALUE;
+		}
+		int offset = request.getShort(start + 8) & 0xffff;
+		int count = request.getShort(start + 10) & 0xffff;
+		int byteCount = request.get(start + 12) & 0xff;
+		if (count < 1 || count > MAX_WRITE_REGISTERS || byteCount != count * 2
+				|| length < MBAP_HEADER_LENGTH + 6 + byteCount) {
+			return ILLEGAL_DATA_VALUE;
+		}
+		RegisterImage image = this.image;
+		if (image == null || image.validateRange(offset, count) != null) {
+			return ILLEGAL_DATA_ADDRESS;
+		}
+		for (int i = 0; i < count; i++) {
+			int index = start + 13 + i * 2;
+			image.write(offset + i, request.get(index), request.get(index + 1));
+		}
+		response.put(FC_WRITE_MULTIPLE_REGISTERS);
+		response.putShort((short) offset);
+		response.putShort((short) count);
+		return 0;
+	}
+
+	/**
+	 * One connected Modbus/TCP client.
+	 */
+	private class Client {
+
+		private final SocketChannel channel;
+		private final String remoteAddress;
+		/**
+		 * Room for a couple of pipelined requests
+		 */
+		private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(MAX_FRAME_LENGTH * 4);
+		private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MAX_FRAME_LENGTH * 4);
+
+		private SelectionKey key = null;
+
+		// statistics of the current interval; only accessed by the selector thread
+		private int requests = 0;
+		private long totalLatency = 0;
+		private long maxLatency = 0;
+
+		private Client(SocketChannel channel) throws IOException {
+			this.channel = channel;
+			this.remoteAddress = String.valueOf(channel.getRemoteAddress());
+		}
+
+		private boolean isOpen() {
+			return this.channel.isOpen();
+		}
+
+		private void read() throws IOException {
+			long receivedAt = System.nanoTime();
+			int read = this.channel.read(this.readBuffer);
+			if (read == -1) {
+				this.close();
+				return;
+			}
+			this.process(receivedAt);
+		}
+
+		/**
+		 * Handles all complete frames in the read buffer.
+		 */
+		private void process(long receivedAt) throws IOException {
+			this.readBuffer.flip();
+			while (this.readBuffer.remaining() >= MBAP_HEADER_LENGTH + 1) {
+				int start = this.readBuffer.position();
+				int protocolId = this.readBuffer.getShort(start + 2) & 0xffff;
+				int length = (this.readBuffer.getShort(start + 4) & 0xffff) + 6;
+				if (protocolId != 0 || length < MBAP_HEADER_LENGTH + 1 || length > MAX_FRAME_LENGTH) {
+					ModbusTcpServer.this.parent.logWarn(ModbusTcpServer.this.log,
+							"Closing Modbus/TCP connection from [" + this.remoteAddress + "]: invalid frame.");
+					this.close();
+					return;
+				}
+				if (this.readBuffer.remaining() < length) {
+					// wait for the rest of the frame
+					break;
+				}
+				if (this.writeBuffer.remaining() < MAX_FRAME_LENGTH) {
+					// client does not read its responses; continue after flush
+					break;
+				}
+				ModbusTcpServer.this.handle(this.readBuffer, length, this.writeBuffer);
+				this.readBuffer.position(start + length);
+				long latency = System.nanoTime() - receivedAt;
+				this.requests++;
+				this.totalLatency += latency;
+				this.maxLatency = Math.max(this.maxLatency, latency);
+			}
+			this.readBuffer.compact();
+			this.flush();
+		}
+
+		private void flush() throws IOException {
+			this.writeBuffer.flip();
+			this.channel.write(this.writeBuffer);
+			boolean pending = this.writeBuffer.hasRemaining();
+			this.writeBuffer.compact();
+			if (pending) {
+				// stop reading until the client received the pending responses
+				this.key.interestOps(SelectionKey.OP_WRITE);
+			} else if (this.key.interestOps() != SelectionKey.OP_READ) {
+				this.key.interestOps(SelectionKey.OP_READ);
+				if (this.readBuffer.position() > 0) {
+					// handle requests that were postponed because the write buffer was full
+					this.process(System.nanoTime());
+				}
+			}
+		}
+
+		private void close() {
+			if (this.key != null) {
+				this.key.cancel();
+			}
+			try {
+				this.channel.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Immutable statistics of one interval.
+	 */
+	public static class Statistics {
+		private final int connectedClients;
+		private final int requestRate;
+		private final int maxClientRequestRate;
+		private final int averageLatency;
+		private final int maxLatency;
+
+		private Statistics(int connectedClients, int requestRate, int maxClientRequestRate, int averageLatency,
+				int maxLatency) {
+			this.connectedClients = connectedClients;
+			this.requestRate = requestRate;
+			this.maxClientRequestRate = maxClientRequestRate;
+			this.averageLatency = averageLatency;
+			this.maxLatency = maxLatency;
+		}
+
+		public int getConnectedClients() {
+			return connectedClients;
+		}
+
+		/**
+		 * Requests per second of all clients
+		 */
+		public int getRequestRate() {
+			return requestRate;
+		}
+
+		/**
+		 * Requests per second of the busiest client
+		 */
+		public int getMaxClientRequestRate() {
+			return maxClientRequestRate;
+		}
+
+		/**
+		 * Average latency in microseconds
+		 */
+		public int getAverageLatency() {
+			return averageLatency;
+		}
+
+		/**
+		 * Maximum latency in microseconds
+		 */
+		public int getMaxLatency() {
+			return maxLatency;
+		}
+	}
+}
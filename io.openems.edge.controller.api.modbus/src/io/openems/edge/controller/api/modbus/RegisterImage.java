@@ -0,0 +1,214 @@
+package io.openems.edge.controller.api.modbus;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.modbusslave.ModbusRecord;
+import io.openems.edge.common.modbusslave.ModbusRecordConstant;
+
+/**
+ * Holds the encoded register values of all {@link ModbusRecord}s and answers
+ * Modbus/TCP slave requests.
+ *
+ * <p>
+ * The layout (which record starts at which address) is built once. The values
+ * are encoded once per cycle by {@link #update()} into a new array, which is
+ * then published atomically. Published arrays are never modified, so any number
+ * of Modbus clients can read them concurrently without locks. Writes are
+ * forwarded to the record via {@link #write(int, byte, byte)}, synchronized per
+ * record.
+ */
+public class RegisterImage {
+
+	private final static short[] EMPTY = new short[0];
+
+	/**
+	 * The ModbusRecord that starts at the given address; null if no record starts
+	 * at this address.
+	 */
+	private final ModbusRecord[] records;
+
+	/**
+	 * The Component of the ModbusRecord that starts at the given address.
+	 */
+	private final OpenemsComponent[] components;
+
+	/**
+	 * Start address of the record that covers the given address; -1 if the
+	 * address is undefined.
+	 */
+	private final int[] recordStarts;
+
+	/**
+	 * The encoded values of constant records; they are copied into every new
+	 * image.
+	 */
+	private final short[] constants;
+
+	/**
+	 * The currently published register values.
+	 */
+	private volatile short[] values = EMPTY;
+
+	public RegisterImage(SortedMap<Integer, ModbusRecord> records, Map<String, ? extends OpenemsComponent> components) {
+		int length = records.isEmpty() ? 0 : records.lastKey() + records.get(records.lastKey()).getType().getWords();
+		this.records = new ModbusRecord[length];
+		this.components = new OpenemsComponent[length];
+		this.recordStarts = new int[length];
+		this.constants = new short[length];
+		for (int i = 0; i < length; i++) {
+			this.recordStarts[i] = -1;
+		}
+		for (Entry<Integer, ModbusRecord> entry : records.entrySet()) {
+			int address = entry.getKey();
+			ModbusRecord record = entry.getValue();
+			OpenemsComponent component = components.get(record.getComponentId());
+			this.records[address] = record;
+			this.components[address] = component;
+			int words = record.getType().getWords();
+			for (int i = address; i < address + words && i < length; i++) {
+				this.recordStarts[i] = address;
+			}
+			if (record instanceof ModbusRecordConstant) {
+				encode(record.getValue(component), this.constants, address);
+			}
+		}
+		this.update();
+	}
+
+	/**
+	 * Encodes all non-constant records and publishes the result. Called once per
+	 * cycle after the process image was switched.
+	 */
+	public void update() {
+		short[] values = this.constants.clone();
+		for (int address = 0; address < this.records.length; address++) {
+			ModbusRecord record = this.records[address];
+			if (record == null || record instanceof ModbusRecordConstant) {
+				continue;
+			}
+			OpenemsComponent component = this.components[address];
+			if (component == null) {
+				continue;
+			}
+			encode(record.getValue(component), values, address);
+		}
+		this.values = values;
+	}
+
+	/**
+	 * Gets the currently published register values. The returned array must not
+	 * be modified.
+	 *
+	 * @return the register values
+	 */
+	public short[] getValues() {
+		return this.values;
+	}
+
+	/**
+	 * Gets the number of registers.
+	 *
+	 * @return the number of registers
+	 */
+	public int getLength() {
+		return this.records.length;
+	}
+
+	/**
+	 * Gets the record that starts at the given address.
+	 *
+	 * @param address the address
+	 * @return the record or null
+	 */
+	public ModbusRecord getRecord(int address) {
+		return this.records[address];
+	}
+
+	/**
+	 * Gets the Component of the record that starts at the given address.
+	 *
+	 * @param address the address
+	 * @return the Component or null
+	 */
+	public OpenemsComponent getComponent(int address) {
+		return this.components[address];
+	}
+
+	/**
+	 * Gets the start address of the record covering the given address.
+	 *
+	 * @param address the address
+	 * @return the start address or -1 if the address is undefined
+	 */
+	public int getRecordStart(int address) {
+		if (address < 0 || address >= this.recordStarts.length) {
+			return -1;
+		}
+		return this.recordStarts[address];
+	}
+
+	/**
+	 * Validates that the given range is defined and does not cut any record.
+	 *
+	 * @param offset the start address
+	 * @param count  the number of registers
+	 * @return null if the range is valid; an error message otherwise
+	 */
+	public String validateRange(int offset, int count) {
+		for (int i = offset; i < offset + count;) {
+			if (this.getRecordStart(i) != i) {
+				return "Record for Modbus address [" + i + "] is undefined.";
+			}
+			int words = this.records[i].getType().getWords();
+			if (i + words > offset + count) {
+				return "Record for Modbus address [" + i + "] does not fit in Result.";
+			}
+			i += words;
+		}
+		return null;
+	}
+
+	/**
+	 * Validates that a record starts at the given address and requires only one
+	 * register, so that it can be written with a single register write.
+	 *
+	 * @param address the address
+	 * @return null if the address is valid; an error message otherwise
+	 */
+	public String validateSingleRegister(int address) {
+		int start = this.getRecordStart(address);
+		if (start == -1) {
+			return "Record for Modbus address [" + address + "] is undefined.";
+		}
+		// make sure this Record requires only one Register/Word
+		if (this.records[start].getType().getWords() > 1) {
+			return "Record for Modbus address [" + address + "] requires more than one Register.";
+		}
+		return null;
+	}
+
+	/**
+	 * Forwards a written register to the record that covers the address. The
+	 * address must have been validated before.
+	 *
+	 * @param address the address
+	 * @param byte1   the high byte
+	 * @param byte2   the low byte
+	 */
+	public void write(int address, byte byte1, byte byte2) {
+		int start = this.recordStarts[address];
+		ModbusRecord record = this.records[start];
+		synchronized (record) {
+			record.writeValue(this.components[start], address - start, byte1, byte2);
+		}
+	}
+
+	private static void encode(byte[] value, short[] target, int address) {
+		for (int j = 0; j < value.length / 2 && address + j < target.length; j++) {
+			target[address + j] = (short) ((value[j * 2] & 0xff) << 8 | (value[j * 2 + 1] & 0xff));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package io.openems.edge.controller.api.modbus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.modbusslave.ModbusRecord;
+import io.openems.edge.common.modbusslave.ModbusRecordFloat32;
+import io.openems.edge.common.modbusslave.ModbusRecordUint16;
+
+public class RegisterImageTest {
+
+	@Test
+	public void test() {
+		TreeMap<Integer, ModbusRecord> records = new TreeMap<>();
+		records.put(0, new ModbusRecordUint16(0, "first", (short) 0x1234));
+		records.put(1, new ModbusRecordFloat32(1, "second", 1.5f));
+		RegisterImage image = new RegisterImage(records, new HashMap<String, OpenemsComponent>());
+
+		assertEquals(3, image.getLength());
+		short[] values = image.getValues();
+		assertEquals((short) 0x1234, values[0]);
+		assertEquals((short) (Float.floatToIntBits(1.5f) >> 16), values[1]);
+		assertEquals((short) Float.floatToIntBits(1.5f), values[2]);
+
+		assertEquals(1, image.getRecordStart(2));
+		assertEquals(-1, image.getRecordStart(3));
+
+		assertNull(image.validateRange(0, 3));
+		assertNull(image.validateRange(1, 2));
+		// cuts the float
+		assertNotNull(image.validateRange(0, 2));
+		// starts in the middle of the float
+		assertNotNull(image.validateRange(2, 1));
+		// undefined
+		assertNotNull(image.validateRange(3, 1));
+
+		assertNull(image.validateSingleRegister(0));
+		assertNotNull(image.validateSingleRegister(1));
+		assertNotNull(image.validateSingleRegister(3));
+	}
+
+	@Test
+	public void testWrite() {
+		List<String> writes = new ArrayList<>();
+		TreeMap<Integer, ModbusRecord> records = new TreeMap<>();
+		records.put(0, new ModbusRecordFloat32(0, "written", 0f) {
+			@Override
+			public void writeValue(OpenemsComponent component, int index, byte byte1, byte byte2) {
+				writes.add(index + ":" + byte1 + ":" + byte2);
+			}
+		});
+		RegisterImage image = new RegisterImage(records, new HashMap<String, OpenemsComponent>());
+
+		image.write(0, (byte) 1, (byte) 2);
+		image.write(1, (byte) 3, (byte) 4);
+		assertEquals(Arrays.asList("0:1:2", "1:3:4"), writes);
+	}
+
+}
@@ -0,0 +1,233 @@
+package io.openems.edge.controller.api.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Index of all Components and their Channels, sorted by their IDs.
+ *
+ * <p>
+ * The index is an immutable snapshot. It is rebuilt on access if the list of
+ * Components was replaced or changed its size, which the dynamic OSGi reference
+ * does whenever a Component appears or disappears, or if the number of Channels
+ * changed, e.g. because a Component added Channels after its activation. A
+ * Channel that is not in the index is additionally looked up at its Component,
+ * so Channels that were replaced are found before the next rebuild.
+ */
+class ChannelIndex {
+
+	private final static char WILDCARD = '*';
+	private final static char SINGLE_WILDCARD = '?';
+
+	private final RestApi parent;
+
+	private volatile Snapshot snapshot = null;
+
+	public ChannelIndex(RestApi parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * Gets the version of the index. It changes whenever the index is rebuilt.
+	 *
+	 * @return the version
+	 */
+	public int getVersion() {
+		return this.getSnapshot().version;
+	}
+
+	/**
+	 * Gets a Channel by its IDs.
+	 *
+	 * @param componentId the Component-ID
+	 * @param channelId   the Channel-ID
+	 * @return the Channel or null
+	 */
+	public Channel<?> getChannel(String componentId, String channelId) {
+		Snapshot snapshot = this.getSnapshot();
+		Map<String, Channel<?>> channels = snapshot.components.get(componentId);
+		if (channels == null) {
+			return null;
+		}
+		Channel<?> channel = channels.get(channelId);
+		if (channel == null) {
+			channel = this.getLiveChannel(snapshot, componentId, channelId);
+		}
+		return channel;
+	}
+
+	/**
+	 * Looks up a Channel that is not in the index at its Component. If it exists,
+	 * the index is rebuilt on the next access.
+	 *
+	 * @param snapshot    the current Snapshot
+	 * @param componentId the Component-ID
+	 * @param channelId   the Channel-ID
+	 * @return the Channel or null
+	 */
+	private Channel<?> getLiveChannel(Snapshot snapshot, String componentId, String channelId) {
+		OpenemsComponent component = snapshot.sources.get(componentId);
+		Channel<?> channel;
+		try {
+			channel = component.channel(channelId);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		snapshot.isOutdated = true;
+		return channel;
+	}
+
+	/**
+	 * Resolves a Channel-Address like 'ess0/Soc'. Component-ID and Channel-ID may
+	 * contain the wildcards '*' and '?', like in 'ess*&#47;Soc' or 'meter0/*'.
+	 *
+	 * @param address the Channel-Address
+	 * @param result  the list to which the matching Channels are added, sorted by
+	 *                Component-ID and Channel-ID
+	 */
+	public void resolve(String address, List<Channel<?>> result) {
+		int separator = address.indexOf('/');
+		if (separator < 0) {
+			return;
+		}
+		String componentPattern = address.substring(0, separator);
+		String channelPattern = address.substring(separator + 1);
+		Snapshot snapshot = this.getSnapshot();
+
+		if (!hasWildcard(componentPattern)) {
+			Map<String, Channel<?>> channels = snapshot.components.get(componentPattern);
+			if (channels == null) {
+				return;
+			}
+			if (!hasWildcard(channelPattern) && !channels.containsKey(channelPattern)) {
+				Channel<?> channel = this.getLiveChannel(snapshot, componentPattern, channelPattern);
+				if (channel != null) {
+					result.add(channel);
+				}
+				return;
+			}
+			resolve(channels, channelPattern, result);
+			return;
+		}
+		for (Entry<String, Map<String, Channel<?>>> entry : snapshot.components.entrySet()) {
+			if (matches(componentPattern, entry.getKey())) {
+				resolve(entry.getValue(), channelPattern, result);
+			}
+		}
+	}
+
+	private static void resolve(Map<String, Channel<?>> channels, String channelPattern, List<Channel<?>> result) {
+		if (!hasWildcard(channelPattern)) {
+			Channel<?> channel = channels.get(channelPattern);
+			if (channel != null) {
+				result.add(channel);
+			}
+			return;
+		}
+		for (Entry<String, Channel<?>> entry : channels.entrySet()) {
+			if (matches(channelPattern, entry.getKey())) {
+				result.add(entry.getValue());
+			}
+		}
+	}
+
+	private Snapshot getSnapshot() {
+		List<OpenemsComponent> components = this.parent.getComponents();
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null || snapshot.isOutdated || snapshot.source != components
+				|| snapshot.size != components.size() || snapshot.channelCount != countChannels(components)) {
+			snapshot = new Snapshot(components, snapshot == null ? 0 : snapshot.version + 1);
+			this.snapshot = snapshot;
+		}
+		return snapshot;
+	}
+
+	private static int countChannels(List<OpenemsComponent> components) {
+		int count = 0;
+		for (OpenemsComponent component : new ArrayList<>(components)) {
+			count += component.channels().size();
+		}
+		return count;
+	}
+
+	/**
+	 * Checks whether the given String contains a wildcard.
+	 *
+	 * @param pattern the String
+	 * @return true for wildcard patterns
+	 */
+	public static boolean hasWildcard(String pattern) {
+		return pattern.indexOf(WILDCARD) >= 0 || pattern.indexOf(SINGLE_WILDCARD) >= 0;
+	}
+
+	/**
+	 * Matches a String against a pattern with wildcards: '*' matches any sequence
+	 * of characters, '?' matches exactly one character.
+	 *
+	 * @param pattern the pattern
+	 * @param value   the String
+	 * @return true if the String matches
+	 */
+	protected static boolean matches(String pattern, String value) {
+		int p = 0;
+		int v = 0;
+		int lastWildcard = -1;
+		int lastMatch = 0;
+		while (v < value.length()) {
+			if (p < pattern.length()
+					&& (pattern.charAt(p) == SINGLE_WILDCARD || pattern.charAt(p) == value.charAt(v))) {
+				p++;
+				v++;
+			} else if (p < pattern.length() && pattern.charAt(p) == WILDCARD) {
+				lastWildcard = p++;
+				lastMatch = v;
+			} else if (lastWildcard >= 0) {
+				// let the last '*' consume one more character
+				p = lastWildcard + 1;
+				v = ++lastMatch;
+			} else {
+				return false;
+			}
+		}
+		while (p < pattern.length() && pattern.charAt(p) == WILDCARD) {
+			p++;
+		}
+		return p == pattern.length();
+	}
+
+	private static class Snapshot {
+		private final List<OpenemsComponent> source;
+		private final int size;
+		private final int channelCount;
+		private final int version;
+		private final Map<String, OpenemsComponent> sources = new HashMap<>();
+		private final Map<String, Map<String, Channel<?>>> components = new TreeMap<>();
+		private volatile boolean isOutdated = false;
+
+		private Snapshot(List<OpenemsComponent> source, int version) {
+			this.source = source;
+			this.version = version;
+			List<OpenemsComponent> components = new ArrayList<>(source);
+			this.size = components.size();
+			int channelCount = 0;
+			for (OpenemsComponent component : components) {
+				Map<String, Channel<?>> channels = new TreeMap<>();
+				for (Channel<?> channel : new ArrayList<>(component.channels())) {
+					channels.put(channel.channelId().id(), channel);
+				}
+				channelCount += channels.size();
+				this.sources.put(component.id(), component);
+				this.components.put(component.id(), Collections.unmodifiableMap(channels));
+			}
+			this.channelCount = channelCount;
+		}
+	}
+}
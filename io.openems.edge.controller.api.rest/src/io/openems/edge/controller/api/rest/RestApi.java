@@ -3,6 +3,7 @@ package io.openems.edge.controller.api.rest;
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.user.UserService;
 import io.openems.edge.controller.api.Controller;
 import io.openems.edge.controller.api.core.ApiController;
@@ -23,6 +24,9 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,12 +35,22 @@ import org.slf4j.LoggerFactory;
 @Component(//
 		name = "Controller.Api.Rest", //
 		immediate = true, //
-		configurationPolicy = ConfigurationPolicy.REQUIRE)
-public class RestApi extends AbstractOpenemsComponent implements Controller, ApiController, OpenemsComponent {
+		configurationPolicy = ConfigurationPolicy.REQUIRE, //
+		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE)
+public class RestApi extends AbstractOpenemsComponent
+		implements Controller, ApiController, OpenemsComponent, EventHandler {
 
 	final Logger log = LoggerFactory.getLogger(RestApi.class);
 	private final ApiWorker apiWorker = new ApiWorker();
 
+	protected final ChannelIndex channelIndex = new ChannelIndex(this);
+
+	/**
+	 * Counts the Cycles, i.e. the updates of the Channel values. Only written by
+	 * the Cycle thread.
+	 */
+	private volatile long cycleCount = 0;
+
 	private Server server = null;
 
 	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE, target = "(!(service.factoryPid=Controller.Api.Websocket))")
@@ -92,6 +106,24 @@ public class RestApi extends AbstractOpenemsComponent implements Controller, Api
 		this.apiWorker.run();
 	}
 
+	@Override
+	public void handleEvent(Event event) {
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			this.cycleCount++;
+			break;
+		}
+	}
+
+	/**
+	 * Gets the number of Cycles since activation.
+	 *
+	 * @return the Cycle counter
+	 */
+	protected long getCycleCount() {
+		return this.cycleCount;
+	}
+
 	@Override
 	public List<OpenemsComponent> getComponents() {
 		return this.components;
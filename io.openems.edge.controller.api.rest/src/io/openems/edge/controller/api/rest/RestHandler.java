@@ -1,22 +1,30 @@
 package io.openems.edge.controller.api.rest;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 
 import io.openems.common.exceptions.OpenemsException;
 import io.openems.common.types.OpenemsType;
 import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.channel.WriteChannel;
-import io.openems.edge.common.component.OpenemsComponent;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -29,10 +37,20 @@ import org.slf4j.LoggerFactory;
 
 public class RestHandler extends AbstractHandler {
 
+	private final static Gson GSON = new GsonBuilder().serializeNulls().create();
+	private final static JsonParser PARSER = new JsonParser();
+
 	private final Logger log = LoggerFactory.getLogger(RestHandler.class);
 
 	private final RestApi parent;
 
+	/**
+	 * Distinguishes the ETags of this instance from those issued before a restart,
+	 * when the Cycle counter and the version of the {@link ChannelIndex} start
+	 * again at zero.
+	 */
+	private final String etagPrefix = Integer.toHexString(new SecureRandom().nextInt());
+
 	public RestHandler(RestApi parent) {
 		this.parent = parent;
 	}
@@ -41,9 +59,7 @@ public class RestHandler extends AbstractHandler {
 	public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
 			throws IOException, ServletException {
 		try {
-			List<String> targets = Arrays.asList(//
-					target.substring(1) // remove leading '/'
-							.split("/"));
+			List<String> targets = splitTarget(target);
 
 			if (targets.isEmpty()) {
 				throw new OpenemsException("Missing arguments to handle request");
@@ -75,6 +91,9 @@ public class RestHandler extends AbstractHandler {
 		case "channel":
 			this.handleChannel(remainingTargets, baseRequest, request, response);
 			break;
+		case "channels":
+			this.handleChannels(null, baseRequest, request, response);
+			break;
 		}
 	}
 
@@ -96,15 +115,14 @@ public class RestHandler extends AbstractHandler {
 		String thingId = targets.get(0);
 		String channelId = targets.get(1);
 
-		// get channel
-		Channel<?> channel = null;
-		for (OpenemsComponent component : this.parent.getComponents()) {
-			if (component.id().equals(thingId)) {
-				// get channel
-				channel = component.channel(channelId);
-				break;
-			}
+		if (ChannelIndex.hasWildcard(thingId) || ChannelIndex.hasWildcard(channelId)) {
+			// e.g. 'ess*/Soc' -> handle like a bulk request
+			this.handleChannels(Arrays.asList(thingId + "/" + channelId), baseRequest, request, response);
+			return;
 		}
+
+		// get channel
+		Channel<?> channel = this.parent.channelIndex.getChannel(thingId, channelId);
 		if (channel == null) {
 			// Channel not found
 			response.setStatus(HttpServletResponse.SC_NOT_FOUND);
@@ -114,6 +132,9 @@ public class RestHandler extends AbstractHandler {
 		// call handler methods
 		switch (request.getMethod()) {
 		case "GET":
+			if (this.isNotModified(baseRequest, request, response)) {
+				return;
+			}
 			this.handleGet(channel, baseRequest, request, response);
 			break;
 		case "POST":
@@ -122,6 +143,105 @@ public class RestHandler extends AbstractHandler {
 		}
 	}
 
+	/**
+	 * Handles a bulk request for multiple Channels.
+	 *
+	 * <p>
+	 * GET reads all Channels that match the comma separated Channel-Addresses in
+	 * the 'ids' parameter, e.g. '/rest/channels?ids=ess*&#47;Soc,meter0/ActivePower'.
+	 * POST expects a JSON object of Channel-Addresses and values, e.g.
+	 * '{"ess*&#47;SetActivePowerEquals": 1000}'. Channel-Addresses may contain the
+	 * wildcards '*' and '?'.
+	 *
+	 * @param addresses   the Channel-Addresses from the request path; null to take
+	 *                    them from the request
+	 * @param baseRequest the HTTP base-request
+	 * @param request     the HTTP request
+	 * @param response    the result to be returned
+	 * @throws OpenemsException on error
+	 */
+	private void handleChannels(List<String> addresses, Request baseRequest, HttpServletRequest request,
+			HttpServletResponse response) throws OpenemsException {
+		switch (request.getMethod()) {
+		case "GET":
+			if (addresses == null) {
+				addresses = new ArrayList<>();
+				String[] parameters = request.getParameterValues("ids");
+				if (parameters != null) {
+					for (String parameter : parameters) {
+						for (String address : parameter.split(",")) {
+							address = address.trim();
+							if (!address.isEmpty()) {
+								addresses.add(address);
+							}
+						}
+					}
+				}
+			}
+			if (this.isNotModified(baseRequest, request, response)) {
+				return;
+			}
+			this.handleBulkGet(this.resolve(addresses), baseRequest, response);
+			break;
+		case "POST":
+			this.handleBulkPost(addresses, baseRequest, response);
+			break;
+		}
+	}
+
+	/**
+	 * Resolves Channel-Addresses to Channels. Every Channel is returned only once.
+	 *
+	 * @param addresses the Channel-Addresses, optionally with wildcards
+	 * @return the Channels
+	 */
+	private Collection<Channel<?>> resolve(List<String> addresses) {
+		List<Channel<?>> channels = new ArrayList<>();
+		for (String address : addresses) {
+			this.parent.channelIndex.resolve(address, channels);
+		}
+		if (addresses.size() < 2) {
+			return channels;
+		}
+		return new LinkedHashSet<>(channels);
+	}
+
+	/**
+	 * Answers a GET request with '304 Not Modified' if the client already has the
+	 * current values; otherwise sets the ETag for the response.
+	 *
+	 * <p>
+	 * Channel values change only once per Cycle, so the ETag is derived from the
+	 * Cycle counter and the version of the {@link ChannelIndex}, prefixed by a
+	 * random value per instance.
+	 *
+	 * @param baseRequest the HTTP base-request
+	 * @param request     the HTTP request
+	 * @param response    the result to be returned
+	 * @return true if the request was answered with '304 Not Modified'
+	 */
+	private boolean isNotModified(Request baseRequest, HttpServletRequest request, HttpServletResponse response) {
+		String etag = "\"" + this.etagPrefix + "-" + this.parent.channelIndex.getVersion() + "-" + this.parent.getCycleCount() + "\"";
+		response.setHeader("ETag", etag);
+		response.setHeader("Cache-Control", "no-cache");
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(etag) || tag.equals("*")) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				baseRequest.setHandled(true);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Handles HTTP GET request.
 	 *
@@ -139,14 +259,7 @@ public class RestHandler extends AbstractHandler {
 		JsonObject j = new JsonObject();
 		j.add("value", channel.value().asJson());
 		// type
-		Optional<OpenemsType> typeOpt = channel.channelDoc().getType();
-		String type;
-		if (typeOpt.isPresent()) {
-			type = typeOpt.get().toString().toLowerCase();
-		} else {
-			type = "UNDEFINED";
-		}
-		j.addProperty("type", type);
+		j.addProperty("type", getType(channel));
 		// writable
 		j.addProperty("writable", //
 				channel instanceof WriteChannel<?> ? true : false //
@@ -155,6 +268,86 @@ public class RestHandler extends AbstractHandler {
 		this.sendOkResponse(baseRequest, response, j);
 	}
 
+	/**
+	 * Handles HTTP GET request for multiple Channels. The result is streamed as a
+	 * JSON array.
+	 *
+	 * @param channels    the affected channels
+	 * @param baseRequest the HTTP base-request
+	 * @param response    the result to be returned
+	 * @throws OpenemsException on error
+	 */
+	private void handleBulkGet(Collection<Channel<?>> channels, Request baseRequest, HttpServletResponse response)
+			throws OpenemsException {
+		// TODO check read permission
+		try {
+			response.setContentType("application/json");
+			response.setCharacterEncoding("UTF-8");
+			response.setStatus(HttpServletResponse.SC_OK);
+			baseRequest.setHandled(true);
+			JsonWriter writer = new JsonWriter(response.getWriter());
+			writer.beginArray();
+			for (Channel<?> channel : channels) {
+				writer.beginObject();
+				writer.name("address").value(channel.address().toString());
+				writer.name("type").value(getType(channel));
+				writer.name("writable").value(channel instanceof WriteChannel<?>);
+				writer.name("value");
+				GSON.toJson(channel.value().asJson(), writer);
+				writer.endObject();
+			}
+			writer.endArray();
+			writer.flush();
+		} catch (IOException e) {
+			throw new OpenemsException("Unable to send Ok-Response: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles HTTP POST request for multiple Channels. Nothing is written if any
+	 * of the Channels is not writable.
+	 *
+	 * @param addresses   the Channel-Addresses from the request path; null to take
+	 *                    them from the request body
+	 * @param baseRequest the HTTP POST base-request
+	 * @param response    the result to be returned
+	 * @throws OpenemsException on error
+	 */
+	private void handleBulkPost(List<String> addresses, Request baseRequest, HttpServletResponse response)
+			throws OpenemsException {
+		JsonObject jHttpPost = parseBody(baseRequest);
+
+		// collect channels and values
+		Map<WriteChannel<?>, JsonElement> values = new LinkedHashMap<>();
+		if (addresses != null) {
+			// values for the Channels in the request path
+			if (!jHttpPost.has("value")) {
+				throw new OpenemsException("Value is missing");
+			}
+			for (Channel<?> channel : this.resolve(addresses)) {
+				values.put(assertWriteChannel(channel), jHttpPost.get("value"));
+			}
+		} else {
+			for (Entry<String, JsonElement> entry : jHttpPost.entrySet()) {
+				for (Channel<?> channel : this.resolve(Arrays.asList(entry.getKey()))) {
+					values.put(assertWriteChannel(channel), entry.getValue());
+				}
+			}
+		}
+		if (values.isEmpty()) {
+			response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+			baseRequest.setHandled(true);
+			return;
+		}
+
+		// set channel values
+		for (Entry<WriteChannel<?>, JsonElement> entry : values.entrySet()) {
+			this.setNextWriteValue(entry.getKey(), entry.getValue());
+		}
+
+		this.sendOkResponse(baseRequest, response, new JsonObject());
+	}
+
 	private void sendOkResponse(Request baseRequest, HttpServletResponse response, JsonObject data)
 			throws OpenemsException {
 		try {
@@ -179,20 +372,10 @@ public class RestHandler extends AbstractHandler {
 	private void handlePost(Channel<?> readChannel, Request baseRequest, HttpServletRequest request,
 			HttpServletResponse response) throws OpenemsException {
 		// check for writable channel
-		if (!(readChannel instanceof WriteChannel<?>)) {
-			throw new OpenemsException("[" + readChannel + "] is not a Write Channel");
-		}
-		WriteChannel<?> channel = (WriteChannel<?>) readChannel;
+		WriteChannel<?> channel = assertWriteChannel(readChannel);
 
 		// parse json
-		JsonParser parser = new JsonParser();
-		JsonObject jHttpPost;
-		try {
-			jHttpPost = parser.parse(new BufferedReader(new InputStreamReader(baseRequest.getInputStream())).lines()
-					.collect(Collectors.joining("\n"))).getAsJsonObject();
-		} catch (Exception e) {
-			throw new OpenemsException("Unable to parse: " + e.getMessage());
-		}
+		JsonObject jHttpPost = parseBody(baseRequest);
 
 		// parse value
 		JsonElement jValue;
@@ -203,6 +386,12 @@ public class RestHandler extends AbstractHandler {
 		}
 
 		// set channel value
+		this.setNextWriteValue(channel, jValue);
+
+		this.sendOkResponse(baseRequest, response, new JsonObject());
+	}
+
+	private void setNextWriteValue(WriteChannel<?> channel, JsonElement jValue) throws OpenemsException {
 		try {
 			if (jValue.isJsonNull()) {
 				channel.setNextWriteValue(null);
@@ -214,7 +403,48 @@ public class RestHandler extends AbstractHandler {
 			e.printStackTrace();
 			throw new OpenemsException("Unable to set value: " + e.getMessage());
 		}
+	}
 
-		this.sendOkResponse(baseRequest, response, new JsonObject());
+	private static WriteChannel<?> assertWriteChannel(Channel<?> channel) throws OpenemsException {
+		if (!(channel instanceof WriteChannel<?>)) {
+			throw new OpenemsException("[" + channel + "] is not a Write Channel");
+		}
+		return (WriteChannel<?>) channel;
+	}
+
+	private static JsonObject parseBody(Request baseRequest) throws OpenemsException {
+		try {
+			return PARSER.parse(new BufferedReader(new InputStreamReader(baseRequest.getInputStream())))
+					.getAsJsonObject();
+		} catch (Exception e) {
+			throw new OpenemsException("Unable to parse: " + e.getMessage());
+		}
+	}
+
+	private static String getType(Channel<?> channel) {
+		Optional<OpenemsType> typeOpt = channel.channelDoc().getType();
+		if (typeOpt.isPresent()) {
+			return typeOpt.get().toString().toLowerCase();
+		} else {
+			return "UNDEFINED";
+		}
+	}
+
+	/**
+	 * Splits the request target at '/', ignoring the leading '/'.
+	 *
+	 * @param target the request target, e.g. '/rest/channel/ess0/Soc'
+	 * @return the parts of the target
+	 */
+	private static List<String> splitTarget(String target) {
+		List<String> result = new ArrayList<>(4);
+		int start = target.startsWith("/") ? 1 : 0;
+		int end;
+		while ((end = target.indexOf('/', start)) >= 0) {
+			result.add(target.substring(start, end));
+			start = end + 1;
+		}
+		result.add(target.substring(start));
+		return result;
 	}
 }
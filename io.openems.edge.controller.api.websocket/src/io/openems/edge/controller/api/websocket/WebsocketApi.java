@@ -16,12 +16,16 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.user.UserService;
 import io.openems.edge.controller.api.Controller;
 import io.openems.edge.controller.api.core.ApiController;
@@ -33,9 +37,12 @@ import io.openems.edge.timedata.api.Timedata;
 		name = "Controller.Api.Websocket", //
 		immediate = true, //
 		configurationPolicy = ConfigurationPolicy.REQUIRE, //
-		property = "org.ops4j.pax.logging.appender.name=Controller.Api.Websocket")
+		property = { //
+				"org.ops4j.pax.logging.appender.name=Controller.Api.Websocket", //
+				EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE //
+		})
 public class WebsocketApi extends AbstractOpenemsComponent
-		implements Controller, ApiController, OpenemsComponent, PaxAppender {
+		implements Controller, ApiController, OpenemsComponent, PaxAppender, EventHandler {
 
 	final Logger log = LoggerFactory.getLogger(WebsocketApi.class);
 	private final ApiWorker apiWorker = new ApiWorker();
@@ -115,6 +122,20 @@ public class WebsocketApi extends AbstractOpenemsComponent
 		super.logWarn(log, message);
 	}
 
+	@Override
+	public void handleEvent(Event event) {
+		if (!this.isEnabled() || this.websocketApiServer == null) {
+			return;
+		}
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			for (UiEdgeWebsocketHandler handler : this.websocketApiServer.handlers.values()) {
+				handler.sendCurrentData();
+			}
+			break;
+		}
+	}
+
 	@Override
 	public void doAppend(PaxLoggingEvent event) {
 		this.websocketApiServer.sendLog(event);
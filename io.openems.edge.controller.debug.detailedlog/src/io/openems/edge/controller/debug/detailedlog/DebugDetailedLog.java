@@ -1,9 +1,11 @@
 package io.openems.edge.controller.debug.detailedlog;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -25,9 +27,10 @@ import com.google.common.base.CaseFormat;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
-import io.openems.common.types.ChannelAddress;
+import io.openems.edge.common.channel.Channel;
 import io.openems.edge.common.channel.StateChannel;
 import io.openems.edge.common.channel.StateCollectorChannel;
+import io.openems.edge.common.channel.value.Value;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.controller.api.Controller;
@@ -44,7 +47,7 @@ public class DebugDetailedLog extends AbstractOpenemsComponent implements Contro
 	private final int WIDTH_FIRST = 30;
 
 	private final Set<String> finishedFirstRun = new HashSet<>();
-	private final Map<ChannelAddress, String> lastPrinted = new HashMap<>();
+	private final Map<Channel<?>, Line> lastPrinted = new ConcurrentHashMap<>();
 
 	private List<OpenemsComponent> _components = new CopyOnWriteArrayList<>();
 
@@ -58,6 +61,9 @@ public class DebugDetailedLog extends AbstractOpenemsComponent implements Contro
 
 	void removeComponent(OpenemsComponent component) {
 		this._components.remove(component);
+		for (Channel<?> channel : component.channels()) {
+			this.lastPrinted.remove(channel);
+		}
 	}
 
 	@Activate
@@ -103,47 +109,28 @@ public class DebugDetailedLog extends AbstractOpenemsComponent implements Contro
 				printedHeader = true;
 			}
 
-			final Map<ChannelAddress, String> shouldPrint = new HashMap<>();
-			component.channels().stream() //
-					.sorted((c1, c2) -> c1.channelId().name().compareTo(c2.channelId().name())) //
-					.forEach(channel -> {
-						String unit = channel.channelDoc().getUnit().getSymbol();
-						/*
-						 * create descriptive text
-						 */
-						String description = "";
-						if (channel.channelDoc().hasOptions()) {
-							try {
-								description += channel.value().asOptionString();
-							} catch (IllegalArgumentException e) {
-								description += "ERROR: " + e.getMessage();
-							}
-						}
-						if (channel instanceof StateChannel && ((StateChannel) channel).value().orElse(false) == true) {
-							if (!description.isEmpty()) {
-								description += "; ";
-							}
-							description += ((StateChannel) channel).channelDoc().getText();
-						}
-						if (channel instanceof StateCollectorChannel
-								&& ((StateCollectorChannel) channel).value().orElse(0) != 0) {
-							if (!description.isEmpty()) {
-								description += "; ";
-							}
-							description += ((StateCollectorChannel) channel).listStates();
-						}
-						// Build complete line
-						String line = String.format("%-" + WIDTH_FIRST + "s : %15s %-3s %s", channel.channelId().id(),
-								channel.value().asStringWithoutUnit(), unit,
-								description.isEmpty() ? "" : "(" + description + ")");
-						// Print the line only if is not equal to the last printed line
-						if ((!this.lastPrinted.containsKey(channel.address()))
-								|| !(this.lastPrinted.get(channel.address()).equals(line))) {
-							shouldPrint.put(channel.address(), line);
-						}
-						// Add line to last printed lines
-						this.lastPrinted.put(channel.address(), line);
-					});
+			/*
+			 * Collect the Channels whose value changed since the last print; the lines
+			 * are formatted lazily on the log thread
+			 */
+			final List<Line> shouldPrint = new ArrayList<>();
+			for (Channel<?> channel : component.channels()) {
+				Value<?> value = channel.value();
+				String states = null;
+				if (channel instanceof StateCollectorChannel
+						&& ((StateCollectorChannel) channel).value().orElse(0) != 0) {
+					states = ((StateCollectorChannel) channel).listStates();
+				}
+				// Print the line only if the value is not equal to the last printed value
+				Line last = this.lastPrinted.get(channel);
+				if (last == null || !Objects.equals(last.value.get(), value.get())
+						|| !Objects.equals(last.states, states)) {
+					Line line = new Line(channel, value, states);
+					shouldPrint.add(line);
+					// Remember the last printed line
+					this.lastPrinted.put(channel, line);
+				}
+			}
 
 			if (!shouldPrint.isEmpty()) {
 				if (!printedHeader) {
@@ -155,14 +142,60 @@ public class DebugDetailedLog extends AbstractOpenemsComponent implements Contro
 				}
 
 				logInfo(this.log, "---------------------------------------");
-				shouldPrint.values().stream().sorted().forEach(line -> {
-					this.logInfo(this.log, line);
-				});
+				shouldPrint.sort((l1, l2) -> l1.channel.channelId().id().compareTo(l2.channel.channelId().id()));
+				for (Line line : shouldPrint) {
+					this.logInfo(this.log, line::format);
+				}
 				logInfo(this.log, "---------------------------------------");
 			}
 		});
 	}
 
+	/**
+	 * A Channel with the value to be printed.
+	 */
+	private class Line {
+		private final Channel<?> channel;
+		private final Value<?> value;
+		private final String states;
+
+		private Line(Channel<?> channel, Value<?> value, String states) {
+			this.channel = channel;
+			this.value = value;
+			this.states = states;
+		}
+
+		private String format() {
+			String unit = channel.channelDoc().getUnit().getSymbol();
+			/*
+			 * create descriptive text
+			 */
+			String description = "";
+			if (channel.channelDoc().hasOptions()) {
+				try {
+					description += this.value.asOptionString();
+				} catch (IllegalArgumentException e) {
+					description += "ERROR: " + e.getMessage();
+				}
+			}
+			if (channel instanceof StateChannel && Boolean.TRUE.equals(this.value.get())) {
+				if (!description.isEmpty()) {
+					description += "; ";
+				}
+				description += channel.channelDoc().getText();
+			}
+			if (this.states != null) {
+				if (!description.isEmpty()) {
+					description += "; ";
+				}
+				description += this.states;
+			}
+			// Build complete line
+			return String.format("%-" + WIDTH_FIRST + "s : %15s %-3s %s", channel.channelId().id(),
+					this.value.asStringWithoutUnit(), unit, description.isEmpty() ? "" : "(" + description + ")");
+		}
+	}
+
 	private enum Inheritance {
 		EXTEND, IMPLEMENT;
 	}
@@ -1,5 +1,6 @@
 package io.openems.edge.controller.debuglog;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -58,21 +59,29 @@ public class DebugLog extends AbstractOpenemsComponent implements Controller, Op
 
 	@Override
 	public void run() {
-		StringBuilder b = new StringBuilder();
 		/*
 		 * Asks each component for its debugLog()-ChannelIds. Prints an aggregated log
-		 * of those channelIds and their current values.
+		 * of those channelIds and their current values. Only the debugLog() strings
+		 * are collected here; sorting and concatenating happens on the log thread.
 		 */
-		this._components.stream() //
-				.filter(c -> c.isEnabled() && c.id() != null) // enabled components only
-				.sorted((c1, c2) -> c1.id().compareTo(c2.id())) // sorted by Component-ID
-				.forEachOrdered(component -> {
-					String debugLog = component.debugLog();
-					if (debugLog != null) {
-						b.append(component.id());
-						b.append("[" + debugLog + "] ");
-					}
-				});
-		logInfo(this.log, b.toString());
+		final List<String[]> entries = new ArrayList<>(this._components.size());
+		for (OpenemsComponent component : this._components) {
+			if (component.isEnabled() && component.id() != null) { // enabled components only
+				String debugLog = component.debugLog();
+				if (debugLog != null) {
+					entries.add(new String[] { component.id(), debugLog });
+				}
+			}
+		}
+		logInfo(this.log, () -> {
+			StringBuilder b = new StringBuilder();
+			entries.stream() //
+					.sorted((e1, e2) -> e1[0].compareTo(e2[0])) // sorted by Component-ID
+					.forEachOrdered(entry -> {
+						b.append(entry[0]);
+						b.append("[" + entry[1] + "] ");
+					});
+			return b.toString();
+		});
 	}
 }
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -18,14 +19,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import info.faljse.SDNotify.SDNotify;
+import io.openems.edge.common.channel.journal.ChannelJournal;
+import io.openems.edge.common.clock.ClockProvider;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.meta.Meta;
 import io.openems.edge.common.worker.AbstractWorker;
+import io.openems.edge.common.worker.CoordinatedReader;
+import io.openems.edge.common.worker.ScheduleMode;
+import io.openems.edge.common.worker.WorkerTiming;
 import io.openems.edge.scheduler.api.Scheduler;
 
 @Component(immediate = true)
 public class Cycle extends AbstractWorker {
 
+	/**
+	 * Share of the cycle time that the Cycle waits at most for coordinated
+	 * readers
+	 */
+	private final static double READ_DEADLINE_SHARE = 0.5;
+
 	private final Logger log = LoggerFactory.getLogger(Cycle.class);
 
 	@Reference(policy = ReferencePolicy.STATIC)
@@ -38,9 +51,28 @@ public class Cycle extends AbstractWorker {
 	private final TreeMap<Scheduler, Integer> schedulers = new TreeMap<Scheduler, Integer>(
 			(a, b) -> a.getCycleTime() - b.getCycleTime());
 
+	/**
+	 * Publishes the timing of the Cycle
+	 */
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.OPTIONAL)
+	private volatile Meta meta;
+
+	/**
+	 * Runs the Cycle as fast as possible if the time is simulated
+	 */
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.OPTIONAL)
+	private volatile ClockProvider clockProvider;
+
 	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE)
 	private volatile List<OpenemsComponent> components = new CopyOnWriteArrayList<>();
 
+	/**
+	 * Readers (e.g. Modbus bridges) that are waited for before the process image
+	 * is switched
+	 */
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE)
+	private volatile List<CoordinatedReader> readers = new CopyOnWriteArrayList<>();
+
 	private int commonCycleTime = Scheduler.DEFAULT_CYCLE_TIME;
 	private int maxCycles = 1;
 	private int cycle = 0;
@@ -75,9 +107,32 @@ public class Cycle extends AbstractWorker {
 
 	@Override
 	protected int getCycleTime() {
+		ClockProvider clockProvider = this.clockProvider;
+		if (clockProvider != null && clockProvider.isFasterThanRealtime()) {
+			return DO_NOT_WAIT;
+		}
 		return this.commonCycleTime;
 	}
 
+	/**
+	 * The Cycle waits for the coordinated readers, that are executed on other
+	 * threads. It runs on its own thread, so that it never blocks a thread of the
+	 * shared pool, and is never delayed by other workers.
+	 */
+	@Override
+	protected boolean isBlocking() {
+		return true;
+	}
+
+	/**
+	 * Cycles start at fixed deadlines; after an overrun the missed cycles are
+	 * skipped.
+	 */
+	@Override
+	protected ScheduleMode getScheduleMode() {
+		return ScheduleMode.FIXED_RATE_SKIP;
+	}
+
 	@Override
 	protected void forever() {
 		// handle cycle number
@@ -88,7 +143,19 @@ public class Cycle extends AbstractWorker {
 		// Kick Operating System Watchdog
 		SDNotify.sendWatchdog();
 
+		// Publish the timing of the previous cycles
+		Meta meta = this.meta;
+		if (meta != null) {
+			WorkerTiming.updateChannels(meta, this.getStatistics());
+		}
+
 		try {
+			/*
+			 * Wait for the reads of the coordinated readers, that were triggered by the
+			 * EXECUTE_WRITE event of the previous Cycle
+			 */
+			this.awaitReaders();
+
 			/*
 			 * Trigger BEFORE_PROCESS_IMAGE event
 			 */
@@ -102,6 +169,7 @@ public class Cycle extends AbstractWorker {
 					channel.nextProcessImage();
 				});
 			});
+			ChannelJournal.getDefault().commitCycle();
 
 			/*
 			 * Trigger AFTER_PROCESS_IMAGE event
@@ -167,4 +235,20 @@ public class Cycle extends AbstractWorker {
 		}
 	}
 
+	/**
+	 * Waits until all coordinated readers finished their reads, but at most for
+	 * the read deadline (a share of the cycle time). Every reader reports itself
+	 * whether it missed the deadline.
+	 */
+	private void awaitReaders() throws InterruptedException {
+		long deadline = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos((long) (this.commonCycleTime * READ_DEADLINE_SHARE));
+		for (CoordinatedReader reader : this.readers) {
+			if (reader.isCoordinated()) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				reader.awaitReads(Math.max(0, remaining));
+			}
+		}
+	}
+
 }
@@ -9,6 +9,7 @@ import io.openems.edge.common.channel.StateCollectorChannel;
 import io.openems.edge.common.channel.StringReadChannel;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.meta.Meta;
+import io.openems.edge.common.worker.WorkerTiming;
 
 public class Utils {
 	public static Stream<? extends AbstractReadChannel<?>> initializeChannels(MetaImpl c) {
@@ -25,7 +26,9 @@ public class Utils {
 						return new StringReadChannel(c, channelId, OpenemsConstants.VERSION);
 					}
 					return null;
-				}) //
+				}), //
+				// Timing of the Cycle
+				WorkerTiming.initializeChannels(c) //
 		).flatMap(channel -> channel);
 	}
 }
@@ -0,0 +1,369 @@
+package io.openems.edge.core.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.StateChannel;
+import io.openems.edge.common.channel.StateCollectorChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.channel.value.Value;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.worker.WorkerRuntime;
+import io.openems.edge.core.snapshot.SnapshotFile.Snapshot;
+
+/**
+ * Persists the last known values of all Channels and restores them at startup.
+ *
+ * <p>
+ * Until a device was read for the first time, its Channels would otherwise be
+ * undefined. Restored values are 'stale': they are replaced by the first real
+ * value and reset to undefined if none arrives within the stale timeout. Stale
+ * values are never written to the next snapshot. State-Channels are not
+ * persisted, as they must reflect the live state only.
+ *
+ * <p>
+ * Restored values are marked (see {@link Value#isRestored()}), so consumers can
+ * tell them from values that were read in this run. The Component is disabled
+ * by default.
+ */
+@Designate(ocd = Config.class, factory = false)
+@Component(name = "Core.ChannelSnapshot", //
+		immediate = true, //
+		configurationPolicy = ConfigurationPolicy.OPTIONAL, //
+		property = { //
+				"id=" + ChannelSnapshot.COMPONENT_ID, //
+				EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE //
+		})
+public class ChannelSnapshot extends AbstractOpenemsComponent implements OpenemsComponent, EventHandler {
+
+	public final static String COMPONENT_ID = "_snapshot";
+
+	private final static String FILE_NAME = "channels.snapshot";
+
+	public enum ChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		/**
+		 * Number of Channels that were restored from the snapshot at startup
+		 */
+		RESTORED_CHANNELS(new Doc().type(OpenemsType.INTEGER)),
+		/**
+		 * Number of restored Channels that still hold their stale value
+		 */
+		STALE_CHANNELS(new Doc().type(OpenemsType.INTEGER));
+
+		private final Doc doc;
+
+		private ChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	/**
+	 * Holds a restored Channel until it receives its first real value.
+	 */
+	private static class StaleChannel<T> implements Consumer<Value<T>> {
+		private final Channel<T> channel;
+		private volatile boolean isRefreshed = false;
+
+		private StaleChannel(Channel<T> channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public void accept(Value<T> value) {
+			this.isRefreshed = true;
+		}
+
+		private void release() {
+			this.channel.removeOnSetNextValueCallback(this);
+		}
+	}
+
+	private final Logger log = LoggerFactory.getLogger(ChannelSnapshot.class);
+
+	private final List<OpenemsComponent> components = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Restored Channels that did not yet receive a real value.
+	 */
+	private final Map<Channel<?>, StaleChannel<?>> staleChannels = new ConcurrentHashMap<>();
+
+	/**
+	 * Blocks of Components that were removed while this Component is active; they
+	 * are kept in the next snapshot.
+	 */
+	private final Map<String, byte[]> retainedBlocks = new ConcurrentHashMap<>();
+
+	private final WorkerRuntime runtime = WorkerRuntime.getDefault();
+
+	/**
+	 * The pending write on the {@link WorkerRuntime}; only one is scheduled at a
+	 * time.
+	 */
+	private volatile Future<?> writeFuture = null;
+
+	/**
+	 * Values of the last snapshot by Component-ID that were not yet restored.
+	 */
+	private volatile Map<String, Map<String, Object>> restoreValues = null;
+
+	private File file = null;
+	private int interval;
+	private int staleTimeout;
+	private long activatedAt;
+	private long lastWrite;
+	private int restoredChannels = 0;
+
+	public ChannelSnapshot() {
+		this.addChannel(new StateCollectorChannel(this, OpenemsComponent.ChannelId.STATE));
+		this.addChannel(new IntegerReadChannel(this, ChannelId.RESTORED_CHANNELS));
+		this.addChannel(new IntegerReadChannel(this, ChannelId.STALE_CHANNELS));
+	}
+
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE)
+	protected void addComponent(OpenemsComponent component) {
+		if (component == this) {
+			return;
+		}
+		this.components.add(component);
+		this.retainedBlocks.remove(component.id());
+		this.restore(component);
+	}
+
+	protected void removeComponent(OpenemsComponent component) {
+		if (this.components.remove(component) && this.isEnabled() && component.isEnabled()) {
+			byte[] block = this.serialize(component);
+			if (block != null) {
+				this.retainedBlocks.put(component.id(), block);
+			}
+		}
+	}
+
+	@Activate
+	void activate(ComponentContext context, Config config) {
+		super.activate(context, COMPONENT_ID, COMPONENT_ID, config.enabled());
+		if (!this.isEnabled()) {
+			return;
+		}
+		this.interval = config.interval();
+		this.staleTimeout = config.staleTimeout();
+		this.activatedAt = System.currentTimeMillis();
+		this.lastWrite = this.activatedAt;
+		this.file = context.getBundleContext().getDataFile(FILE_NAME);
+
+		try {
+			Snapshot snapshot = SnapshotFile.read(this.file);
+			if (snapshot != null) {
+				if (snapshot.isValid(this.activatedAt, config.maxAge())) {
+					this.restoreValues = new ConcurrentHashMap<>(snapshot.values);
+				} else {
+					this.logInfo(this.log,
+							"Ignoring snapshot of age [" + snapshot.getAge(this.activatedAt) / 1000 + "s]");
+				}
+			}
+		} catch (IOException e) {
+			this.logWarn(this.log, "Unable to read snapshot: " + e.getMessage());
+		}
+
+		// restore the Components that were bound before activation
+		for (OpenemsComponent component : this.components) {
+			this.restore(component);
+		}
+		if (this.restoredChannels > 0) {
+			this.logInfo(this.log, "Restored [" + this.restoredChannels + "] Channels from snapshot");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		if (this.isEnabled()) {
+			Future<?> writeFuture = this.writeFuture;
+			if (writeFuture != null) {
+				try {
+					writeFuture.get(5, TimeUnit.SECONDS);
+				} catch (InterruptedException | ExecutionException | TimeoutException e) {
+					this.logWarn(this.log, "Pending snapshot was not written: " + e.getClass().getSimpleName());
+				}
+			}
+			this.writeSnapshot(this.serializeAll());
+		}
+		for (StaleChannel<?> stale : this.staleChannels.values()) {
+			stale.release();
+		}
+		this.staleChannels.clear();
+		this.restoreValues = null;
+		super.deactivate();
+	}
+
+	/**
+	 * Restores the stale values of a Component once.
+	 *
+	 * @param component the Component
+	 */
+	private synchronized void restore(OpenemsComponent component) {
+		Map<String, Map<String, Object>> restoreValues = this.restoreValues;
+		if (restoreValues == null || !component.isEnabled()) {
+			return;
+		}
+		Map<String, Object> values = restoreValues.remove(component.id());
+		if (values == null) {
+			return;
+		}
+		for (Entry<String, Object> entry : values.entrySet()) {
+			Channel<?> channel;
+			try {
+				channel = component.channel(entry.getKey());
+			} catch (IllegalArgumentException e) {
+				// Channel does not exist anymore
+				continue;
+			}
+			if (!isPersisted(channel) || channel.value().get() != null || channel.getNextValue().get() != null) {
+				continue;
+			}
+			try {
+				channel.setRestoredNextValue(entry.getValue());
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+			this.markStale(channel);
+			this.restoredChannels++;
+		}
+		this.channel(ChannelId.RESTORED_CHANNELS).setNextValue(this.restoredChannels);
+	}
+
+	private <T> void markStale(Channel<T> channel) {
+		StaleChannel<T> stale = new StaleChannel<>(channel);
+		channel.onSetNextValue(stale);
+		this.staleChannels.put(channel, stale);
+	}
+
+	@Override
+	public void handleEvent(Event event) {
+		if (!this.isEnabled()) {
+			return;
+		}
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_PROCESS_IMAGE:
+			long now = System.currentTimeMillis();
+			this.updateStaleChannels(now);
+			Future<?> writeFuture = this.writeFuture;
+			if (now - this.lastWrite >= this.interval * 1000L && (writeFuture == null || writeFuture.isDone())) {
+				this.lastWrite = now;
+				List<byte[]> blocks = this.serializeAll();
+				this.writeFuture = this.runtime.schedule(() -> this.writeSnapshot(blocks), 0, TimeUnit.MILLISECONDS);
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Releases Channels that received a real value; resets the remaining ones
+	 * after the stale timeout.
+	 *
+	 * @param now the current time in epoch milliseconds
+	 */
+	private void updateStaleChannels(long now) {
+		if (this.staleChannels.isEmpty()) {
+			return;
+		}
+		boolean isTimeout = now - this.activatedAt >= this.staleTimeout * 1000L;
+		Iterator<StaleChannel<?>> iterator = this.staleChannels.values().iterator();
+		while (iterator.hasNext()) {
+			StaleChannel<?> stale = iterator.next();
+			if (stale.isRefreshed || isTimeout) {
+				iterator.remove();
+				stale.release();
+				if (!stale.isRefreshed) {
+					stale.channel.setNextValue(null);
+				}
+			}
+		}
+		if (isTimeout) {
+			// nothing left to restore
+			this.restoreValues = null;
+		}
+		this.channel(ChannelId.STALE_CHANNELS).setNextValue(this.staleChannels.size());
+	}
+
+	private List<byte[]> serializeAll() {
+		Map<String, byte[]> blocks = new ConcurrentHashMap<>(this.retainedBlocks);
+		for (OpenemsComponent component : this.components) {
+			if (!component.isEnabled()) {
+				continue;
+			}
+			byte[] block = this.serialize(component);
+			if (block != null) {
+				blocks.put(component.id(), block);
+			} else {
+				blocks.remove(component.id());
+			}
+		}
+		return new ArrayList<>(blocks.values());
+	}
+
+	private byte[] serialize(OpenemsComponent component) {
+		return SnapshotFile.serialize(component,
+				channel -> isPersisted(channel) && !this.staleChannels.containsKey(channel));
+	}
+
+	private void writeSnapshot(List<byte[]> blocks) {
+		if (this.file == null) {
+			// the framework provides no file system support
+			return;
+		}
+		try {
+			SnapshotFile.write(this.file, System.currentTimeMillis(), blocks);
+		} catch (IOException e) {
+			this.logWarn(this.log, "Unable to write snapshot: " + e.getMessage());
+		}
+	}
+
+	private static boolean isPersisted(Channel<?> channel) {
+		return !(channel instanceof StateChannel) && !(channel instanceof StateCollectorChannel);
+	}
+
+	@Override
+	public String debugLog() {
+		int stale = this.staleChannels.size();
+		if (stale == 0) {
+			return null;
+		}
+		return "Stale:" + stale;
+	}
+}
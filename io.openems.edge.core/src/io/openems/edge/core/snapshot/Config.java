@@ -0,0 +1,21 @@
+package io.openems.edge.core.snapshot;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition( //
+		name = "Core Channel Snapshot", //
+		description = "Persists the last known Channel values and restores them as stale values at startup. Disabled by default.")
+@interface Config {
+
+	boolean enabled() default false;
+
+	@AttributeDefinition(name = "Interval", description = "Interval for writing the snapshot in seconds; it is always written at shutdown.")
+	int interval() default 300;
+
+	@AttributeDefinition(name = "Maximum age", description = "Snapshots older than this are not restored; in seconds.")
+	int maxAge() default 3600;
+
+	@AttributeDefinition(name = "Stale timeout", description = "Restored values that were not updated within this time after startup are reset to undefined; in seconds.")
+	int staleTimeout() default 120;
+}
@@ -0,0 +1,215 @@
+package io.openems.edge.core.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.component.OpenemsComponent;
+
+/**
+ * Reads and writes the compact binary snapshot file.
+ *
+ * <p>
+ * The file consists of a header (magic, version, timestamp, number of
+ * Components) and one block per Component. Blocks are serialized separately,
+ * so that the block of a Component that was already deactivated can be kept
+ * until the next snapshot is written.
+ */
+class SnapshotFile {
+
+	private final static int MAGIC = 0x4F454D53; // "OEMS"
+	private final static int VERSION = 1;
+	private final static OpenemsType[] TYPES = OpenemsType.values();
+
+	/**
+	 * The content of a snapshot file.
+	 */
+	static class Snapshot {
+		final long timestamp;
+		final Map<String, Map<String, Object>> values;
+
+		private Snapshot(long timestamp, Map<String, Map<String, Object>> values) {
+			this.timestamp = timestamp;
+			this.values = values;
+		}
+
+		/**
+		 * Gets the age of the snapshot.
+		 *
+		 * @param now the current time in epoch milliseconds
+		 * @return the age in [ms]; negative if the snapshot is from the future
+		 */
+		long getAge(long now) {
+			return now - this.timestamp;
+		}
+
+		/**
+		 * Checks whether the snapshot may be restored.
+		 *
+		 * @param now    the current time in epoch milliseconds
+		 * @param maxAge the maximum age in [s]
+		 * @return true if the snapshot is not older than maxAge and not from the
+		 *         future
+		 */
+		boolean isValid(long now, int maxAge) {
+			long age = this.getAge(now);
+			return age >= 0 && age <= maxAge * 1000L;
+		}
+	}
+
+	private SnapshotFile() {
+	}
+
+	/**
+	 * Serializes the values of the Channels of a Component. Restored values are
+	 * never serialized.
+	 *
+	 * @param component the Component
+	 * @param filter    only Channels that match the filter are serialized
+	 * @return the block or null if there is no value
+	 */
+	static byte[] serialize(OpenemsComponent component, Predicate<Channel<?>> filter) {
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		int count = 0;
+		try (DataOutputStream out = new DataOutputStream(block)) {
+			out.writeUTF(component.id());
+			ByteArrayOutputStream entries = new ByteArrayOutputStream();
+			DataOutputStream entriesOut = new DataOutputStream(entries);
+			for (Channel<?> channel : component.channels()) {
+				Object value = channel.value().get();
+				if (value == null || channel.value().isRestored() || !filter.test(channel)) {
+					continue;
+				}
+				entriesOut.writeUTF(channel.channelId().id());
+				entriesOut.writeByte(channel.getType().ordinal());
+				switch (channel.getType()) {
+				case BOOLEAN:
+					entriesOut.writeBoolean((Boolean) value);
+					break;
+				case SHORT:
+					entriesOut.writeShort((Short) value);
+					break;
+				case INTEGER:
+					entriesOut.writeInt((Integer) value);
+					break;
+				case LONG:
+					entriesOut.writeLong((Long) value);
+					break;
+				case FLOAT:
+					entriesOut.writeFloat((Float) value);
+					break;
+				case DOUBLE:
+					entriesOut.writeDouble((Double) value);
+					break;
+				case STRING:
+					entriesOut.writeUTF((String) value);
+					break;
+				}
+				count++;
+			}
+			out.writeInt(count);
+			entries.writeTo(out);
+		} catch (IOException | ClassCastException e) {
+			// ByteArrayOutputStream does not throw; values always match the type of the
+			// Channel
+			return null;
+		}
+		return count == 0 ? null : block.toByteArray();
+	}
+
+	/**
+	 * Writes the snapshot file. The file is replaced atomically; concurrent
+	 * writes are serialized.
+	 *
+	 * @param file      the file
+	 * @param timestamp the time of the snapshot in epoch milliseconds
+	 * @param blocks    the blocks as created by
+	 *                  {@link #serialize(OpenemsComponent, Predicate)}
+	 * @throws IOException on error
+	 */
+	static synchronized void write(File file, long timestamp, Collection<byte[]> blocks) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(timestamp);
+			out.writeInt(blocks.size());
+			for (byte[] block : blocks) {
+				out.write(block);
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the snapshot file.
+	 *
+	 * @param file the file
+	 * @return the Snapshot or null if the file does not exist
+	 * @throws IOException on error, e.g. if the file is corrupt
+	 */
+	static Snapshot read(File file) throws IOException {
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Unknown file format");
+			}
+			long timestamp = in.readLong();
+			int components = in.readInt();
+			Map<String, Map<String, Object>> result = new HashMap<>();
+			for (int i = 0; i < components; i++) {
+				String componentId = in.readUTF();
+				int count = in.readInt();
+				Map<String, Object> values = new HashMap<>();
+				for (int j = 0; j < count; j++) {
+					String channelId = in.readUTF();
+					int type = in.readByte();
+					if (type < 0 || type >= TYPES.length) {
+						throw new IOException("Unknown type [" + type + "]");
+					}
+					switch (TYPES[type]) {
+					case BOOLEAN:
+						values.put(channelId, in.readBoolean());
+						break;
+					case SHORT:
+						values.put(channelId, in.readShort());
+						break;
+					case INTEGER:
+						values.put(channelId, in.readInt());
+						break;
+					case LONG:
+						values.put(channelId, in.readLong());
+						break;
+					case FLOAT:
+						values.put(channelId, in.readFloat());
+						break;
+					case DOUBLE:
+						values.put(channelId, in.readDouble());
+						break;
+					case STRING:
+						values.put(channelId, in.readUTF());
+						break;
+					}
+				}
+				result.put(componentId, values);
+			}
+			return new Snapshot(timestamp, result);
+		}
+	}
+}
@@ -412,6 +412,7 @@ public class Sum extends AbstractOpenemsComponent implements OpenemsComponent, M
 		this.gridActivePower.removeComponent(meter);
 		this.gridMinActivePower.removeComponent(meter);
 		this.gridMaxActivePower.removeComponent(meter);
+		this.productionAcActivePower.removeComponent(meter);
 		this.productionMaxAcActivePower.removeComponent(meter);
 	}
 
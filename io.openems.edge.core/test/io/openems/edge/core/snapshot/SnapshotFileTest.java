@@ -0,0 +1,148 @@
+package io.openems.edge.core.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.FloatReadChannel;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.StringReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.core.snapshot.SnapshotFile.Snapshot;
+
+public class SnapshotFileTest {
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		INTEGER(new Doc().type(OpenemsType.INTEGER)), //
+		FLOAT(new Doc().type(OpenemsType.FLOAT)), //
+		STRING(new Doc().type(OpenemsType.STRING));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyComponent extends AbstractOpenemsComponent {
+
+		private final IntegerReadChannel integer = new IntegerReadChannel(this, TestChannelId.INTEGER);
+		private final FloatReadChannel floating = new FloatReadChannel(this, TestChannelId.FLOAT);
+		private final StringReadChannel string = new StringReadChannel(this, TestChannelId.STRING);
+
+		public DummyComponent(String id) {
+			this.addChannel(this.integer);
+			this.addChannel(this.floating);
+			this.addChannel(this.string);
+			super.activate(null, "", id, true);
+		}
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		DummyComponent component0 = new DummyComponent("component0");
+		component0.integer.setNextValue(42);
+		component0.floating.setNextValue(1.5f);
+		component0.integer.nextProcessImage();
+		component0.floating.nextProcessImage();
+		// the string Channel has no value and is not serialized
+		DummyComponent component1 = new DummyComponent("component1");
+		component1.string.setNextValue("foo");
+		component1.string.nextProcessImage();
+
+		File file = new File(this.folder.getRoot(), "channels.snapshot");
+		SnapshotFile.write(file, 1000, Arrays.asList( //
+				SnapshotFile.serialize(component0, channel -> true), //
+				SnapshotFile.serialize(component1, channel -> true)));
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+
+		Snapshot snapshot = SnapshotFile.read(file);
+		assertEquals(1000, snapshot.timestamp);
+		assertEquals(2, snapshot.values.size());
+		Map<String, Object> values = snapshot.values.get("component0");
+		assertEquals(2, values.size());
+		assertEquals(42, values.get("Integer"));
+		assertEquals(1.5f, values.get("Float"));
+		assertEquals("foo", snapshot.values.get("component1").get("String"));
+	}
+
+	@Test
+	public void testSerializeSkipsRestoredValues() {
+		DummyComponent component = new DummyComponent("component0");
+		component.integer.setRestoredNextValue(42);
+		component.integer.nextProcessImage();
+		assertTrue(component.integer.value().isRestored());
+		assertNull(SnapshotFile.serialize(component, channel -> true));
+
+		// a real value replaces the restored one
+		component.integer.setNextValue(42);
+		component.integer.nextProcessImage();
+		assertFalse(component.integer.value().isRestored());
+		assertNotNull(SnapshotFile.serialize(component, channel -> true));
+	}
+
+	@Test
+	public void testMaxAge() throws IOException {
+		File file = new File(this.folder.getRoot(), "channels.snapshot");
+		SnapshotFile.write(file, 1_000_000, Arrays.asList());
+		Snapshot snapshot = SnapshotFile.read(file);
+
+		assertTrue(snapshot.isValid(1_000_000 + 3_600_000, 3600));
+		assertFalse(snapshot.isValid(1_000_000 + 3_600_001, 3600));
+		// snapshots from the future are never valid
+		assertFalse(snapshot.isValid(999_999, 3600));
+	}
+
+	@Test
+	public void testMissingFile() throws IOException {
+		assertNull(SnapshotFile.read(new File(this.folder.getRoot(), "missing.snapshot")));
+		assertNull(SnapshotFile.read(null));
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptFile() throws IOException {
+		DummyComponent component = new DummyComponent("component0");
+		component.string.setNextValue("foo");
+		component.string.nextProcessImage();
+		File file = new File(this.folder.getRoot(), "channels.snapshot");
+		SnapshotFile.write(file, 1000, Arrays.asList(SnapshotFile.serialize(component, channel -> true)));
+
+		// cut the file within the block
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 2);
+		}
+		SnapshotFile.read(file);
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownFormat() throws IOException {
+		File file = this.folder.newFile("channels.snapshot");
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.writeInt(0x12345678);
+			raf.writeInt(1);
+		}
+		SnapshotFile.read(file);
+	}
+}
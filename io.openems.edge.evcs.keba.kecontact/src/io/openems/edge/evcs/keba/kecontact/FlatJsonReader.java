@@ -0,0 +1,199 @@
+package io.openems.edge.evcs.keba.kecontact;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a flat JSON object like the reports of KEBA KeContact directly from a
+ * ByteBuffer, without building a JSON tree.
+ *
+ * <p>
+ * Every member is passed to the {@link Handler} as positions in the buffer;
+ * numeric values (and strings that contain an integer) are parsed to a long
+ * without allocating. Nested objects and arrays are not supported.
+ */
+public class FlatJsonReader {
+
+	public interface Handler {
+		/**
+		 * Called for every member of the object.
+		 *
+		 * @param buffer      the buffer
+		 * @param keyStart    start of the key
+		 * @param keyLength   length of the key
+		 * @param valueStart  start of the value; without quotes for strings
+		 * @param valueLength length of the value; 0 for null
+		 * @param isNumber    whether the value is an integer number
+		 * @param number      the value as number, if isNumber is true
+		 */
+		public void onValue(ByteBuffer buffer, int keyStart, int keyLength, int valueStart, int valueLength,
+				boolean isNumber, long number);
+	}
+
+	private FlatJsonReader() {
+	}
+
+	/**
+	 * Reads the object between position and limit of the buffer. The position of
+	 * the buffer is not modified.
+	 *
+	 * @param buffer  the buffer
+	 * @param handler the Handler
+	 * @return false if the message is not a valid flat JSON object
+	 */
+	public static boolean read(ByteBuffer buffer, Handler handler) {
+		int limit = buffer.limit();
+		int i = skipWhitespace(buffer, buffer.position(), limit);
+		if (i >= limit || buffer.get(i) != '{') {
+			return false;
+		}
+		i = skipWhitespace(buffer, i + 1, limit);
+		if (i < limit && buffer.get(i) == '}') {
+			return true;
+		}
+		while (i < limit) {
+			// key
+			if (buffer.get(i) != '"') {
+				return false;
+			}
+			int keyStart = i + 1;
+			int keyEnd = findQuote(buffer, keyStart, limit);
+			if (keyEnd < 0) {
+				return false;
+			}
+			i = skipWhitespace(buffer, keyEnd + 1, limit);
+			if (i >= limit || buffer.get(i) != ':') {
+				return false;
+			}
+			i = skipWhitespace(buffer, i + 1, limit);
+			if (i >= limit) {
+				return false;
+			}
+
+			// value
+			int valueStart;
+			int valueEnd;
+			byte b = buffer.get(i);
+			if (b == '"') {
+				valueStart = i + 1;
+				valueEnd = findQuote(buffer, valueStart, limit);
+				if (valueEnd < 0) {
+					return false;
+				}
+				i = valueEnd + 1;
+			} else if (b == '{' || b == '[') {
+				return false;
+			} else {
+				valueStart = i;
+				while (i < limit && (b = buffer.get(i)) != ',' && b != '}' && !isWhitespace(b)) {
+					i++;
+				}
+				valueEnd = i;
+				if (valueEnd - valueStart == 4 && buffer.get(valueStart) == 'n') {
+					// null
+					valueEnd = valueStart;
+				}
+			}
+			handleValue(buffer, handler, keyStart, keyEnd - keyStart, valueStart, valueEnd - valueStart);
+
+			// next member
+			i = skipWhitespace(buffer, i, limit);
+			if (i >= limit) {
+				return false;
+			}
+			b = buffer.get(i);
+			if (b == '}') {
+				return true;
+			} else if (b != ',') {
+				return false;
+			}
+			i = skipWhitespace(buffer, i + 1, limit);
+		}
+		return false;
+	}
+
+	/**
+	 * Compares a region of the buffer with an ASCII String.
+	 *
+	 * @param buffer the buffer
+	 * @param start  the start of the region
+	 * @param length the length of the region
+	 * @param value  the String
+	 * @return true if equal
+	 */
+	public static boolean equals(ByteBuffer buffer, int start, int length, String value) {
+		if (length != value.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(start + i) != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a region of the buffer as String.
+	 *
+	 * @param buffer the buffer
+	 * @param start  the start of the region
+	 * @param length the length of the region
+	 * @return the String
+	 */
+	public static String toString(ByteBuffer buffer, int start, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) (buffer.get(start + i) & 0xff);
+		}
+		return new String(chars);
+	}
+
+	private static void handleValue(ByteBuffer buffer, Handler handler, int keyStart, int keyLength, int valueStart,
+			int valueLength) {
+		// try to parse an integer; a fraction is cut off
+		long number = 0;
+		boolean isNumber = valueLength > 0;
+		boolean isNegative = false;
+		boolean isFraction = false;
+		for (int i = 0; i < valueLength && isNumber; i++) {
+			byte b = buffer.get(valueStart + i);
+			if (b >= '0' && b <= '9') {
+				if (!isFraction) {
+					number = number * 10 + (b - '0');
+				}
+			} else if (b == '-' && i == 0 && valueLength > 1) {
+				isNegative = true;
+			} else if (b == '.' && i > 0 && !isFraction) {
+				isFraction = true;
+			} else {
+				isNumber = false;
+			}
+		}
+		handler.onValue(buffer, keyStart, keyLength, valueStart, valueLength, isNumber,
+				isNegative ? -number : number);
+	}
+
+	private static int findQuote(ByteBuffer buffer, int start, int limit) {
+		for (int i = start; i < limit; i++) {
+			byte b = buffer.get(i);
+			if (b == '\\') {
+				i++;
+			} else if (b == '"') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int skipWhitespace(ByteBuffer buffer, int start, int limit) {
+		int i = start;
+		while (i < limit && isWhitespace(buffer.get(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+}
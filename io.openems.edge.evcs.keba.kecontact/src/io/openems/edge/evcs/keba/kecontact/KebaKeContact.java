@@ -1,11 +1,7 @@
 package io.openems.edge.evcs.keba.kecontact;
 
-import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
-import java.net.SocketException;
 import java.net.UnknownHostException;
 
 import org.osgi.service.component.ComponentContext;
@@ -43,7 +39,6 @@ public class KebaKeContact extends AbstractOpenemsComponent implements Evcs, Ope
 	public final static int UDP_PORT = 7090;
 
 	private final Logger log = LoggerFactory.getLogger(KebaKeContact.class);
-	private final ReadWorker readWorker = new ReadWorker(this);
 	private final ReadHandler readHandler = new ReadHandler(this);
 	private final WriteHandler writeHandler = new WriteHandler(this);
 
@@ -164,22 +159,17 @@ public class KebaKeContact extends AbstractOpenemsComponent implements Evcs, Ope
 		this.ip = Inet4Address.getByName(config.ip());
 
 		/*
-		 * subscribe on replies to report queries
+		 * subscribe on replies to report queries; reports are queried by the core
 		 */
-		this.kebaKeContactCore.onReceive((ip, message) -> {
-			if (ip.equals(this.ip)) { // same IP -> handle message
-				this.readHandler.accept(message);
-			}
-		});
-
-		// start queryWorker
-		this.readWorker.activate(this.id() + "query");
+		this.kebaKeContactCore.register(this.ip, this.readHandler);
 	}
 
 	@Deactivate
 	protected void deactivate() {
 		super.deactivate();
-		this.readWorker.deactivate();
+		if (this.ip != null) {
+			this.kebaKeContactCore.unregister(this.ip, this.readHandler);
+		}
 	}
 
 	@Override
@@ -199,33 +189,15 @@ public class KebaKeContact extends AbstractOpenemsComponent implements Evcs, Ope
 	 * @return
 	 */
 	protected boolean send(String s) {
-		byte[] raw = s.getBytes();
-		DatagramPacket packet = new DatagramPacket(raw, raw.length, ip, KebaKeContact.UDP_PORT);
-		DatagramSocket dSocket = null;
-		try {
-			dSocket = new DatagramSocket();
-			this.logInfo(this.log, "Sending message to KEBA KeContact [" + s + "]");
-			dSocket.send(packet);
-			return true;
-		} catch (SocketException e) {
-			this.logError(this.log, "Unable to open UDP socket for sending [" + s + "] to [" + ip.getHostAddress()
-					+ "]: " + e.getMessage());
-		} catch (IOException e) {
-			this.logError(this.log,
-					"Unable to send [" + s + "] UDP message to [" + ip.getHostAddress() + "]: " + e.getMessage());
-		} finally {
-			if (dSocket != null) {
-				dSocket.close();
-			}
-		}
-		return false;
+		this.logInfo(this.log, "Sending message to KEBA KeContact [" + s + "]");
+		return this.kebaKeContactCore.send(this.ip, s);
 	}
 
 	/**
 	 * Triggers an immediate execution of query reports
 	 */
 	protected void triggerQuery() {
-		this.readWorker.triggerForceRun();
+		this.kebaKeContactCore.triggerQuery(this.ip);
 	}
 
 	@Override
@@ -1,145 +1,201 @@
 package io.openems.edge.evcs.keba.kecontact;
 
-import java.util.Optional;
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-
-import io.openems.common.exceptions.OpenemsException;
-import io.openems.common.utils.JsonUtils;
+import io.openems.edge.common.channel.Channel;
 
 /**
- * Handles replys to Report Querys sent by {@link ReadWorker}
+ * Handles replys to Report Querys sent by the KebaKeContactCore
  *
+ * <p>
+ * Messages are read with the {@link FlatJsonReader} and the values are set
+ * directly on the Channels.
  */
-public class ReadHandler implements Consumer<String> {
+public class ReadHandler implements Consumer<ByteBuffer>, FlatJsonReader.Handler {
+
+	private enum Type {
+		STRING, INTEGER, BOOLEAN
+	}
+
+	/**
+	 * The known members of the KEBA reports
+	 */
+	private enum Member {
+		/*
+		 * Reply to report 1
+		 */
+		PRODUCT("Product", KebaKeContact.ChannelId.PRODUCT, Type.STRING, 1, false), //
+		SERIAL("Serial", KebaKeContact.ChannelId.SERIAL, Type.STRING, 1, false), //
+		FIRMWARE("Firmware", KebaKeContact.ChannelId.FIRMWARE, Type.STRING, 1, false), //
+		COM_MODULE("COM-module", KebaKeContact.ChannelId.COM_MODULE, Type.STRING, 1, false), //
+		/*
+		 * Reply to report 2
+		 */
+		STATUS("State", KebaKeContact.ChannelId.STATUS, Type.INTEGER, 2, true), //
+		ERROR_1("Error1", KebaKeContact.ChannelId.ERROR_1, Type.INTEGER, 2, false), //
+		ERROR_2("Error2", KebaKeContact.ChannelId.ERROR_2, Type.INTEGER, 2, false), //
+		PLUG("Plug", KebaKeContact.ChannelId.PLUG, Type.INTEGER, 2, true), //
+		ENABLE_SYS("Enable sys", KebaKeContact.ChannelId.ENABLE_SYS, Type.BOOLEAN, 2, true), //
+		ENABLE_USER("Enable user", KebaKeContact.ChannelId.ENABLE_USER, Type.BOOLEAN, 2, false), //
+		MAX_CURR("Max curr", KebaKeContact.ChannelId.MAX_CURR, Type.INTEGER, 2, true), //
+		MAX_CURR_PERCENT("Max curr %", KebaKeContact.ChannelId.MAX_CURR_PERCENT, Type.INTEGER, 2, false), //
+		CURR_HARDWARE("Curr HW", KebaKeContact.ChannelId.CURR_HARDWARE, Type.INTEGER, 2, false), //
+		CURR_USER("Curr user", KebaKeContact.ChannelId.CURR_USER, Type.INTEGER, 2, false), //
+		CURR_FAILSAFE("Curr FS", KebaKeContact.ChannelId.CURR_FAILSAFE, Type.INTEGER, 2, false), //
+		TIMEOUT_FAILSAFE("Tmo FS", KebaKeContact.ChannelId.TIMEOUT_FAILSAFE, Type.INTEGER, 2, false), //
+		CURR_TIMER("Curr timer", KebaKeContact.ChannelId.CURR_TIMER, Type.INTEGER, 2, false), //
+		TIMEOUT_CT("Tmo CT", KebaKeContact.ChannelId.TIMEOUT_CT, Type.INTEGER, 2, false), //
+		ENERGY_LIMIT("Setenergy", KebaKeContact.ChannelId.ENERGY_LIMIT, Type.INTEGER, 2, false), //
+		OUTPUT("Output", KebaKeContact.ChannelId.OUTPUT, Type.BOOLEAN, 2, false), //
+		INPUT("Input", KebaKeContact.ChannelId.INPUT, Type.BOOLEAN, 2, true), //
+		/*
+		 * Reply to report 3
+		 */
+		VOLTAGE_L1("U1", KebaKeContact.ChannelId.VOLTAGE_L1, Type.INTEGER, 3, false), //
+		VOLTAGE_L2("U2", KebaKeContact.ChannelId.VOLTAGE_L2, Type.INTEGER, 3, false), //
+		VOLTAGE_L3("U3", KebaKeContact.ChannelId.VOLTAGE_L3, Type.INTEGER, 3, false), //
+		CURRENT_L1("I1", KebaKeContact.ChannelId.CURRENT_L1, Type.INTEGER, 3, false), //
+		CURRENT_L2("I2", KebaKeContact.ChannelId.CURRENT_L2, Type.INTEGER, 3, false), //
+		CURRENT_L3("I3", KebaKeContact.ChannelId.CURRENT_L3, Type.INTEGER, 3, false), //
+		ACTUAL_POWER("P", KebaKeContact.ChannelId.ACTUAL_POWER, Type.INTEGER, 3, false), //
+		COS_PHI("PF", KebaKeContact.ChannelId.COS_PHI, Type.INTEGER, 3, false), //
+		ENERGY_SESSION("E pres", KebaKeContact.ChannelId.ENERGY_SESSION, Type.INTEGER, 3, true), //
+		ENERGY_TOTAL("E total", KebaKeContact.ChannelId.ENERGY_TOTAL, Type.INTEGER, 3, false);
+
+		private final String key;
+		private final KebaKeContact.ChannelId channelId;
+		private final Type type;
+		/**
+		 * The report that contains this member
+		 */
+		private final int report;
+		/**
+		 * Whether this member is also sent via UDP broadcast (message without ID)
+		 */
+		private final boolean isBroadcast;
+
+		private Member(String key, KebaKeContact.ChannelId channelId, Type type, int report, boolean isBroadcast) {
+			this.key = key;
+			this.channelId = channelId;
+			this.type = type;
+			this.report = report;
+			this.isBroadcast = isBroadcast;
+		}
+	}
+
+	private final static Member[] MEMBERS = Member.values();
 
 	private final Logger log = LoggerFactory.getLogger(ReadHandler.class);
 	private final KebaKeContact parent;
 
+	/**
+	 * The Channel per Member; initialized on first use
+	 */
+	private final Channel<?>[] channels = new Channel<?>[MEMBERS.length];
+
+	/*
+	 * State of the message that is currently handled. Messages are handled one
+	 * after the other by the receive thread of the Core.
+	 */
+	private final boolean[] isSet = new boolean[MEMBERS.length];
+	private int report = 0;
+	private boolean isIdPass = false;
+
 	public ReadHandler(KebaKeContact parent) {
 		this.parent = parent;
 	}
 
 	@Override
-	public void accept(String message) {
-		if (message.startsWith("TCH-OK")) {
+	public void accept(ByteBuffer message) {
+		if (startsWith(message, "TCH-OK")) {
 			log.debug("KEBA confirmed reception of command: TCH-OK");
 			this.parent.triggerQuery();
 
-		} else if (message.startsWith("TCH-ERR")) {
+		} else if (startsWith(message, "TCH-ERR")) {
 			log.warn("KEBA reported command error: TCH-ERR");
 			this.parent.triggerQuery();
 
 		} else {
-			JsonElement jMessageElement;
-			try {
-				jMessageElement = JsonUtils.parse(message);
-			} catch (OpenemsException e) {
-				log.error("Error while parsing KEBA message: " + e.getMessage());
+			// first pass: find the ID of the report
+			this.report = 0;
+			this.isIdPass = true;
+			if (!FlatJsonReader.read(message, this)) {
+				log.error("Error while parsing KEBA message: "
+						+ FlatJsonReader.toString(message, message.position(), message.remaining()));
 				return;
 			}
-			JsonObject jMessage = jMessageElement.getAsJsonObject();
-			// JsonUtils.prettyPrint(jMessage);
-			Optional<String> idOpt = JsonUtils.getAsOptionalString(jMessage, "ID");
-			if (idOpt.isPresent()) {
-				// message with ID
-				String id = idOpt.get();
-				if (id.equals("1")) {
-					/*
-					 * Reply to report 1
-					 */
-					setString(KebaKeContact.ChannelId.PRODUCT, jMessage, "Product");
-					setString(KebaKeContact.ChannelId.SERIAL, jMessage, "Serial");
-					setString(KebaKeContact.ChannelId.FIRMWARE, jMessage, "Firmware");
-					setString(KebaKeContact.ChannelId.COM_MODULE, jMessage, "COM-module");
-
-				} else if (id.equals("2")) {
-					/*
-					 * Reply to report 2
-					 */
-					setString(KebaKeContact.ChannelId.STATUS, jMessage, "State");
-					setString(KebaKeContact.ChannelId.ERROR_1, jMessage, "Error1");
-					setString(KebaKeContact.ChannelId.ERROR_2, jMessage, "Error2");
-					setInt(KebaKeContact.ChannelId.PLUG, jMessage, "Plug");
-					setBoolean(KebaKeContact.ChannelId.ENABLE_SYS, jMessage, "Enable sys");
-					setBoolean(KebaKeContact.ChannelId.ENABLE_USER, jMessage, "Enable user");
-					setInt(KebaKeContact.ChannelId.MAX_CURR, jMessage, "Max curr");
-					setInt(KebaKeContact.ChannelId.MAX_CURR_PERCENT, jMessage, "Max curr %");
-					setInt(KebaKeContact.ChannelId.CURR_HARDWARE, jMessage, "Curr HW");
-					setInt(KebaKeContact.ChannelId.CURR_USER, jMessage, "Curr user");
-					setInt(KebaKeContact.ChannelId.CURR_FAILSAFE, jMessage, "Curr FS");
-					setInt(KebaKeContact.ChannelId.TIMEOUT_FAILSAFE, jMessage, "Tmo FS");
-					setInt(KebaKeContact.ChannelId.CURR_TIMER, jMessage, "Curr timer");
-					setInt(KebaKeContact.ChannelId.TIMEOUT_CT, jMessage, "Tmo CT");
-					setInt(KebaKeContact.ChannelId.ENERGY_LIMIT, jMessage, "Setenergy");
-					setBoolean(KebaKeContact.ChannelId.OUTPUT, jMessage, "Output");
-					setBoolean(KebaKeContact.ChannelId.INPUT, jMessage, "Input");
-
-				} else if (id.equals("3")) {
-					/*
-					 * Reply to report 3
-					 */
-					setInt(KebaKeContact.ChannelId.VOLTAGE_L1, jMessage, "U1");
-					setInt(KebaKeContact.ChannelId.VOLTAGE_L2, jMessage, "U2");
-					setInt(KebaKeContact.ChannelId.VOLTAGE_L3, jMessage, "U3");
-					setInt(KebaKeContact.ChannelId.CURRENT_L1, jMessage, "I1");
-					setInt(KebaKeContact.ChannelId.CURRENT_L2, jMessage, "I2");
-					setInt(KebaKeContact.ChannelId.CURRENT_L3, jMessage, "I3");
-					setInt(KebaKeContact.ChannelId.ACTUAL_POWER, jMessage, "P");
-					setInt(KebaKeContact.ChannelId.COS_PHI, jMessage, "PF");
-					setInt(KebaKeContact.ChannelId.ENERGY_SESSION, jMessage, "E pres");
-					setInt(KebaKeContact.ChannelId.ENERGY_TOTAL, jMessage, "E total");
-				}
 
-			} else {
-				/*
-				 * message without ID -> UDP broadcast
-				 */
-				if (jMessage.has("State")) {
-					setInt(KebaKeContact.ChannelId.STATUS, jMessage, "State");
-				}
-				if (jMessage.has("Plug")) {
-					setInt(KebaKeContact.ChannelId.PLUG, jMessage, "Plug");
-				}
-				if (jMessage.has("Input")) {
-					setBoolean(KebaKeContact.ChannelId.INPUT, jMessage, "Input");
-				}
-				if (jMessage.has("Enable sys")) {
-					setBoolean(KebaKeContact.ChannelId.ENABLE_SYS, jMessage, "Enable sys");
-				}
-				if (jMessage.has("Max curr")) {
-					setInt(KebaKeContact.ChannelId.MAX_CURR, jMessage, "Max curr");
-				}
-				if (jMessage.has("E pres")) {
-					setInt(KebaKeContact.ChannelId.ENERGY_SESSION, jMessage, "E pres");
+			// second pass: set the values
+			this.isIdPass = false;
+			for (int i = 0; i < this.isSet.length; i++) {
+				this.isSet[i] = false;
+			}
+			FlatJsonReader.read(message, this);
+
+			if (this.report != 0) {
+				// reply to report: members that were not contained are reset
+				for (int i = 0; i < MEMBERS.length; i++) {
+					if (MEMBERS[i].report == this.report && !this.isSet[i]) {
+						this.getChannel(i).setNextValue(null);
+					}
 				}
 			}
 		}
 	}
 
-	private void set(KebaKeContact.ChannelId channelId, Object value) {
-		this.parent.channel(channelId).setNextValue(value);
-	}
-
-	private void setString(KebaKeContact.ChannelId channelId, JsonObject jMessage, String name) {
-		set(channelId, JsonUtils.getAsOptionalString(jMessage, name).orElse(null));
+	@Override
+	public void onValue(ByteBuffer buffer, int keyStart, int keyLength, int valueStart, int valueLength,
+			boolean isNumber, long number) {
+		if (this.isIdPass) {
+			if (isNumber && FlatJsonReader.equals(buffer, keyStart, keyLength, "ID")) {
+				this.report = (int) number;
+			}
+			return;
+		}
+		for (int i = 0; i < MEMBERS.length; i++) {
+			Member member = MEMBERS[i];
+			if (!FlatJsonReader.equals(buffer, keyStart, keyLength, member.key)) {
+				continue;
+			}
+			if (this.report != 0 ? member.report != this.report : !member.isBroadcast) {
+				// not expected in this message
+				return;
+			}
+			Object value;
+			switch (member.type) {
+			case STRING:
+				value = valueLength == 0 ? null : FlatJsonReader.toString(buffer, valueStart, valueLength);
+				break;
+			case INTEGER:
+				value = isNumber ? (Integer) (int) number : null;
+				break;
+			case BOOLEAN:
+				value = isNumber ? (Boolean) (number == 1) : null;
+				break;
+			default:
+				value = null;
+			}
+			this.getChannel(i).setNextValue(value);
+			this.isSet[i] = true;
+			return;
+		}
 	}
 
-	private void setInt(KebaKeContact.ChannelId channelId, JsonObject jMessage, String name) {
-		set(channelId, JsonUtils.getAsOptionalInt(jMessage, name).orElse(null));
+	private Channel<?> getChannel(int index) {
+		Channel<?> channel = this.channels[index];
+		if (channel == null) {
+			channel = this.parent.channel(MEMBERS[index].channelId);
+			this.channels[index] = channel;
+		}
+		return channel;
 	}
 
-	private void setBoolean(KebaKeContact.ChannelId channelId, JsonObject jMessage, String name) {
-		Optional<Integer> enableSysOpt = JsonUtils.getAsOptionalInt(jMessage, name);
-		if (enableSysOpt.isPresent()) {
-			set(channelId, enableSysOpt.get() == 1);
-		} else {
-			set(channelId, null);
-		}
+	private static boolean startsWith(ByteBuffer message, String prefix) {
+		return message.remaining() >= prefix.length()
+				&& FlatJsonReader.equals(message, message.position(), prefix.length(), prefix);
 	}
 }
@@ -1,16 +1,47 @@
 package io.openems.edge.evcs.keba.kecontact.core;
 
 import java.net.InetAddress;
-import java.util.function.BiConsumer;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
 public interface KebaKeContactCore {
 
 	/**
-	 * Callback on receive of a message. InetAddress is the address of the sending
-	 * EVCS, String is the message.
-	 * 
-	 * @param callback
+	 * Registers a charging station. Messages received from its InetAddress are
+	 * passed to the callback and its reports are queried regularly.
+	 *
+	 * <p>
+	 * The ByteBuffer contains exactly one message between position and limit. It
+	 * is reused for the next message, so the callback must not keep a reference to
+	 * it.
+	 *
+	 * @param ip       the address of the charging station
+	 * @param callback the callback on receive of a message
 	 */
-	public void onReceive(BiConsumer<InetAddress, String> callback);
+	public void register(InetAddress ip, Consumer<ByteBuffer> callback);
+
+	/**
+	 * Unregisters a charging station.
+	 *
+	 * @param ip       the address of the charging station
+	 * @param callback the callback that was registered
+	 */
+	public void unregister(InetAddress ip, Consumer<ByteBuffer> callback);
+
+	/**
+	 * Sends a UDP message to a charging station. Returns true if sent successfully
+	 *
+	 * @param ip      the address of the charging station
+	 * @param message the message
+	 * @return
+	 */
+	public boolean send(InetAddress ip, String message);
+
+	/**
+	 * Triggers an immediate query of all reports of a charging station.
+	 *
+	 * @param ip the address of the charging station
+	 */
+	public void triggerQuery(InetAddress ip);
 
 }
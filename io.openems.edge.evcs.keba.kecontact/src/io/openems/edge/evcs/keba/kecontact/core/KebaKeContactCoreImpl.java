@@ -1,13 +1,21 @@
 package io.openems.edge.evcs.keba.kecontact.core;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.BiConsumer;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -16,79 +24,233 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.openems.common.exceptions.OpenemsException;
-import io.openems.edge.common.worker.AbstractImmediateWorker;
 import io.openems.edge.evcs.keba.kecontact.KebaKeContact;
 
+/**
+ * Handles the UDP communication with all KEBA KeContact charging stations.
+ *
+ * <p>
+ * One {@link DatagramChannel} on {@link KebaKeContact#UDP_PORT} is used for
+ * sending and receiving. Received messages are read into one reusable buffer
+ * and passed only to the charging station with the sending address. The report
+ * queries of all charging stations are scheduled on one timer.
+ */
 @Component( //
 		name = "Evcs.Keba.KeContact.Core", //
 		immediate = false)
 public class KebaKeContactCoreImpl implements KebaKeContactCore {
 
+	private final static int REPORT_1_SECONDS = 6 * 60 * 60; // 6 hours
+	private final static int REPORT_2_SECONDS = 60 * 60; // 1 hour
+	private final static int REPORT_3_SECONDS = 10 * 60; // 10 minutes
+
+	private final static int MAX_MESSAGE_LENGTH = 1500;
+
 	private final Logger log = LoggerFactory.getLogger(KebaKeContactCoreImpl.class);
-	private final List<BiConsumer<InetAddress, String>> onReceiveCallbacks = new CopyOnWriteArrayList<>();
-	private ReceiveWorker receiveWorker = null;
+
+	private final Map<InetAddress, Station> stations = new ConcurrentHashMap<>();
+
+	/**
+	 * Reusable buffers. The receive buffer is only accessed by the receive thread;
+	 * the send buffer is guarded by 'this'.
+	 */
+	private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_MESSAGE_LENGTH);
+	private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_MESSAGE_LENGTH);
+
+	private DatagramChannel channel = null;
+	private Selector selector = null;
+	private Thread receiveThread = null;
+	private final ScheduledExecutorService timer = Executors
+			.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "kebaCoreQuery"));
+	private volatile boolean isRunning = false;
 
 	@Activate
 	void activate() throws OpenemsException {
-		this.receiveWorker = new ReceiveWorker(KebaKeContact.UDP_PORT);
-		this.receiveWorker.activate("kebaCore");
+		try {
+			this.channel = DatagramChannel.open();
+			this.channel.socket().setReuseAddress(true);
+			this.channel.bind(new InetSocketAddress(KebaKeContact.UDP_PORT));
+			this.channel.configureBlocking(false);
+			this.selector = Selector.open();
+			this.channel.register(this.selector, SelectionKey.OP_READ);
+		} catch (IOException e) {
+			this.close();
+			throw new OpenemsException("Unable to open port [" + KebaKeContact.UDP_PORT
+					+ "] to receive UDP messages from KEBA KeContact: " + e.getMessage());
+		}
+		this.isRunning = true;
+		this.receiveThread = new Thread(this::receive, "kebaCore");
+		this.receiveThread.start();
+		this.timer.scheduleWithFixedDelay(this::queryReports, 0, 1, TimeUnit.SECONDS);
+		log.info("Started Evcs.Keba.KeContact.Core listener on port [" + KebaKeContact.UDP_PORT + "]");
 	}
 
 	@Deactivate
 	protected void deactivate() {
-		if (this.receiveWorker != null) {
-			this.receiveWorker.deactivate();
+		this.isRunning = false;
+		this.timer.shutdownNow();
+		if (this.selector != null) {
+			this.selector.wakeup();
+		}
+		if (this.receiveThread != null) {
+			try {
+				this.receiveThread.join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
 		}
+		this.close();
+		log.info("Stopped Evcs.Keba.KeContact.Core listener on port [" + KebaKeContact.UDP_PORT + "]");
 	}
 
-	@Override
-	public void onReceive(BiConsumer<InetAddress, String> callback) {
-		this.onReceiveCallbacks.add(callback);
+	private void close() {
+		try {
+			if (this.selector != null) {
+				this.selector.close();
+			}
+			if (this.channel != null) {
+				this.channel.close();
+			}
+		} catch (IOException e) {
+			log.warn("Unable to close Evcs.Keba.KeContact.Core listener: " + e.getMessage());
+		}
 	}
 
-	private class ReceiveWorker extends AbstractImmediateWorker {
+	@Override
+	public void register(InetAddress ip, Consumer<ByteBuffer> callback) {
+		this.stations.put(ip, new Station(ip, callback));
+		this.triggerQuery(ip);
+	}
 
-		private final DatagramSocket socket;
+	@Override
+	public void unregister(InetAddress ip, Consumer<ByteBuffer> callback) {
+		this.stations.computeIfPresent(ip, (key, station) -> station.callback == callback ? null : station);
+	}
 
-		private ReceiveWorker(int port) throws OpenemsException {
-			try {
-				this.socket = new DatagramSocket(port);
-			} catch (SocketException e) {
-				throw new OpenemsException("Unable to open port [" + port
-						+ "] to receive UDP messages from KEBA KeContact: " + e.getMessage());
+	@Override
+	public synchronized boolean send(InetAddress ip, String message) {
+		Station station = this.stations.get(ip);
+		SocketAddress address = station != null ? station.address
+				: new InetSocketAddress(ip, KebaKeContact.UDP_PORT);
+		if (message.length() > this.sendBuffer.capacity()) {
+			log.error("Unable to send [" + message + "] UDP message to [" + ip.getHostAddress() + "]: too long");
+			return false;
+		}
+		this.sendBuffer.clear();
+		for (int i = 0; i < message.length(); i++) {
+			this.sendBuffer.put((byte) message.charAt(i));
+		}
+		this.sendBuffer.flip();
+		try {
+			if (this.channel.send(this.sendBuffer, address) == 0) {
+				log.error("Unable to send [" + message + "] UDP message to [" + ip.getHostAddress()
+						+ "]: send buffer is full");
+				return false;
 			}
+			log.debug("Sent message to KEBA KeContact [" + ip.getHostAddress() + "]: " + message);
+			return true;
+		} catch (IOException e) {
+			log.error("Unable to send [" + message + "] UDP message to [" + ip.getHostAddress() + "]: "
+					+ e.getMessage());
+			return false;
 		}
+	}
 
-		@Override
-		public void activate(String name) {
-			super.activate(name);
-			log.info("Started Evcs.Keba.KeContact.Core listener on port [" + KebaKeContact.UDP_PORT + "]");
+	@Override
+	public void triggerQuery(InetAddress ip) {
+		Station station = this.stations.get(ip);
+		if (station == null) {
+			return;
+		}
+		// reset times for next report query
+		long now = System.nanoTime();
+		station.nextReport1 = now;
+		station.nextReport2 = now;
+		station.nextReport3 = now;
+		try {
+			this.timer.execute(this::queryReports);
+		} catch (RejectedExecutionException e) {
+			// not running; reports are queried after start
 		}
+	}
 
-		@Override
-		public void deactivate() {
-			super.deactivate();
-			log.info("Stopped Evcs.Keba.KeContact.Core listener on port [" + KebaKeContact.UDP_PORT + "]");
+	/**
+	 * Sends the report queries that are due. Executed by the timer thread.
+	 */
+	private void queryReports() {
+		long now = System.nanoTime();
+		for (Station station : this.stations.values()) {
+			if (station.nextReport1 - now <= 0) {
+				station.nextReport1 = now + TimeUnit.SECONDS.toNanos(REPORT_1_SECONDS);
+				this.send(station.ip, "report 1");
+			}
+			if (station.nextReport2 - now <= 0) {
+				station.nextReport2 = now + TimeUnit.SECONDS.toNanos(REPORT_2_SECONDS);
+				this.send(station.ip, "report 2");
+			}
+			if (station.nextReport3 - now <= 0) {
+				station.nextReport3 = now + TimeUnit.SECONDS.toNanos(REPORT_3_SECONDS);
+				this.send(station.ip, "report 3");
+			}
 		}
+	}
 
-		@Override
-		protected void forever() {
-			// Wait for message
-			DatagramPacket packet = new DatagramPacket(new byte[512], 512);
+	/**
+	 * Receives messages until the Core is deactivated. Executed by the receive
+	 * thread.
+	 */
+	private void receive() {
+		while (this.isRunning) {
 			try {
-				socket.receive(packet);
-			} catch (IOException e) {
-				log.error("Error while receiving data from KEBA KeContact: " + e.getMessage());
+				this.selector.select();
+				this.selector.selectedKeys().clear();
+				while (true) {
+					this.receiveBuffer.clear();
+					SocketAddress source = this.channel.receive(this.receiveBuffer);
+					if (source == null) {
+						// no more messages
+						break;
+					}
+					this.receiveBuffer.flip();
+					Station station = this.stations.get(((InetSocketAddress) source).getAddress());
+					if (station == null) {
+						continue;
+					}
+					try {
+						station.callback.accept(this.receiveBuffer);
+					} catch (Throwable e) {
+						log.error("Error while handling message from KEBA KeContact [" + source + "]: "
+								+ e.getMessage());
+					}
+				}
+			} catch (IOException | ClosedSelectorException e) {
+				if (this.isRunning) {
+					log.error("Error while receiving data from KEBA KeContact: " + e.getMessage());
+				}
 			}
+		}
+	}
+
+	/**
+	 * A registered charging station.
+	 */
+	private static class Station {
+		private final InetAddress ip;
+		private final SocketAddress address;
+		private final Consumer<ByteBuffer> callback;
 
-			// Read message
-			InetAddress ip = packet.getAddress();
-			int len = packet.getLength();
-			byte[] data = packet.getData();
-			String message = new String(data, 0, len);
+		/*
+		 * System.nanoTime of the next report queries; only accessed by the timer
+		 * thread, except for resetting them in triggerQuery
+		 */
+		private volatile long nextReport1 = System.nanoTime();
+		private volatile long nextReport2 = System.nanoTime();
+		private volatile long nextReport3 = System.nanoTime();
 
-			// call callbacks
-			onReceiveCallbacks.forEach(consumer -> consumer.accept(ip, message));
+		private Station(InetAddress ip, Consumer<ByteBuffer> callback) {
+			this.ip = ip;
+			this.address = new InetSocketAddress(ip, KebaKeContact.UDP_PORT);
+			this.callback = callback;
 		}
 	}
 
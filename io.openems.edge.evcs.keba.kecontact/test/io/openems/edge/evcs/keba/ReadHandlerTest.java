@@ -0,0 +1,55 @@
+package io.openems.edge.evcs.keba;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import io.openems.edge.evcs.keba.kecontact.KebaKeContact;
+import io.openems.edge.evcs.keba.kecontact.ReadHandler;
+
+public class ReadHandlerTest {
+
+	private static Object get(KebaKeContact keba, KebaKeContact.ChannelId channelId) {
+		return keba.channel(channelId).getNextValue().get();
+	}
+
+	@Test
+	public void testReport() {
+		KebaKeContact keba = new KebaKeContact();
+		ReadHandler handler = new ReadHandler(keba);
+
+		handler.accept(ByteBuffer.wrap(("{\n\"ID\": \"3\",\n\"U1\": 230,\n\"I1\": -12,\n\"PF\": 998,\n"
+				+ "\"E pres\": 1234,\n\"Serial\": \"ignored\"\n}").getBytes(StandardCharsets.US_ASCII)));
+		assertEquals(230, get(keba, KebaKeContact.ChannelId.VOLTAGE_L1));
+		assertEquals(-12, get(keba, KebaKeContact.ChannelId.CURRENT_L1));
+		assertEquals(1234, get(keba, KebaKeContact.ChannelId.ENERGY_SESSION));
+		// missing in report
+		assertNull(get(keba, KebaKeContact.ChannelId.VOLTAGE_L2));
+		// not part of report 3
+		assertNull(get(keba, KebaKeContact.ChannelId.SERIAL));
+
+		handler.accept(ByteBuffer.wrap(
+				"{\"ID\": \"1\", \"Product\": \"KC-P30-ES240022-E0R\", \"Serial\": \"15017355\"}"
+						.getBytes(StandardCharsets.US_ASCII)));
+		assertEquals("KC-P30-ES240022-E0R", get(keba, KebaKeContact.ChannelId.PRODUCT));
+		assertEquals("15017355", get(keba, KebaKeContact.ChannelId.SERIAL));
+	}
+
+	@Test
+	public void testBroadcast() {
+		KebaKeContact keba = new KebaKeContact();
+		ReadHandler handler = new ReadHandler(keba);
+
+		handler.accept(ByteBuffer.wrap("{\"Plug\": 7}".getBytes(StandardCharsets.US_ASCII)));
+		assertEquals(7, get(keba, KebaKeContact.ChannelId.PLUG));
+
+		handler.accept(ByteBuffer.wrap("{\"Enable sys\": 1}".getBytes(StandardCharsets.US_ASCII)));
+		assertEquals(true, get(keba, KebaKeContact.ChannelId.ENABLE_SYS));
+		// other values are kept
+		assertEquals(7, get(keba, KebaKeContact.ChannelId.PLUG));
+	}
+}
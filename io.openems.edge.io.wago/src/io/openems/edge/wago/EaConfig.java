@@ -0,0 +1,243 @@
+package io.openems.edge.wago;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * The module layout of a WAGO Fieldbus Coupler as parsed from its
+ * ea-config.xml file, together with a hash of that file.
+ *
+ * <p>
+ * The layout can be stored in and restored from a cache file, so that the
+ * Modbus protocol can be created without waiting for the coupler.
+ */
+public class EaConfig {
+
+	private final static int CONNECT_TIMEOUT = 5_000; // [ms]
+	private final static int READ_TIMEOUT = 10_000; // [ms]
+	private final static String HASH_PREFIX = "# ";
+	private final static String SEPARATOR = "\t";
+
+	/**
+	 * Represents one XML "Module" element inside the WAGO ea-config.xml file.
+	 */
+	public static class Module {
+		public final String artikelnr;
+		public final String moduleType;
+		public final FieldbusModuleKanal[] kanals;
+
+		public Module(String artikelnr, String moduleType, FieldbusModuleKanal[] kanals) {
+			this.artikelnr = artikelnr;
+			this.moduleType = moduleType;
+			this.kanals = kanals;
+		}
+	}
+
+	private final String hash;
+	private final List<Module> modules;
+
+	private EaConfig(String hash, List<Module> modules) {
+		this.hash = hash;
+		this.modules = Collections.unmodifiableList(modules);
+	}
+
+	/**
+	 * Gets the SHA-256 hash of the ea-config.xml file.
+	 *
+	 * @return the hash in hex format
+	 */
+	public String getHash() {
+		return this.hash;
+	}
+
+	public List<Module> getModules() {
+		return this.modules;
+	}
+
+	/**
+	 * Downloads the ea-config.xml file from WAGO fieldbus coupler
+	 *
+	 * @param ip
+	 * @param username
+	 * @param password
+	 * @return the EaConfig
+	 * @throws SAXException
+	 * @throws IOException
+	 * @throws ParserConfigurationException
+	 */
+	public static EaConfig download(InetAddress ip, String username, String password)
+			throws SAXException, IOException, ParserConfigurationException {
+		URL url = new URL("http://" + ip.getHostAddress() + "/etc/ea-config.xml");
+		String authStr = username + ":" + password;
+		byte[] bytesEncoded = Base64.getEncoder().encode(authStr.getBytes());
+		String authEncoded = new String(bytesEncoded);
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestProperty("Authorization", "Basic " + authEncoded);
+		connection.setRequestProperty("Content-Type", "text/xml");
+		connection.setRequestMethod("GET");
+		connection.setConnectTimeout(CONNECT_TIMEOUT);
+		connection.setReadTimeout(READ_TIMEOUT);
+		connection.connect();
+		ByteArrayOutputStream xml = new ByteArrayOutputStream();
+		try (InputStream is = connection.getInputStream()) {
+			byte[] buffer = new byte[4096];
+			int length;
+			while ((length = is.read(buffer)) != -1) {
+				xml.write(buffer, 0, length);
+			}
+		} finally {
+			connection.disconnect();
+		}
+		return EaConfig.parse(xml.toByteArray());
+	}
+
+	/**
+	 * Parses the ea-config.xml file
+	 *
+	 * @param xml the content of the file
+	 * @return the EaConfig
+	 * @throws SAXException
+	 * @throws IOException
+	 * @throws ParserConfigurationException
+	 */
+	public static EaConfig parse(byte[] xml) throws SAXException, IOException, ParserConfigurationException {
+		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+		DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+		Document doc = dBuilder.parse(new ByteArrayInputStream(xml));
+		doc.getDocumentElement().normalize();
+
+		List<Module> result = new ArrayList<>();
+		Element wagoElement = doc.getDocumentElement();
+		// parse all "Module" XML elements
+		NodeList moduleNodes = wagoElement.getElementsByTagName("Module");
+		for (int i = 0; i < moduleNodes.getLength(); i++) {
+			Node moduleNode = moduleNodes.item(i);
+			if (moduleNode.getNodeType() != Node.ELEMENT_NODE) {
+				continue;
+			}
+			// get "Module" node attributes
+			NamedNodeMap moduleAttrs = moduleNode.getAttributes();
+			String moduleArtikelnr = moduleAttrs.getNamedItem("ARTIKELNR").getNodeValue();
+			String moduleType = moduleAttrs.getNamedItem("MODULETYPE").getNodeValue();
+			Element moduleElement = (Element) moduleNode;
+			// parse all "Kanal" XML elements inside the "Module" element
+			NodeList kanalNodes = moduleElement.getElementsByTagName("Kanal");
+			List<FieldbusModuleKanal> kanals = new ArrayList<>();
+			for (int j = 0; j < kanalNodes.getLength(); j++) {
+				Node kanalNode = kanalNodes.item(j);
+				if (kanalNode.getNodeType() != Node.ELEMENT_NODE) {
+					continue;
+				}
+				NamedNodeMap kanalAttrs = kanalNode.getAttributes();
+				String channelName = kanalAttrs.getNamedItem("CHANNELNAME").getNodeValue();
+				String channelType = kanalAttrs.getNamedItem("CHANNELTYPE").getNodeValue();
+				kanals.add(new FieldbusModuleKanal(channelName, channelType));
+			}
+			result.add(new Module(moduleArtikelnr, moduleType,
+					kanals.toArray(new FieldbusModuleKanal[kanals.size()])));
+		}
+		return new EaConfig(EaConfig.hash(xml), result);
+	}
+
+	/**
+	 * Reads an EaConfig from a cache file.
+	 *
+	 * @param file the cache file
+	 * @return the EaConfig or null if the file does not exist or is invalid
+	 */
+	public static EaConfig read(File file) {
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null || !line.startsWith(HASH_PREFIX)) {
+				return null;
+			}
+			String hash = line.substring(HASH_PREFIX.length());
+			List<Module> modules = new ArrayList<>();
+			while ((line = reader.readLine()) != null) {
+				// ARTIKELNR, MODULETYPE, [CHANNELNAME, CHANNELTYPE]...
+				String[] values = line.split(SEPARATOR, -1);
+				if (values.length < 2 || values.length % 2 != 0) {
+					return null;
+				}
+				FieldbusModuleKanal[] kanals = new FieldbusModuleKanal[values.length / 2 - 1];
+				for (int i = 0; i < kanals.length; i++) {
+					kanals[i] = new FieldbusModuleKanal(values[2 + i * 2], values[3 + i * 2]);
+				}
+				modules.add(new Module(values[0], values[1], kanals));
+			}
+			return new EaConfig(hash, modules);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes this EaConfig to a cache file. The file is replaced atomically.
+	 *
+	 * @param file the cache file
+	 * @throws IOException on error
+	 */
+	public void write(File file) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(HASH_PREFIX + this.hash);
+			writer.newLine();
+			for (Module module : this.modules) {
+				StringBuilder b = new StringBuilder() //
+						.append(module.artikelnr).append(SEPARATOR) //
+						.append(module.moduleType);
+				for (FieldbusModuleKanal kanal : module.kanals) {
+					b.append(SEPARATOR).append(kanal.name).append(SEPARATOR).append(kanal.type);
+				}
+				writer.write(b.toString());
+				writer.newLine();
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static String hash(byte[] xml) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(xml);
+			StringBuilder b = new StringBuilder();
+			for (byte d : digest) {
+				b.append(String.format("%02x", d));
+			}
+			return b.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is required on every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -1,21 +1,18 @@
 package io.openems.edge.wago;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.common.channel.BooleanReadChannel;
 
 public class Fieldbus400DI2Ch extends FieldbusModule {
 
-	private final static AtomicInteger count = new AtomicInteger(0);
 	private final static String ID_TEMPLATE = "DIGITAL_INPUT_M";
 
 	private final AbstractModbusElement<?>[] inputElements;
 	private final AbstractModbusElement<?>[] outputElements;
 	private final BooleanReadChannel[] readChannels;
 
-	public Fieldbus400DI2Ch(Wago parent, int inputOffset, int outputOffset) {
-		String id = ID_TEMPLATE + count.incrementAndGet();
+	public Fieldbus400DI2Ch(Wago parent, int number, int inputOffset, int outputOffset) {
+		String id = ID_TEMPLATE + number;
 
 		BooleanReadChannel channel1 = new BooleanReadChannel(parent, new FieldbusChannel(id + "_C1"));
 		BooleanReadChannel channel2 = new BooleanReadChannel(parent, new FieldbusChannel(id + "_C2"));
@@ -1,22 +1,19 @@
 package io.openems.edge.wago;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.common.channel.BooleanReadChannel;
 import io.openems.edge.common.channel.BooleanWriteChannel;
 
 public class Fieldbus501DO2Ch extends FieldbusModule {
 
-	private final static AtomicInteger count = new AtomicInteger(0);
 	private final static String ID_TEMPLATE = "DIGITAL_OUTPUT_M";
 
 	private final AbstractModbusElement<?>[] inputElements;
 	private final AbstractModbusElement<?>[] outputElements;
 	private final BooleanReadChannel[] readChannels;
 
-	public Fieldbus501DO2Ch(Wago parent, int inputOffset, int outputOffset) {
-		String id = ID_TEMPLATE + count.incrementAndGet();
+	public Fieldbus501DO2Ch(Wago parent, int number, int inputOffset, int outputOffset) {
+		String id = ID_TEMPLATE + number;
 
 		BooleanWriteChannel channel1 = new BooleanWriteChannel(parent, new FieldbusChannel(id + "_C1"));
 		BooleanWriteChannel channel2 = new BooleanWriteChannel(parent, new FieldbusChannel(id + "_C2"));
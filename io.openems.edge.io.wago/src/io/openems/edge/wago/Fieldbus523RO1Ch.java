@@ -1,7 +1,5 @@
 package io.openems.edge.wago;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.bridge.modbus.api.element.DummyCoilElement;
 import io.openems.edge.common.channel.BooleanReadChannel;
@@ -9,15 +7,14 @@ import io.openems.edge.common.channel.BooleanWriteChannel;
 
 public class Fieldbus523RO1Ch extends FieldbusModule {
 
-	private final static AtomicInteger count = new AtomicInteger(0);
 	private final static String ID_TEMPLATE = "RELAY_M";
 
 	private final AbstractModbusElement<?>[] inputElements;
 	private final AbstractModbusElement<?>[] outputElements;
 	private final BooleanReadChannel[] readChannels;
 
-	public Fieldbus523RO1Ch(Wago parent, int inputOffset, int outputOffset) {
-		String id = ID_TEMPLATE + count.incrementAndGet();
+	public Fieldbus523RO1Ch(Wago parent, int number, int inputOffset, int outputOffset) {
+		String id = ID_TEMPLATE + number;
 
 		BooleanWriteChannel channel1 = new BooleanWriteChannel(parent, new FieldbusChannel(id));
 		BooleanReadChannel channel2 = new BooleanReadChannel(parent, new FieldbusChannel(id + "_HAND"));
@@ -5,22 +5,35 @@ import io.openems.edge.common.channel.BooleanReadChannel;
 
 public abstract class FieldbusModule {
 
+	/**
+	 * Creates a FieldbusModule.
+	 * 
+	 * @param parent          the Wago component
+	 * @param moduleArtikelnr the article number from ea-config.xml
+	 * @param moduleType      the module type from ea-config.xml
+	 * @param kanals          the channels from ea-config.xml
+	 * @param number          the number of this module among the modules of the
+	 *                        same type, starting at 1; part of the Channel-IDs
+	 * @param inputOffset     the first coil in the input process image
+	 * @param outputOffset    the first coil in the output process image
+	 * @return the FieldbusModule
+	 */
 	public static FieldbusModule of(Wago parent, String moduleArtikelnr, String moduleType,
-			FieldbusModuleKanal[] kanals, int inputOffset, int outputOffset) {
+			FieldbusModuleKanal[] kanals, int number, int inputOffset, int outputOffset) {
 		switch (moduleArtikelnr) {
 		case "750-4xx":
 			switch (moduleType) {
 			case "DI":
-				return new Fieldbus400DI2Ch(parent, inputOffset, outputOffset);
+				return new Fieldbus400DI2Ch(parent, number, inputOffset, outputOffset);
 			}
 			break;
 
 		case "750-5xx":
 			switch (moduleType) {
 			case "DO/DIA":
-				return new Fieldbus523RO1Ch(parent, inputOffset, outputOffset);
+				return new Fieldbus523RO1Ch(parent, number, inputOffset, outputOffset);
 			case "DO":
-				return new Fieldbus501DO2Ch(parent, inputOffset, outputOffset);
+				return new Fieldbus501DO2Ch(parent, number, inputOffset, outputOffset);
 			}
 			break;
 		}
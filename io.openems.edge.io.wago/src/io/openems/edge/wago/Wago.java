@@ -1,13 +1,12 @@
 package io.openems.edge.wago;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.InetAddress;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
@@ -15,8 +14,6 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.osgi.service.cm.ConfigurationAdmin;
@@ -32,11 +29,6 @@ import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.osgi.service.metatype.annotations.Designate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 import io.openems.edge.bridge.modbus.api.AbstractOpenemsModbusComponent;
@@ -44,6 +36,7 @@ import io.openems.edge.bridge.modbus.api.BridgeModbusTcp;
 import io.openems.edge.bridge.modbus.api.ModbusProtocol;
 import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
 import io.openems.edge.bridge.modbus.api.element.CoilElement;
+import io.openems.edge.bridge.modbus.api.element.DummyCoilElement;
 import io.openems.edge.bridge.modbus.api.task.FC1ReadCoilsTask;
 import io.openems.edge.bridge.modbus.api.task.FC5WriteCoilTask;
 import io.openems.edge.common.channel.BooleanReadChannel;
@@ -61,12 +54,19 @@ public class Wago extends AbstractOpenemsModbusComponent implements DigitalOutpu
 	private final Logger log = LoggerFactory.getLogger(Wago.class);
 
 	private final static int UNIT_ID = 1;
+	private final static int OUTPUT_OFFSET = 512;
+	private final static int MAX_COILS_PER_REQUEST = 2000;
+	private final static int MAX_GAP = 16; // [coils]
+	private final static int REVALIDATE_DELAY = 10; // [s]
+	private final static String CACHE_FILE_PREFIX = "ea-config-";
+	private final static String CACHE_FILE_SUFFIX = ".cache";
 
 	@Reference
 	protected ConfigurationAdmin cm;
 
+	private BridgeModbusTcp modbus = null;
 	private InetAddress ipAddress = null;
-	private ModbusProtocol protocol = null;
+	private volatile ModbusProtocol protocol = null;
 	private CopyOnWriteArrayList<FieldbusModule> modules = new CopyOnWriteArrayList<FieldbusModule>();
 
 	public Wago() {
@@ -76,6 +76,7 @@ public class Wago extends AbstractOpenemsModbusComponent implements DigitalOutpu
 	@Reference(policy = ReferencePolicy.STATIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MANDATORY)
 	protected void setModbus(BridgeModbusTcp modbus) {
 		super.setModbus(modbus);
+		this.modbus = modbus;
 		this.ipAddress = modbus.getIpAddress();
 	}
 
@@ -86,90 +87,75 @@ public class Wago extends AbstractOpenemsModbusComponent implements DigitalOutpu
 	void activate(ComponentContext context, Config config) {
 		super.activate(context, config.service_pid(), config.id(), config.enabled(), UNIT_ID, this.cm, "Modbus",
 				config.modbus_id());
+		if (!this.isEnabled() || this.protocol == null) {
+			return;
+		}
+
 		/*
-		 * Async Create Channels dynamically from ea-config.xml file
+		 * Create Channels immediately from the cached ea-config.xml layout of this
+		 * coupler
 		 */
-		this.configFuture = configExecutor.schedule(() -> {
+		File cacheFile = context.getBundleContext()
+				.getDataFile(CACHE_FILE_PREFIX + this.ipAddress.getHostAddress() + CACHE_FILE_SUFFIX);
+		EaConfig cachedEaConfig = EaConfig.read(cacheFile);
+		if (cachedEaConfig != null) {
 			try {
-				Document doc = Wago.downloadEaConfigXml(this.ipAddress, config.username(), config.password());
-				this.modules.addAll(this.parseXml(doc));
-				this.createProtocolFromModules(this.modules);
-			} catch (SAXException | IOException | ParserConfigurationException e) {
-				e.printStackTrace();
+				this.modules.addAll(this.createModules(cachedEaConfig));
+				this.createProtocolFromModules(this.modules, this.protocol);
+			} catch (IllegalArgumentException e) {
+				this.logWarn(this.log, "Ignoring cached ea-config.xml: " + e.getMessage());
+				cachedEaConfig = null;
 			}
-		}, 2, TimeUnit.SECONDS);
-	}
+		}
+		final EaConfig cached = cachedEaConfig;
 
-	/**
-	 * Downloads the ea-config.xml file from WAGO fieldbus coupler
-	 * 
-	 * @param ip
-	 * @param username
-	 * @param password
-	 * @return
-	 * @throws SAXException
-	 * @throws IOException
-	 * @throws ParserConfigurationException
-	 */
-	private static Document downloadEaConfigXml(InetAddress ip, String username, String password)
-			throws SAXException, IOException, ParserConfigurationException {
-		URL url = new URL("http://" + ip.getHostAddress() + "/etc/ea-config.xml");
-		String authStr = username + ":" + password;
-		byte[] bytesEncoded = Base64.getEncoder().encode(authStr.getBytes());
-		String authEncoded = new String(bytesEncoded);
-		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-		connection.setRequestProperty("Authorization", "Basic " + authEncoded);
-		connection.setRequestProperty("Content-Type", "text/xml");
-		connection.setRequestMethod("GET");
-		connection.connect();
-		InputStream is = connection.getInputStream();
-		DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-		Document doc = dBuilder.parse(is);
-		doc.getDocumentElement().normalize();
-		return doc;
+		/*
+		 * Async download the ea-config.xml file and (re)create Channels dynamically,
+		 * if it changed
+		 */
+		this.configFuture = configExecutor.schedule(() -> {
+			try {
+				EaConfig eaConfig = EaConfig.download(this.ipAddress, config.username(), config.password());
+				if (cached != null && cached.getHash().equals(eaConfig.getHash())) {
+					// cache is still valid
+					return;
+				}
+				List<FieldbusModule> modules = this.createModules(eaConfig);
+				if (cacheFile != null) {
+					eaConfig.write(cacheFile);
+				}
+				if (cached == null) {
+					this.modules.addAll(modules);
+					this.createProtocolFromModules(this.modules, this.protocol);
+				} else {
+					this.logWarn(this.log, "Module layout changed. Replacing Modbus protocol.");
+					this.replaceModules(modules);
+				}
+			} catch (SAXException | IOException | ParserConfigurationException | IllegalArgumentException e) {
+				this.logError(this.log, "Unable to read ea-config.xml: " + e.getClass().getSimpleName() + ": "
+						+ e.getMessage());
+			}
+		}, cached == null ? 0 : REVALIDATE_DELAY, TimeUnit.SECONDS);
 	}
 
 	/**
-	 * Parses the ea-config.xml file
+	 * Creates the FieldbusModules for a module layout. Modules of the same type
+	 * are numbered by their position in the layout, so the same layout always
+	 * gets the same Channel-IDs.
 	 * 
-	 * @param doc
+	 * @param eaConfig
 	 * @return a list of FieldbusModules
 	 */
-	private List<FieldbusModule> parseXml(Document doc) {
+	protected List<FieldbusModule> createModules(EaConfig eaConfig) {
 		List<FieldbusModule> result = new ArrayList<>();
-		Element wagoElement = doc.getDocumentElement();
+		Map<String, Integer> numbers = new HashMap<>();
 		int inputOffset = 0;
-		int outputOffset = 512;
-
-		// parse all "Module" XML elements
-		NodeList moduleNodes = wagoElement.getElementsByTagName("Module");
-		for (int i = 0; i < moduleNodes.getLength(); i++) {
-			Node moduleNode = moduleNodes.item(i);
-			// get "Module" node attributes
-			NamedNodeMap moduleAttrs = moduleNode.getAttributes();
-			String moduleArtikelnr = moduleAttrs.getNamedItem("ARTIKELNR").getNodeValue();
-			String moduleType = moduleAttrs.getNamedItem("MODULETYPE").getNodeValue();
-			if (moduleNode.getNodeType() != Node.ELEMENT_NODE) {
-				continue;
-			}
-			Element moduleElement = (Element) moduleNode;
-			// parse all "Kanal" XML elements inside the "Module" element
-			NodeList kanalNodes = moduleElement.getElementsByTagName("Kanal");
-			FieldbusModuleKanal kanals[] = new FieldbusModuleKanal[kanalNodes.getLength()];
-			for (int j = 0; j < kanalNodes.getLength(); j++) {
-				Node kanalNode = kanalNodes.item(j);
-				if (kanalNode.getNodeType() != Node.ELEMENT_NODE) {
-					continue;
-				}
-				NamedNodeMap kanalAttrs = kanalNode.getAttributes();
-				String channelName = kanalAttrs.getNamedItem("CHANNELNAME").getNodeValue();
-				String channelType = kanalAttrs.getNamedItem("CHANNELTYPE").getNodeValue();
-				kanals[j] = new FieldbusModuleKanal(channelName, channelType);
-			}
+		int outputOffset = OUTPUT_OFFSET;
+		for (EaConfig.Module m : eaConfig.getModules()) {
+			int number = numbers.merge(m.artikelnr + "/" + m.moduleType, 1, Integer::sum);
 			// Create FieldbusModule instance using factory method
-			FieldbusModule module = FieldbusModule.of(this, moduleArtikelnr, moduleType, kanals, inputOffset,
-					outputOffset);
+			FieldbusModule module = FieldbusModule.of(this, m.artikelnr, m.moduleType, m.kanals, number,
+					inputOffset, outputOffset);
 			inputOffset += module.getInputCoils();
 			outputOffset += module.getOutputCoils();
 			result.add(module);
@@ -178,36 +164,101 @@ public class Wago extends AbstractOpenemsModbusComponent implements DigitalOutpu
 	}
 
 	/**
-	 * Takes a list of FieldbusModules and adds Modbus tasks to the protocol
+	 * Replaces the FieldbusModules with a new layout by registering a new
+	 * ModbusProtocol at the bridge. Channels of the old modules are removed,
+	 * unless a new module replaced them with a Channel of the same ID.
 	 * 
 	 * @param modules
 	 */
-	private void createProtocolFromModules(List<FieldbusModule> modules) {
-		List<AbstractModbusElement<?>> readElements0 = new ArrayList<>();
-		List<AbstractModbusElement<?>> readElements512 = new ArrayList<>();
+	protected void replaceModules(List<FieldbusModule> modules) {
+		ModbusProtocol protocol = new ModbusProtocol(this);
+		this.createProtocolFromModules(modules, protocol);
+		List<FieldbusModule> oldModules = new ArrayList<>(this.modules);
+		this.modules.clear();
+		this.modules.addAll(modules);
+		for (FieldbusModule module : oldModules) {
+			for (BooleanReadChannel channel : module.getChannels()) {
+				this.removeChannel(channel);
+			}
+		}
+		BridgeModbusTcp modbus = this.modbus;
+		if (modbus != null) {
+			modbus.removeProtocol(this.id());
+			modbus.addProtocol(this.id(), protocol);
+		}
+		this.protocol = protocol;
+	}
+
+	/**
+	 * Takes a list of FieldbusModules and adds Modbus tasks to the protocol. Read
+	 * elements of all modules are merged into as few FC1 Read Coils tasks as
+	 * possible.
+	 * 
+	 * @param modules
+	 * @param protocol
+	 */
+	private void createProtocolFromModules(List<FieldbusModule> modules, ModbusProtocol protocol) {
+		List<AbstractModbusElement<?>> readElements = new ArrayList<>();
 		for (FieldbusModule module : modules) {
 			for (AbstractModbusElement<?> element : module.getInputElements()) {
-				if (element.getStartAddress() > 511) {
-					readElements512.add(element);
-				} else {
-					readElements0.add(element);
-				}
+				readElements.add(element);
 			}
 			for (AbstractModbusElement<?> element : module.getOutputElements()) {
 				FC5WriteCoilTask writeCoilTask = new FC5WriteCoilTask(element.getStartAddress(), element);
-				this.protocol.addTask(writeCoilTask);
+				protocol.addTask(writeCoilTask);
 			}
 		}
-		if (!readElements0.isEmpty()) {
-			this.protocol.addTask( //
-					new FC1ReadCoilsTask(0, Priority.LOW,
-							readElements0.toArray(new AbstractModbusElement<?>[readElements0.size()])));
+		for (AbstractModbusElement<?>[] elements : this.groupReadElements(readElements)) {
+			protocol.addTask(new FC1ReadCoilsTask(elements[0].getStartAddress(), Priority.LOW, elements));
 		}
-		if (!readElements512.isEmpty()) {
-			this.protocol.addTask( //
-					new FC1ReadCoilsTask(512, Priority.LOW,
-							readElements512.toArray(new AbstractModbusElement<?>[readElements512.size()])));
+	}
+
+	/**
+	 * Groups coil elements into ranges that can be read with one request. Small
+	 * gaps are filled with DummyCoilElements; ranges never cross from the input
+	 * (0-511) to the output (512+) process image and never exceed the maximum
+	 * number of coils per request. Of elements with the same address only the
+	 * first one is read; the others are logged and ignored.
+	 * 
+	 * @param elements the coil elements
+	 * @return the elements per request, sorted by address
+	 */
+	protected List<AbstractModbusElement<?>[]> groupReadElements(List<AbstractModbusElement<?>> elements) {
+		List<AbstractModbusElement<?>> sorted = new ArrayList<>(elements);
+		sorted.sort((e1, e2) -> Integer.compare(e1.getStartAddress(), e2.getStartAddress()));
+		List<AbstractModbusElement<?>[]> result = new ArrayList<>();
+		List<AbstractModbusElement<?>> group = new ArrayList<>();
+		int groupStart = 0;
+		int nextAddress = 0;
+		for (AbstractModbusElement<?> element : sorted) {
+			int address = element.getStartAddress();
+			if (!group.isEmpty()) {
+				if (address < nextAddress) {
+					// duplicated address: keep the first element
+					this.logWarn(this.log, "Ignoring duplicated read of coil [" + element + "]");
+					continue;
+				}
+				int gap = address - nextAddress;
+				if (gap > MAX_GAP || (groupStart < OUTPUT_OFFSET) != (address < OUTPUT_OFFSET)
+						|| address + element.getLength() - groupStart > MAX_COILS_PER_REQUEST) {
+					result.add(group.toArray(new AbstractModbusElement<?>[group.size()]));
+					group.clear();
+				} else {
+					for (int i = nextAddress; i < address; i++) {
+						group.add(new DummyCoilElement(i));
+					}
+				}
+			}
+			if (group.isEmpty()) {
+				groupStart = address;
+			}
+			group.add(element);
+			nextAddress = address + element.getLength();
 		}
+		if (!group.isEmpty()) {
+			result.add(group.toArray(new AbstractModbusElement<?>[group.size()]));
+		}
+		return result;
 	}
 
 	protected AbstractModbusElement<?> createModbusElement(io.openems.edge.common.channel.doc.ChannelId channelId,
@@ -226,7 +277,7 @@ public class Wago extends AbstractOpenemsModbusComponent implements DigitalOutpu
 		super.deactivate();
 
 		// Shutdown executor
-		if (this.configExecutor != null) {
+		if (this.configFuture != null) {
 			this.configFuture.cancel(true);
 		}
 		try {
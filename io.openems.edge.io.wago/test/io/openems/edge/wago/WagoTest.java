@@ -0,0 +1,102 @@
+package io.openems.edge.wago;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.openems.edge.bridge.modbus.api.element.AbstractModbusElement;
+import io.openems.edge.bridge.modbus.api.element.CoilElement;
+import io.openems.edge.bridge.modbus.api.element.DummyCoilElement;
+import io.openems.edge.common.channel.BooleanReadChannel;
+import io.openems.edge.common.channel.Channel;
+
+public class WagoTest {
+
+	private final static String DI = "<Module ARTIKELNR=\"750-4xx\" MODULETYPE=\"DI\">" //
+			+ "<Kanal CHANNELNAME=\"M1_1\" CHANNELTYPE=\"DI\" /><Kanal CHANNELNAME=\"M1_2\" CHANNELTYPE=\"DI\" />" //
+			+ "</Module>";
+	private final static String DO = "<Module ARTIKELNR=\"750-5xx\" MODULETYPE=\"DO\">" //
+			+ "<Kanal CHANNELNAME=\"M2_1\" CHANNELTYPE=\"DO\" /><Kanal CHANNELNAME=\"M2_2\" CHANNELTYPE=\"DO\" />" //
+			+ "</Module>";
+
+	private static EaConfig eaConfig(String... modules) throws Exception {
+		StringBuilder b = new StringBuilder("<WAGO>");
+		for (String module : modules) {
+			b.append(module);
+		}
+		b.append("</WAGO>");
+		return EaConfig.parse(b.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<String> channelIds(List<FieldbusModule> modules) {
+		List<String> result = new ArrayList<>();
+		for (FieldbusModule module : modules) {
+			for (BooleanReadChannel channel : module.getChannels()) {
+				result.add(channel.channelId().id());
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testChannelIdsByPosition() throws Exception {
+		Wago wago = new Wago();
+		List<FieldbusModule> modules = wago.createModules(eaConfig(DI, DO, DI));
+		assertEquals(Arrays.asList("DigitalInputM1C1", "DigitalInputM1C2", "DigitalOutputM1C1", "DigitalOutputM1C2",
+				"DigitalInputM2C1", "DigitalInputM2C2"), channelIds(modules));
+
+		// the same layout gets the same IDs, also in another Component
+		assertEquals(channelIds(modules), channelIds(wago.createModules(eaConfig(DI, DO, DI))));
+		assertEquals(channelIds(modules), channelIds(new Wago().createModules(eaConfig(DI, DO, DI))));
+	}
+
+	@Test
+	public void testReplaceModules() throws Exception {
+		Wago wago = new Wago();
+		wago.replaceModules(wago.createModules(eaConfig(DI, DO)));
+		Channel<?> input = wago.channel("DigitalInputM1C1");
+		assertEquals(2, wago.digitalOutputChannels().length);
+
+		wago.replaceModules(wago.createModules(eaConfig(DI)));
+		// Channels of the removed module are gone
+		assertEquals(0, wago.digitalOutputChannels().length);
+		assertFalse(wago.channels().stream().anyMatch(c -> c.channelId().id().equals("DigitalOutputM1C1")));
+		// Channels with the same ID were replaced and not removed
+		Channel<?> newInput = wago.channel("DigitalInputM1C1");
+		assertNotSame(input, newInput);
+		assertSame(newInput, wago.digitalInputChannels()[0]);
+	}
+
+	@Test
+	public void testGroupReadElements() {
+		Wago wago = new Wago();
+		CoilElement duplicate = new CoilElement(1);
+		List<AbstractModbusElement<?>[]> groups = wago.groupReadElements(Arrays.asList( //
+				new CoilElement(3), new CoilElement(0), new CoilElement(1), duplicate, //
+				new CoilElement(40), // gap is too large
+				new CoilElement(512), new CoilElement(513) // output process image
+		));
+
+		assertEquals(3, groups.size());
+		AbstractModbusElement<?>[] group = groups.get(0);
+		assertEquals(4, group.length);
+		for (int i = 0; i < group.length; i++) {
+			assertEquals(i, group[i].getStartAddress());
+			assertNotSame(duplicate, group[i]);
+		}
+		assertTrue("gap is filled", group[2] instanceof DummyCoilElement);
+		assertEquals(1, groups.get(1).length);
+		assertEquals(40, groups.get(1)[0].getStartAddress());
+		assertEquals(2, groups.get(2).length);
+		assertEquals(512, groups.get(2)[0].getStartAddress());
+	}
+}
@@ -19,7 +19,10 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 
 	@AttributeDefinition(name = "Port", description = "The Port")
 	int port() default 81;
-	
+
+	@AttributeDefinition(name = "Pipeline depth", description = "Maximum number of requests that are sent at once; 1 disables pipelining")
+	int pipelineDepth() default 4;
+
 	boolean enabled() default true;
 
 	String webconsole_configurationFactory_nameHint() default "KOSTAL PIKO CORE[{id}]";
@@ -217,9 +217,9 @@ public class KostalPikoCoreImpl extends AbstractOpenemsComponent
 						FieldType.FLOAT, 0x0F00040F), //
 				new ReadTask(this, KostalPikoCore.ChannelId.DEGREE_OF_SELF_SUFFICIENCY_TOTAL, Priority.LOW,
 						FieldType.FLOAT, 0x0F000411), //
-				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L1, Priority.LOW, FieldType.FLOAT, 0x05000402), //
-				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L2, Priority.LOW, FieldType.FLOAT, 0x05000502), //
-				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L3, Priority.LOW, FieldType.FLOAT, 0x05000602), //
+				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L1, Priority.HIGH, FieldType.FLOAT, 0x05000402), //
+				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L2, Priority.HIGH, FieldType.FLOAT, 0x05000502), //
+				new ReadTask(this, KostalPikoCore.ChannelId.HOME_POWER_L3, Priority.HIGH, FieldType.FLOAT, 0x05000602), //
 				new ReadTask(this, KostalPikoCore.ChannelId.HOME_TOTAL_POWER, Priority.LOW, FieldType.FLOAT,
 						0x05000700), //
 				new ReadTask(this, KostalPikoCore.ChannelId.HOME_SELF_CONSUMPTION_TOTAL, Priority.LOW, FieldType.FLOAT,
@@ -234,7 +234,7 @@ public class KostalPikoCoreImpl extends AbstractOpenemsComponent
 						0x0F000301), //
 				new ReadTask(this, KostalPikoCore.ChannelId.HOME_CONSUMPTION_DAY, Priority.LOW, FieldType.FLOAT,
 						0x0F000302), //
-				new ReadTask(this, KostalPikoCore.ChannelId.HOME_CONSUMPTION_BATTERY, Priority.LOW, FieldType.FLOAT,
+				new ReadTask(this, KostalPikoCore.ChannelId.HOME_CONSUMPTION_BATTERY, Priority.HIGH, FieldType.FLOAT,
 						0x05000200), //
 				new ReadTask(this, KostalPikoCore.ChannelId.SELF_CONSUMPTION_TOTAL, Priority.LOW, FieldType.FLOAT,
 						0x0F000401), //
@@ -270,7 +270,7 @@ public class KostalPikoCoreImpl extends AbstractOpenemsComponent
 				 */
 				new ReadTask(this, KostalPikoCore.ChannelId.GRID_AC_P_TOTAL, Priority.HIGH, FieldType.FLOAT,
 						0x04000100), //
-				new ReadTask(this, KostalPikoCore.ChannelId.BATTERY_CURRENT_DIRECTION, Priority.LOW, FieldType.FLOAT,
+				new ReadTask(this, KostalPikoCore.ChannelId.BATTERY_CURRENT_DIRECTION, Priority.HIGH, FieldType.FLOAT,
 						0x02000706), //
 				new ReadTask(this, KostalPikoCore.ChannelId.AC_CURRENT_L1, Priority.HIGH, FieldType.FLOAT, 0x04000201), //
 				new ReadTask(this, KostalPikoCore.ChannelId.AC_CURRENT_L2, Priority.HIGH, FieldType.FLOAT, 0x04000301), //
@@ -288,7 +288,7 @@ public class KostalPikoCoreImpl extends AbstractOpenemsComponent
 						0x02000702), //
 				new ReadTask(this, KostalPikoCore.ChannelId.HOME_CONSUMPTION_PV, Priority.HIGH, FieldType.FLOAT,
 						0x05000100), //
-				new ReadTask(this, KostalPikoCore.ChannelId.BATTERY_CURRENT, Priority.LOW, FieldType.FLOAT, 0x02000701), //
+				new ReadTask(this, KostalPikoCore.ChannelId.BATTERY_CURRENT, Priority.HIGH, FieldType.FLOAT, 0x02000701), //
 				new ReadTask(this, KostalPikoCore.ChannelId.AC_VOLTAGE_L1, Priority.HIGH, FieldType.FLOAT, 0x04000202), //
 				new ReadTask(this, KostalPikoCore.ChannelId.AC_VOLTAGE_L2, Priority.HIGH, FieldType.FLOAT, 0x04000302), //
 				new ReadTask(this, KostalPikoCore.ChannelId.AC_VOLTAGE_L3, Priority.HIGH, FieldType.FLOAT, 0x04000402), //
@@ -302,7 +302,7 @@ public class KostalPikoCoreImpl extends AbstractOpenemsComponent
 	void activate(ComponentContext context, Config config) {
 		super.activate(context, config.service_pid(), config.id(), config.enabled());
 		this.socketConnection = new SocketConnection(config.ip(), config.port(), (byte) config.unitID());
-		Protocol protocol = new Protocol(socketConnection);
+		Protocol protocol = new Protocol(socketConnection, config.pipelineDepth());
 		this.worker = new Worker(protocol, this.readTasksManager);
 		this.worker.activate(config.id());
 	}
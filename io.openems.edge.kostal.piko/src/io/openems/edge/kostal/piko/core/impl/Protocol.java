@@ -1,179 +1,306 @@
 package io.openems.edge.kostal.piko.core.impl;
 
-import java.lang.reflect.Array;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.openems.common.exceptions.OpenemsException;
 import io.openems.edge.common.channel.Channel;
 
+/**
+ * Implements the KOSTAL PIKO protocol.
+ *
+ * <p>
+ * Every address is requested with a frame of {@link #REQUEST_LENGTH} bytes.
+ * The reply consists of a header of {@link #HEADER_LENGTH} bytes, the value, a
+ * checksum byte and a trailing 0x00. Replies are read with blocking reads (see
+ * {@link SocketConnection#TIMEOUT}) into one reusable frame buffer.
+ *
+ * <p>
+ * The length of the value is known for {@link FieldType#FLOAT},
+ * {@link FieldType#BOOLEAN} and {@link FieldType#INTEGER_UNSIGNED_BYTE}. Up to
+ * 'pipelineDepth' of these requests are sent at once before the replies are
+ * read. If the inverter does not answer pipelined requests, the Protocol falls
+ * back to one request per round trip and tries the configured depth again
+ * after {@link #PIPELINE_RECOVERY_REQUESTS} successful requests. Values of
+ * unknown length are always requested alone; their reply ends with the first
+ * 0x00 after a valid checksum.
+ */
 public class Protocol {
 
-	private final Logger log = LoggerFactory.getLogger(KostalPikoCoreImpl.class);
+	protected final static int REQUEST_LENGTH = 12;
+	protected final static int HEADER_LENGTH = 5;
+	private final static int TRAILER_LENGTH = 2;
+	private final static int MAX_VALUE_LENGTH = 256;
+	private final static int MAX_PIPELINE_DEPTH = 16;
+	protected final static int PIPELINE_RECOVERY_REQUESTS = 1000;
+
+	private final Logger log = LoggerFactory.getLogger(Protocol.class);
 	private final SocketConnection socketConnection;
 
-	public Protocol(SocketConnection socketConnection) {
+	/**
+	 * Reusable buffers; only accessed by the Worker thread
+	 */
+	private final byte[] request = new byte[REQUEST_LENGTH * MAX_PIPELINE_DEPTH];
+	private final byte[] frame = new byte[HEADER_LENGTH + MAX_VALUE_LENGTH + TRAILER_LENGTH];
+
+	private final int configuredPipelineDepth;
+	private int pipelineDepth;
+	private int successfulRequests = 0;
+
+	public Protocol(SocketConnection socketConnection, int pipelineDepth) {
 		this.socketConnection = socketConnection;
+		this.configuredPipelineDepth = Math.max(1, Math.min(pipelineDepth, MAX_PIPELINE_DEPTH));
+		this.pipelineDepth = this.configuredPipelineDepth;
 	}
 
 	public void execute(List<ReadTask> nextReadTasks) {
-		for (ReadTask task : nextReadTasks) {
+		int start = 0;
+		while (start < nextReadTasks.size()) {
+			// collect the tasks for one round trip
+			int end = start + 1;
+			if (getValueLength(nextReadTasks.get(start).getFieldType()) > 0) {
+				while (end < nextReadTasks.size() && end - start < this.pipelineDepth
+						&& getValueLength(nextReadTasks.get(end).getFieldType()) > 0) {
+					end++;
+				}
+			}
+			List<ReadTask> tasks = nextReadTasks.subList(start, end);
+			start = end;
+
 			try {
 				this.socketConnection.open();
-				Channel<?> channel = task.getComponent().channel(task.getChannelId());
-				switch (task.getFieldType()) {
-				case STRING:
-					channel.setNextValue(getStringValue(task.getAddress()));
-					break;
-				case INTEGER:
-					channel.setNextValue(getIntegerValue(task.getAddress()));
-					break;
-				case BOOLEAN:
-					channel.setNextValue(getBooleanValue(task.getAddress()));
-					break;
-				case INTEGER_UNSIGNED_BYTE:
-					channel.setNextValue(getIntegerFromUnsignedByte(task.getAddress()));
-					break;
-				case FLOAT:
-					channel.setNextValue(getFloatValue(task.getAddress()));
-					break;
+				this.discardStaleBytes(this.socketConnection.getIn());
+				this.sendRequests(this.socketConnection.getOut(), tasks);
+				for (ReadTask task : tasks) {
+					int valueLength = this.readFrame(this.socketConnection.getIn(),
+							getValueLength(task.getFieldType()));
+					Channel<?> channel = task.getComponent().channel(task.getChannelId());
+					channel.setNextValue(this.getValue(task.getFieldType(), valueLength));
+				}
+				this.requestsSucceeded(tasks.size());
+
+			} catch (SocketTimeoutException e) {
+				if (tasks.size() > 1) {
+					this.pipelineFailed();
+				} else {
+					log.warn("KOSTAL Protocol: no reply to request for address [0x"
+							+ Integer.toHexString(tasks.get(0).getAddress()) + "]");
 				}
-			} catch (Exception e) {
+				// the stream is out of sync
+				this.socketConnection.close();
+
+			} catch (IOException | OpenemsException e) {
 				log.warn("KOSTAL Protocol error. " + e.getClass().getSimpleName() + ": " + e.getMessage());
+				// the stream is out of sync
+				this.socketConnection.close();
 			}
 		}
 	}
 
-	protected boolean getBooleanValue(int address) throws Exception {
-		byte[] bytes = sendAndReceive(address);
-		if (bytes[0] == 1) {
-			return true;
-		}
-		return false;
+	protected int getPipelineDepth() {
+		return this.pipelineDepth;
 	}
 
-	protected int getIntegerFromUnsignedByte(int address) throws Exception {
-		byte[] bytes = sendAndReceive(address);
-		return (int) ByteBuffer.wrap(bytes).get() & (0xFF);
+	/**
+	 * Falls back to one request per round trip.
+	 */
+	protected void pipelineFailed() {
+		this.pipelineDepth = 1;
+		this.successfulRequests = 0;
+		log.warn("KOSTAL Protocol: no reply to pipelined requests. Falling back to single requests for the next ["
+				+ PIPELINE_RECOVERY_REQUESTS + "] requests.");
 	}
 
-	protected float getFloatValue(int address) throws Exception {
-		byte[] bytes = sendAndReceive(address);
-		return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getFloat();
+	/**
+	 * Counts successful requests and restores the configured pipeline depth
+	 * after {@link #PIPELINE_RECOVERY_REQUESTS} of them.
+	 *
+	 * @param requests the number of successful requests
+	 */
+	protected void requestsSucceeded(int requests) {
+		if (this.pipelineDepth == this.configuredPipelineDepth) {
+			return;
+		}
+		this.successfulRequests += requests;
+		if (this.successfulRequests >= PIPELINE_RECOVERY_REQUESTS) {
+			this.pipelineDepth = this.configuredPipelineDepth;
+			this.successfulRequests = 0;
+			log.info("KOSTAL Protocol: trying pipelined requests again with depth [" + this.pipelineDepth + "].");
+		}
 	}
 
-	protected int getIntegerValue(int address) throws Exception {
-		byte[] bytes = sendAndReceive(address);
-		ByteBuffer b = ByteBuffer.allocate(4).putInt(0).order(ByteOrder.LITTLE_ENDIAN);
-		b.rewind();
-		b.put(bytes);
-		b.rewind();
-		return b.getInt();
+	/**
+	 * Discards bytes that are left over from an earlier reply, e.g. the rest of
+	 * a reply of unknown length that was ended early.
+	 *
+	 * @param in the InputStream
+	 * @throws IOException on error
+	 */
+	private void discardStaleBytes(InputStream in) throws IOException {
+		int available = in.available();
+		if (available > 0) {
+			long skipped = in.skip(available);
+			log.debug("KOSTAL Protocol: discarded [" + skipped + "] stale bytes.");
+		}
 	}
 
-	protected String getStringValue(int address) throws Exception {
-		String stringValue = "";
-		byte[] byi = sendAndReceive(address);
-		for (byte b : byi) {
-			if (b == 0) {
-				break;
+	/**
+	 * Writes the requests for all tasks in one write.
+	 *
+	 * @param out   the OutputStream
+	 * @param tasks the tasks
+	 * @throws IOException on error
+	 */
+	protected void sendRequests(OutputStream out, List<ReadTask> tasks) throws IOException {
+		byte unitID = this.socketConnection.getUnitID();
+		int offset = 0;
+		for (ReadTask task : tasks) {
+			int address = task.getAddress();
+			byte[] r = this.request;
+			r[offset] = 0x62;
+			r[offset + 1] = unitID;
+			r[offset + 2] = 0x03;
+			r[offset + 3] = unitID;
+			r[offset + 4] = 0x00;
+			r[offset + 5] = (byte) 0xf0;
+			r[offset + 6] = (byte) address;
+			r[offset + 7] = (byte) (address >> 8);
+			r[offset + 8] = (byte) (address >> 16);
+			r[offset + 9] = (byte) (address >> 24);
+			byte checksum = 0x00;
+			for (int i = offset; i < offset + 10; i++) {
+				checksum -= r[i];
 			}
-			stringValue += (char) b;
+			r[offset + 10] = checksum;
+			r[offset + 11] = 0x00;
+			offset += REQUEST_LENGTH;
 		}
-		return stringValue.trim();
-	}
-
-	private byte[] addressWithByteBuffer(int address) {
-		ByteBuffer byteBuffer = ByteBuffer.allocate(4);
-		byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
-		byteBuffer.put((byte) ((address) & (0xff)));
-		byteBuffer.put((byte) (((address) >> 8) & (0xff)));
-		byteBuffer.put((byte) (((address) >> 16) & (0xff)));
-		byteBuffer.put((byte) (((address) >> 24) & (0xff)));
-		byte[] result = byteBuffer.array();
-		return result;
+		out.write(this.request, 0, offset);
+		out.flush();
 	}
 
-	private byte[] sendAndReceive(int address) throws Exception {
-
-		byte[] results = null;
-		/*
-		 * convert address to byte array
-		 */
-		byte[] result = addressWithByteBuffer(address);
-
-		/*
-		 * Calculate Checksum
-		 */
-		byte checksum = calculateChecksumFromAddress(result);
-		/*
-		 * Build Request
-		 */
-		byte[] request = new byte[] { 0x62, (byte) this.socketConnection.getUnitID(), 0x03,
-				(byte) this.socketConnection.getUnitID(), 0x00, (byte) 0xf0, Array.getByte(result, 0),
-				Array.getByte(result, 1), Array.getByte(result, 2), Array.getByte(result, 3), checksum, 0x00 };
-		/*
-		 * Send
-		 */
-		this.socketConnection.getOut().write(request);
-		this.socketConnection.getOut().flush();
-		Thread.sleep(100);
-		/*
-		 * Receive
-		 */
-		List<Byte> datasList = new ArrayList<>();
-		while (this.socketConnection.getIn().available() > 0) {
-			byte data = (byte) this.socketConnection.getIn().read();
-			datasList.add(data);
-		}
-		if (datasList.isEmpty()) {
-			throw new Exception("Could not receive any data");
+	/**
+	 * Reads one reply frame into the frame buffer. The value starts at
+	 * {@link #HEADER_LENGTH}.
+	 *
+	 * @param in          the InputStream
+	 * @param valueLength the expected length of the value; 0 if unknown
+	 * @return the length of the value
+	 * @throws IOException      on read error or timeout
+	 * @throws OpenemsException on invalid frame
+	 */
+	protected int readFrame(InputStream in, int valueLength) throws IOException, OpenemsException {
+		if (valueLength > 0) {
+			// known length
+			int length = HEADER_LENGTH + valueLength + TRAILER_LENGTH;
+			this.readFully(in, length);
+			byte checksum = 0x00;
+			for (int i = 0; i < length; i++) {
+				checksum += this.frame[i];
+			}
+			if (checksum != 0x00 || this.frame[length - 1] != 0x00) {
+				throw new OpenemsException("Checksum cannot be verified");
+			}
+			return valueLength;
 		}
-		byte[] datas = new byte[datasList.size()];
-		for (int i = 0; i < datasList.size(); i++) {
-			datas[i] = datasList.get(i);
+
+		// unknown length: the frame ends with the first 0x00 after a valid
+		// checksum. A 0x00 within the value at a position with a valid checksum
+		// would end the frame early; the rest of such a reply is discarded before
+		// the next round trip.
+		this.readFully(in, HEADER_LENGTH);
+		byte checksum = 0x00;
+		for (int i = 0; i < HEADER_LENGTH; i++) {
+			checksum += this.frame[i];
 		}
-		/*
-		 * Verify Checksum of Reply
-		 */
-		boolean isChecksumOk = verifyChecksumOfReply(datas);
-		if (!isChecksumOk) {
-			throw new Exception("Checksum cannot be verified");
+		for (int length = HEADER_LENGTH; length < this.frame.length; length++) {
+			int b = in.read();
+			if (b < 0) {
+				throw new IOException("Connection closed");
+			}
+			this.frame[length] = (byte) b;
+			if (b == 0x00 && checksum == 0x00 && length >= HEADER_LENGTH + 1) {
+				return length + 1 - HEADER_LENGTH - TRAILER_LENGTH;
+			}
+			checksum += (byte) b;
 		}
-		/*
-		 * Extract value
-		 */
-		results = new byte[datas.length - 7];
+		throw new OpenemsException("Reply is too long");
+	}
 
-		for (int i = 5; i < datas.length - 2; i++) {
-			results[i - 5] = datas[i];
+	private void readFully(InputStream in, int length) throws IOException {
+		int offset = 0;
+		while (offset < length) {
+			int read = in.read(this.frame, offset, length - offset);
+			if (read < 0) {
+				throw new IOException("Connection closed");
+			}
+			offset += read;
 		}
-		/*
-		 * Return value
-		 */
-		return results;
 	}
 
-	private byte calculateChecksumFromAddress(byte[] result) {
-		byte checksum = 0x00;
-		byte[] request = new byte[] { 0x62, (byte) this.socketConnection.getUnitID(), 0x03,
-				(byte) this.socketConnection.getUnitID(), Array.getByte(result, 0), 0x00, (byte) 0xf0,
-				Array.getByte(result, 1), Array.getByte(result, 2), Array.getByte(result, 3) };
-		for (int i = 0; i < request.length; i++) {
-			checksum -= request[i];
+	/**
+	 * Decodes the value in the frame buffer.
+	 *
+	 * @param fieldType   the FieldType
+	 * @param valueLength the length of the value
+	 * @return the value
+	 * @throws OpenemsException if the value cannot be decoded
+	 */
+	protected Object getValue(FieldType fieldType, int valueLength) throws OpenemsException {
+		byte[] f = this.frame;
+		int v = HEADER_LENGTH;
+		switch (fieldType) {
+		case STRING:
+			int end = v;
+			while (end < v + valueLength && f[end] != 0) {
+				end++;
+			}
+			return new String(f, v, end - v, StandardCharsets.ISO_8859_1).trim();
+		case INTEGER:
+			// little endian; shorter values are filled with zeros
+			if (valueLength > 4) {
+				throw new OpenemsException("Integer value is too long [" + valueLength + "]");
+			}
+			int integer = 0;
+			for (int i = 0; i < valueLength; i++) {
+				integer |= (f[v + i] & 0xFF) << (8 * i);
+			}
+			return integer;
+		case BOOLEAN:
+			return f[v] == 1;
+		case INTEGER_UNSIGNED_BYTE:
+			return f[v] & 0xFF;
+		case FLOAT:
+			return Float.intBitsToFloat((f[v] & 0xFF) | (f[v + 1] & 0xFF) << 8 | (f[v + 2] & 0xFF) << 16
+					| (f[v + 3] & 0xFF) << 24);
 		}
-		return checksum;
+		return null;
 	}
 
-	private boolean verifyChecksumOfReply(byte[] data) {
-		byte checksum = 0x00;
-		for (int i = 0; i < data.length; i++) {
-			checksum += data[i];
+	/**
+	 * Gets the length of the value in the reply.
+	 *
+	 * @param fieldType the FieldType
+	 * @return the length; 0 if unknown
+	 */
+	protected static int getValueLength(FieldType fieldType) {
+		switch (fieldType) {
+		case FLOAT:
+			return 4;
+		case BOOLEAN:
+		case INTEGER_UNSIGNED_BYTE:
+			return 1;
+		case INTEGER:
+		case STRING:
+			return 0;
 		}
-		return checksum == 0x00;
+		return 0;
 	}
 }
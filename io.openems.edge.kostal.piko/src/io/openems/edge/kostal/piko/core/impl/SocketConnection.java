@@ -1,8 +1,10 @@
 package io.openems.edge.kostal.piko.core.impl;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 
 import org.slf4j.Logger;
@@ -10,6 +12,11 @@ import org.slf4j.LoggerFactory;
 
 public class SocketConnection {
 
+	/**
+	 * Timeout for connecting and for every blocking read in milliseconds
+	 */
+	protected final static int TIMEOUT = 1000;
+
 	private final Logger log = LoggerFactory.getLogger(SocketConnection.class);
 
 	private final String host;
@@ -31,12 +38,20 @@ public class SocketConnection {
 	}
 
 	public void open() throws IOException {
-		if (this.socket != null && this.socket.isConnected()) {
+		if (this.socket != null && this.socket.isConnected() && !this.socket.isClosed()) {
 			return;
 		}
-		Socket socket = new Socket(this.host, this.port);
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(TIMEOUT);
+			socket.connect(new InetSocketAddress(this.host, this.port), TIMEOUT);
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
 		this.out = socket.getOutputStream();
-		this.in = socket.getInputStream();
+		this.in = new BufferedInputStream(socket.getInputStream());
 		this.socket = socket;
 	}
 
@@ -62,6 +77,9 @@ public class SocketConnection {
 				this.log.error("Socket Closed" + e.getMessage());
 			}
 		}
+		this.socket = null;
+		this.in = null;
+		this.out = null;
 	}
 
 	public OutputStream getOut() {
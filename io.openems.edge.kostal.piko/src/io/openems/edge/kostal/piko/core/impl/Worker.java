@@ -15,6 +15,14 @@ public class Worker extends AbstractCycleWorker {
 		this.readTasksManager = readTasksManager;
 	}
 
+	/**
+	 * Requests block on the socket until the inverter replies.
+	 */
+	@Override
+	protected boolean isBlocking() {
+		return true;
+	}
+
 	@Override
 	protected void forever() {
 		List<ReadTask> nextReadTasks = this.readTasksManager.getNextReadTasks();
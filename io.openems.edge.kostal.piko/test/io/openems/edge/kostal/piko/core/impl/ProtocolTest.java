@@ -0,0 +1,112 @@
+package io.openems.edge.kostal.piko.core.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import io.openems.common.exceptions.OpenemsException;
+
+public class ProtocolTest {
+
+	private static byte[] frame(int... value) {
+		byte[] result = new byte[Protocol.HEADER_LENGTH + value.length + 2];
+		result[0] = (byte) 0xe2;
+		result[1] = (byte) 0xff;
+		result[2] = 0x01;
+		result[3] = 0x40;
+		result[4] = 0x00;
+		for (int i = 0; i < value.length; i++) {
+			result[Protocol.HEADER_LENGTH + i] = (byte) value[i];
+		}
+		byte checksum = 0x00;
+		for (int i = 0; i < result.length - 2; i++) {
+			checksum -= result[i];
+		}
+		result[result.length - 2] = checksum;
+		result[result.length - 1] = 0x00;
+		return result;
+	}
+
+	private static InputStream stream(byte[]... frames) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (byte[] frame : frames) {
+			out.write(frame, 0, frame.length);
+		}
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+
+	@Test
+	public void testPipelinedReplies() throws Exception {
+		Protocol protocol = new Protocol(new SocketConnection("127.0.0.1", 81, (byte) 0xff), 4);
+		int bits = Float.floatToIntBits(1234.5f);
+		InputStream in = stream( //
+				frame(bits & 0xff, (bits >> 8) & 0xff, (bits >> 16) & 0xff, (bits >> 24) & 0xff), //
+				frame(1), //
+				frame(0xc0));
+
+		int length = protocol.readFrame(in, Protocol.getValueLength(FieldType.FLOAT));
+		assertEquals(1234.5f, protocol.getValue(FieldType.FLOAT, length));
+		length = protocol.readFrame(in, Protocol.getValueLength(FieldType.BOOLEAN));
+		assertEquals(true, protocol.getValue(FieldType.BOOLEAN, length));
+		length = protocol.readFrame(in, Protocol.getValueLength(FieldType.INTEGER_UNSIGNED_BYTE));
+		assertEquals(192, protocol.getValue(FieldType.INTEGER_UNSIGNED_BYTE, length));
+	}
+
+	@Test
+	public void testRepliesOfUnknownLength() throws Exception {
+		Protocol protocol = new Protocol(new SocketConnection("127.0.0.1", 81, (byte) 0xff), 4);
+
+		int length = protocol.readFrame(stream(frame('P', 'I', 'K', 'O', ' ', 0, 0, 0)), 0);
+		assertEquals(8, length);
+		assertEquals("PIKO", protocol.getValue(FieldType.STRING, length));
+
+		length = protocol.readFrame(stream(frame(0x34, 0x12)), 0);
+		assertEquals(0x1234, protocol.getValue(FieldType.INTEGER, length));
+	}
+
+	@Test
+	public void testReplyOfUnknownLengthEndsAtDelimiter() throws Exception {
+		Protocol protocol = new Protocol(new SocketConnection("127.0.0.1", 81, (byte) 0xff), 4);
+		// the end of the frame does not depend on whether more bytes are available
+		InputStream in = stream(frame('P', 'I', 'K', 'O', 0), frame(0x34, 0x12));
+
+		int length = protocol.readFrame(in, 0);
+		assertEquals(5, length);
+		assertEquals("PIKO", protocol.getValue(FieldType.STRING, length));
+		length = protocol.readFrame(in, 0);
+		assertEquals(0x1234, protocol.getValue(FieldType.INTEGER, length));
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void testPipelineRecovery() {
+		Protocol protocol = new Protocol(new SocketConnection("127.0.0.1", 81, (byte) 0xff), 4);
+		assertEquals(4, protocol.getPipelineDepth());
+
+		protocol.pipelineFailed();
+		assertEquals(1, protocol.getPipelineDepth());
+		protocol.requestsSucceeded(Protocol.PIPELINE_RECOVERY_REQUESTS - 1);
+		assertEquals(1, protocol.getPipelineDepth());
+		protocol.requestsSucceeded(1);
+		assertEquals(4, protocol.getPipelineDepth());
+
+		// a new failure starts counting again
+		protocol.pipelineFailed();
+		protocol.requestsSucceeded(Protocol.PIPELINE_RECOVERY_REQUESTS / 2);
+		protocol.pipelineFailed();
+		protocol.requestsSucceeded(Protocol.PIPELINE_RECOVERY_REQUESTS / 2);
+		assertEquals(1, protocol.getPipelineDepth());
+	}
+
+	@Test(expected = OpenemsException.class)
+	public void testInvalidChecksum() throws Exception {
+		Protocol protocol = new Protocol(new SocketConnection("127.0.0.1", 81, (byte) 0xff), 4);
+		byte[] frame = frame(1);
+		frame[Protocol.HEADER_LENGTH] = 2;
+		protocol.readFrame(stream(frame), Protocol.getValueLength(FieldType.BOOLEAN));
+	}
+}
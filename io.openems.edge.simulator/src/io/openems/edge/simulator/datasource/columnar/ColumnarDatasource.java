@@ -0,0 +1,112 @@
+package io.openems.edge.simulator.datasource.columnar;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Set;
+
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.Designate;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.clock.ClockProvider;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.type.TypeUtils;
+import io.openems.edge.simulator.datasource.api.SimulatorDatasource;
+
+/**
+ * Provides values of a large load profile by random access for the current
+ * (simulated) time.
+ *
+ * <p>
+ * Unlike the CSV Reader, the values are not stepped through per Cycle but
+ * looked up in a memory-mapped {@link ColumnarProfile} by the time of the
+ * {@link ClockProvider}. Datasources that use the same file share the mapping.
+ */
+@Designate(ocd = Config.class, factory = true)
+@Component(name = "Simulator.Datasource.Columnar", //
+		immediate = true, //
+		configurationPolicy = ConfigurationPolicy.REQUIRE)
+public class ColumnarDatasource extends AbstractOpenemsComponent implements SimulatorDatasource {
+
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.OPTIONAL)
+	protected volatile ClockProvider clockProvider;
+
+	private volatile ColumnarProfile profile = null;
+	private float factor = 1;
+	private boolean interpolate = true;
+	private int timeDelta = 1;
+
+	@Activate
+	void activate(ComponentContext context, Config config) throws OpenemsException {
+		super.activate(context, config.service_pid(), config.id(), config.enabled());
+		this.factor = config.factor();
+		this.interpolate = config.interpolate();
+		this.timeDelta = config.timeDelta();
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		Path file = Paths.get(config.file());
+		if (file.getFileName().toString().toLowerCase().endsWith(".csv")) {
+			long start;
+			try {
+				start = Instant.parse(config.start()).getEpochSecond();
+			} catch (DateTimeParseException e) {
+				throw new OpenemsException("Unable to parse start [" + config.start() + "]: " + e.getMessage());
+			}
+			this.profile = ColumnarProfile.openCsv(file, start, config.resolution());
+		} else {
+			this.profile = ColumnarProfile.open(file);
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		super.deactivate();
+		if (this.profile != null) {
+			this.profile.release();
+			this.profile = null;
+		}
+	}
+
+	@Override
+	public <T> T getValue(OpenemsType type, String key) {
+		ColumnarProfile profile = this.profile;
+		if (profile == null) {
+			return null;
+		}
+		int column = profile.getColumn(key);
+		if (column < 0) {
+			return null;
+		}
+		double position = profile.getPosition(ClockProvider.getClock(this.clockProvider).millis());
+		return TypeUtils.getAsType(type, profile.getValue(column, position, this.interpolate) * this.factor);
+	}
+
+	@Override
+	public Set<String> getKeys() {
+		ColumnarProfile profile = this.profile;
+		if (profile == null) {
+			return Collections.emptySet();
+		}
+		return profile.getKeys();
+	}
+
+	@Override
+	public int getTimeDelta() {
+		return this.timeDelta;
+	}
+
+}
@@ -0,0 +1,451 @@
+package io.openems.edge.simulator.datasource.columnar;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.openems.common.exceptions.OpenemsException;
+
+/**
+ * A load profile in a binary, columnar file that is memory-mapped read-only.
+ *
+ * <p>
+ * Layout of the file (big-endian):
+ *
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * long   start of the first row in epoch seconds
+ * int    resolution in seconds between two rows
+ * long   'start' parameter of the conversion
+ * int    'resolution' parameter of the conversion
+ * int    number of columns
+ * int    number of rows
+ * UTF    key of each column
+ * float  values of column 0, row 0..n; column 1, row 0..n; ...
+ * </pre>
+ *
+ * <p>
+ * Every column is mapped separately, so the values are read without copying
+ * them onto the heap. Instances are shared by all datasources that use the same
+ * file (see {@link #open(Path)}); reads are absolute and therefore thread-safe.
+ */
+public class ColumnarProfile {
+
+	private final static int MAGIC = 0x4F454D43; // "OEMC"
+	private final static int VERSION = 2;
+	private final static String SEPARATOR = ",";
+	private final static String TIMESTAMP = "Timestamp";
+
+	private final static Map<Path, ColumnarProfile> OPEN_PROFILES = new HashMap<>();
+
+	private final Path file;
+	private final long start;
+	private final int resolution;
+	private final int rows;
+	private final Map<String, Integer> keys;
+	private final FloatBuffer[] columns;
+
+	private int references = 0;
+
+	/**
+	 * Opens a columnar profile file or returns the already opened instance for
+	 * the same file. Every call must be matched by a call to {@link #release()}.
+	 *
+	 * @param file the binary columnar file
+	 * @return the ColumnarProfile
+	 * @throws OpenemsException on error
+	 */
+	public static synchronized ColumnarProfile open(Path file) throws OpenemsException {
+		Path key = file.toAbsolutePath().normalize();
+		ColumnarProfile profile = OPEN_PROFILES.get(key);
+		if (profile == null) {
+			try {
+				profile = new ColumnarProfile(key);
+			} catch (IOException e) {
+				throw new OpenemsException("Unable to open profile [" + file + "]: " + e.getMessage());
+			}
+			OPEN_PROFILES.put(key, profile);
+		}
+		profile.references++;
+		return profile;
+	}
+
+	/**
+	 * Opens the columnar profile for a CSV file. The CSV file is converted to a
+	 * binary columnar file next to it, if that does not exist yet, is older than
+	 * the CSV file or was converted with other parameters.
+	 *
+	 * @param csv        the CSV file
+	 * @param start      the start of the first row in epoch seconds, see
+	 *                   {@link #convert(Path, Path, long, int)}
+	 * @param resolution the resolution in seconds, see
+	 *                   {@link #convert(Path, Path, long, int)}
+	 * @return the ColumnarProfile
+	 * @throws OpenemsException on error
+	 */
+	public static synchronized ColumnarProfile openCsv(Path csv, long start, int resolution)
+			throws OpenemsException {
+		String name = csv.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		Path target = csv.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + ".col");
+		// never rewrite a file that is currently mapped
+		if (!OPEN_PROFILES.containsKey(target.toAbsolutePath().normalize())) {
+			try {
+				if (!isUpToDate(csv, target, start, resolution)) {
+					convert(csv, target, start, resolution);
+				}
+			} catch (IOException e) {
+				throw new OpenemsException("Unable to access [" + csv + "]: " + e.getMessage());
+			}
+		}
+		return open(target);
+	}
+
+	/**
+	 * Checks whether the binary columnar file exists, is not older than the CSV
+	 * file and was converted with the given parameters and the current
+	 * {@link #VERSION}.
+	 *
+	 * @param csv        the CSV file
+	 * @param target     the binary columnar file
+	 * @param start      the 'start' parameter of the conversion
+	 * @param resolution the 'resolution' parameter of the conversion
+	 * @return true if the file can be used
+	 * @throws IOException on error
+	 */
+	private static boolean isUpToDate(Path csv, Path target, long start, int resolution) throws IOException {
+		if (!Files.exists(target)
+				|| Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(csv)) < 0) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(target))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return false;
+			}
+			in.readLong(); // start
+			in.readInt(); // resolution
+			return in.readLong() == start && in.readInt() == resolution;
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Releases this profile. The mapping is dropped once it is not used anymore.
+	 */
+	public void release() {
+		synchronized (ColumnarProfile.class) {
+			if (--this.references <= 0) {
+				OPEN_PROFILES.remove(this.file);
+			}
+		}
+	}
+
+	private ColumnarProfile(Path file) throws IOException {
+		this.file = file;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a columnar profile");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version [" + version + "]");
+			}
+			this.start = in.readLong();
+			this.resolution = in.readInt();
+			in.readLong(); // 'start' parameter of the conversion
+			in.readInt(); // 'resolution' parameter of the conversion
+			int columns = in.readInt();
+			this.rows = in.readInt();
+			Map<String, Integer> keys = new LinkedHashMap<>();
+			for (int i = 0; i < columns; i++) {
+				keys.put(in.readUTF(), i);
+			}
+			this.keys = Collections.unmodifiableMap(keys);
+
+			// the stream is not buffered, so the position of the channel is at the data
+			long offset = channel.position();
+			long columnSize = this.rows * 4L;
+			if (offset + columnSize * columns > channel.size()) {
+				throw new IOException("File is truncated");
+			}
+			this.columns = new FloatBuffer[columns];
+			for (int i = 0; i < columns; i++) {
+				this.columns[i] = channel.map(MapMode.READ_ONLY, offset + i * columnSize, columnSize).asFloatBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Gets the keys of the columns.
+	 *
+	 * @return the keys
+	 */
+	public Set<String> getKeys() {
+		return this.keys.keySet();
+	}
+
+	/**
+	 * Gets the index of the column with the given key.
+	 *
+	 * @param key the key
+	 * @return the index or -1 if there is no such column
+	 */
+	public int getColumn(String key) {
+		Integer column = this.keys.get(key);
+		return column == null ? -1 : column;
+	}
+
+	public long getStart() {
+		return this.start;
+	}
+
+	public int getResolution() {
+		return this.resolution;
+	}
+
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * Gets the position of the given time in rows. Times outside of the profile
+	 * are wrapped around, i.e. the profile is repeated.
+	 *
+	 * @param epochMillis the time in epoch milliseconds
+	 * @return the position in [0, rows)
+	 */
+	public double getPosition(long epochMillis) {
+		double position = (epochMillis - this.start * 1000) / (this.resolution * 1000d);
+		position %= this.rows;
+		return position < 0 ? position + this.rows : position;
+	}
+
+	/**
+	 * Gets the value of a column at the given row.
+	 *
+	 * @param column the index of the column
+	 * @param row    the row
+	 * @return the value
+	 */
+	public float getValue(int column, int row) {
+		return this.columns[column].get(row);
+	}
+
+	/**
+	 * Gets the value of a column at the given position. Between two rows the
+	 * value is either linearly interpolated or the value of the previous row.
+	 *
+	 * @param column      the index of the column
+	 * @param position    the position in rows, see {@link #getPosition(long)}
+	 * @param interpolate whether to interpolate linearly
+	 * @return the value
+	 */
+	public float getValue(int column, double position, boolean interpolate) {
+		FloatBuffer values = this.columns[column];
+		int row = (int) position;
+		float value = values.get(row);
+		double fraction = position - row;
+		if (!interpolate || fraction == 0) {
+			return value;
+		}
+		float next = values.get(row + 1 < this.rows ? row + 1 : 0);
+		return (float) (value + (next - value) * fraction);
+	}
+
+	/**
+	 * Converts a CSV file to a binary columnar file.
+	 *
+	 * <p>
+	 * The first line of the CSV file holds the keys. If the first column is
+	 * called "Timestamp", it holds ISO-8601 instants or epoch seconds of equally
+	 * distant rows; start and resolution are then taken from the first two rows.
+	 * The CSV file is read twice, so the conversion does not keep it in memory.
+	 * The target is written to a temporary file first and then atomically moved
+	 * into place, so it is never seen half-written.
+	 *
+	 * @param csv        the CSV file
+	 * @param target     the binary columnar file
+	 * @param start      the start of the first row in epoch seconds, if there is
+	 *                   no "Timestamp" column
+	 * @param resolution the resolution in seconds, if there is no "Timestamp"
+	 *                   column
+	 * @throws OpenemsException on error
+	 */
+	public static void convert(Path csv, Path target, long start, int resolution) throws OpenemsException {
+		final long startParameter = start;
+		final int resolutionParameter = resolution;
+		String[] keys;
+		boolean hasTimestamp;
+		int rows = 0;
+		long firstTimestamp = start;
+		long secondTimestamp = start + resolution;
+
+		/*
+		 * First pass: read keys, count rows and detect start and resolution
+		 */
+		try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+			String line = reader.readLine();
+			if (line == null) {
+				throw new OpenemsException("CSV file [" + csv + "] is empty");
+			}
+			keys = line.split(SEPARATOR);
+			hasTimestamp = keys[0].trim().equalsIgnoreCase(TIMESTAMP);
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				if (hasTimestamp && rows < 2) {
+					long timestamp = parseTimestamp(line.substring(0, indexOfOrLength(line, 0)));
+					if (rows == 0) {
+						firstTimestamp = timestamp;
+					} else {
+						secondTimestamp = timestamp;
+					}
+				}
+				rows++;
+			}
+		} catch (IOException e) {
+			throw new OpenemsException("Unable to read CSV file [" + csv + "]: " + e.getMessage());
+		}
+		if (rows == 0) {
+			throw new OpenemsException("CSV file [" + csv + "] has no values");
+		}
+		if ((long) rows * 4 > Integer.MAX_VALUE) {
+			throw new OpenemsException("CSV file [" + csv + "] has too many rows [" + rows + "]");
+		}
+		if (hasTimestamp && rows > 1) {
+			resolution = (int) (secondTimestamp - firstTimestamp);
+			if (resolution <= 0) {
+				throw new OpenemsException("Timestamps of CSV file [" + csv + "] are not ascending");
+			}
+		}
+		final int firstColumn = hasTimestamp ? 1 : 0;
+		final int columns = keys.length - firstColumn;
+
+		/*
+		 * Second pass: write header and values column by column
+		 */
+		Path temp;
+		try {
+			temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+		} catch (IOException e) {
+			throw new OpenemsException("Unable to create temporary file for [" + target + "]: " + e.getMessage());
+		}
+		try (RandomAccessFile file = new RandomAccessFile(temp.toFile(), "rw");
+				BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+			ByteArrayOutputStream header = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(header);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(firstTimestamp);
+			out.writeInt(resolution);
+			out.writeLong(startParameter);
+			out.writeInt(resolutionParameter);
+			out.writeInt(columns);
+			out.writeInt(rows);
+			for (int i = firstColumn; i < keys.length; i++) {
+				out.writeUTF(keys[i].trim());
+			}
+			out.flush();
+			long columnSize = rows * 4L;
+			file.setLength(header.size() + columnSize * columns);
+			file.write(header.toByteArray());
+
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer[] mappings = new MappedByteBuffer[columns];
+			FloatBuffer[] buffers = new FloatBuffer[columns];
+			for (int i = 0; i < columns; i++) {
+				mappings[i] = channel.map(MapMode.READ_WRITE, header.size() + i * columnSize, columnSize);
+				buffers[i] = mappings[i].asFloatBuffer();
+			}
+
+			reader.readLine(); // keys
+			String line;
+			int row = 0;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				int begin = 0;
+				for (int i = 0; i < keys.length; i++) {
+					if (begin > line.length()) {
+						throw new OpenemsException("Missing value for [" + keys[i] + "] in row [" + (row + 1) + "]");
+					}
+					int end = indexOfOrLength(line, begin);
+					if (i >= firstColumn) {
+						buffers[i - firstColumn].put(row, Float.parseFloat(line.substring(begin, end)));
+					}
+					begin = end + 1;
+				}
+				row++;
+			}
+			for (MappedByteBuffer mapping : mappings) {
+				mapping.force();
+			}
+		} catch (OpenemsException e) {
+			deleteQuietly(temp);
+			throw e;
+		} catch (NumberFormatException | IOException e) {
+			deleteQuietly(temp);
+			throw new OpenemsException("Unable to convert CSV file [" + csv + "]: " + e.getClass().getSimpleName()
+					+ ": " + e.getMessage());
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			deleteQuietly(temp);
+			throw new OpenemsException("Unable to replace [" + target + "]: " + e.getMessage());
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private static int indexOfOrLength(String line, int fromIndex) {
+		int index = line.indexOf(SEPARATOR, fromIndex);
+		return index < 0 ? line.length() : index;
+	}
+
+	private static long parseTimestamp(String value) throws OpenemsException {
+		value = value.trim();
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			// try ISO-8601
+		}
+		try {
+			return Instant.parse(value).getEpochSecond();
+		} catch (DateTimeParseException e) {
+			throw new OpenemsException("Unable to parse timestamp [" + value + "]");
+		}
+	}
+}
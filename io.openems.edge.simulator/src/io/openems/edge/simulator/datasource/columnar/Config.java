@@ -0,0 +1,35 @@
+package io.openems.edge.simulator.datasource.columnar;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition( //
+		name = "Simulator DataSource: Columnar Profile", //
+		description = "This service provides input data from a large, memory-mapped load profile file.")
+@interface Config {
+	String service_pid();
+
+	String id() default "datasource0";
+
+	boolean enabled() default true;
+
+	@AttributeDefinition(name = "File", description = "Path to the profile file. A CSV-file is converted once to a binary columnar file next to it ('.col').")
+	String file();
+
+	@AttributeDefinition(name = "Start", description = "Time of the first row in ISO-8601 format, if the CSV-file has no 'Timestamp' column.")
+	String start() default "2019-01-01T00:00:00Z";
+
+	@AttributeDefinition(name = "Resolution", description = "Time between two rows in seconds, if the CSV-file has no 'Timestamp' column.")
+	int resolution() default 60;
+
+	@AttributeDefinition(name = "Factor", description = "Each value in the file is multiplied by this factor.")
+	float factor() default 1;
+
+	@AttributeDefinition(name = "Interpolate", description = "Interpolate linearly between two rows; otherwise the value of the previous row is used.")
+	boolean interpolate() default true;
+
+	@AttributeDefinition(name = "Time-Delta", description = "Simulated time between two Cycles in seconds, e.g. the step of the Simulator Runner.")
+	int timeDelta() default 1;
+
+	String webconsole_configurationFactory_nameHint() default "Simulator DataSource: Columnar Profile [{id}]";
+}
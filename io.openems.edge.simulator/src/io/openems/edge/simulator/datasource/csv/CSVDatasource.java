@@ -6,12 +6,17 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventConstants;
 import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 
 import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.clock.ClockProvider;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
 import io.openems.edge.common.type.TypeUtils;
@@ -32,13 +37,16 @@ public class CSVDatasource extends AbstractOpenemsComponent implements Simulator
 
 	private long lastIteration;
 
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.OPTIONAL)
+	protected volatile ClockProvider clockProvider;
+
 	@Activate
 	void activate(ComponentContext context, Config config) {
 		super.activate(context, config.service_pid(), config.id(), config.enabled());
 
 		this.timeDelta = config.timeDelta();
 		this.realtime = config.realtime();
-		this.lastIteration = System.currentTimeMillis();
+		this.lastIteration = ClockProvider.getClock(this.clockProvider).millis();
 		// read csv-data
 		this.data = Util.getValues(config.source(), config.factor());
 
@@ -50,10 +58,11 @@ public class CSVDatasource extends AbstractOpenemsComponent implements Simulator
 		case EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE:
 			// don't change record, if realtime is set to true and timeDelta has not passed
 			// yet
-			if (realtime && System.currentTimeMillis() < lastIteration + 1000 /* second to millisecond */ * timeDelta) {
+			long now = ClockProvider.getClock(this.clockProvider).millis();
+			if (realtime && now < lastIteration + 1000 /* second to millisecond */ * timeDelta) {
 				return;
 			}
-			lastIteration = System.currentTimeMillis();
+			lastIteration = now;
 			this.data.nextRecord();
 			break;
 		}
@@ -19,7 +19,7 @@ import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 	@AttributeDefinition(name = "Time-Delta", description = "Time-Delta between two entries in the csv-file in seconds.")
 	int timeDelta() default 60;
 
-	@AttributeDefinition(name = "Realtime", description = "If true the output-value doesn't change, until the Time-Delta has passed in realtime.")
+	@AttributeDefinition(name = "Realtime", description = "If true the output-value doesn't change, until the Time-Delta has passed in realtime (or in simulated time, if a Simulator Runner is active).")
 	boolean realtime() default false;
 
 	@AttributeDefinition(name = "Source", description = "A CSV-Input file containing a series of values.")
@@ -20,6 +20,7 @@ import org.osgi.service.event.EventHandler;
 import org.osgi.service.metatype.annotations.Designate;
 
 import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.clock.ClockProvider;
 import io.openems.edge.common.component.AbstractOpenemsComponent;
 import io.openems.edge.common.component.OpenemsComponent;
 import io.openems.edge.common.event.EdgeEventConstants;
@@ -76,6 +77,9 @@ public class EssSymmetric extends AbstractOpenemsComponent
 	@Reference
 	protected ConfigurationAdmin cm;
 
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.OPTIONAL)
+	protected volatile ClockProvider clockProvider;
+
 	@Activate
 	void activate(ComponentContext context, Config config) throws IOException {
 		// update filter for 'datasource'
@@ -200,12 +204,13 @@ public class EssSymmetric extends AbstractOpenemsComponent
 		private void calculateEnergy() {
 			if (this.lastPowerValuesTimestamp != null) {						
 				
-				long passedTimeInMilliSeconds = Duration.between(this.lastPowerValuesTimestamp, LocalDateTime.now()).toMillis();
-				this.lastPowerValuesTimestamp = LocalDateTime.now();
+				LocalDateTime now = LocalDateTime.now(ClockProvider.getClock(this.clockProvider));
+				long passedTimeInMilliSeconds = Duration.between(this.lastPowerValuesTimestamp, now).toMillis();
+				this.lastPowerValuesTimestamp = now;
 				
 				log.debug("time elpsed in ms: " + passedTimeInMilliSeconds);
 				log.debug("last power value :" + this.lastPowerValue);
-				double energy = this.lastPowerValue * (passedTimeInMilliSeconds / 1000) / 3600; // calculate energy in watt hours
+				double energy = this.lastPowerValue * (passedTimeInMilliSeconds / 1000.0) / 3600; // calculate energy in watt hours
 				
 				log.debug("energy in wh: " + energy);
 				
@@ -221,7 +226,7 @@ public class EssSymmetric extends AbstractOpenemsComponent
 				log.debug("accumulated discharge energy :" + accumulatedDischargeEnergy);
 				
 			} else {
-				this.lastPowerValuesTimestamp = LocalDateTime.now();			
+				this.lastPowerValuesTimestamp = LocalDateTime.now(ClockProvider.getClock(this.clockProvider));
 			}
 			
 			this.lastPowerValue = this.getActivePower().value().orElse(0);
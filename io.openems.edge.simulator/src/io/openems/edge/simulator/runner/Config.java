@@ -0,0 +1,36 @@
+package io.openems.edge.simulator.runner;
+
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+@ObjectClassDefinition( //
+		name = "Simulator Runner", //
+		description = "Runs a simulation faster than real time: every Cycle advances the simulated time by one step.")
+@interface Config {
+	String service_pid();
+
+	String id() default "simulatorRunner0";
+
+	boolean enabled() default true;
+
+	@AttributeDefinition(name = "Start", description = "Simulated start time in ISO-8601 format.")
+	String start() default "2019-01-01T00:00:00Z";
+
+	@AttributeDefinition(name = "Step [s]", description = "Simulated time per Cycle. Should match the Time-Delta of the Datasource.")
+	int step() default 1;
+
+	@AttributeDefinition(name = "Duration [days]", description = "Simulated duration.")
+	int duration() default 365;
+
+	@AttributeDefinition(name = "KPI Channels", description = "Channel-Addresses that are recorded, e.g. '_sum/GridActivePower'.")
+	String[] kpiChannels() default { "_sum/GridActivePower", "_sum/EssActivePower", "_sum/EssSoc",
+			"_sum/ProductionActivePower", "_sum/ConsumptionActivePower" };
+
+	@AttributeDefinition(name = "KPI Interval [s]", description = "Simulated time that is aggregated to one line of the KPI file.")
+	int kpiInterval() default 900;
+
+	@AttributeDefinition(name = "KPI File", description = "Path of the CSV file for the KPIs. Leave empty to only log the summary.")
+	String kpiFile() default "";
+
+	String webconsole_configurationFactory_nameHint() default "Simulator Runner [{id}]";
+}
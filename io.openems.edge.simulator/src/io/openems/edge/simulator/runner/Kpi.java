@@ -0,0 +1,96 @@
+package io.openems.edge.simulator.runner;
+
+import java.util.Locale;
+
+/**
+ * Aggregates the values of one Channel during a simulation.
+ */
+class Kpi {
+
+	private long count = 0;
+	private double sum = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	private double positiveEnergy = 0; // [Wh]
+	private double negativeEnergy = 0; // [Wh]
+
+	/**
+	 * Adds the value of one Cycle.
+	 *
+	 * @param value the value
+	 * @param step  the simulated duration of the Cycle in [s]
+	 */
+	protected void add(double value, int step) {
+		this.count++;
+		this.sum += value;
+		if (!(value >= this.min)) {
+			this.min = value;
+		}
+		if (!(value <= this.max)) {
+			this.max = value;
+		}
+		// value is interpreted as power [W]
+		double energy = value * step / 3600;
+		if (energy > 0) {
+			this.positiveEnergy += energy;
+		} else {
+			this.negativeEnergy -= energy;
+		}
+	}
+
+	/**
+	 * Adds the aggregated values of another Kpi.
+	 *
+	 * @param other the other Kpi
+	 */
+	protected void add(Kpi other) {
+		if (other.count == 0) {
+			return;
+		}
+		this.count += other.count;
+		this.sum += other.sum;
+		if (!(other.min >= this.min)) {
+			this.min = other.min;
+		}
+		if (!(other.max <= this.max)) {
+			this.max = other.max;
+		}
+		this.positiveEnergy += other.positiveEnergy;
+		this.negativeEnergy += other.negativeEnergy;
+	}
+
+	protected void reset() {
+		this.count = 0;
+		this.sum = 0;
+		this.min = Double.NaN;
+		this.max = Double.NaN;
+		this.positiveEnergy = 0;
+		this.negativeEnergy = 0;
+	}
+
+	protected double getAverage() {
+		return this.count == 0 ? Double.NaN : this.sum / this.count;
+	}
+
+	protected double getMin() {
+		return this.min;
+	}
+
+	protected double getMax() {
+		return this.max;
+	}
+
+	protected double getPositiveEnergy() {
+		return this.positiveEnergy;
+	}
+
+	protected double getNegativeEnergy() {
+		return this.negativeEnergy;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "avg=%.1f, min=%.1f, max=%.1f, +%.0f Wh, -%.0f Wh", this.getAverage(), this.min, this.max,
+				this.positiveEnergy, this.negativeEnergy);
+	}
+}
@@ -0,0 +1,273 @@
+package io.openems.edge.simulator.runner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.Designate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.openems.common.exceptions.OpenemsException;
+import io.openems.common.types.ChannelAddress;
+import io.openems.edge.common.channel.Channel;
+import io.openems.edge.common.clock.ClockProvider;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.component.OpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.test.TimeLeapClock;
+
+/**
+ * Runs a simulation faster than real time.
+ *
+ * <p>
+ * While the simulation is running, the Cycle does not wait for its cycle time
+ * (see {@link ClockProvider#isFasterThanRealtime()}) and every Cycle advances
+ * the simulated {@link TimeLeapClock} by one step. Simulator components take
+ * their time from this Clock.
+ *
+ * <p>
+ * The values of the configured KPI Channels are aggregated per KPI interval and
+ * streamed to a CSV file with average, minimum, maximum and the positive and
+ * negative energy; a summary for the whole simulation is logged at the end.
+ */
+@Designate(ocd = Config.class, factory = true)
+@Component(name = "Simulator.Runner", //
+		immediate = true, //
+		configurationPolicy = ConfigurationPolicy.REQUIRE, //
+		property = EventConstants.EVENT_TOPIC + "=" + EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE)
+public class SimulatorRunner extends AbstractOpenemsComponent implements ClockProvider, OpenemsComponent, EventHandler {
+
+	private final Logger log = LoggerFactory.getLogger(SimulatorRunner.class);
+
+	@Reference(policy = ReferencePolicy.DYNAMIC, policyOption = ReferencePolicyOption.GREEDY, cardinality = ReferenceCardinality.MULTIPLE, target = "(!(service.factoryPid=Simulator.Runner))")
+	protected volatile List<OpenemsComponent> components = new CopyOnWriteArrayList<>();
+
+	private TimeLeapClock clock = new TimeLeapClock();
+	private volatile boolean isRunning = false;
+
+	private int step;
+	private long cycles;
+	private long totalCycles;
+	private long cyclesPerInterval;
+	private long startedAt; // System.nanoTime()
+
+	private final List<ChannelAddress> addresses = new ArrayList<>();
+	private Channel<?>[] channels;
+	private Kpi[] intervalKpis;
+	private Kpi[] totalKpis;
+	private BufferedWriter writer = null;
+
+	@Activate
+	void activate(ComponentContext context, Config config) throws OpenemsException {
+		super.activate(context, config.service_pid(), config.id(), config.enabled());
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		Instant start;
+		try {
+			start = Instant.parse(config.start());
+		} catch (DateTimeParseException e) {
+			throw new OpenemsException("Unable to parse start [" + config.start() + "]: " + e.getMessage());
+		}
+		this.clock = new TimeLeapClock(start, ZoneOffset.UTC);
+		this.step = Math.max(1, config.step());
+		this.cycles = 0;
+		this.totalCycles = Duration.ofDays(config.duration()).getSeconds() / this.step;
+		this.cyclesPerInterval = Math.max(1, config.kpiInterval() / this.step);
+
+		this.addresses.clear();
+		for (String address : config.kpiChannels()) {
+			this.addresses.add(ChannelAddress.fromString(address));
+		}
+		this.channels = new Channel<?>[this.addresses.size()];
+		this.intervalKpis = new Kpi[this.addresses.size()];
+		this.totalKpis = new Kpi[this.addresses.size()];
+		for (int i = 0; i < this.addresses.size(); i++) {
+			this.intervalKpis[i] = new Kpi();
+			this.totalKpis[i] = new Kpi();
+		}
+
+		if (!config.kpiFile().isEmpty()) {
+			try {
+				this.writer = Files.newBufferedWriter(Paths.get(config.kpiFile()), StandardCharsets.UTF_8);
+				this.writeHeader();
+			} catch (IOException e) {
+				throw new OpenemsException("Unable to open KPI file [" + config.kpiFile() + "]: " + e.getMessage());
+			}
+		}
+
+		this.startedAt = System.nanoTime();
+		this.isRunning = true;
+		this.logInfo(this.log, "Simulation started at [" + start + "] for [" + config.duration() + "] days in ["
+				+ this.totalCycles + "] steps of [" + this.step + "s]");
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		super.deactivate();
+		this.isRunning = false;
+		this.closeWriter();
+	}
+
+	/**
+	 * Gets the simulated Clock while the simulation is running; otherwise - if
+	 * this Runner is disabled or the simulation finished - the system Clock, so
+	 * that other Components are not stuck at a frozen time.
+	 */
+	@Override
+	public Clock getClock() {
+		if (this.isRunning) {
+			return this.clock;
+		}
+		return Clock.systemDefaultZone();
+	}
+
+	@Override
+	public boolean isFasterThanRealtime() {
+		return this.isRunning;
+	}
+
+	@Override
+	public void handleEvent(Event event) {
+		if (!this.isEnabled() || !this.isRunning) {
+			return;
+		}
+		switch (event.getTopic()) {
+		case EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE:
+			this.collectKpis();
+			this.clock.leap(this.step, ChronoUnit.SECONDS);
+			this.cycles++;
+			if (this.cycles % this.cyclesPerInterval == 0) {
+				this.writeInterval();
+			}
+			if (this.cycles >= this.totalCycles) {
+				this.finish();
+			}
+			break;
+		}
+	}
+
+	private void collectKpis() {
+		for (int i = 0; i < this.channels.length; i++) {
+			Channel<?> channel = this.channels[i];
+			if (channel == null) {
+				channel = this.channels[i] = this.getChannel(this.addresses.get(i));
+				if (channel == null) {
+					continue;
+				}
+			}
+			Object value = channel.value().get();
+			if (value instanceof Number) {
+				this.intervalKpis[i].add(((Number) value).doubleValue(), this.step);
+			}
+		}
+	}
+
+	private Channel<?> getChannel(ChannelAddress address) {
+		for (OpenemsComponent component : this.components) {
+			if (component.id().equals(address.getComponentId())) {
+				try {
+					return component.channel(address.getChannelId());
+				} catch (IllegalArgumentException e) {
+					return null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the KPIs of the current interval and adds them to the totals.
+	 */
+	private void writeInterval() {
+		if (this.writer != null) {
+			StringBuilder b = new StringBuilder(this.clock.instant().toString());
+			for (Kpi kpi : this.intervalKpis) {
+				b.append(String.format(Locale.ROOT, ";%.1f;%.1f;%.1f;%.1f;%.1f", kpi.getAverage(), kpi.getMin(),
+						kpi.getMax(), kpi.getPositiveEnergy(), kpi.getNegativeEnergy()));
+			}
+			try {
+				this.writer.write(b.toString());
+				this.writer.newLine();
+			} catch (IOException e) {
+				this.logWarn(this.log, "Unable to write KPIs: " + e.getMessage());
+				this.closeWriter();
+			}
+		}
+		for (int i = 0; i < this.intervalKpis.length; i++) {
+			this.totalKpis[i].add(this.intervalKpis[i]);
+			this.intervalKpis[i].reset();
+		}
+	}
+
+	private void writeHeader() throws IOException {
+		StringBuilder b = new StringBuilder("Timestamp");
+		for (ChannelAddress address : this.addresses) {
+			b.append(";" + address + " avg;" + address + " min;" + address + " max;" + address + " +Wh;" + address
+					+ " -Wh");
+		}
+		this.writer.write(b.toString());
+		this.writer.newLine();
+	}
+
+	private void finish() {
+		this.isRunning = false;
+		if (this.cycles % this.cyclesPerInterval != 0) {
+			// incomplete last interval
+			this.writeInterval();
+		}
+		this.closeWriter();
+		long realMillis = Duration.ofNanos(System.nanoTime() - this.startedAt).toMillis();
+		this.logInfo(this.log, "Simulation finished at [" + this.clock.instant() + "] after [" + this.cycles
+				+ "] steps in [" + realMillis + "ms] real time ("
+				+ (realMillis == 0 ? "-" : this.cycles * this.step * 1000 / realMillis) + "x real time)");
+		for (int i = 0; i < this.addresses.size(); i++) {
+			this.logInfo(this.log, "KPI [" + this.addresses.get(i) + "]: " + this.totalKpis[i]);
+		}
+	}
+
+	private void closeWriter() {
+		if (this.writer != null) {
+			try {
+				this.writer.close();
+			} catch (IOException e) {
+				this.logWarn(this.log, "Unable to close KPI file: " + e.getMessage());
+			}
+			this.writer = null;
+		}
+	}
+
+	@Override
+	public String debugLog() {
+		if (!this.isRunning) {
+			return null;
+		}
+		return this.clock.instant() + " " + (this.cycles * 100 / Math.max(1, this.totalCycles)) + "%";
+	}
+}
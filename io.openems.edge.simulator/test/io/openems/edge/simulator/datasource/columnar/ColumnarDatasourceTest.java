@@ -0,0 +1,66 @@
+package io.openems.edge.simulator.datasource.columnar;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.test.AbstractComponentConfig;
+
+public class ColumnarDatasourceTest {
+
+	@SuppressWarnings("all")
+	private static class MyConfig extends AbstractComponentConfig implements Config {
+
+		public MyConfig() {
+			super(Config.class, "datasource0");
+		}
+
+		@Override
+		public boolean enabled() {
+			return false;
+		}
+
+		@Override
+		public String file() {
+			return "does-not-exist.csv";
+		}
+
+		@Override
+		public String start() {
+			return "2019-01-01T00:00:00Z";
+		}
+
+		@Override
+		public int resolution() {
+			return 60;
+		}
+
+		@Override
+		public float factor() {
+			return 1;
+		}
+
+		@Override
+		public boolean interpolate() {
+			return true;
+		}
+
+		@Override
+		public int timeDelta() {
+			return 1;
+		}
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		ColumnarDatasource datasource = new ColumnarDatasource();
+		// the profile is not loaded
+		datasource.activate(null, new MyConfig());
+
+		assertTrue(datasource.getKeys().isEmpty());
+		assertNull(datasource.getValue(OpenemsType.INTEGER, "ActivePower"));
+		datasource.deactivate();
+	}
+}
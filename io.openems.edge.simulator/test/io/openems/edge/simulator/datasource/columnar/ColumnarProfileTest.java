@@ -0,0 +1,112 @@
+package io.openems.edge.simulator.datasource.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openems.common.exceptions.OpenemsException;
+
+public class ColumnarProfileTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path writeCsv(String name, String... lines) throws IOException {
+		Path csv = this.folder.getRoot().toPath().resolve(name);
+		Files.write(csv, Arrays.asList(lines), StandardCharsets.UTF_8);
+		return csv;
+	}
+
+	@Test
+	public void testConvertWithTimestamp() throws Exception {
+		Path csv = this.writeCsv("profile.csv", //
+				"Timestamp,ActivePower,Soc", //
+				"2019-01-01T00:00:00Z,100,50", //
+				"2019-01-01T00:15:00Z,200,51", //
+				"2019-01-01T00:30:00Z,-100,52");
+
+		// the parameters are ignored for files with timestamps
+		ColumnarProfile profile = ColumnarProfile.openCsv(csv, 0, 60);
+		try {
+			assertEquals(Instant.parse("2019-01-01T00:00:00Z").getEpochSecond(), profile.getStart());
+			assertEquals(900, profile.getResolution());
+			assertEquals(3, profile.getRows());
+			assertArrayEquals(new String[] { "ActivePower", "Soc" }, profile.getKeys().toArray());
+			int power = profile.getColumn("ActivePower");
+			assertEquals(-1, profile.getColumn("Timestamp"));
+			assertEquals(200, profile.getValue(power, 1), 0);
+			assertEquals(52, profile.getValue(profile.getColumn("Soc"), 2), 0);
+
+			// halfway between the first two rows
+			long time = Instant.parse("2019-01-01T00:07:30Z").toEpochMilli();
+			double position = profile.getPosition(time);
+			assertEquals(0.5, position, 0.0001);
+			assertEquals(150, profile.getValue(power, position, true), 0.001);
+			assertEquals(100, profile.getValue(power, position, false), 0);
+
+			// the profile is repeated; the last row is interpolated with the first
+			time = Instant.parse("2019-01-01T00:37:30Z").toEpochMilli();
+			position = profile.getPosition(time);
+			assertEquals(2.5, position, 0.0001);
+			assertEquals(0, profile.getValue(power, position, true), 0.001);
+		} finally {
+			profile.release();
+		}
+
+		// no temporary files are left
+		File[] files = this.folder.getRoot().listFiles();
+		Arrays.sort(files);
+		assertEquals(2, files.length);
+		assertEquals("profile.col", files[0].getName());
+	}
+
+	@Test
+	public void testReconvertOnChangedParameters() throws Exception {
+		Path csv = this.writeCsv("values.csv", //
+				"ActivePower", //
+				"1", //
+				"2");
+
+		ColumnarProfile profile = ColumnarProfile.openCsv(csv, 1000, 60);
+		assertEquals(1000, profile.getStart());
+		assertEquals(60, profile.getResolution());
+		profile.release();
+
+		profile = ColumnarProfile.openCsv(csv, 2000, 900);
+		assertEquals(2000, profile.getStart());
+		assertEquals(900, profile.getResolution());
+		assertEquals(2, profile.getValue(profile.getColumn("ActivePower"), 1), 0);
+		profile.release();
+	}
+
+	@Test(expected = OpenemsException.class)
+	public void testMissingValue() throws Exception {
+		Path csv = this.writeCsv("invalid.csv", //
+				"ActivePower,Soc", //
+				"1,50", //
+				"2");
+		try {
+			ColumnarProfile.openCsv(csv, 0, 60);
+		} finally {
+			// neither the target nor a temporary file is written
+			assertEquals(1, this.folder.getRoot().listFiles().length);
+		}
+	}
+
+	@Test(expected = OpenemsException.class)
+	public void testInvalidFile() throws Exception {
+		Path file = this.writeCsv("invalid.col", "no columnar profile");
+		ColumnarProfile.open(file);
+	}
+}
@@ -0,0 +1,51 @@
+package io.openems.edge.simulator.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class KpiTest {
+
+	@Test
+	public void testAdd() {
+		Kpi kpi = new Kpi();
+		assertTrue(Double.isNaN(kpi.getAverage()));
+		assertTrue(Double.isNaN(kpi.getMin()));
+		assertTrue(Double.isNaN(kpi.getMax()));
+
+		// 1000 W and -2000 W for 30 minutes each
+		kpi.add(1000, 1800);
+		kpi.add(-2000, 1800);
+		assertEquals(-500, kpi.getAverage(), 0.001);
+		assertEquals(-2000, kpi.getMin(), 0.001);
+		assertEquals(1000, kpi.getMax(), 0.001);
+		assertEquals(500, kpi.getPositiveEnergy(), 0.001);
+		assertEquals(1000, kpi.getNegativeEnergy(), 0.001);
+	}
+
+	@Test
+	public void testAddKpi() {
+		Kpi interval = new Kpi();
+		Kpi total = new Kpi();
+
+		// an empty interval does not change the total
+		total.add(interval);
+		assertTrue(Double.isNaN(total.getMin()));
+
+		interval.add(100, 3600);
+		total.add(interval);
+		interval.reset();
+		assertTrue(Double.isNaN(interval.getAverage()));
+		assertEquals(0, interval.getPositiveEnergy(), 0);
+
+		interval.add(300, 3600);
+		interval.add(-100, 3600);
+		total.add(interval);
+		assertEquals(100, total.getAverage(), 0.001);
+		assertEquals(-100, total.getMin(), 0.001);
+		assertEquals(300, total.getMax(), 0.001);
+		assertEquals(400, total.getPositiveEnergy(), 0.001);
+		assertEquals(100, total.getNegativeEnergy(), 0.001);
+	}
+}
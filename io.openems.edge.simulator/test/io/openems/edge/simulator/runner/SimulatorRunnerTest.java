@@ -0,0 +1,141 @@
+package io.openems.edge.simulator.runner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+import org.osgi.service.event.Event;
+
+import io.openems.common.types.OpenemsType;
+import io.openems.edge.common.channel.IntegerReadChannel;
+import io.openems.edge.common.channel.doc.Doc;
+import io.openems.edge.common.component.AbstractOpenemsComponent;
+import io.openems.edge.common.event.EdgeEventConstants;
+import io.openems.edge.common.test.AbstractComponentConfig;
+
+public class SimulatorRunnerTest {
+
+	@SuppressWarnings("all")
+	private static class MyConfig extends AbstractComponentConfig implements Config {
+
+		private final String kpiFile;
+		private final boolean enabled;
+
+		public MyConfig(String kpiFile, boolean enabled) {
+			super(Config.class, "simulatorRunner0");
+			this.kpiFile = kpiFile;
+			this.enabled = enabled;
+		}
+
+		@Override
+		public boolean enabled() {
+			return this.enabled;
+		}
+
+		@Override
+		public String start() {
+			return "2019-01-01T00:00:00Z";
+		}
+
+		@Override
+		public int step() {
+			return 60;
+		}
+
+		@Override
+		public int duration() {
+			return 1;
+		}
+
+		@Override
+		public String[] kpiChannels() {
+			return new String[] { "meter0/ActivePower" };
+		}
+
+		@Override
+		public int kpiInterval() {
+			return 3600;
+		}
+
+		@Override
+		public String kpiFile() {
+			return this.kpiFile;
+		}
+	}
+
+	private enum TestChannelId implements io.openems.edge.common.channel.doc.ChannelId {
+		ACTIVE_POWER(new Doc().type(OpenemsType.INTEGER));
+
+		private final Doc doc;
+
+		private TestChannelId(Doc doc) {
+			this.doc = doc;
+		}
+
+		@Override
+		public Doc doc() {
+			return this.doc;
+		}
+	}
+
+	private static class DummyMeter extends AbstractOpenemsComponent {
+
+		private final IntegerReadChannel activePower = new IntegerReadChannel(this, TestChannelId.ACTIVE_POWER);
+
+		public DummyMeter(String id) {
+			this.addChannel(this.activePower);
+			super.activate(null, "", id, true);
+		}
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		SimulatorRunner runner = new SimulatorRunner();
+		runner.activate(null, new MyConfig("", false));
+		assertFalse(runner.isFasterThanRealtime());
+		// the system clock is provided
+		Instant before = Instant.now();
+		assertFalse(runner.getClock().instant().isBefore(before));
+		runner.deactivate();
+	}
+
+	@Test
+	public void testRun() throws Exception {
+		File file = File.createTempFile("kpi", ".csv");
+		file.deleteOnExit();
+		DummyMeter meter = new DummyMeter("meter0");
+		meter.activePower.setNextValue(1000);
+		meter.activePower.nextProcessImage();
+
+		SimulatorRunner runner = new SimulatorRunner();
+		runner.components.add(meter);
+		runner.activate(null, new MyConfig(file.getPath(), true));
+		assertTrue(runner.isFasterThanRealtime());
+
+		Event event = new Event(EdgeEventConstants.TOPIC_CYCLE_AFTER_WRITE, new HashMap<String, Object>());
+		for (int i = 0; i < 24 * 60; i++) {
+			runner.handleEvent(event);
+		}
+		assertFalse(runner.isFasterThanRealtime());
+		// after the simulation the system clock is provided again
+		assertTrue(runner.getClock().instant().isAfter(Instant.parse("2019-01-02T00:00:00Z")));
+
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(
+				"Timestamp;meter0/ActivePower avg;meter0/ActivePower min;meter0/ActivePower max;meter0/ActivePower +Wh;meter0/ActivePower -Wh",
+				lines.get(0));
+		// header and one line per hour
+		assertEquals(1 + 24, lines.size());
+		assertEquals("2019-01-01T01:00:00Z;1000.0;1000.0;1000.0;1000.0;0.0", lines.get(1));
+		assertTrue(lines.get(24).startsWith("2019-01-02T00:00:00Z;"));
+		runner.deactivate();
+	}
+}